@@ -17,11 +17,6 @@ import java.util.ArrayList;
 public class DReader
 {
 	/**
-	 * BufferedReader used when reading files.
-	 */
-    private static BufferedReader bufferedReader;
-    
-	/**
      * Reads a UTF-8 formatted text file
      *
      * @param inputFile Text File to read
@@ -30,8 +25,7 @@ public class DReader
     public static ArrayList<String> readFile(final File inputFile)
     {
         ArrayList<String> contents = new ArrayList<>();
-
-		bufferedReader = null;
+        BufferedReader bufferedReader = null;
         
         try
         {
@@ -40,6 +40,36 @@ public class DSettings
 	 */
 	private static final String UPDATE_INDEXES = "update_indexes"; //$NON-NLS-1$
 	
+	/**
+	 * INI variable for whether to load DVK folders in parallel using multiple threads.
+	 */
+	private static final String PARALLEL_LOADING = "parallel_loading"; //$NON-NLS-1$
+	
+	/**
+	 * INI variable for whether to filter DVKs in parallel using multiple threads.
+	 */
+	private static final String PARALLEL_FILTERING = "parallel_filtering"; //$NON-NLS-1$
+	
+	/**
+	 * INI variable for whether to load DVKs from a single memory-mapped catalog file when indexes are used without being updated.
+	 */
+	private static final String USE_CATALOG = "use_catalog"; //$NON-NLS-1$
+	
+	/**
+	 * INI variable for whether to watch loaded DVK directories for changes and update loaded DVKs in the background.
+	 */
+	private static final String WATCH_DIRECTORIES = "watch_directories"; //$NON-NLS-1$
+	
+	/**
+	 * INI variable for whether to load DVK descriptions and URLs from DVK files only when they are needed rather than keeping them in memory.
+	 */
+	private static final String LAZY_FIELDS = "lazy_fields"; //$NON-NLS-1$
+	
+	/**
+	 * INI variable for whether to keep a trigram index of DVK titles and descriptions for substring filtering.
+	 */
+	private static final String TRIGRAM_INDEX = "trigram_index"; //$NON-NLS-1$
+	
 	/**
 	 * INI variable for user's DVK directories
 	 */
@@ -212,6 +242,36 @@ public class DSettings
 	 */
 	private boolean updateIndexes;
 	
+	/**
+	 * Whether to load DVK folders in parallel using multiple threads.
+	 */
+	private boolean parallelLoading;
+	
+	/**
+	 * Whether to filter DVKs in parallel using multiple threads.
+	 */
+	private boolean parallelFiltering;
+	
+	/**
+	 * Whether to load DVKs from a single memory-mapped catalog file when indexes are used without being updated.
+	 */
+	private boolean useCatalog;
+	
+	/**
+	 * Whether to watch loaded DVK directories for changes and update loaded DVKs in the background.
+	 */
+	private boolean watchDirectories;
+	
+	/**
+	 * Whether to load DVK descriptions and URLs from DVK files only when they are needed rather than keeping them in memory.
+	 */
+	private boolean lazyFields;
+	
+	/**
+	 * Whether to keep a trigram index of DVK titles and descriptions for substring filtering.
+	 */
+	private boolean trigramIndex;
+	
 	/**
 	 * ArrayList containing the user's selected directories for storing and loading DVKs
 	 */
@@ -405,6 +465,12 @@ public class DSettings
 		//DVK
 		useIndexes = true;
 		updateIndexes = true;
+		parallelLoading = true;
+		parallelFiltering = true;
+		useCatalog = false;
+		watchDirectories = false;
+		lazyFields = false;
+		trigramIndex = false;
 		dvkDirectories = new ArrayList<>();
 		
 		//SWING
@@ -465,6 +531,12 @@ public class DSettings
 			dvkDirectories = ParseINI.getFileValues(null, DVK_DIRECTORY, settingsInfo, new ArrayList<File>());
 			useIndexes = ParseINI.getBooleanValue(null, USE_INDEXES, settingsInfo, useIndexes);
 			updateIndexes = ParseINI.getBooleanValue(null, UPDATE_INDEXES, settingsInfo, updateIndexes);
+			parallelLoading = ParseINI.getBooleanValue(null, PARALLEL_LOADING, settingsInfo, parallelLoading);
+			parallelFiltering = ParseINI.getBooleanValue(null, PARALLEL_FILTERING, settingsInfo, parallelFiltering);
+			useCatalog = ParseINI.getBooleanValue(null, USE_CATALOG, settingsInfo, useCatalog);
+			watchDirectories = ParseINI.getBooleanValue(null, WATCH_DIRECTORIES, settingsInfo, watchDirectories);
+			lazyFields = ParseINI.getBooleanValue(null, LAZY_FIELDS, settingsInfo, lazyFields);
+			trigramIndex = ParseINI.getBooleanValue(null, TRIGRAM_INDEX, settingsInfo, trigramIndex);
 			
 			//SWING
 			spaceMultiplier = ParseINI.getDoubleValue(null, SPACE_MULTIPLIER, settingsInfo, spaceMultiplier);
@@ -546,6 +618,12 @@ public class DSettings
 		}//FOR
 		settingsInfo.add(ParseINI.getAssignmentString(USE_INDEXES, useIndexes));
 		settingsInfo.add(ParseINI.getAssignmentString(UPDATE_INDEXES, updateIndexes));
+		settingsInfo.add(ParseINI.getAssignmentString(PARALLEL_LOADING, parallelLoading));
+		settingsInfo.add(ParseINI.getAssignmentString(PARALLEL_FILTERING, parallelFiltering));
+		settingsInfo.add(ParseINI.getAssignmentString(USE_CATALOG, useCatalog));
+		settingsInfo.add(ParseINI.getAssignmentString(WATCH_DIRECTORIES, watchDirectories));
+		settingsInfo.add(ParseINI.getAssignmentString(LAZY_FIELDS, lazyFields));
+		settingsInfo.add(ParseINI.getAssignmentString(TRIGRAM_INDEX, trigramIndex));
 		
 		
 		//DOWNLOAD
@@ -696,6 +774,138 @@ public class DSettings
 		
 	}//METHOD
 	
+	/**
+	 * Sets whether to load DVK folders in parallel using multiple threads.
+	 * 
+	 * @param parallelLoading parallelLoading
+	 */
+	public void setParallelLoading(final boolean parallelLoading)
+	{
+		this.parallelLoading = parallelLoading;
+		
+	}//METHOD
+	
+	/**
+	 * Returns whether to load DVK folders in parallel using multiple threads.
+	 * 
+	 * @return parallelLoading
+	 */
+	public boolean getParallelLoading()
+	{
+		return parallelLoading;
+		
+	}//METHOD
+	
+	/**
+	 * Sets whether to filter DVKs in parallel using multiple threads.
+	 * 
+	 * @param parallelFiltering parallelFiltering
+	 */
+	public void setParallelFiltering(final boolean parallelFiltering)
+	{
+		this.parallelFiltering = parallelFiltering;
+		
+	}//METHOD
+	
+	/**
+	 * Returns whether to filter DVKs in parallel using multiple threads.
+	 * 
+	 * @return parallelFiltering
+	 */
+	public boolean getParallelFiltering()
+	{
+		return parallelFiltering;
+		
+	}//METHOD
+	
+	/**
+	 * Sets whether to load DVKs from a single memory-mapped catalog file when indexes are used without being updated.
+	 * 
+	 * @param useCatalog useCatalog
+	 */
+	public void setUseCatalog(final boolean useCatalog)
+	{
+		this.useCatalog = useCatalog;
+		
+	}//METHOD
+	
+	/**
+	 * Returns whether to load DVKs from a single memory-mapped catalog file when indexes are used without being updated.
+	 * 
+	 * @return useCatalog
+	 */
+	public boolean getUseCatalog()
+	{
+		return useCatalog;
+		
+	}//METHOD
+	
+	/**
+	 * Sets whether to watch loaded DVK directories for changes and update loaded DVKs in the background.
+	 * 
+	 * @param watchDirectories watchDirectories
+	 */
+	public void setWatchDirectories(final boolean watchDirectories)
+	{
+		this.watchDirectories = watchDirectories;
+		
+	}//METHOD
+	
+	/**
+	 * Returns whether to watch loaded DVK directories for changes and update loaded DVKs in the background.
+	 * 
+	 * @return watchDirectories
+	 */
+	public boolean getWatchDirectories()
+	{
+		return watchDirectories;
+		
+	}//METHOD
+	
+	/**
+	 * Sets whether to load DVK descriptions and URLs from DVK files only when they are needed rather than keeping them in memory.
+	 * 
+	 * @param lazyFields lazyFields
+	 */
+	public void setLazyFields(final boolean lazyFields)
+	{
+		this.lazyFields = lazyFields;
+		
+	}//METHOD
+	
+	/**
+	 * Returns whether to load DVK descriptions and URLs from DVK files only when they are needed rather than keeping them in memory.
+	 * 
+	 * @return lazyFields
+	 */
+	public boolean getLazyFields()
+	{
+		return lazyFields;
+		
+	}//METHOD
+	
+	/**
+	 * Sets whether to keep a trigram index of DVK titles and descriptions for substring filtering.
+	 * 
+	 * @param trigramIndex trigramIndex
+	 */
+	public void setTrigramIndex(final boolean trigramIndex)
+	{
+		this.trigramIndex = trigramIndex;
+		
+	}//METHOD
+	
+	/**
+	 * Returns whether to keep a trigram index of DVK titles and descriptions for substring filtering.
+	 * 
+	 * @return trigramIndex
+	 */
+	public boolean getTrigramIndex()
+	{
+		return trigramIndex;
+		
+	}//METHOD
+	
 	/**
 	 * Sets the DVK directories.
 	 * 
@@ -16,11 +16,6 @@ import java.util.ArrayList;
  */
 public class DWriter 
 {
-	/**
-	 * Main bufferedWriter for writing data.
-	 */
-	private static BufferedWriter bufferedWriter;
-	
 	/**
 	 * Writes an ArrayList<String> to a text file.
 	 * 
@@ -43,7 +38,7 @@ public class DWriter
 		
 		if(writeFile)
 		{
-			bufferedWriter = null;
+			BufferedWriter bufferedWriter = null;
 			
 			try
 			{
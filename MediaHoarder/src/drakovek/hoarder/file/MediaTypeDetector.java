@@ -0,0 +1,400 @@
+package drakovek.hoarder.file;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.tika.Tika;
+
+/**
+ * Contains methods for detecting the media type of files, shared between threads.<br/>
+ * Common media formats are recognized from a small header read, with Tika only used for content that isn't recognized.
+ * Results are cached by file and checked against the file's size and modification time. Files are identified by their file key where the platform has one, so results remain cached after a file is renamed.
+ * 
+ * @author Drakovek
+ * @version 2.0
+ */
+public class MediaTypeDetector
+{
+	/**
+	 * Number of bytes read from the start of a file to recognize its type
+	 */
+	private static final int HEADER_LENGTH = 64;
+	
+	/**
+	 * Maximum number of results held in the detection cache
+	 */
+	private static final int CACHE_SIZE = 4096;
+	
+	/**
+	 * Brands of ISO base media files recognized as MP4 video
+	 */
+	private static final String[] MP4_BRANDS = {"isom", "iso2", "mp41", "mp42", "avc1", "dash", "mmp4", "MSNV"}; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$
+	
+	/**
+	 * Shared Tika object used for content that isn't recognized from its header, null until first needed
+	 */
+	private static Tika tika = null;
+	
+	/**
+	 * Cache of detected media types
+	 */
+	private static final DetectionCache cache = new DetectionCache();
+	
+	/**
+	 * Returns the media type of a given file.
+	 * 
+	 * @param file Given File
+	 * @return Media type (Example: image/png), null if the file couldn't be read
+	 */
+	public static String detect(final File file)
+	{
+		if(file == null)
+		{
+			return null;
+			
+		}//IF
+		
+		BasicFileAttributes attributes;
+		try
+		{
+			attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+			
+		}//TRY
+		catch(IOException e)
+		{
+			return null;
+			
+		}//CATCH
+		
+		Object key = attributes.fileKey();
+		if(key == null)
+		{
+			key = file.getAbsolutePath();
+			
+		}//IF
+		
+		long size = attributes.size();
+		long modified = attributes.lastModifiedTime().toMillis();
+		synchronized(cache)
+		{
+			Detection detection = cache.get(key);
+			if(detection != null && detection.size == size && detection.modified == modified)
+			{
+				return detection.type;
+				
+			}//IF
+			
+		}//SYNCHRONIZED
+		
+		String type = getHeaderType(readHeader(file));
+		if(type == null)
+		{
+			try
+			{
+				type = getTika().detect(file);
+				
+			}//TRY
+			catch(IOException e)
+			{
+				return null;
+				
+			}//CATCH
+			
+		}//IF
+		
+		synchronized(cache)
+		{
+			cache.put(key, new Detection(size, modified, type));
+			
+		}//SYNCHRONIZED
+		
+		return type;
+		
+	}//METHOD
+	
+	/**
+	 * Returns the shared Tika object, creating it if necessary.
+	 * 
+	 * @return Tika object
+	 */
+	private static synchronized Tika getTika()
+	{
+		if(tika == null)
+		{
+			tika = new Tika();
+			
+		}//IF
+		
+		return tika;
+		
+	}//METHOD
+	
+	/**
+	 * Reads the first bytes of a file.
+	 * 
+	 * @param file Given File
+	 * @return Header bytes, empty if the file couldn't be read
+	 */
+	private static byte[] readHeader(final File file)
+	{
+		byte[] header = new byte[HEADER_LENGTH];
+		int length = 0;
+		try(FileInputStream inputStream = new FileInputStream(file))
+		{
+			int read = 0;
+			while(length < header.length && (read = inputStream.read(header, length, header.length - length)) != -1)
+			{
+				length += read;
+				
+			}//WHILE
+			
+		}//TRY
+		catch(IOException e)
+		{
+			length = 0;
+			
+		}//CATCH
+		
+		byte[] trimmed = new byte[length];
+		System.arraycopy(header, 0, trimmed, 0, length);
+		return trimmed;
+		
+	}//METHOD
+	
+	/**
+	 * Returns the media type of a file recognized from its first bytes.<br/>
+	 * Only formats with unambiguous signatures are recognized. Text, container and office formats are left to Tika.
+	 * 
+	 * @param header First bytes of the file
+	 * @return Media type, null if not recognized
+	 */
+	private static String getHeaderType(final byte[] header)
+	{
+		//IMAGES
+		if(startsWith(header, 0, new int[]{0xFF, 0xD8, 0xFF}))
+		{
+			return "image/jpeg"; //$NON-NLS-1$
+			
+		}//IF
+		
+		if(startsWith(header, 0, new int[]{0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A}))
+		{
+			return "image/png"; //$NON-NLS-1$
+			
+		}//IF
+		
+		if(startsWith(header, 0, "GIF87a") || startsWith(header, 0, "GIF89a")) //$NON-NLS-1$ //$NON-NLS-2$
+		{
+			return "image/gif"; //$NON-NLS-1$
+			
+		}//IF
+		
+		if(startsWith(header, 0, "8BPS")) //$NON-NLS-1$
+		{
+			return "image/vnd.adobe.photoshop"; //$NON-NLS-1$
+			
+		}//IF
+		
+		//DOCUMENTS
+		if(startsWith(header, 0, "%PDF-")) //$NON-NLS-1$
+		{
+			return "application/pdf"; //$NON-NLS-1$
+			
+		}//IF
+		
+		if(startsWith(header, 0, "{\\rtf")) //$NON-NLS-1$
+		{
+			return "application/rtf"; //$NON-NLS-1$
+			
+		}//IF
+		
+		if(startsWith(header, 0, "FWS") || startsWith(header, 0, "CWS") || startsWith(header, 0, "ZWS")) //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		{
+			return "application/x-shockwave-flash"; //$NON-NLS-1$
+			
+		}//IF
+		
+		//VIDEO
+		if(startsWith(header, 4, "ftyp")) //$NON-NLS-1$
+		{
+			if(startsWith(header, 8, "qt  ")) //$NON-NLS-1$
+			{
+				return "video/quicktime"; //$NON-NLS-1$
+				
+			}//IF
+			
+			for(String brand: MP4_BRANDS)
+			{
+				if(startsWith(header, 8, brand))
+				{
+					return "video/mp4"; //$NON-NLS-1$
+					
+				}//IF
+				
+			}//FOR
+			
+			return null;
+			
+		}//IF
+		
+		if(startsWith(header, 0, "RIFF") && startsWith(header, 8, "AVI ")) //$NON-NLS-1$ //$NON-NLS-2$
+		{
+			return "video/x-msvideo"; //$NON-NLS-1$
+			
+		}//IF
+		
+		if(startsWith(header, 0, new int[]{0x1A, 0x45, 0xDF, 0xA3}) && new String(header, StandardCharsets.ISO_8859_1).contains("webm")) //$NON-NLS-1$
+		{
+			return "video/webm"; //$NON-NLS-1$
+			
+		}//IF
+		
+		//AUDIO
+		if(startsWith(header, 0, "ID3")) //$NON-NLS-1$
+		{
+			return "audio/mpeg"; //$NON-NLS-1$
+			
+		}//IF
+		
+		return null;
+		
+	}//METHOD
+	
+	/**
+	 * Returns whether bytes at a given offset match a given ASCII signature.
+	 * 
+	 * @param header Bytes to check
+	 * @param offset Offset at which to check
+	 * @param signature ASCII Signature
+	 * @return Whether the bytes match the signature
+	 */
+	private static boolean startsWith(final byte[] header, final int offset, final String signature)
+	{
+		if(header.length < offset + signature.length())
+		{
+			return false;
+			
+		}//IF
+		
+		for(int i = 0; i < signature.length(); i++)
+		{
+			if(header[offset + i] != (byte)signature.charAt(i))
+			{
+				return false;
+				
+			}//IF
+			
+		}//FOR
+		
+		return true;
+		
+	}//METHOD
+	
+	/**
+	 * Returns whether bytes at a given offset match a given byte signature.
+	 * 
+	 * @param header Bytes to check
+	 * @param offset Offset at which to check
+	 * @param signature Signature, with each value being an unsigned byte
+	 * @return Whether the bytes match the signature
+	 */
+	private static boolean startsWith(final byte[] header, final int offset, final int[] signature)
+	{
+		if(header.length < offset + signature.length)
+		{
+			return false;
+			
+		}//IF
+		
+		for(int i = 0; i < signature.length; i++)
+		{
+			if(header[offset + i] != (byte)signature[i])
+			{
+				return false;
+				
+			}//IF
+			
+		}//FOR
+		
+		return true;
+		
+	}//METHOD
+	
+	/**
+	 * Media type detected for a file, along with the file attributes it was detected for.
+	 * 
+	 * @author Drakovek
+	 * @version 2.0
+	 */
+	private static class Detection
+	{
+		/**
+		 * Size of the file when its type was detected
+		 */
+		private final long size;
+		
+		/**
+		 * Modification time of the file when its type was detected
+		 */
+		private final long modified;
+		
+		/**
+		 * Detected media type
+		 */
+		private final String type;
+		
+		/**
+		 * Initializes the Detection class.
+		 * 
+		 * @param size Size of the file
+		 * @param modified Modification time of the file
+		 * @param type Detected media type
+		 */
+		public Detection(final long size, final long modified, final String type)
+		{
+			this.size = size;
+			this.modified = modified;
+			this.type = type;
+			
+		}//CONSTRUCTOR
+		
+	}//CLASS
+	
+	/**
+	 * Least recently used cache of detected media types, keyed by file key or path.
+	 * 
+	 * @author Drakovek
+	 * @version 2.0
+	 */
+	private static class DetectionCache extends LinkedHashMap<Object, Detection>
+	{
+		/**
+		 * SerialVersionUID
+		 */
+		private static final long serialVersionUID = 3527195837420906113L;
+		
+		/**
+		 * Initializes the DetectionCache class.
+		 */
+		public DetectionCache()
+		{
+			super(CACHE_SIZE * 2, 0.75f, true);
+			
+		}//CONSTRUCTOR
+		
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Object, Detection> eldest)
+		{
+			return size() > CACHE_SIZE;
+			
+		}//METHOD
+		
+	}//CLASS
+	
+}//CLASS
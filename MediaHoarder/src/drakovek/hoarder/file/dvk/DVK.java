@@ -5,13 +5,8 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.util.ArrayList;
 
-import org.apache.tika.Tika;
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
-
-import drakovek.hoarder.file.DReader;
 import drakovek.hoarder.file.DWriter;
+import drakovek.hoarder.file.MediaTypeDetector;
 import drakovek.hoarder.processing.ExtensionMethods;
 import drakovek.hoarder.processing.StringMethods;
 
@@ -179,131 +174,73 @@ public class DVK
 		clearDVK();
 		if(dvkFile != null && dvkFile.getAbsolutePath().endsWith(DVK_EXTENSION))
 		{
-			StringBuilder dvkString = new StringBuilder();
-			ArrayList<String> json = DReader.readFile(dvkFile);
-			for(int i = 0; i < json.size(); i++)
+			DvkParser parser = DvkParser.getParser();
+			if(!parser.parse(dvkFile) || parser.getID() == null || parser.getFileType() == null)
 			{
-				dvkString.append(json.get(i));
-				
-			}//FOR
+				return;
 				
-			JSONObject dvk = new JSONObject(dvkString.toString());
-			try
+			}//IF
+			
+			setID(parser.getID());
+			//IF ID TAG EXISTS AND IS PROPER DVK FILE
+			if(getID() != null && getID().length() > 0 && parser.getFileType().equals("dvk")) //$NON-NLS-1$
 			{
-				setID(dvk.getString("id")); //$NON-NLS-1$
-				//IF ID TAG EXISTS AND IS PROPER DVK FILE
-				if(getID() != null && getID().length() > 0 && dvk.getString("file_type").equals("dvk"))  //$NON-NLS-1$//$NON-NLS-2$
+				//REQUIRED VALUES
+				if(!parser.hasInfo() || !parser.hasArtists() || !parser.hasWeb() || parser.getPageURL() == null || !parser.hasFile() || parser.getMediaFile() == null)
 				{
-					JSONObject info = dvk.getJSONObject("info"); //$NON-NLS-1$
-					//INFO
-					try
-					{
-						setTitle(info.getString("title")); //$NON-NLS-1$
-					}//TRY
-					catch(JSONException e)
-					{
-						setTitle(""); //$NON-NLS-1$
-						
-					}//CATCH
-					
-					JSONArray jsonArray = info.getJSONArray("artists"); //$NON-NLS-1$
-					ArrayList<String> artistList = new ArrayList<>();
-					for(int i = 0; i < jsonArray.length(); i++)
-					{
-						artistList.add(jsonArray.getString(i));
-						
-					}//FOR
-					setArtists(artistList);
-					
-					try
-					{
-						setTime(info.getString("time")); //$NON-NLS-1$
-						
-					}//TRY
-					catch(JSONException e)
-					{
-						setTime(0L);
-						
-					}//CATCH
-					
-					try
-					{
-						jsonArray = info.getJSONArray("web_tags"); //$NON-NLS-1$
-						ArrayList<String> tags = new ArrayList<>();
-						for(int i = 0; i < jsonArray.length(); i++)
-						{
-							tags.add(jsonArray.getString(i));
-						
-						}//FOR
-						setWebTags(tags);
-					}//TRY
-					catch(JSONException e)
-					{
-						setWebTags(null);
-						
-					}//CATCH
-					
-					try
-					{
-						setDescription(info.getString("description")); //$NON-NLS-1$
-						
-					}//TRY
-					catch(JSONException e)
-					{
-						setDescription(null);
-						
-					}//CATCH
+					clearDVK();
+					return;
 					
-					//WEB
-					JSONObject web = dvk.getJSONObject("web"); //$NON-NLS-1$
-					setPageURL(web.getString("page_url")); //$NON-NLS-1$
-					
-					try
-					{
-						setDirectURL(web.getString("direct_url")); //$NON-NLS-1$
-						
-					}//TRY
-					catch(JSONException e)
-					{
-						setDirectURL(null);
-						
-					}//CATCH
-					
-					try
-					{
-						setSecondaryURL(web.getString("secondary_url")); //$NON-NLS-1$
+				}//IF
+				
+				//INFO
+				if(parser.getTitle() != null)
+				{
+					setTitle(parser.getTitle());
 					
-					}//TRY
-					catch(JSONException e)
-					{
-						setSecondaryURL(null);
-						
-					}//CATCH
+				}//IF
+				else
+				{
+					setTitle(new String());
 					
-					//FILE
-					JSONObject file = dvk.getJSONObject("file"); //$NON-NLS-1$
-					setMediaFile(file.getString("media_file")); //$NON-NLS-1$
+				}//ELSE
+				
+				setArtists(new ArrayList<>(parser.getArtists()));
+				
+				if(parser.getTime() != null)
+				{
+					setTime(parser.getTime());
 					
-					try
-					{
-						setSecondaryFile(file.getString("secondary_file"));	 //$NON-NLS-1$
-						
-					}//TRY
-					catch(JSONException e)
-					{
-						secondaryFile = null;
-						
-					}//CATCH
+				}//IF
+				else
+				{
+					setTime(0L);
 					
+				}//ELSE
+				
+				if(parser.hasWebTags())
+				{
+					setWebTags(new ArrayList<>(parser.getWebTags()));
 					
 				}//IF
+				else
+				{
+					setWebTags(null);
+					
+				}//ELSE
 				
-			}//TRY
-			catch(JSONException e)
-			{
-				clearDVK();
+				setDescription(parser.getDescription());
 				
-			}//CATCH
+				//WEB
+				setPageURL(parser.getPageURL());
+				setDirectURL(parser.getDirectURL());
+				setSecondaryURL(parser.getSecondaryURL());
+				
+				//FILE
+				setMediaFile(parser.getMediaFile());
+				setSecondaryFile(parser.getSecondaryFile());
+				
+			}//IF
 			
 		}//IF
 		
@@ -327,130 +264,50 @@ public class DVK
 	 * @return Whether the file was successfully written
 	 */
 	public boolean writeDVK(final boolean checkFileType)
+	{
+		return writeDVK(checkFileType, null);
+		
+	}//METHOD
+	
+	/**
+	 * Writes a DVK file to dvkFile, replacing any existing file atomically.
+	 *
+	 * @param checkFileType Whether to check the file file type of linked media files and change extensions accordingly if necessary
+	 * @param writer DvkWriter batch to write the DVK file as part of, syncing the DVK file's directory when the batch is finished. If null, the directory is synced immediately.
+	 * @return Whether the file was successfully written
+	 */
+	public boolean writeDVK(final boolean checkFileType, DvkWriter writer)
 	{
 		if(isValidWrite())
 		{
-			JSONObject dvk = new JSONObject();
-			dvk.put("file_type", "dvk"); //$NON-NLS-1$ //$NON-NLS-2$
-			dvk.put("id", getID()); //$NON-NLS-1$
-			
-			//INFO
-			JSONObject info = new JSONObject();
-			
-			if(title != null)
+			//WRITE TO FILE
+			boolean written;
+			if(writer == null)
 			{
-				info.put("title", getTitle()); //$NON-NLS-1$
-			
+				written = DvkWriter.writeDVK(this);
+				
 			}//IF
 			else
 			{
-				info.put("title", ""); //$NON-NLS-1$ //$NON-NLS-2$
+				written = writer.write(this);
 				
 			}//ELSE
 			
-			if(getArtists() != null && getArtists().length > 0)
-			{
-				info.put("artists", new JSONArray(getArtists())); //$NON-NLS-1$
-				
-			}//IF
-			
-			if(getTime() != 0L)
-			{
-				info.put("time", getTimeString()); //$NON-NLS-1$
-				
-			}//IF
-			
-			if(getWebTags() != null && getWebTags().length > 0)
-			{
-				info.put("web_tags", new JSONArray(getWebTags())); //$NON-NLS-1$
-				
-			}//IF
-			
-			if(getDescription() != null && getDescription().length() > 0)
-			{
-				info.put("description", getDescription()); //$NON-NLS-1$
-				
-			}//IF
-			
-			dvk.put("info", info); //$NON-NLS-1$
-			JSONObject web = new JSONObject();
-			
-			//WEB
-			if(getPageURL() != null && getPageURL().length() > 0)
-			{
-				web.put("page_url", getPageURL()); //$NON-NLS-1$
-				
-			}//IF
-			
-			if(getDirectURL() != null && getDirectURL().length() > 0)
-			{
-				web.put("direct_url", getDirectURL()); //$NON-NLS-1$
-				
-			}//IF
-			
-			if(getSecondaryURL() != null && getSecondaryURL().length() > 0)
-			{
-				web.put("secondary_url", getSecondaryURL()); //$NON-NLS-1$
-				
-			}//IF
-			
-			dvk.put("web", web); //$NON-NLS-1$
-			
-			//FILE
-			JSONObject file = new JSONObject();
-			file.put("media_file", getMediaFile().getName()); //$NON-NLS-1$
-			
-			if(getSecondaryFile() != null)
-			{
-				file.put("secondary_file", getSecondaryFile().getName()); //$NON-NLS-1$
-			
-			}//IF
-			
-			dvk.put("file", file); //$NON-NLS-1$
-			
-			//WRITE TO FILE
-			DWriter.writeToFile(dvkFile, dvk.toString());
-			if(dvkFile.exists())
+			if(written)
 			{	
 				if(checkFileType)
 				{
-					Tika tika = new Tika();
-					String extension = ExtensionMethods.getExtension(getMediaFile());
-					String secondaryExtension = ExtensionMethods.getExtension(getSecondaryFile());
+					String extension = getTypeExtension(getMediaFile());
+					String secondaryExtension = getTypeExtension(getSecondaryFile());
 					
-					try
+					//ONLY RENAME IF FILE NAMES NEED TO CHANGE
+					String filename = ExtensionMethods.removeExtension(getDvkFile());
+					File currentFolder = getDvkFile().getAbsoluteFile().getParentFile();
+					if(!isNamed(getMediaFile(), currentFolder, filename + extension) || (getSecondaryFile() != null && !isNamed(getSecondaryFile(), currentFolder, filename + secondaryExtension)))
 					{
-						String response = tika.detect(getMediaFile());
-						for(int i = 0; i < FILE_TYPES.length; i++)
-						{
-							if(FILE_TYPES[i][0].equals(response))
-							{
-								extension = FILE_TYPES[i][1];
-								break;
-								
-							}//IF
-							
-						}//FOR
-						
-						if(getSecondaryFile() != null)
-						{
-							response = tika.detect(getSecondaryFile());
-							for(int i = 0; i < FILE_TYPES.length; i++)
-							{
-								if(FILE_TYPES[i][0].equals(response))
-								{
-									secondaryExtension = FILE_TYPES[i][1];
-									break;
-									
-								}//IF
-								
-							}//FOR
-							
-						}//IF
+						rename(filename, extension, secondaryExtension, writer);
 						
-					}catch (IOException e){}
-					
-					rename(ExtensionMethods.removeExtension(getDvkFile()), extension, secondaryExtension);
+					}//IF
 					
 				}//IF
 				
@@ -464,6 +321,49 @@ public class DVK
 		
 	}//METHOD
 	
+	/**
+	 * Returns the extension matching the detected media type of a given file, or the file's current extension if the type isn't in FILE_TYPES.
+	 * 
+	 * @param file Given File
+	 * @return File Extension, empty if the file is null
+	 */
+	private static String getTypeExtension(final File file)
+	{
+		String extension = ExtensionMethods.getExtension(file);
+		if(file != null)
+		{
+			String type = MediaTypeDetector.detect(file);
+			for(int i = 0; i < FILE_TYPES.length; i++)
+			{
+				if(FILE_TYPES[i][0].equals(type))
+				{
+					extension = FILE_TYPES[i][1];
+					break;
+					
+				}//IF
+				
+			}//FOR
+			
+		}//IF
+		
+		return extension;
+		
+	}//METHOD
+	
+	/**
+	 * Returns whether a given file is in a given folder with a given name.
+	 * 
+	 * @param file Given File
+	 * @param folder Given Folder
+	 * @param name Given Name
+	 * @return Whether the file has the given folder and name
+	 */
+	private static boolean isNamed(final File file, final File folder, final String name)
+	{
+		return file.getName().equals(name) && folder.equals(file.getAbsoluteFile().getParentFile());
+		
+	}//METHOD
+	
 	/**
 	 * Checks if the current state of the DVK object can be written to make a valid DVK. Must have a valid name for a file, and a non-empty ID and media file.
 	 *
@@ -522,6 +422,20 @@ public class DVK
 	 * @param secondaryExtension Extension to use for the secondary media file. If null, uses the secondary media file's current extension.
 	 */
 	public void rename(final String filename, final String mediaExtension, final String secondaryExtension)
+	{
+		rename(filename, mediaExtension, secondaryExtension, null);
+		
+	}//METHOD
+	
+	/**
+	 * Renames the DVK and its linked media.
+	 * 
+	 * @param filename Main Filename Body
+	 * @param mediaExtension Extension to use for the media file. If null, uses the media file's current extension.
+	 * @param secondaryExtension Extension to use for the secondary media file. If null, uses the secondary media file's current extension.
+	 * @param writer DvkWriter batch to write the renamed DVK file as part of, null to write it on its own
+	 */
+	public void rename(final String filename, final String mediaExtension, final String secondaryExtension, DvkWriter writer)
 	{
 		if(isValidWrite())
 		{
@@ -559,9 +473,14 @@ public class DVK
 				
 				if(outFile.exists())
 				{
-					getDvkFile().delete();
+					//CASE INSENSITIVE FILE SYSTEMS MAY RESOLVE BOTH NAMES TO THE SAME FILE, WHICH MUST NOT BE DELETED
+					File oldFile = getDvkFile();
 					setDvkFile(new File(currentFolder, filename + DVK_EXTENSION));
-					writeDVK(false);
+					if(writeDVK(false, writer) && oldFile.exists() && !Files.isSameFile(oldFile.toPath(), getDvkFile().toPath()))
+					{
+						oldFile.delete();
+						
+					}//IF
 					
 				}//IF
 				
@@ -0,0 +1,989 @@
+package drakovek.hoarder.file.dvk;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.zip.CRC32;
+
+import drakovek.hoarder.file.DSettings;
+
+/**
+ * Contains methods for reading and writing the DVK catalog, a single file holding the DVK information for every loaded directory.<br/>
+ * The catalog is memory-mapped when opened, so DVK information is only read from disk for the rows actually accessed.
+ * It is made up of a header holding the length of the file and the offset of every segment, a segment with the directories the catalog was loaded from, the directory table, the dictionary table, and a segment for each DVK column.
+ * Column segments hold either fixed-width primitives, or an offset for every row followed by the length-prefixed values.<br/>
+ * Only the header is checked against a checksum, as checking the whole file would defeat the purpose of mapping it. Instead, the file length and the fixed-width part of each column are checked against the header, and the catalog is written to a temporary file that is moved into place once complete.
+ * 
+ * @author Drakovek
+ * @version 2.0
+ */
+public class DvkCatalog
+{
+	/**
+	 * Name of the catalog file within the data folder
+	 */
+	private static final String CATALOG_FILE = "catalog.dvkc"; //$NON-NLS-1$
+	
+	/**
+	 * Extension added to the name of the catalog file to get the name of its temporary file
+	 */
+	private static final String TEMP_EXTENSION = ".tmp"; //$NON-NLS-1$
+	
+	/**
+	 * Magic number identifying a catalog file ("DVKC")
+	 */
+	private static final int MAGIC = 0x44564B43;
+	
+	/**
+	 * Current version of the catalog file format
+	 */
+	private static final int FORMAT_VERSION = 2;
+	
+	/**
+	 * Offset used to represent a null value in columns of variable-width values
+	 */
+	private static final int NULL_OFFSET = -1;
+	
+	/**
+	 * Segment containing the directories the catalog was loaded from
+	 */
+	private static final int ROOTS = 0;
+	
+	/**
+	 * Segment containing the directory table
+	 */
+	private static final int DIRECTORY_TABLE = 1;
+	
+	/**
+	 * Segment containing the dictionary table
+	 */
+	private static final int DICTIONARY_TABLE = 2;
+	
+	/**
+	 * Segment containing the directory table index of each DVK File
+	 */
+	private static final int DVK_DIRECTORIES = 3;
+	
+	/**
+	 * Segment containing the DVK File names
+	 */
+	private static final int DVK_NAMES = 4;
+	
+	/**
+	 * Segment containing the DVK IDs
+	 */
+	private static final int IDS = 5;
+	
+	/**
+	 * Segment containing the DVK Titles
+	 */
+	private static final int TITLES = 6;
+	
+	/**
+	 * Segment containing the DVK Artists as dictionary indexes
+	 */
+	private static final int ARTISTS = 7;
+	
+	/**
+	 * Segment containing the DVK Times
+	 */
+	private static final int TIMES = 8;
+	
+	/**
+	 * Segment containing the DVK Web Tags as dictionary indexes
+	 */
+	private static final int WEB_TAGS = 9;
+	
+	/**
+	 * Segment containing the DVK Descriptions
+	 */
+	private static final int DESCRIPTIONS = 10;
+	
+	/**
+	 * Segment containing the DVK Page URLs
+	 */
+	private static final int PAGE_URLS = 11;
+	
+	/**
+	 * Segment containing the DVK Direct URLs
+	 */
+	private static final int DIRECT_URLS = 12;
+	
+	/**
+	 * Segment containing the DVK Secondary URLs
+	 */
+	private static final int SECONDARY_URLS = 13;
+	
+	/**
+	 * Segment containing the Media File names
+	 */
+	private static final int MEDIA_NAMES = 14;
+	
+	/**
+	 * Segment containing the Secondary Media File names
+	 */
+	private static final int SECONDARY_NAMES = 15;
+	
+	/**
+	 * Number of segments in the catalog
+	 */
+	private static final int SEGMENT_COUNT = 16;
+	
+	/**
+	 * Length of the catalog header in bytes, not including the header checksum
+	 */
+	private static final int HEADER_CHECK_LENGTH = 24 + (SEGMENT_COUNT * 8);
+	
+	/**
+	 * Length of the catalog header in bytes
+	 */
+	private static final int HEADER_LENGTH = HEADER_CHECK_LENGTH + 4;
+	
+	/**
+	 * Memory-mapped contents of the catalog file
+	 */
+	private MappedByteBuffer buffer;
+	
+	/**
+	 * Number of DVKs in the catalog
+	 */
+	private int size;
+	
+	/**
+	 * Start position of each segment within the buffer
+	 */
+	private int[] segments;
+	
+	/**
+	 * Directory table read from the catalog
+	 */
+	private ArrayList<File> directories;
+	
+	/**
+	 * Dictionary table read from the catalog
+	 */
+	private ArrayList<String> dictionary;
+	
+	/**
+	 * Initializes the DvkCatalog class.
+	 * 
+	 * @param buffer Memory-mapped contents of the catalog file
+	 * @param size Number of DVKs in the catalog
+	 * @param segments Start position of each segment within the buffer
+	 */
+	private DvkCatalog(MappedByteBuffer buffer, final int size, final int[] segments)
+	{
+		this.buffer = buffer;
+		this.size = size;
+		this.segments = segments;
+		
+		ArrayList<String> directoryPaths = readTable(DIRECTORY_TABLE);
+		directories = new ArrayList<>();
+		for(String directoryPath: directoryPaths)
+		{
+			if(directoryPath == null)
+			{
+				directories.add(null);
+				
+			}//IF
+			else
+			{
+				directories.add(new File(directoryPath));
+				
+			}//ELSE
+			
+		}//FOR
+		
+		dictionary = readTable(DICTIONARY_TABLE);
+		
+	}//CONSTRUCTOR
+	
+	/**
+	 * Returns the catalog file in the program's data folder.
+	 * 
+	 * @return Catalog File, null if there is no data folder
+	 */
+	static File getCatalogFile()
+	{
+		File dataFolder = new DSettings().getDataFolder();
+		if(dataFolder == null || !dataFolder.isDirectory())
+		{
+			return null;
+			
+		}//IF
+		
+		return new File(dataFolder, CATALOG_FILE);
+		
+	}//METHOD
+	
+	/**
+	 * Deletes the catalog file so it will be rebuilt the next time DVKs are fully loaded.
+	 */
+	public static void deleteCatalog()
+	{
+		File catalogFile = getCatalogFile();
+		if(catalogFile != null && catalogFile.exists())
+		{
+			catalogFile.delete();
+			
+		}//IF
+		
+		TrigramIndex.deleteIndex();
+		
+	}//METHOD
+	
+	/**
+	 * Returns the paths stored in the catalog to identify the directories it was loaded from.
+	 * 
+	 * @param dvkDirectories Directories the DVKs were loaded from
+	 * @return Directory Paths
+	 */
+	private static ArrayList<String> getRootPaths(final ArrayList<File> dvkDirectories)
+	{
+		ArrayList<String> rootPaths = new ArrayList<>();
+		for(File dvkDirectory: dvkDirectories)
+		{
+			rootPaths.add(dvkDirectory.getAbsolutePath());
+			
+		}//FOR
+		
+		return rootPaths;
+		
+	}//METHOD
+	
+	/**
+	 * Opens the catalog file by memory-mapping it, if it exists and was written for the given directories.
+	 * 
+	 * @param dvkDirectories Directories the DVKs are being loaded from
+	 * @return DvkCatalog, null if there is no valid catalog for the given directories
+	 */
+	public static DvkCatalog openCatalog(final ArrayList<File> dvkDirectories)
+	{
+		File catalogFile = getCatalogFile();
+		if(catalogFile == null || !catalogFile.isFile())
+		{
+			return null;
+			
+		}//IF
+		
+		MappedByteBuffer buffer;
+		FileInputStream inputStream = null;
+		
+		try
+		{
+			inputStream = new FileInputStream(catalogFile);
+			FileChannel channel = inputStream.getChannel();
+			if(channel.size() < HEADER_LENGTH || channel.size() > Integer.MAX_VALUE)
+			{
+				return null;
+				
+			}//IF
+			
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			
+		}//TRY
+		catch(IOException e)
+		{
+			System.out.println("Failed mapping catalog file - DvkCatalog.openCatalog"); //$NON-NLS-1$
+			return null;
+			
+		}//CATCH
+		finally
+		{
+			try
+			{
+				if(inputStream != null)
+				{
+					inputStream.close();
+					
+				}//IF
+				
+			}//TRY
+			catch(IOException e){}
+			
+		}//FINALLY
+		
+		//HEADER
+		byte[] header = new byte[HEADER_CHECK_LENGTH];
+		for(int i = 0; i < header.length; i++)
+		{
+			header[i] = buffer.get(i);
+			
+		}//FOR
+		
+		if(buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION || getChecksum(header) != buffer.getInt(HEADER_CHECK_LENGTH))
+		{
+			System.out.println("Invalid catalog file - DvkCatalog.openCatalog"); //$NON-NLS-1$
+			return null;
+			
+		}//IF
+		
+		//A CATALOG CUT SHORT OR WITH COLUMNS TOO SHORT FOR ITS ROWS IS REBUILT RATHER THAN READ
+		int size = buffer.getInt(8);
+		if(size < 0 || buffer.getLong(16) != buffer.capacity())
+		{
+			System.out.println("Invalid catalog file - DvkCatalog.openCatalog"); //$NON-NLS-1$
+			return null;
+			
+		}//IF
+		
+		int[] segments = new int[SEGMENT_COUNT];
+		for(int i = 0; i < SEGMENT_COUNT; i++)
+		{
+			long segment = buffer.getLong(24 + (i * 8));
+			if(segment < HEADER_LENGTH || segment + getMinimumLength(i, size) > buffer.capacity())
+			{
+				System.out.println("Invalid catalog file - DvkCatalog.openCatalog"); //$NON-NLS-1$
+				return null;
+				
+			}//IF
+			
+			segments[i] = (int)segment;
+			
+		}//FOR
+		
+		try
+		{
+			DvkCatalog catalog = new DvkCatalog(buffer, size, segments);
+			if(!catalog.readTable(ROOTS).equals(getRootPaths(dvkDirectories)))
+			{
+				return null;
+				
+			}//IF
+			
+			return catalog;
+			
+		}//TRY
+		catch(RuntimeException e)
+		{
+			System.out.println("Corrupt catalog file - DvkCatalog.openCatalog"); //$NON-NLS-1$
+			return null;
+			
+		}//CATCH
+		
+	}//METHOD
+	
+	/**
+	 * Writes the contents of a DvkDatabase to the catalog file.
+	 * 
+	 * @param dvkDirectories Directories the DVKs were loaded from
+	 * @param database DvkDatabase to write
+	 * @return Whether the catalog was written successfully
+	 */
+	public static boolean writeCatalog(final ArrayList<File> dvkDirectories, final DvkDatabase database)
+	{
+		File catalogFile = getCatalogFile();
+		if(catalogFile == null)
+		{
+			return false;
+			
+		}//IF
+		
+		int size = database.getSize();
+		ByteArrayOutputStream bodyBytes = new ByteArrayOutputStream();
+		DataOutputStream body = new DataOutputStream(bodyBytes);
+		long[] segments = new long[SEGMENT_COUNT];
+		
+		try
+		{
+			//TABLES
+			segments[ROOTS] = HEADER_LENGTH + body.size();
+			writeTable(body, getRootPaths(dvkDirectories));
+			
+			ArrayList<String> directoryPaths = new ArrayList<>();
+			for(File directory: database.getDirectories())
+			{
+				if(directory == null)
+				{
+					directoryPaths.add(null);
+					
+				}//IF
+				else
+				{
+					directoryPaths.add(directory.getPath());
+					
+				}//ELSE
+				
+			}//FOR
+			
+			segments[DIRECTORY_TABLE] = HEADER_LENGTH + body.size();
+			writeTable(body, directoryPaths);
+			segments[DICTIONARY_TABLE] = HEADER_LENGTH + body.size();
+			writeTable(body, database.getDictionary());
+			
+			//COLUMNS
+			String[][] stringColumns = new String[SEGMENT_COUNT][];
+			int[] stringSegments = {DVK_NAMES, IDS, TITLES, DESCRIPTIONS, PAGE_URLS, DIRECT_URLS, SECONDARY_URLS, MEDIA_NAMES, SECONDARY_NAMES};
+			for(int segment: stringSegments)
+			{
+				stringColumns[segment] = new String[size];
+				
+			}//FOR
+			
+			int[][] artists = new int[size][];
+			int[][] webTags = new int[size][];
+			
+			segments[DVK_DIRECTORIES] = HEADER_LENGTH + body.size();
+			for(int i = 0; i < size; i++)
+			{
+				body.writeInt(database.getDirectoryIndexOf(i));
+				stringColumns[DVK_NAMES][i] = database.getDvkName(i);
+				stringColumns[IDS][i] = database.getID(i);
+				stringColumns[TITLES][i] = database.getTitle(i);
+				stringColumns[DESCRIPTIONS][i] = database.getDescription(i);
+				stringColumns[PAGE_URLS][i] = database.getPageURL(i);
+				stringColumns[DIRECT_URLS][i] = database.getDirectURL(i);
+				stringColumns[SECONDARY_URLS][i] = database.getSecondaryURL(i);
+				stringColumns[MEDIA_NAMES][i] = database.getMediaName(i);
+				stringColumns[SECONDARY_NAMES][i] = database.getSecondaryName(i);
+				artists[i] = database.getArtistIDs(i);
+				webTags[i] = database.getWebTagIDs(i);
+				
+			}//FOR
+			
+			segments[TIMES] = HEADER_LENGTH + body.size();
+			for(int i = 0; i < size; i++)
+			{
+				body.writeLong(database.getTime(i));
+				
+			}//FOR
+			
+			segments[ARTISTS] = HEADER_LENGTH + body.size();
+			writeIndexColumn(body, artists);
+			segments[WEB_TAGS] = HEADER_LENGTH + body.size();
+			writeIndexColumn(body, webTags);
+			for(int segment: stringSegments)
+			{
+				segments[segment] = HEADER_LENGTH + body.size();
+				writeStringColumn(body, stringColumns[segment]);
+				stringColumns[segment] = null;
+				
+			}//FOR
+			
+			body.flush();
+			
+		}//TRY
+		catch(IOException e)
+		{
+			System.out.println("Failed writing catalog file - DvkCatalog.writeCatalog"); //$NON-NLS-1$
+			return false;
+			
+		}//CATCH
+		
+		//HEADER
+		ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+		header.putInt(MAGIC);
+		header.putInt(FORMAT_VERSION);
+		header.putInt(size);
+		header.putInt(SEGMENT_COUNT);
+		header.putLong(HEADER_LENGTH + bodyBytes.size());
+		for(int i = 0; i < SEGMENT_COUNT; i++)
+		{
+			header.putLong(segments[i]);
+			
+		}//FOR
+		
+		byte[] headerCheck = new byte[HEADER_CHECK_LENGTH];
+		System.arraycopy(header.array(), 0, headerCheck, 0, HEADER_CHECK_LENGTH);
+		header.putInt(getChecksum(headerCheck));
+		
+		//WRITE TO A TEMPORARY FILE FIRST, SO AN INTERRUPTED WRITE NEVER LEAVES A PARTIAL CATALOG
+		File tempFile = new File(catalogFile.getParentFile(), CATALOG_FILE + TEMP_EXTENSION);
+		FileOutputStream outputStream = null;
+		
+		try
+		{
+			outputStream = new FileOutputStream(tempFile);
+			outputStream.write(header.array());
+			bodyBytes.writeTo(outputStream);
+			outputStream.getChannel().force(false);
+			outputStream.close();
+			outputStream = null;
+			
+			try
+			{
+				Files.move(tempFile.toPath(), catalogFile.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+				
+			}//TRY
+			catch(AtomicMoveNotSupportedException e)
+			{
+				Files.move(tempFile.toPath(), catalogFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+				
+			}//CATCH
+			
+			return true;
+			
+		}//TRY
+		catch(IOException e)
+		{
+			System.out.println("Failed writing catalog file - DvkCatalog.writeCatalog"); //$NON-NLS-1$
+			tempFile.delete();
+			return false;
+			
+		}//CATCH
+		finally
+		{
+			try
+			{
+				if(outputStream != null)
+				{
+					outputStream.close();
+					
+				}//IF
+				
+			}//TRY
+			catch(IOException e){}
+			
+		}//FINALLY
+		
+	}//METHOD
+	
+	/**
+	 * Writes a table of Strings, as the number of Strings followed by each length-prefixed String.
+	 * 
+	 * @param body Stream to write to
+	 * @param table Table of Strings
+	 * @throws IOException If writing fails
+	 */
+	private static void writeTable(DataOutputStream body, final ArrayList<String> table) throws IOException
+	{
+		body.writeInt(table.size());
+		for(String value: table)
+		{
+			writeString(body, value);
+			
+		}//FOR
+		
+	}//METHOD
+	
+	/**
+	 * Writes a single length-prefixed String. Null Strings are written with a negative length.
+	 * 
+	 * @param body Stream to write to
+	 * @param value String to write
+	 * @throws IOException If writing fails
+	 */
+	private static void writeString(DataOutputStream body, final String value) throws IOException
+	{
+		if(value == null)
+		{
+			body.writeInt(NULL_OFFSET);
+			
+		}//IF
+		else
+		{
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			body.writeInt(bytes.length);
+			body.write(bytes);
+			
+		}//ELSE
+		
+	}//METHOD
+	
+	/**
+	 * Writes a column of Strings, as an offset for every row followed by the length-prefixed Strings. Offsets are relative to the start of the column.
+	 * 
+	 * @param body Stream to write to
+	 * @param column Column of Strings
+	 * @throws IOException If writing fails
+	 */
+	private static void writeStringColumn(DataOutputStream body, final String[] column) throws IOException
+	{
+		byte[][] values = new byte[column.length][];
+		int offset = column.length * 4;
+		for(int i = 0; i < column.length; i++)
+		{
+			if(column[i] == null)
+			{
+				body.writeInt(NULL_OFFSET);
+				
+			}//IF
+			else
+			{
+				values[i] = column[i].getBytes(StandardCharsets.UTF_8);
+				body.writeInt(offset);
+				offset += 4 + values[i].length;
+				
+			}//ELSE
+			
+		}//FOR
+		
+		for(int i = 0; i < values.length; i++)
+		{
+			if(values[i] != null)
+			{
+				body.writeInt(values[i].length);
+				body.write(values[i]);
+				
+			}//IF
+			
+		}//FOR
+		
+	}//METHOD
+	
+	/**
+	 * Writes a column of dictionary indexes, as an offset for every row followed by the count-prefixed indexes. Offsets are relative to the start of the column.
+	 * 
+	 * @param body Stream to write to
+	 * @param column Column of dictionary indexes
+	 * @throws IOException If writing fails
+	 */
+	private static void writeIndexColumn(DataOutputStream body, final int[][] column) throws IOException
+	{
+		int offset = column.length * 4;
+		for(int i = 0; i < column.length; i++)
+		{
+			body.writeInt(offset);
+			offset += 4 + (column[i].length * 4);
+			
+		}//FOR
+		
+		for(int i = 0; i < column.length; i++)
+		{
+			body.writeInt(column[i].length);
+			for(int value: column[i])
+			{
+				body.writeInt(value);
+				
+			}//FOR
+			
+		}//FOR
+		
+	}//METHOD
+	
+	/**
+	 * Returns the smallest number of bytes a segment can take up for a given number of rows: the fixed-width values of primitive columns, the row offsets of other columns, or the count of tables.
+	 * 
+	 * @param segment Given Segment
+	 * @param size Number of DVKs in the catalog
+	 * @return Minimum Segment Length
+	 */
+	private static long getMinimumLength(final int segment, final int size)
+	{
+		if(segment == ROOTS || segment == DIRECTORY_TABLE || segment == DICTIONARY_TABLE)
+		{
+			return 4L;
+			
+		}//IF
+		
+		if(segment == TIMES)
+		{
+			return size * 8L;
+			
+		}//IF
+		
+		return size * 4L;
+		
+	}//METHOD
+	
+	/**
+	 * Returns the CRC32 checksum of given bytes.
+	 * 
+	 * @param bytes Given Bytes
+	 * @return Checksum
+	 */
+	private static int getChecksum(final byte[] bytes)
+	{
+		CRC32 crc = new CRC32();
+		crc.update(bytes, 0, bytes.length);
+		return (int)crc.getValue();
+		
+	}//METHOD
+	
+	/**
+	 * Reads a table of Strings from a given segment.
+	 * 
+	 * @param segment Given Segment
+	 * @return Table of Strings
+	 */
+	private ArrayList<String> readTable(final int segment)
+	{
+		int position = segments[segment];
+		int count = buffer.getInt(position);
+		position += 4;
+		ArrayList<String> table = new ArrayList<>(count);
+		for(int i = 0; i < count; i++)
+		{
+			int length = buffer.getInt(position);
+			position += 4;
+			if(length == NULL_OFFSET)
+			{
+				table.add(null);
+				
+			}//IF
+			else
+			{
+				table.add(readString(position, length));
+				position += length;
+				
+			}//ELSE
+			
+		}//FOR
+		
+		return table;
+		
+	}//METHOD
+	
+	/**
+	 * Decodes a UTF-8 String from the buffer.
+	 * 
+	 * @param position Position of the String in the buffer
+	 * @param length Length of the String in bytes
+	 * @return Decoded String
+	 */
+	private String readString(final int position, final int length)
+	{
+		byte[] bytes = new byte[length];
+		for(int i = 0; i < length; i++)
+		{
+			bytes[i] = buffer.get(position + i);
+			
+		}//FOR
+		
+		return new String(bytes, StandardCharsets.UTF_8);
+		
+	}//METHOD
+	
+	/**
+	 * Returns the String at a given row of a String column segment.
+	 * 
+	 * @param segment Given Segment
+	 * @param index Row Index
+	 * @return String, null if the value is null
+	 */
+	private String getString(final int segment, final int index)
+	{
+		int offset = buffer.getInt(segments[segment] + (index * 4));
+		if(offset == NULL_OFFSET)
+		{
+			return null;
+			
+		}//IF
+		
+		int position = segments[segment] + offset;
+		return readString(position + 4, buffer.getInt(position));
+		
+	}//METHOD
+	
+	/**
+	 * Returns the dictionary indexes at a given row of an index column segment.
+	 * 
+	 * @param segment Given Segment
+	 * @param index Row Index
+	 * @return Dictionary Indexes
+	 */
+	private int[] getIndexes(final int segment, final int index)
+	{
+		int position = segments[segment] + buffer.getInt(segments[segment] + (index * 4));
+		int[] indexes = new int[buffer.getInt(position)];
+		for(int i = 0; i < indexes.length; i++)
+		{
+			indexes[i] = buffer.getInt(position + 4 + (i * 4));
+			
+		}//FOR
+		
+		return indexes;
+		
+	}//METHOD
+	
+	/**
+	 * Returns the number of DVKs in the catalog.
+	 * 
+	 * @return Number of DVKs
+	 */
+	public int getSize()
+	{
+		return size;
+		
+	}//METHOD
+	
+	/**
+	 * Returns the directory table read from the catalog.
+	 * 
+	 * @return Directory Table
+	 */
+	public ArrayList<File> getDirectories()
+	{
+		return directories;
+		
+	}//METHOD
+	
+	/**
+	 * Returns the dictionary table read from the catalog.
+	 * 
+	 * @return Dictionary Table
+	 */
+	public ArrayList<String> getDictionary()
+	{
+		return dictionary;
+		
+	}//METHOD
+	
+	/**
+	 * Returns the directory table index of the DVK File at a given index.
+	 * 
+	 * @param index Given Index
+	 * @return Directory Table Index
+	 */
+	public int getDirectoryIndex(final int index)
+	{
+		return buffer.getInt(segments[DVK_DIRECTORIES] + (index * 4));
+		
+	}//METHOD
+	
+	/**
+	 * Returns the DVK File name at a given index.
+	 * 
+	 * @param index Given Index
+	 * @return DVK File Name
+	 */
+	public String getDvkName(final int index)
+	{
+		return getString(DVK_NAMES, index);
+		
+	}//METHOD
+	
+	/**
+	 * Returns the ID at a given index.
+	 * 
+	 * @param index Given Index
+	 * @return ID
+	 */
+	public String getID(final int index)
+	{
+		return getString(IDS, index);
+		
+	}//METHOD
+	
+	/**
+	 * Returns the title at a given index.
+	 * 
+	 * @param index Given Index
+	 * @return Title
+	 */
+	public String getTitle(final int index)
+	{
+		return getString(TITLES, index);
+		
+	}//METHOD
+	
+	/**
+	 * Returns the artists at a given index as dictionary indexes.
+	 * 
+	 * @param index Given Index
+	 * @return Artist Dictionary Indexes
+	 */
+	public int[] getArtists(final int index)
+	{
+		return getIndexes(ARTISTS, index);
+		
+	}//METHOD
+	
+	/**
+	 * Returns the time at a given index.
+	 * 
+	 * @param index Given Index
+	 * @return Time
+	 */
+	public long getTime(final int index)
+	{
+		return buffer.getLong(segments[TIMES] + (index * 8));
+		
+	}//METHOD
+	
+	/**
+	 * Returns the web tags at a given index as dictionary indexes.
+	 * 
+	 * @param index Given Index
+	 * @return Web Tag Dictionary Indexes
+	 */
+	public int[] getWebTags(final int index)
+	{
+		return getIndexes(WEB_TAGS, index);
+		
+	}//METHOD
+	
+	/**
+	 * Returns the description at a given index.
+	 * 
+	 * @param index Given Index
+	 * @return Description
+	 */
+	public String getDescription(final int index)
+	{
+		return getString(DESCRIPTIONS, index);
+		
+	}//METHOD
+	
+	/**
+	 * Returns the page URL at a given index.
+	 * 
+	 * @param index Given Index
+	 * @return Page URL
+	 */
+	public String getPageURL(final int index)
+	{
+		return getString(PAGE_URLS, index);
+		
+	}//METHOD
+	
+	/**
+	 * Returns the direct URL at a given index.
+	 * 
+	 * @param index Given Index
+	 * @return Direct URL
+	 */
+	public String getDirectURL(final int index)
+	{
+		return getString(DIRECT_URLS, index);
+		
+	}//METHOD
+	
+	/**
+	 * Returns the secondary URL at a given index.
+	 * 
+	 * @param index Given Index
+	 * @return Secondary URL
+	 */
+	public String getSecondaryURL(final int index)
+	{
+		return getString(SECONDARY_URLS, index);
+		
+	}//METHOD
+	
+	/**
+	 * Returns the media file name at a given index.
+	 * 
+	 * @param index Given Index
+	 * @return Media File Name
+	 */
+	public String getMediaName(final int index)
+	{
+		return getString(MEDIA_NAMES, index);
+		
+	}//METHOD
+	
+	/**
+	 * Returns the secondary media file name at a given index.
+	 * 
+	 * @param index Given Index
+	 * @return Secondary Media File Name
+	 */
+	public String getSecondaryName(final int index)
+	{
+		return getString(SECONDARY_NAMES, index);
+		
+	}//METHOD
+	
+}//CLASS
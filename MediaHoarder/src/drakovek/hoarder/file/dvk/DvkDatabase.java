@@ -1,16 +1,42 @@
 package drakovek.hoarder.file.dvk;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.DosFileAttributes;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import drakovek.hoarder.file.ExtensionFilter;
 import drakovek.hoarder.file.language.CommonValues;
 import drakovek.hoarder.file.language.DvkLanguageValues;
 import drakovek.hoarder.gui.swing.compound.DProgressDialog;
-import drakovek.hoarder.processing.sort.FileSort;
+import drakovek.hoarder.processing.RowBitmap;
+import drakovek.hoarder.processing.sort.AlphaNumSort;
 
 /**
- * Class for handling large amounts of DVK information.
+ * Class for handling large amounts of DVK information.<br/>
+ * DVK information is stored in columns of primitive arrays rather than lists of objects. Files are stored as names relative to a shared table of directories, and artists and web tags are stored as indexes into a table of unique Strings.<br/>
+ * When loaded from a DvkCatalog, DVK information is read straight from the memory-mapped catalog until the database is modified, at which point the catalog is copied into the columns.<br/>
+ * IDs are indexed in hash maps partitioned by their site prefix, built the first time an ID is looked up and kept up to date as DVKs are set or added.<br/>
+ * When loaded with lazy fields, descriptions and URLs are dropped after loading and read back from the DVK file when requested, with recently read values kept in a small cache.
  * 
  * @author Drakovek
  * @version 2.0
@@ -18,69 +44,203 @@ import drakovek.hoarder.processing.sort.FileSort;
 public class DvkDatabase
 {
 	/**
-	 * ArrayList containing DVK Files from the DVK class
+	 * Initial number of DVKs each column can hold before being expanded
 	 */
-	private ArrayList<File> dvkFiles;
+	private static final int INITIAL_CAPACITY = 16;
 	
 	/**
-	 * ArrayList containing IDs from the DVK class
+	 * Empty int array used for DVKs without artists or web tags
 	 */
-	private ArrayList<String> ids;
+	private static final int[] EMPTY_INDEXES = new int[0];
 	
 	/**
-	 * ArrayList containing Titles from the DVK class
+	 * Maximum number of DVKs to keep in the lazy field cache
 	 */
-	private ArrayList<String> titles;
+	private static final int LAZY_CACHE_SIZE = 128;
 	
 	/**
-	 * ArrayList containing Artists from the DVK class
+	 * Number of characters at the start of a DVK ID that identify the site it came from
 	 */
-	private ArrayList<String[]> artists;
-
+	private static final int ID_PREFIX_LENGTH = 3;
+	
+	/**
+	 * Index of the description in a lazy field array
+	 */
+	private static final int LAZY_DESCRIPTION = 0;
+	
+	/**
+	 * Index of the page URL in a lazy field array
+	 */
+	private static final int LAZY_PAGE_URL = 1;
+	
+	/**
+	 * Index of the direct URL in a lazy field array
+	 */
+	private static final int LAZY_DIRECT_URL = 2;
+	
+	/**
+	 * Index of the secondary URL in a lazy field array
+	 */
+	private static final int LAZY_SECONDARY_URL = 3;
+	
+	/**
+	 * Number of DVKs currently loaded
+	 */
+	private int size;
+	
+	/**
+	 * Table of directories containing the loaded DVK files
+	 */
+	private ArrayList<File> directories;
+	
+	/**
+	 * Map linking directories to their index in the directory table
+	 */
+	private HashMap<File, Integer> directoryIndexes;
+	
+	/**
+	 * Table of unique Strings used by the artist and web tag columns
+	 */
+	private ArrayList<String> dictionary;
+	
+	/**
+	 * Map linking Strings to their index in the dictionary table
+	 */
+	private HashMap<String, Integer> dictionaryIndexes;
+	
+	/**
+	 * Column containing the directory table index for each DVK File
+	 */
+	private int[] dvkDirectories;
+	
+	/**
+	 * Column containing DVK File names
+	 */
+	private String[] dvkNames;
+	
+	/**
+	 * Column containing IDs from the DVK class
+	 */
+	private String[] ids;
+	
+	/**
+	 * Column containing Titles from the DVK class
+	 */
+	private String[] titles;
+	
+	/**
+	 * Column containing lower case Titles, used for case insensitive searches. Null until first requested.<br/>
+	 * Volatile since it's built lazily while filter tasks may already be reading it from other threads.
+	 */
+	private volatile String[] lowerTitles;
+	
+	/**
+	 * Column containing Artists from the DVK class as dictionary indexes
+	 */
+	private int[][] artists;
+	
+	/**
+	 * Column containing Times from the DVK class
+	 */
+	private long[] times;
+	
+	/**
+	 * Column containing Web Tags from the DVK class as dictionary indexes
+	 */
+	private int[][] webTags;
+	
+	/**
+	 * Column containing Descriptions from the DVK class
+	 */
+	private String[] descriptions;
+	
+	/**
+	 * Column containing Page URLs from the DVK class
+	 */
+	private String[] pageURLs;
+	
+	/**
+	 * Column containing Direct URLs from the DVK class
+	 */
+	private String[] directURLs;
+	
+	/**
+	 * Column containing Secondary Media URLs from the DVK class
+	 */
+	private String[] secondaryURLs;
+	
+	/**
+	 * Column containing Media File names, relative to the directory of the DVK File if possible
+	 */
+	private String[] mediaNames;
+	
+	/**
+	 * Column containing Secondary Media File names, relative to the directory of the DVK File if possible
+	 */
+	private String[] secondaryNames;
+	
+	/**
+	 * Column marking DVKs whose descriptions and URLs aren't held in memory and must be read from the DVK file
+	 */
+	private boolean[] lazyRows;
+	
+	/**
+	 * Memory-mapped catalog holding the DVK information, null if DVK information is held in the columns
+	 */
+	private DvkCatalog catalog;
+	
+	/**
+	 * Whether descriptions and URLs are read from DVK files when requested rather than held in memory
+	 */
+	private boolean lazyFields;
+	
 	/**
-	 * ArrayList containing Times from the DVK class
+	 * Cache of recently read lazy fields, with DVK Files as keys
 	 */
-	private ArrayList<Long> times;
+	private LazyCache lazyCache;
 	
 	/**
-	 * ArrayList containing Web Tags from the DVK class
+	 * Index of DVK IDs, with upper case site prefixes as keys for partitions that map the rest of each ID to the indexes of DVKs with that ID. Null if not yet built.
 	 */
-	private ArrayList<String[]> webTags;
+	private HashMap<String, HashMap<String, int[]>> idIndex;
 	
 	/**
-	 * ArrayList containing Descriptions from the DVK class
+	 * Index of DVK files, mapping the absolute path of each DVK file to its index. Null if not yet built.
 	 */
-	private ArrayList<String> descriptions;
+	private HashMap<File, Integer> dvkFileIndex;
 	
 	/**
-	 * ArrayList containing Page URLs from the DVK class
+	 * Index of media file names, with parent directories as keys. Null if not yet built.
 	 */
-	private ArrayList<String> pageURLs;
+	private HashMap<File, HashSet<String>> mediaIndex;
 	
 	/**
-	 * ArrayList containing Direct URLs from the DVK class
+	 * Index of secondary media file names, with parent directories as keys. Null if not yet built.
 	 */
-	private ArrayList<String> directURLs;
+	private HashMap<File, HashSet<String>> secondaryIndex;
 	
 	/**
-	 * ArrayList containing Secondary Media URLs from the DVK class
+	 * Posting lists of the artist column, holding the ascending rows of the DVKs with each artist, with dictionary IDs as indexes. Null if not yet built.
 	 */
-	private ArrayList<String> secondaryURLs;
+	private int[][] artistPostings;
 	
 	/**
-	 * ArrayList containing Media Files from the DVK class
+	 * Posting lists of the web tag column, holding the ascending rows of the DVKs with each web tag, with dictionary IDs as indexes. Null if not yet built.
 	 */
-	private ArrayList<File> mediaFiles;
+	private int[][] webTagPostings;
 	
 	/**
-	 * ArrayList containing Secondary Media Files from the DVK class
+	 * Whether to keep a trigram index of titles and descriptions
 	 */
-	private ArrayList<File> secondaryFiles;
+	private boolean useTrigramIndex;
+	
+	/**
+	 * Trigram index of titles and descriptions. Null if not yet built or not used.
+	 */
+	private TrigramIndex trigramIndex;
 	
 	/**
 	 * Initializes the DvkDatabase class to be empty.
-	 * 
-	 * @param settings Program's settings
 	 */
 	public DvkDatabase()
 	{
@@ -93,25 +253,86 @@ public class DvkDatabase
 	 */
 	private void clearDVKs()
 	{
+		size = 0;
+		catalog = null;
+		idIndex = null;
+		dvkFileIndex = null;
+		mediaIndex = null;
+		secondaryIndex = null;
+		artistPostings = null;
+		webTagPostings = null;
+		trigramIndex = null;
+		lazyCache = new LazyCache();
+		directories = new ArrayList<>();
+		directoryIndexes = new HashMap<>();
+		dictionary = new ArrayList<>();
+		dictionaryIndexes = new HashMap<>();
+		
 		//DVK
-		dvkFiles = new ArrayList<>();
-		ids = new ArrayList<>();
+		dvkDirectories = new int[INITIAL_CAPACITY];
+		dvkNames = new String[INITIAL_CAPACITY];
+		ids = new String[INITIAL_CAPACITY];
 		
 		//INFO
-		titles = new ArrayList<>();
-		artists = new ArrayList<>();
-		times = new ArrayList<>();
-		webTags = new ArrayList<>();
-		descriptions = new ArrayList<>();
-
+		titles = new String[INITIAL_CAPACITY];
+		lowerTitles = null;
+		artists = new int[INITIAL_CAPACITY][];
+		times = new long[INITIAL_CAPACITY];
+		webTags = new int[INITIAL_CAPACITY][];
+		descriptions = new String[INITIAL_CAPACITY];
+		
 		//WEB
-		pageURLs = new ArrayList<>();
-		directURLs = new ArrayList<>();
-		secondaryURLs = new ArrayList<>();
+		pageURLs = new String[INITIAL_CAPACITY];
+		directURLs = new String[INITIAL_CAPACITY];
+		secondaryURLs = new String[INITIAL_CAPACITY];
 		
 		//FILE
-		mediaFiles = new ArrayList<>();
-		secondaryFiles = new ArrayList<>();
+		mediaNames = new String[INITIAL_CAPACITY];
+		secondaryNames = new String[INITIAL_CAPACITY];
+		lazyRows = new boolean[INITIAL_CAPACITY];
+		
+	}//METHOD
+	
+	/**
+	 * Expands the DVK columns, if necessary, so they can hold at least a given number of DVKs.
+	 * 
+	 * @param capacity Minimum number of DVKs the columns should hold
+	 */
+	private void ensureCapacity(final int capacity)
+	{
+		if(capacity > ids.length)
+		{
+			int newCapacity = Math.max(capacity, ids.length + (ids.length >> 1));
+			
+			//DVK
+			dvkDirectories = Arrays.copyOf(dvkDirectories, newCapacity);
+			dvkNames = Arrays.copyOf(dvkNames, newCapacity);
+			ids = Arrays.copyOf(ids, newCapacity);
+			
+			//INFO
+			titles = Arrays.copyOf(titles, newCapacity);
+			artists = Arrays.copyOf(artists, newCapacity);
+			times = Arrays.copyOf(times, newCapacity);
+			webTags = Arrays.copyOf(webTags, newCapacity);
+			descriptions = Arrays.copyOf(descriptions, newCapacity);
+			
+			//WEB
+			pageURLs = Arrays.copyOf(pageURLs, newCapacity);
+			directURLs = Arrays.copyOf(directURLs, newCapacity);
+			secondaryURLs = Arrays.copyOf(secondaryURLs, newCapacity);
+			
+			//FILE
+			mediaNames = Arrays.copyOf(mediaNames, newCapacity);
+			secondaryNames = Arrays.copyOf(secondaryNames, newCapacity);
+			lazyRows = Arrays.copyOf(lazyRows, newCapacity);
+			
+		}//IF
+		
+		if(lowerTitles != null && lowerTitles.length < ids.length)
+		{
+			lowerTitles = Arrays.copyOf(lowerTitles, ids.length);
+			
+		}//IF
 		
 	}//METHOD
 	
@@ -123,487 +344,2355 @@ public class DvkDatabase
 	 * @param useIndexes Whether to use index files to load DvkDirectory object
 	 * @param saveIndexes Whether to save DvkDirectories as index files
 	 * @param updateIndexes Whether to update index files to reflect changes in DVKs
+	 * @param parallel Whether to load DVK folders in parallel using a fork-join pool
+	 * @param useCatalog Whether to load DVKs from a single catalog file when indexes are used without being updated, and to save the catalog along with the index files
+	 * @param lazyFields Whether to read descriptions and URLs from DVK files when requested rather than holding them in memory
+	 * @param trigramIndex Whether to keep a trigram index of titles and descriptions for substring filtering, saved along with the catalog if the catalog is used
 	 * @return Whether all DVKs were successfully loaded
 	 * @version 2.0
 	 */
-	public boolean loadDVKs(final ArrayList<File> dvkDirectories, DProgressDialog progressDialog, final boolean useIndexes, final boolean saveIndexes, final boolean updateIndexes)
+	public boolean loadDVKs(final ArrayList<File> dvkDirectories, DProgressDialog progressDialog, final boolean useIndexes, final boolean saveIndexes, final boolean updateIndexes, final boolean parallel, final boolean useCatalog, final boolean lazyFields, final boolean trigramIndex)
 	{
 		clearDVKs();
-		progressDialog.setProcessLabel(DvkLanguageValues.GETTING_FOLDERS);
-		progressDialog.setDetailLabel(CommonValues.RUNNING, true);
-		progressDialog.setProgressBar(true, false, 0, 0);
-		ArrayList<File> dvkFolders = getDvkFolders(dvkDirectories);
-		DvkIndexing indexing = new DvkIndexing();
-		
-		for(int i = 0; !progressDialog.isCancelled() && i < dvkFolders.size(); i++)
+		this.lazyFields = lazyFields;
+		this.useTrigramIndex = trigramIndex;
+		//HOLD THE INDEXING LOCK SO THE DVK WATCHER DOESN'T WRITE INDEX FILES OR THE CATALOG AT THE SAME TIME
+		synchronized(DvkIndexing.LOCK)
 		{
-			progressDialog.setProcessLabel(DvkLanguageValues.LOADING_DVKS);
-			progressDialog.setDetailLabel(dvkFolders.get(i).getName(), false);
-			progressDialog.setProgressBar(false, true, dvkFolders.size(), i);
-			DvkDirectory dvkDirectory = indexing.loadDVKs(dvkFolders.get(i), progressDialog, useIndexes, updateIndexes);
+			if(useCatalog && useIndexes && !updateIndexes)
+			{
+				progressDialog.setProcessLabel(DvkLanguageValues.LOADING_INDEX);
+				progressDialog.setDetailLabel(CommonValues.RUNNING, true);
+				progressDialog.setProgressBar(true, false, 0, 0);
+				DvkCatalog dvkCatalog = DvkCatalog.openCatalog(dvkDirectories);
+				if(dvkCatalog != null)
+				{
+					setCatalog(dvkCatalog);
+					if(useTrigramIndex)
+					{
+						this.trigramIndex = TrigramIndex.read(size);
+						
+					}//IF
+					
+					return true;
+					
+				}//IF
+				
+			}//IF
 			
-			if(!progressDialog.isCancelled() && saveIndexes)
+			progressDialog.setProcessLabel(DvkLanguageValues.GETTING_FOLDERS);
+			progressDialog.setDetailLabel(CommonValues.RUNNING, true);
+			progressDialog.setProgressBar(true, false, 0, 0);
+			ArrayList<File> dvkFolders = getDvkFolders(dvkDirectories);
+			DvkIndexing indexing = new DvkIndexing();
+			
+			if(parallel)
 			{
-				progressDialog.setProcessLabel(DvkLanguageValues.SAVING_INDEX);
-				progressDialog.setDetailLabel(dvkFolders.get(i).getName(), false);
-				indexing.saveIndex(dvkDirectory);
+				loadParallel(dvkFolders, progressDialog, indexing, useIndexes, saveIndexes, updateIndexes);
 				
 			}//IF
+			else
+			{
+				for(int i = 0; !progressDialog.isCancelled() && i < dvkFolders.size(); i++)
+				{
+					progressDialog.setProcessLabel(DvkLanguageValues.LOADING_DVKS);
+					progressDialog.setDetailLabel(dvkFolders.get(i).getName(), false);
+					progressDialog.setProgressBar(false, true, dvkFolders.size(), i);
+					DvkDirectory dvkDirectory = indexing.loadDVKs(dvkFolders.get(i), progressDialog, useIndexes, updateIndexes);
+					
+					if(!progressDialog.isCancelled() && saveIndexes)
+					{
+						progressDialog.setProcessLabel(DvkLanguageValues.SAVING_INDEX);
+						progressDialog.setDetailLabel(dvkFolders.get(i).getName(), false);
+						indexing.saveIndex(dvkDirectory);
+						
+					}//IF
+					
+					addDVKs(dvkDirectory);
+					
+				}//FOR
+				
+			}//ELSE
 			
-			addDVKs(dvkDirectory);
+			indexing.close();
 			
-		}//FOR
+			if(useCatalog && saveIndexes && !progressDialog.isCancelled())
+			{
+				progressDialog.setProcessLabel(DvkLanguageValues.SAVING_INDEX);
+				progressDialog.setDetailLabel(CommonValues.RUNNING, true);
+				progressDialog.setProgressBar(true, false, 0, 0);
+				if(DvkCatalog.writeCatalog(dvkDirectories, this) && useTrigramIndex)
+				{
+					this.trigramIndex = TrigramIndex.build(this, true);
+					if(this.trigramIndex != null)
+					{
+						this.trigramIndex.write();
+						
+					}//IF
+					
+				}//IF
+				
+			}//IF
+			
+		}//SYNCHRONIZED
 		
-		indexing.close();
+		if(lazyFields)
+		{
+			dropLazyFields();
+			
+		}//IF
 		
 		return !progressDialog.isCancelled();
 		
 	}//METHOD
 	
+	/**
+	 * Loads DVK folders in parallel using a fork-join pool. Loaded folders are added to the database in the same order as the given folder list.<br/>
+	 * If loading is cancelled, folders that were already loaded are still added, as they are when loading serially.
+	 * 
+	 * @param dvkFolders Folders containing DVKs
+	 * @param progressDialog DProgress dialog to show progress of loading DVKs
+	 * @param indexing DvkIndexing object for loading and saving index files
+	 * @param useIndexes Whether to use index files to load DvkDirectory object
+	 * @param saveIndexes Whether to save DvkDirectories as index files
+	 * @param updateIndexes Whether to update index files to reflect changes in DVKs
+	 */
+	private void loadParallel(final ArrayList<File> dvkFolders, DProgressDialog progressDialog, DvkIndexing indexing, final boolean useIndexes, final boolean saveIndexes, final boolean updateIndexes)
+	{
+		progressDialog.setProcessLabel(DvkLanguageValues.LOADING_DVKS);
+		progressDialog.setProgressBar(false, true, dvkFolders.size(), 0);
+		
+		DvkDirectory[] loaded = new DvkDirectory[dvkFolders.size()];
+		ForkJoinPool pool = new ForkJoinPool();
+		try
+		{
+			pool.invoke(new LoadTask(dvkFolders, loaded, 0, loaded.length, new AtomicInteger(0), progressDialog, indexing, useIndexes, saveIndexes, updateIndexes));
+			
+		}//TRY
+		finally
+		{
+			pool.shutdown();
+			
+		}//FINALLY
+		
+		for(int i = 0; i < loaded.length; i++)
+		{
+			if(loaded[i] != null)
+			{
+				addDVKs(loaded[i]);
+				loaded[i] = null;
+				
+			}//IF
+			
+		}//FOR
+		
+	}//METHOD
+	
+	/**
+	 * Fork-join task for loading a range of DVK folders in parallel.
+	 * 
+	 * @author Drakovek
+	 * @version 2.0
+	 */
+	private static class LoadTask extends RecursiveAction
+	{
+		/**
+		 * SerialVersionUID
+		 */
+		private static final long serialVersionUID = -1843532787962304958L;
+		
+		/**
+		 * Folders containing DVKs
+		 */
+		private ArrayList<File> dvkFolders;
+		
+		/**
+		 * Array in which to store loaded DvkDirectories, with indexes matching dvkFolders
+		 */
+		private DvkDirectory[] loaded;
+		
+		/**
+		 * First index of the range to load
+		 */
+		private int start;
+		
+		/**
+		 * Index after the last index of the range to load
+		 */
+		private int end;
+		
+		/**
+		 * Number of folders finished loading, shared among all tasks
+		 */
+		private AtomicInteger finished;
+		
+		/**
+		 * DProgress dialog to show progress of loading DVKs
+		 */
+		private DProgressDialog progressDialog;
+		
+		/**
+		 * DvkIndexing object for loading and saving index files
+		 */
+		private DvkIndexing indexing;
+		
+		/**
+		 * Whether to use index files to load DvkDirectory object
+		 */
+		private boolean useIndexes;
+		
+		/**
+		 * Whether to save DvkDirectories as index files
+		 */
+		private boolean saveIndexes;
+		
+		/**
+		 * Whether to update index files to reflect changes in DVKs
+		 */
+		private boolean updateIndexes;
+		
+		/**
+		 * Initializes the LoadTask class.
+		 * 
+		 * @param dvkFolders Folders containing DVKs
+		 * @param loaded Array in which to store loaded DvkDirectories
+		 * @param start First index of the range to load
+		 * @param end Index after the last index of the range to load
+		 * @param finished Number of folders finished loading, shared among all tasks
+		 * @param progressDialog DProgress dialog to show progress of loading DVKs
+		 * @param indexing DvkIndexing object for loading and saving index files
+		 * @param useIndexes Whether to use index files to load DvkDirectory object
+		 * @param saveIndexes Whether to save DvkDirectories as index files
+		 * @param updateIndexes Whether to update index files to reflect changes in DVKs
+		 */
+		public LoadTask(final ArrayList<File> dvkFolders, DvkDirectory[] loaded, final int start, final int end, AtomicInteger finished, DProgressDialog progressDialog, DvkIndexing indexing, final boolean useIndexes, final boolean saveIndexes, final boolean updateIndexes)
+		{
+			this.dvkFolders = dvkFolders;
+			this.loaded = loaded;
+			this.start = start;
+			this.end = end;
+			this.finished = finished;
+			this.progressDialog = progressDialog;
+			this.indexing = indexing;
+			this.useIndexes = useIndexes;
+			this.saveIndexes = saveIndexes;
+			this.updateIndexes = updateIndexes;
+			
+		}//CONSTRUCTOR
+		
+		@Override
+		protected void compute()
+		{
+			if(end - start > 1)
+			{
+				int middle = (start + end) >>> 1;
+				invokeAll(new LoadTask(dvkFolders, loaded, start, middle, finished, progressDialog, indexing, useIndexes, saveIndexes, updateIndexes),
+						  new LoadTask(dvkFolders, loaded, middle, end, finished, progressDialog, indexing, useIndexes, saveIndexes, updateIndexes));
+						
+			}//IF
+			else if(end > start && !progressDialog.isCancelled())
+			{
+				File dvkFolder = dvkFolders.get(start);
+				DvkDirectory dvkDirectory = indexing.loadDVKs(dvkFolder, progressDialog, useIndexes, updateIndexes);
+				
+				if(!progressDialog.isCancelled() && saveIndexes)
+				{
+					indexing.saveIndex(dvkDirectory);
+					
+				}//IF
+				
+				loaded[start] = dvkDirectory;
+				int count = finished.incrementAndGet();
+				synchronized(progressDialog)
+				{
+					progressDialog.setProcessLabel(DvkLanguageValues.LOADING_DVKS);
+					progressDialog.setDetailLabel(dvkFolder.getName(), false);
+					progressDialog.setProgressBar(false, true, dvkFolders.size(), count);
+					
+				}//SYNCHRONIZED
+				
+			}//ELSE IF
+			
+		}//METHOD
+		
+	}//CLASS
+	
 	/**
 	 * Returns a list of all the directories and sub-directories within given folders that contain DVK files.
+	 * Folders are found in parallel, sorted alpha-numerically by name, with hidden files and directories ignored.
 	 * 
 	 * @param dvkDirectories Given Directories
 	 * @return List of Directories containing DVKs
 	 */
 	public static ArrayList<File> getDvkFolders(final ArrayList<File> dvkDirectories)
 	{
-		ArrayList<File> directories = new ArrayList<>();
+		ArrayList<Path> roots = new ArrayList<>();
+		HashSet<File> rootSet = new HashSet<>();
 		for(File directory: dvkDirectories)
 		{
-			directories.addAll(getDvkFolders(directory));
+			if(directory != null && directory.isDirectory() && rootSet.add(directory))
+			{
+				roots.add(directory.toPath());
+				
+			}//IF
 			
 		}//FOR
 		
-		//REMOVE DUPLICATES
-		for(int i = 0; i < directories.size(); i++)
+		Set<File> folderSet = Collections.newSetFromMap(new ConcurrentHashMap<File, Boolean>());
+		if(roots.size() > 0)
+		{
+			ForkJoinPool pool = new ForkJoinPool();
+			try
+			{
+				pool.invoke(new FolderTask(roots, true, folderSet));
+				
+			}//TRY
+			finally
+			{
+				pool.shutdown();
+				
+			}//FINALLY
+			
+		}//IF
+		
+		ArrayList<File> dvkFolders = new ArrayList<>(folderSet);
+		Collections.sort(dvkFolders, new FolderComparator());
+		return dvkFolders;
+		
+	}//METHOD
+	
+	/**
+	 * Fork-join task for finding folders that contain DVK files. Each root directory is split into its top-level sub-directories so large roots are also scanned in parallel.
+	 * 
+	 * @author Drakovek
+	 * @version 2.0
+	 */
+	private static class FolderTask extends RecursiveAction
+	{
+		/**
+		 * SerialVersionUID
+		 */
+		private static final long serialVersionUID = 6310473925046851842L;
+		
+		/**
+		 * Directories to scan
+		 */
+		private ArrayList<Path> directories;
+		
+		/**
+		 * Whether to split directories into their top-level sub-directories rather than walking them directly
+		 */
+		private boolean split;
+		
+		/**
+		 * Set of folders containing DVK files, shared among all tasks
+		 */
+		private Set<File> dvkFolders;
+		
+		/**
+		 * Initializes the FolderTask class.
+		 * 
+		 * @param directories Directories to scan
+		 * @param split Whether to split directories into their top-level sub-directories rather than walking them directly
+		 * @param dvkFolders Set of folders containing DVK files, shared among all tasks
+		 */
+		public FolderTask(final ArrayList<Path> directories, final boolean split, Set<File> dvkFolders)
 		{
-			for(int k = i + 1; k < directories.size(); k++)
+			this.directories = directories;
+			this.split = split;
+			this.dvkFolders = dvkFolders;
+			
+		}//CONSTRUCTOR
+		
+		@Override
+		protected void compute()
+		{
+			if(directories.size() > 1)
+			{
+				ArrayList<FolderTask> tasks = new ArrayList<>();
+				for(Path directory: directories)
+				{
+					ArrayList<Path> single = new ArrayList<>();
+					single.add(directory);
+					tasks.add(new FolderTask(single, split, dvkFolders));
+					
+				}//FOR
+				
+				invokeAll(tasks);
+				
+			}//IF
+			else if(directories.size() == 1)
 			{
-				if(directories.get(i).equals(directories.get(k)))
+				Path directory = directories.get(0);
+				FolderVisitor visitor = new FolderVisitor(directory, dvkFolders, split);
+				try
+				{
+					Files.walkFileTree(directory, EnumSet.of(FileVisitOption.FOLLOW_LINKS), split ? 1 : Integer.MAX_VALUE, visitor);
+					
+				}//TRY
+				catch(IOException e)
 				{
-					directories.remove(k);
-					k--;
+					System.out.println("Failed searching " + directory.toString() + " - DvkDatabase.FolderTask"); //$NON-NLS-1$ //$NON-NLS-2$
+					
+				}//CATCH
+				
+				if(split && visitor.getSubDirectories().size() > 0)
+				{
+					new FolderTask(visitor.getSubDirectories(), false, dvkFolders).invoke();
 					
 				}//IF
 				
-			}//FOR
+			}//ELSE IF
 			
-		}//FOR
+		}//METHOD
+		
+	}//CLASS
+	
+	/**
+	 * File visitor that records every folder containing DVK files, using the attributes read while walking to skip hidden files.
+	 * 
+	 * @author Drakovek
+	 * @version 2.0
+	 */
+	private static class FolderVisitor extends SimpleFileVisitor<Path>
+	{
+		/**
+		 * Directory the walk started from
+		 */
+		private Path root;
+		
+		/**
+		 * Set in which to store folders containing DVK files
+		 */
+		private Set<File> dvkFolders;
+		
+		/**
+		 * Sub-directories found at the maximum depth, null if sub-directories aren't being collected
+		 */
+		private ArrayList<Path> subDirectories;
+		
+		/**
+		 * Last folder added to dvkFolders, used to avoid adding the same folder for every DVK it contains
+		 */
+		private Path lastFolder;
+		
+		/**
+		 * Initializes the FolderVisitor class.
+		 * 
+		 * @param root Directory the walk starts from
+		 * @param dvkFolders Set in which to store folders containing DVK files
+		 * @param collectSubDirectories Whether to collect sub-directories found at the maximum depth
+		 */
+		public FolderVisitor(final Path root, Set<File> dvkFolders, final boolean collectSubDirectories)
+		{
+			this.root = root;
+			this.dvkFolders = dvkFolders;
+			subDirectories = new ArrayList<>();
+			if(!collectSubDirectories)
+			{
+				subDirectories = null;
+				
+			}//IF
+			
+			lastFolder = null;
+			
+		}//CONSTRUCTOR
+		
+		/**
+		 * Returns the sub-directories found at the maximum depth.
+		 * 
+		 * @return Sub-Directories
+		 */
+		public ArrayList<Path> getSubDirectories()
+		{
+			return subDirectories;
+			
+		}//METHOD
+		
+		/**
+		 * Returns whether a given file is hidden, using DOS attributes where available and a leading dot otherwise.
+		 * 
+		 * @param path Given File
+		 * @param attributes Attributes of the given file
+		 * @return Whether the file is hidden
+		 */
+		private static boolean isHidden(final Path path, final BasicFileAttributes attributes)
+		{
+			if(attributes instanceof DosFileAttributes)
+			{
+				return ((DosFileAttributes)attributes).isHidden();
+				
+			}//IF
+			
+			Path name = path.getFileName();
+			return name != null && name.toString().startsWith(Character.toString('.'));
+			
+		}//METHOD
+		
+		@Override
+		public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attributes)
+		{
+			if(!directory.equals(root) && isHidden(directory, attributes))
+			{
+				return FileVisitResult.SKIP_SUBTREE;
+				
+			}//IF
+			
+			return FileVisitResult.CONTINUE;
+			
+		}//METHOD
+		
+		@Override
+		public FileVisitResult visitFile(Path file, BasicFileAttributes attributes)
+		{
+			if(!isHidden(file, attributes))
+			{
+				if(attributes.isDirectory())
+				{
+					if(subDirectories != null)
+					{
+						subDirectories.add(file);
+						
+					}//IF
+					
+				}//IF
+				else if(file.getFileName().toString().endsWith(DVK.DVK_EXTENSION))
+				{
+					Path folder = file.getParent();
+					if(folder != null && !folder.equals(lastFolder))
+					{
+						dvkFolders.add(folder.toFile());
+						lastFolder = folder;
+						
+					}//IF
+					
+				}//ELSE IF
+				
+			}//IF
+			
+			return FileVisitResult.CONTINUE;
+			
+		}//METHOD
+		
+		@Override
+		public FileVisitResult visitFileFailed(Path file, IOException e)
+		{
+			return FileVisitResult.CONTINUE;
+			
+		}//METHOD
+		
+	}//CLASS
+	
+	/**
+	 * Comparator for sorting DVK folders alpha-numerically by name, using the full path to keep folders with the same name in a consistent order.
+	 * 
+	 * @author Drakovek
+	 * @version 2.0
+	 */
+	private static class FolderComparator implements Comparator<File>
+	{
+		/**
+		 * Collation keys of the folder names, built once per folder
+		 */
+		private HashMap<File, byte[]> keys = new HashMap<>();
+		
+		/**
+		 * Returns the collation key of a folder's name.
+		 * 
+		 * @param file Given Folder
+		 * @return Collation Key
+		 */
+		private byte[] getKey(final File file)
+		{
+			byte[] key = keys.get(file);
+			if(key == null)
+			{
+				key = AlphaNumSort.getKey(file.getName());
+				keys.put(file, key);
+				
+			}//IF
+			
+			return key;
+			
+		}//METHOD
+		
+		@Override
+		public int compare(File aFile, File bFile)
+		{
+			int result = AlphaNumSort.compareKeys(getKey(aFile), getKey(bFile));
+			if(result == 0)
+			{
+				result = aFile.getPath().compareTo(bFile.getPath());
+				
+			}//IF
+			
+			return result;
+			
+		}//METHOD
+		
+	}//CLASS
+	
+	/**
+	 * Adds all DVKs from a given folder into the object's list of DVK information
+	 *  
+	 * @param dvkDirectory Directory from which to load DVKs
+	 */
+	private void addDVKs(DvkDirectory dvkDirectory)
+	{
+		int directorySize = dvkDirectory.getDvkFiles().size();
+		ensureCapacity(size + directorySize);
+		for(int i = 0; i < directorySize; i++)
+		{
+			setRow(size,
+					dvkDirectory.getDvkFiles().get(i),
+					dvkDirectory.getIDs().get(i),
+					dvkDirectory.getTitles().get(i),
+					dvkDirectory.getArtists().get(i),
+					dvkDirectory.getTimes().get(i),
+					dvkDirectory.getWebTags().get(i),
+					dvkDirectory.getDescriptions().get(i),
+					dvkDirectory.getPageURLs().get(i),
+					dvkDirectory.getDirectURLs().get(i),
+					dvkDirectory.getSecondaryURLs().get(i),
+					dvkDirectory.getMediaFiles().get(i),
+					dvkDirectory.getSecondaryFiles().get(i));
+			size++;
+			
+		}//FOR
+		
+	}//METHOD
+	
+	/**
+	 * Sets the database to read DVK information from a given catalog.
+	 * 
+	 * @param dvkCatalog Given DvkCatalog
+	 */
+	private void setCatalog(DvkCatalog dvkCatalog)
+	{
+		catalog = dvkCatalog;
+		size = catalog.getSize();
+		
+		for(File directory: catalog.getDirectories())
+		{
+			getDirectoryIndex(directory);
+			
+		}//FOR
+		
+		for(String value: catalog.getDictionary())
+		{
+			dictionaryIndexes.put(value, Integer.valueOf(dictionary.size()));
+			dictionary.add(value);
+			
+		}//FOR
+		
+	}//METHOD
+	
+	/**
+	 * Copies the DVK information from the catalog into the columns so the database can be modified.
+	 */
+	private void releaseCatalog()
+	{
+		if(catalog != null)
+		{
+			DvkCatalog dvkCatalog = catalog;
+			catalog = null;
+			ensureCapacity(size + 1);
+			for(int i = 0; i < size; i++)
+			{
+				//DVK
+				dvkDirectories[i] = dvkCatalog.getDirectoryIndex(i);
+				dvkNames[i] = dvkCatalog.getDvkName(i);
+				ids[i] = dvkCatalog.getID(i);
+				
+				//INFO
+				titles[i] = dvkCatalog.getTitle(i);
+				artists[i] = dvkCatalog.getArtists(i);
+				times[i] = dvkCatalog.getTime(i);
+				webTags[i] = dvkCatalog.getWebTags(i);
+				
+				//FILE
+				mediaNames[i] = dvkCatalog.getMediaName(i);
+				secondaryNames[i] = dvkCatalog.getSecondaryName(i);
+				
+				//LAZY FIELDS
+				lazyRows[i] = lazyFields;
+				if(!lazyFields)
+				{
+					descriptions[i] = dvkCatalog.getDescription(i);
+					pageURLs[i] = dvkCatalog.getPageURL(i);
+					directURLs[i] = dvkCatalog.getDirectURL(i);
+					secondaryURLs[i] = dvkCatalog.getSecondaryURL(i);
+					
+				}//IF
+				
+			}//FOR
+			
+		}//IF
+		
+	}//METHOD
+	
+	/**
+	 * Returns the ID index, building it from the loaded DVKs if necessary.
+	 * 
+	 * @return ID Index
+	 */
+	private HashMap<String, HashMap<String, int[]>> getIdIndex()
+	{
+		if(idIndex == null)
+		{
+			idIndex = new HashMap<>();
+			for(int i = 0; i < size; i++)
+			{
+				addToIdIndex((catalog == null) ? ids[i] : catalog.getID(i), i);
+				
+			}//FOR
+			
+		}//IF
+		
+		return idIndex;
+		
+	}//METHOD
+	
+	/**
+	 * Returns the DVK file index, building it from the loaded DVKs if necessary.
+	 * 
+	 * @return DVK File Index
+	 */
+	private HashMap<File, Integer> getDvkFileIndex()
+	{
+		if(dvkFileIndex == null)
+		{
+			dvkFileIndex = new HashMap<>();
+			for(int i = 0; i < size; i++)
+			{
+				dvkFileIndex.put(getDvkFile(i).getAbsoluteFile(), Integer.valueOf(i));
+				
+			}//FOR
+			
+		}//IF
+		
+		return dvkFileIndex;
+		
+	}//METHOD
+	
+	/**
+	 * Returns the index of the DVK loaded from a given DVK file.
+	 * 
+	 * @param dvkFile Given DVK File
+	 * @return Index of the DVK, -1 if no loaded DVK has the DVK file
+	 */
+	public int getIndexOfDvkFile(final File dvkFile)
+	{
+		Integer index = getDvkFileIndex().get(dvkFile.getAbsoluteFile());
+		if(index == null)
+		{
+			return -1;
+			
+		}//IF
+		
+		return index.intValue();
+		
+	}//METHOD
+	
+	/**
+	 * Returns the upper case site prefix of a given DVK ID.
+	 * 
+	 * @param id Given ID
+	 * @return Site Prefix
+	 */
+	private static String getIdPrefix(final String id)
+	{
+		return id.substring(0, Math.min(ID_PREFIX_LENGTH, id.length())).toUpperCase();
+		
+	}//METHOD
+	
+	/**
+	 * Returns a given DVK ID without its site prefix.
+	 * 
+	 * @param id Given ID
+	 * @return ID without site prefix
+	 */
+	private static String getIdSuffix(final String id)
+	{
+		return id.substring(Math.min(ID_PREFIX_LENGTH, id.length()));
+		
+	}//METHOD
+	
+	/**
+	 * Adds a DVK index to the ID index.
+	 * 
+	 * @param id ID of the DVK
+	 * @param index Index of the DVK
+	 */
+	private void addToIdIndex(final String id, final int index)
+	{
+		if(id != null)
+		{
+			String prefix = getIdPrefix(id);
+			HashMap<String, int[]> partition = idIndex.get(prefix);
+			if(partition == null)
+			{
+				partition = new HashMap<>();
+				idIndex.put(prefix, partition);
+				
+			}//IF
+			
+			String suffix = getIdSuffix(id);
+			int[] rows = partition.get(suffix);
+			if(rows == null)
+			{
+				partition.put(suffix, new int[]{index});
+				
+			}//IF
+			else
+			{
+				rows = Arrays.copyOf(rows, rows.length + 1);
+				rows[rows.length - 1] = index;
+				partition.put(suffix, rows);
+				
+			}//ELSE
+			
+		}//IF
+		
+	}//METHOD
+	
+	/**
+	 * Removes a DVK index from the ID index.
+	 * 
+	 * @param id ID of the DVK
+	 * @param index Index of the DVK
+	 */
+	private void removeFromIdIndex(final String id, final int index)
+	{
+		if(id != null)
+		{
+			HashMap<String, int[]> partition = idIndex.get(getIdPrefix(id));
+			if(partition != null)
+			{
+				String suffix = getIdSuffix(id);
+				int[] rows = partition.get(suffix);
+				if(rows != null)
+				{
+					int[] remaining = new int[rows.length];
+					int count = 0;
+					for(int row: rows)
+					{
+						if(row != index)
+						{
+							remaining[count] = row;
+							count++;
+							
+						}//IF
+						
+					}//FOR
+					
+					if(count == 0)
+					{
+						partition.remove(suffix);
+						
+					}//IF
+					else
+					{
+						partition.put(suffix, Arrays.copyOf(remaining, count));
+						
+					}//ELSE
+					
+				}//IF
+				
+			}//IF
+			
+		}//IF
+		
+	}//METHOD
+	
+	/**
+	 * Returns whether a DVK with a given ID is loaded. The site prefix of the ID is not case sensitive.
+	 * 
+	 * @param id Given ID
+	 * @return Whether a DVK with the ID is loaded
+	 */
+	public boolean containsID(final String id)
+	{
+		return getIndexesOfID(id).length > 0;
+		
+	}//METHOD
+	
+	/**
+	 * Returns the indexes of all DVKs with a given ID. The site prefix of the ID is not case sensitive.
+	 * 
+	 * @param id Given ID
+	 * @return Indexes of DVKs with the ID
+	 */
+	public int[] getIndexesOfID(final String id)
+	{
+		if(id != null)
+		{
+			HashMap<String, int[]> partition = getIdIndex().get(getIdPrefix(id));
+			if(partition != null)
+			{
+				int[] rows = partition.get(getIdSuffix(id));
+				if(rows != null)
+				{
+					return rows.clone();
+					
+				}//IF
+				
+			}//IF
+			
+		}//IF
+		
+		return EMPTY_INDEXES;
+		
+	}//METHOD
+	
+	/**
+	 * Returns a copy of the IDs of every loaded DVK from a given site, without the site prefix.
+	 * 
+	 * @param prefix Site prefix of the IDs
+	 * @param caseSensitive Whether the prefix of a DVK's ID must match the given prefix exactly
+	 * @return Set of IDs without the site prefix
+	 */
+	public HashSet<String> getIDsWithPrefix(final String prefix, final boolean caseSensitive)
+	{
+		HashMap<String, int[]> partition = getIdIndex().get(prefix.toUpperCase());
+		if(partition == null)
+		{
+			return new HashSet<>();
+			
+		}//IF
+		
+		if(!caseSensitive)
+		{
+			return new HashSet<>(partition.keySet());
+			
+		}//IF
+		
+		HashSet<String> idStrings = new HashSet<>();
+		for(Map.Entry<String, int[]> entry: partition.entrySet())
+		{
+			for(int row: entry.getValue())
+			{
+				if(getID(row).startsWith(prefix))
+				{
+					idStrings.add(entry.getKey());
+					break;
+					
+				}//IF
+				
+			}//FOR
+			
+		}//FOR
+		
+		return idStrings;
+		
+	}//METHOD
+	
+	/**
+	 * Returns the indexes of DVKs that share their ID with at least one other DVK, grouped by ID.
+	 * 
+	 * @return Groups of DVK indexes with identical IDs
+	 */
+	public ArrayList<int[]> getIdenticalIDs()
+	{
+		ArrayList<int[]> identical = new ArrayList<>();
+		for(HashMap<String, int[]> partition: getIdIndex().values())
+		{
+			for(int[] rows: partition.values())
+			{
+				if(rows.length > 1)
+				{
+					//SPLIT GROUPS WHOSE PREFIXES ONLY MATCH WHEN IGNORING CASE
+					LinkedHashMap<String, ArrayList<Integer>> groups = new LinkedHashMap<>();
+					for(int row: rows)
+					{
+						String id = getID(row);
+						ArrayList<Integer> group = groups.get(id);
+						if(group == null)
+						{
+							group = new ArrayList<>();
+							groups.put(id, group);
+							
+						}//IF
+						
+						group.add(Integer.valueOf(row));
+						
+					}//FOR
+					
+					for(ArrayList<Integer> group: groups.values())
+					{
+						if(group.size() > 1)
+						{
+							int[] groupRows = new int[group.size()];
+							for(int i = 0; i < groupRows.length; i++)
+							{
+								groupRows[i] = group.get(i).intValue();
+								
+							}//FOR
+							
+							identical.add(groupRows);
+							
+						}//IF
+						
+					}//FOR
+					
+				}//IF
+				
+			}//FOR
+			
+		}//FOR
+		
+		return identical;
+		
+	}//METHOD
+	
+	/**
+	 * Drops the descriptions and URLs of all loaded DVKs from memory so they are read from the DVK files when requested.
+	 */
+	private void dropLazyFields()
+	{
+		if(catalog == null)
+		{
+			for(int i = 0; i < size; i++)
+			{
+				descriptions[i] = null;
+				pageURLs[i] = null;
+				directURLs[i] = null;
+				secondaryURLs[i] = null;
+				lazyRows[i] = true;
+				
+			}//FOR
+			
+		}//IF
+		
+	}//METHOD
+	
+	/**
+	 * Returns the description and URLs of the DVK at a given index, reading them from the DVK file if they aren't cached.
+	 * 
+	 * @param index Given Index
+	 * @return Array holding the description, page URL, direct URL, and secondary URL
+	 */
+	private String[] getLazyFields(final int index)
+	{
+		File dvkFile = getDvkFile(index);
+		String[] fields;
+		synchronized(lazyCache)
+		{
+			fields = lazyCache.get(dvkFile);
+			
+		}//SYNCHRONIZED
+		
+		if(fields == null)
+		{
+			DVK dvk = new DVK(dvkFile);
+			fields = new String[4];
+			fields[LAZY_DESCRIPTION] = dvk.getDescription();
+			fields[LAZY_PAGE_URL] = dvk.getPageURL();
+			fields[LAZY_DIRECT_URL] = dvk.getDirectURL();
+			fields[LAZY_SECONDARY_URL] = dvk.getSecondaryURL();
+			synchronized(lazyCache)
+			{
+				lazyCache.put(dvkFile, fields);
+				
+			}//SYNCHRONIZED
+			
+		}//IF
+		
+		return fields;
+		
+	}//METHOD
+	
+	/**
+	 * Access-ordered map that holds the lazy fields of recently used DVKs, removing the least recently used DVK once full.
+	 * 
+	 * @author Drakovek
+	 * @version 2.0
+	 */
+	private static class LazyCache extends LinkedHashMap<File, String[]>
+	{
+		/**
+		 * SerialVersionUID
+		 */
+		private static final long serialVersionUID = -4620971184735530196L;
+		
+		/**
+		 * Initializes the LazyCache class.
+		 */
+		public LazyCache()
+		{
+			super(LAZY_CACHE_SIZE * 2, 0.75f, true);
+			
+		}//CONSTRUCTOR
+		
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<File, String[]> eldest)
+		{
+			return size() > LAZY_CACHE_SIZE;
+			
+		}//METHOD
+		
+	}//CLASS
+	
+	/**
+	 * Returns the number of DVKs loaded.
+	 * 
+	 * @return Number of DVKs loaded
+	 */
+	public int getSize()
+	{
+		return size;
+		
+	}//METHOD
+	
+	/**
+	 * Replaces the DVK at a given index with a given DVK.
+	 * 
+	 * @param dvk Given DVK
+	 * @param index Given Index
+	 */
+	public void setDVK(DVK dvk, final int index)
+	{
+		checkIndex(index);
+		releaseCatalog();
+		setRow(index, dvk);
+		
+	}//METHOD
+	
+	/**
+	 * Adds a given DVK to the database.
+	 * 
+	 * @param dvk Given DVK
+	 */
+	public void addDVK(DVK dvk)
+	{
+		releaseCatalog();
+		ensureCapacity(size + 1);
+		setRow(size, dvk);
+		size++;
+		
+	}//METHOD
+	
+	/**
+	 * Removes the DVKs at all the flagged indexes, moving the remaining DVKs down to fill the gaps while keeping their order.
+	 * 
+	 * @param removed Flags for which indexes to remove, with indexes matching the database
+	 * @return New index of every previous index, -1 for removed DVKs
+	 */
+	public int[] removeDVKs(final boolean[] removed)
+	{
+		releaseCatalog();
+		int[] newIndexes = new int[size];
+		int kept = 0;
+		for(int i = 0; i < size; i++)
+		{
+			if(i < removed.length && removed[i])
+			{
+				newIndexes[i] = -1;
+				
+			}//IF
+			else
+			{
+				newIndexes[i] = kept;
+				if(kept != i)
+				{
+					//DVK
+					dvkDirectories[kept] = dvkDirectories[i];
+					dvkNames[kept] = dvkNames[i];
+					ids[kept] = ids[i];
+					
+					//INFO
+					titles[kept] = titles[i];
+					if(lowerTitles != null)
+					{
+						lowerTitles[kept] = lowerTitles[i];
+						
+					}//IF
+					
+					artists[kept] = artists[i];
+					times[kept] = times[i];
+					webTags[kept] = webTags[i];
+					descriptions[kept] = descriptions[i];
+					
+					//WEB
+					pageURLs[kept] = pageURLs[i];
+					directURLs[kept] = directURLs[i];
+					secondaryURLs[kept] = secondaryURLs[i];
+					
+					//FILE
+					mediaNames[kept] = mediaNames[i];
+					secondaryNames[kept] = secondaryNames[i];
+					lazyRows[kept] = lazyRows[i];
+					
+				}//IF
+				
+				kept++;
+				
+			}//ELSE
+			
+		}//FOR
+		
+		//CLEAR REFERENCES PAST THE NEW SIZE
+		for(int i = kept; i < size; i++)
+		{
+			dvkNames[i] = null;
+			ids[i] = null;
+			titles[i] = null;
+			if(lowerTitles != null)
+			{
+				lowerTitles[i] = null;
+				
+			}//IF
+			
+			artists[i] = null;
+			webTags[i] = null;
+			descriptions[i] = null;
+			pageURLs[i] = null;
+			directURLs[i] = null;
+			secondaryURLs[i] = null;
+			mediaNames[i] = null;
+			secondaryNames[i] = null;
+			
+		}//FOR
+		
+		//MOVE DVK FILE INDEX ENTRIES TO THE NEW INDEXES
+		if(dvkFileIndex != null)
+		{
+			Iterator<Map.Entry<File, Integer>> iterator = dvkFileIndex.entrySet().iterator();
+			while(iterator.hasNext())
+			{
+				Map.Entry<File, Integer> entry = iterator.next();
+				int newIndex = newIndexes[entry.getValue().intValue()];
+				if(newIndex == -1)
+				{
+					iterator.remove();
+					
+				}//IF
+				else
+				{
+					entry.setValue(Integer.valueOf(newIndex));
+					
+				}//ELSE
+				
+			}//WHILE
+			
+		}//IF
+		
+		size = kept;
+		idIndex = null;
+		mediaIndex = null;
+		secondaryIndex = null;
+		artistPostings = null;
+		webTagPostings = null;
+		trigramIndex = null;
+		return newIndexes;
+		
+	}//METHOD
+	
+	/**
+	 * Sets the column values at a given index to match a given DVK.
+	 * 
+	 * @param index Given Index
+	 * @param dvk Given DVK
+	 */
+	private void setRow(final int index, DVK dvk)
+	{
+		Long time = null;
+		if(dvk.getTime() != 0L)
+		{
+			time = Long.valueOf(dvk.getTime());
+			
+		}//IF
+		
+		setRow(index, dvk.getDvkFile(), dvk.getID(), dvk.getTitle(), dvk.getArtists(), time, dvk.getWebTags(), dvk.getDescription(), dvk.getPageURL(), dvk.getDirectURL(), dvk.getSecondaryURL(), dvk.getMediaFile(), dvk.getSecondaryFile());
+		
+	}//METHOD
+	
+	/**
+	 * Sets the column values at a given index.
+	 * 
+	 * @param index Given Index
+	 * @param dvkFile DVK File
+	 * @param id ID
+	 * @param title Title
+	 * @param artistArray Artists
+	 * @param time Time, null if not set
+	 * @param webTagArray Web Tags
+	 * @param description Description
+	 * @param pageURL Page URL
+	 * @param directURL Direct URL
+	 * @param secondaryURL Secondary URL
+	 * @param mediaFile Media File
+	 * @param secondaryFile Secondary Media File
+	 */
+	private void setRow(final int index, final File dvkFile, final String id, final String title, final String[] artistArray, final Long time, final String[] webTagArray, final String description, final String pageURL, final String directURL, final String secondaryURL, final File mediaFile, final File secondaryFile)
+	{
+		//DVK
+		if(dvkFileIndex != null && index < size)
+		{
+			File previousFile = getFile(dvkDirectories[index], dvkNames[index]);
+			if(previousFile != null && Integer.valueOf(index).equals(dvkFileIndex.get(previousFile.getAbsoluteFile())))
+			{
+				dvkFileIndex.remove(previousFile.getAbsoluteFile());
+				
+			}//IF
+			
+		}//IF
+		
+		if(dvkFileIndex != null && dvkFile != null)
+		{
+			dvkFileIndex.put(dvkFile.getAbsoluteFile(), Integer.valueOf(index));
+			
+		}//IF
+		
+		File directory = null;
+		if(dvkFile == null)
+		{
+			dvkNames[index] = null;
+			
+		}//IF
+		else
+		{
+			directory = dvkFile.getParentFile();
+			dvkNames[index] = dvkFile.getName();
+			
+		}//ELSE
+		
+		dvkDirectories[index] = getDirectoryIndex(directory);
+		if(idIndex != null && index < size)
+		{
+			removeFromIdIndex(ids[index], index);
+			
+		}//IF
+		
+		ids[index] = id;
+		if(idIndex != null)
+		{
+			addToIdIndex(id, index);
+			
+		}//IF
+		
+		
+		//INFO
+		titles[index] = title;
+		if(lowerTitles != null)
+		{
+			lowerTitles[index] = getLowerCase(title);
+			
+		}//IF
+		
+		artists[index] = getDictionaryIndexes(artistArray);
+		if(time == null)
+		{
+			times[index] = 0L;
+			
+		}//IF
+		else
+		{
+			times[index] = time.longValue();
+			
+		}//ELSE
+		webTags[index] = getDictionaryIndexes(webTagArray);
+		descriptions[index] = description;
+		
+		//WEB
+		pageURLs[index] = pageURL;
+		directURLs[index] = directURL;
+		secondaryURLs[index] = secondaryURL;
+		
+		//FILE
+		mediaNames[index] = getRelativeName(directory, mediaFile);
+		secondaryNames[index] = getRelativeName(directory, secondaryFile);
+		mediaIndex = null;
+		secondaryIndex = null;
+		artistPostings = null;
+		webTagPostings = null;
+		if(trigramIndex != null && index < trigramIndex.getSize())
+		{
+			trigramIndex = null;
+			
+		}//IF
+		
+		lazyRows[index] = false;
+		if(dvkFile != null)
+		{
+			synchronized(lazyCache)
+			{
+				lazyCache.remove(dvkFile);
+				
+			}//SYNCHRONIZED
+			
+		}//IF
+		
+	}//METHOD
+	
+	/**
+	 * Returns the index of a given directory in the directory table, adding it to the table if necessary.
+	 * 
+	 * @param directory Given Directory
+	 * @return Index of the directory in the directory table
+	 */
+	private int getDirectoryIndex(final File directory)
+	{
+		Integer index = directoryIndexes.get(directory);
+		if(index == null)
+		{
+			index = Integer.valueOf(directories.size());
+			directories.add(directory);
+			directoryIndexes.put(directory, index);
+			
+		}//IF
+		
+		return index.intValue();
+		
+	}//METHOD
+	
+	/**
+	 * Returns the dictionary indexes for a given String array, adding Strings to the dictionary table if necessary.
+	 * 
+	 * @param strings Given String array
+	 * @return Dictionary indexes
+	 */
+	private int[] getDictionaryIndexes(final String[] strings)
+	{
+		if(strings == null || strings.length == 0)
+		{
+			return EMPTY_INDEXES;
+			
+		}//IF
+		
+		int[] indexes = new int[strings.length];
+		for(int i = 0; i < strings.length; i++)
+		{
+			Integer index = dictionaryIndexes.get(strings[i]);
+			if(index == null)
+			{
+				index = Integer.valueOf(dictionary.size());
+				dictionary.add(strings[i]);
+				dictionaryIndexes.put(strings[i], index);
+				
+			}//IF
+			
+			indexes[i] = index.intValue();
+			
+		}//FOR
+		
+		return indexes;
+		
+	}//METHOD
+	
+	/**
+	 * Returns the Strings represented by given dictionary indexes.
+	 * 
+	 * @param indexes Dictionary Indexes
+	 * @return String array
+	 */
+	private String[] getDictionaryStrings(final int[] indexes)
+	{
+		String[] strings = new String[indexes.length];
+		for(int i = 0; i < indexes.length; i++)
+		{
+			strings[i] = dictionary.get(indexes[i]);
+			
+		}//FOR
+		
+		return strings;
+		
+	}//METHOD
+	
+	/**
+	 * Returns the name of a file relative to a given directory. If the file isn't in the given directory, returns the full path instead.
+	 * 
+	 * @param directory Given Directory
+	 * @param file Given File
+	 * @return Relative file name
+	 */
+	private static String getRelativeName(final File directory, final File file)
+	{
+		if(file == null)
+		{
+			return null;
+			
+		}//IF
+		
+		File parent = file.getParentFile();
+		if(parent == null ? directory == null : parent.equals(directory))
+		{
+			return file.getName();
+			
+		}//IF
+		
+		return file.getPath();
+		
+	}//METHOD
+	
+	/**
+	 * Returns the file represented by a relative file name and a given directory index.
+	 * 
+	 * @param directoryIndex Index in the directory table
+	 * @param name Relative file name
+	 * @return File
+	 */
+	private File getFile(final int directoryIndex, final String name)
+	{
+		if(name == null)
+		{
+			return null;
+			
+		}//IF
+		
+		if(name.indexOf(File.separatorChar) != -1)
+		{
+			return new File(name);
+			
+		}//IF
+		
+		return new File(directories.get(directoryIndex), name);
+		
+	}//METHOD
+	
+	/**
+	 * Checks that a given index refers to a loaded DVK.
+	 * 
+	 * @param index Index
+	 */
+	private void checkIndex(final int index)
+	{
+		if(index < 0 || index >= size)
+		{
+			throw new IndexOutOfBoundsException(Integer.toString(index));
+			
+		}//IF
+		
+	}//METHOD
+	
+	/**
+	 * Gets the DVK File from the DVK at a given index.
+	 * 
+	 * @param index Index
+	 * @return DVK File
+	 */
+	public File getDvkFile(final int index)
+	{
+		checkIndex(index);
+		return getFile(getDirectoryIndexOf(index), getDvkName(index));
+		
+	}//METHOD
+	
+	/**
+	 * Gets the ID from the DVK at a given index.
+	 * 
+	 * @param index Index
+	 * @return ID
+	 */
+	public String getID(final int index)
+	{
+		checkIndex(index);
+		String id = (catalog == null) ? ids[index] : catalog.getID(index);
+		if(id != null)
+		{
+			return id;
+			
+		}//IF
+		
+		return new String();
+		
+	}//METHOD
+	
+	/**
+	 * Gets the Title from the DVK at a given index.
+	 * 
+	 * @param index Index
+	 * @return Title
+	 */
+	public String getTitle(final int index)
+	{
+		checkIndex(index);
+		String title = (catalog == null) ? titles[index] : catalog.getTitle(index);
+		
+		if(title != null)
+		{
+			return title;
+			
+		}//IF
+		
+		return new String();
+		
+	}//METHOD
+	
+	/**
+	 * Gets the lower case Title from the DVK at a given index, for searching titles case insensitively without lower casing them for every search.<br/>
+	 * The lower case title column is built the first time it's requested, then kept up to date as DVKs change.
+	 * 
+	 * @param index Index
+	 * @return Lower Case Title
+	 */
+	public String getLowerTitle(final int index)
+	{
+		checkIndex(index);
+		String[] column = lowerTitles;
+		if(column == null)
+		{
+			column = buildLowerTitles();
+			
+		}//IF
+		
+		return column[index];
+		
+	}//METHOD
+	
+	/**
+	 * Builds the lower case title column, if it hasn't already been built.
+	 * 
+	 * @return Lower Case Title Column
+	 */
+	private synchronized String[] buildLowerTitles()
+	{
+		if(lowerTitles == null)
+		{
+			String[] column = new String[Math.max(size, ids.length)];
+			for(int i = 0; i < size; i++)
+			{
+				column[i] = getLowerCase(getTitle(i));
+				
+			}//FOR
+			
+			lowerTitles = column;
+			
+		}//IF
+		
+		return lowerTitles;
+		
+	}//METHOD
+	
+	/**
+	 * Returns a given String in lower case, treating null as an empty String.
+	 * 
+	 * @param value Given String
+	 * @return Lower Case String
+	 */
+	private static String getLowerCase(final String value)
+	{
+		if(value == null)
+		{
+			return new String();
+			
+		}//IF
+		
+		return value.toLowerCase();
+		
+	}//METHOD
+	
+	/**
+	 * Gets the Artists from the DVK at a given index.
+	 * 
+	 * @param index Index
+	 * @return Artists
+	 */
+	public String[] getArtists(final int index)
+	{
+		checkIndex(index);
+		int[] artistIndexes = getArtistIDs(index);
+		if(artistIndexes.length == 0)
+		{
+			String[] artistArray = new String[1];
+			artistArray[0] = new String();
+			return artistArray;
+			
+		}//IF
+		
+		return getDictionaryStrings(artistIndexes);
+		
+	}//METHOD
+	
+	/**
+	 * Gets the time from the DVK at a given index.
+	 * 
+	 * @param index Index
+	 * @return Time
+	 */
+	public long getTime(final int index)
+	{
+		checkIndex(index);
+		if(catalog != null)
+		{
+			return catalog.getTime(index);
+			
+		}//IF
+		
+		return times[index];
+		
+	}//METHOD
+	
+	/**
+	 * Gets the web tags from the DVK at a given index.
+	 * 
+	 * @param index Index
+	 * @return Web Tags
+	 */
+	public String[] getWebTags(final int index)
+	{
+		checkIndex(index);
+		return getDictionaryStrings(getWebTagIDs(index));
+		
+	}//METHOD
+	
+	/**
+	 * Gets the description from the DVK at a given index.
+	 * 
+	 * @param index Index
+	 * @return Description
+	 */
+	public String getDescription(final int index)
+	{
+		checkIndex(index);
+		String description = (catalog == null) ? descriptions[index] : catalog.getDescription(index);
+		if(catalog == null && lazyRows[index])
+		{
+			description = getLazyFields(index)[LAZY_DESCRIPTION];
+			
+		}//IF
+		
+		if(description != null)
+		{
+			return description;
+			
+		}//IF
+		
+		return new String();
+		
+	}//METHOD
+	
+	/**
+	 * Gets the page URL from the DVK at a given index.
+	 * 
+	 * @param index Index
+	 * @return Page URL
+	 */
+	public String getPageURL(final int index)
+	{
+		checkIndex(index);
+		String pageURL = (catalog == null) ? pageURLs[index] : catalog.getPageURL(index);
+		if(catalog == null && lazyRows[index])
+		{
+			pageURL = getLazyFields(index)[LAZY_PAGE_URL];
+			
+		}//IF
+		
+		if(pageURL != null)
+		{
+			return pageURL;
+			
+		}//IF
+		
+		return new String();
+		
+	}//METHOD
+	
+	/**
+	 * Gets the direct URL from the DVK at a given index.
+	 * 
+	 * @param index Index
+	 * @return Media URL
+	 */
+	public String getDirectURL(final int index)
+	{
+		checkIndex(index);
+		String directURL = (catalog == null) ? directURLs[index] : catalog.getDirectURL(index);
+		if(catalog == null && lazyRows[index])
+		{
+			directURL = getLazyFields(index)[LAZY_DIRECT_URL];
+			
+		}//IF
+		
+		if(directURL != null)
+		{
+			return directURL;
+			
+		}//IF
+		
+		return new String();
+		
+	}//METHOD
+	
+	/**
+	 * Gets the secondary media URL from the DVK at a given index.
+	 * 
+	 * @param index Index
+	 * @return Secondary URL
+	 */
+	public String getSecondaryURL(final int index)
+	{
+		checkIndex(index);
+		String secondaryURL = (catalog == null) ? secondaryURLs[index] : catalog.getSecondaryURL(index);
+		if(catalog == null && lazyRows[index])
+		{
+			secondaryURL = getLazyFields(index)[LAZY_SECONDARY_URL];
+			
+		}//IF
+		
+		if(secondaryURL != null)
+		{
+			return secondaryURL;
+			
+		}//IF
+		
+		return new String();
+		
+	}//METHOD
+	
+	/**
+	 * Gets the media file from the DVK at a given index.
+	 * 
+	 * @param index Index
+	 * @return Media File
+	 */
+	public File getMediaFile(final int index)
+	{
+		checkIndex(index);
+		return getFile(getDirectoryIndexOf(index), getMediaName(index));
+		
+	}//METHOD
+	
+	/**
+	 * Returns whether the list of media files contains a given file.
+	 * 
+	 * @param file Given File
+	 * @return Whether file is contained in media file list
+	 */
+	public boolean containsMediaFile(final File file)
+	{
+		return containsFile(file, false);
+		
+	}//METHOD
+	
+	/**
+	 * Returns the secondary media file from the DVK at a given index.
+	 * 
+	 * @param index Index
+	 * @return Secondary File
+	 */
+	public File getSecondaryFile(final int index)
+	{
+		checkIndex(index);
+		return getFile(getDirectoryIndexOf(index), getSecondaryName(index));
+		
+	}//METHOD
+	
+	/**
+	 * Returns whether the list of secondary files contains a given file.
+	 * 
+	 * @param file Given File
+	 * @return Whether file is contained in secondary file list
+	 */
+	public boolean containsSecondaryFile(final File file)
+	{
+		return containsFile(file, true);
+		
+	}//METHOD
+	
+	/**
+	 * Returns whether the media file or secondary file column contains a given file.
+	 * 
+	 * @param file Given File
+	 * @param secondary Whether to search the secondary file column rather than the media file column
+	 * @return Whether the file is contained in the column
+	 */
+	private boolean containsFile(final File file, final boolean secondary)
+	{
+		if(file == null)
+		{
+			for(int i = 0; i < size; i++)
+			{
+				if(getFileName(i, secondary) == null)
+				{
+					return true;
+					
+				}//IF
+				
+			}//FOR
+			
+			return false;
+			
+		}//IF
 		
-		return FileSort.sortFiles(directories);
+		HashSet<String> names = getFileIndex(secondary).get(file.getParentFile());
+		return names != null && names.contains(file.getName());
 		
 	}//METHOD
 	
 	/**
-	 * Returns a list of all the directories and sub-directories within a given folder that contain DVK files.
+	 * Returns the media file or secondary file index, building it from the loaded DVKs if necessary.
 	 * 
-	 * @param inputFolder Given Directory
-	 * @return List of Directories containing DVKs
+	 * @param secondary Whether to return the secondary file index rather than the media file index
+	 * @return Map of parent directories to the names of linked files they contain
 	 */
-	private static ArrayList<File> getDvkFolders(final File inputFolder)
+	private synchronized HashMap<File, HashSet<String>> getFileIndex(final boolean secondary)
 	{
-		if(inputFolder != null && inputFolder.isDirectory())
+		HashMap<File, HashSet<String>> fileIndex = secondary ? secondaryIndex : mediaIndex;
+		if(fileIndex == null)
 		{
-			String[] extension = {DVK.DVK_EXTENSION};
-			ExtensionFilter filter = new ExtensionFilter(extension, false);
-			ArrayList<File> dvkFolders = new ArrayList<>();
-			ArrayList<File> directories = new ArrayList<>();
-			directories.add(inputFolder);
-			
-			while(directories.size() > 0)
+			fileIndex = new HashMap<>();
+			for(int i = 0; i < size; i++)
 			{
-				File[] files = directories.get(0).listFiles(filter);
-				boolean hasDVK = false;
-				
-				for(int i = 0; i < files.length; i++)
+				File file = getFile(getDirectoryIndexOf(i), getFileName(i, secondary));
+				if(file != null)
 				{
-					if(files[i].isDirectory())
+					HashSet<String> names = fileIndex.get(file.getParentFile());
+					if(names == null)
 					{
-						directories.add(files[i]);
+						names = new HashSet<>();
+						fileIndex.put(file.getParentFile(), names);
 						
 					}//IF
-					else
-					{
-						hasDVK = true;
-						
-					}//ELSE
 					
-				}//FOR
-				
-				if(hasDVK)
-				{
-					dvkFolders.add(directories.get(0));
+					names.add(file.getName());
 					
 				}//IF
 				
-				directories.remove(0);
-				
-			}//WHILE
+			}//FOR
 			
-			return FileSort.sortFiles(dvkFolders);
+			if(secondary)
+			{
+				secondaryIndex = fileIndex;
+				
+			}//IF
+			else
+			{
+				mediaIndex = fileIndex;
+				
+			}//ELSE
 			
 		}//IF
 		
-		return new ArrayList<>();
+		return fileIndex;
 		
 	}//METHOD
 	
 	/**
-	 * Adds all DVKs from a given folder into the object's list of DVK information
-	 *  
-	 * @param dvkDirectory Directory from which to load DVKs
+	 * Returns the names of all files in a given directory that are linked to a loaded DVK as a media file or secondary media file.
+	 * 
+	 * @param directory Given Directory
+	 * @return Names of linked files
 	 */
-	private void addDVKs(DvkDirectory dvkDirectory)
+	public HashSet<String> getLinkedFileNames(final File directory)
 	{
-		//DVK
-		dvkFiles.addAll(dvkDirectory.getDvkFiles());
-		ids.addAll(dvkDirectory.getIDs());
-		
-		//INFO
-		titles.addAll(dvkDirectory.getTitles());
-		artists.addAll(dvkDirectory.getArtists());
-		times.addAll(dvkDirectory.getTimes());
-		webTags.addAll(dvkDirectory.getWebTags());
-		descriptions.addAll(dvkDirectory.getDescriptions());
-
-		//WEB
-		pageURLs.addAll(dvkDirectory.getPageURLs());
-		directURLs.addAll(dvkDirectory.getDirectURLs());
-		secondaryURLs.addAll(dvkDirectory.getSecondaryURLs());
+		HashSet<String> linked = new HashSet<>();
+		HashSet<String> names = getFileIndex(false).get(directory);
+		if(names != null)
+		{
+			linked.addAll(names);
+			
+		}//IF
 		
-		//FILE
-		mediaFiles.addAll(dvkDirectory.getMediaFiles());
-		secondaryFiles.addAll(dvkDirectory.getSecondaryFiles());
+		names = getFileIndex(true).get(directory);
+		if(names != null)
+		{
+			linked.addAll(names);
+			
+		}//IF
 		
-	}//METHOD
-	
-	/**
-	 * Returns the number of DVKs loaded.
-	 * 
-	 * @return Number of DVKs loaded
-	 */
-	public int getSize()
-	{
-		return dvkFiles.size();
+		return linked;
 		
 	}//METHOD
 	
 	/**
-	 * Replaces the DVK at a given index with a given DVK.
+	 * Returns the relative media file or secondary file name at a given index.
 	 * 
-	 * @param dvk Given DVK
 	 * @param index Given Index
+	 * @param secondary Whether to return the secondary file name rather than the media file name
+	 * @return Relative file name
 	 */
-	public void setDVK(DVK dvk, final int index)
+	private String getFileName(final int index, final boolean secondary)
 	{
-		//DVK
-		dvkFiles.set(index, dvk.getDvkFile());
-		ids.set(index, dvk.getID());
-				
-		//INFO
-		titles.set(index, dvk.getTitle());
-		artists.set(index, dvk.getArtists());
-		if(dvk.getTime() == 0)
+		if(secondary)
 		{
-			times.set(index, null);
+			return getSecondaryName(index);
 			
 		}//IF
-		else
-		{
-			times.set(index, Long.valueOf(dvk.getTime()));
-			
-		}//ELSE
-		webTags.set(index, dvk.getWebTags());
-		descriptions.set(index, dvk.getDescription());
-
-		//WEB
-		pageURLs.set(index, dvk.getPageURL());
-		directURLs.set(index, dvk.getDirectURL());
-		secondaryURLs.set(index, dvk.getSecondaryURL());
 		
-		//FILE
-		mediaFiles.set(index, dvk.getMediaFile());
-		secondaryFiles.set(index, dvk.getSecondaryFile());
+		return getMediaName(index);
 		
 	}//METHOD
 	
 	/**
-	 * Adds a given DVK to the database.
+	 * Returns the directory table.
 	 * 
-	 * @param dvk Given DVK
-	 * @param index Given Index
+	 * @return Directory Table
 	 */
-	public void addDVK(DVK dvk)
+	ArrayList<File> getDirectories()
 	{
-		//DVK
-		dvkFiles.add(dvk.getDvkFile());
-		ids.add(dvk.getID());
-				
-		//INFO
-		titles.add(dvk.getTitle());
-		artists.add(dvk.getArtists());
-		if(dvk.getTime() == 0)
-		{
-			times.add(null);
-			
-		}//IF
-		else
-		{
-			times.add(Long.valueOf(dvk.getTime()));
-			
-		}//ELSE
-		webTags.add(dvk.getWebTags());
-		descriptions.add(dvk.getDescription());
-
-		//WEB
-		pageURLs.add(dvk.getPageURL());
-		directURLs.add(dvk.getDirectURL());
-		secondaryURLs.add(dvk.getSecondaryURL());
-		
-		//FILE
-		mediaFiles.add(dvk.getMediaFile());
-		secondaryFiles.add(dvk.getSecondaryFile());
+		return directories;
 		
 	}//METHOD
 	
 	/**
-	 * Gets the DVK File from the DVK at a given index.
+	 * Returns the dictionary table.
 	 * 
-	 * @param index Index
-	 * @return DVK File
+	 * @return Dictionary Table
 	 */
-	public File getDvkFile(final int index)
+	ArrayList<String> getDictionary()
 	{
-		return dvkFiles.get(index);
+		return dictionary;
 		
 	}//METHOD
 	
 	/**
-	 * Gets the ID from the DVK at a given index.
+	 * Returns the directory table index of the DVK File at a given index.
 	 * 
-	 * @param index Index
-	 * @return ID
+	 * @param index Given Index
+	 * @return Directory Table Index
 	 */
-	public String getID(final int index)
+	int getDirectoryIndexOf(final int index)
 	{
-		String id = ids.get(index);
-		if(id != null)
+		if(catalog != null)
 		{
-			return id;
+			return catalog.getDirectoryIndex(index);
 			
 		}//IF
 		
-		return new String();
+		return dvkDirectories[index];
 		
 	}//METHOD
 	
 	/**
-	 * Gets the Title from the DVK at a given index.
+	 * Returns the DVK File name at a given index, relative to its directory.
 	 * 
-	 * @param index Index
-	 * @return Title
+	 * @param index Given Index
+	 * @return DVK File Name
 	 */
-	public String getTitle(final int index)
+	String getDvkName(final int index)
 	{
-		String title = titles.get(index);
-		
-		if(title != null)
+		if(catalog != null)
 		{
-			return title;
+			return catalog.getDvkName(index);
 			
 		}//IF
 		
-		return new String();
+		return dvkNames[index];
 		
 	}//METHOD
 	
 	/**
-	 * Gets the Artists from the DVK at a given index.
+	 * Returns the media file name at a given index, relative to the directory of the DVK File if possible.
 	 * 
-	 * @param index Index
-	 * @return Artists
+	 * @param index Given Index
+	 * @return Media File Name
 	 */
-	public String[] getArtists(final int index)
+	String getMediaName(final int index)
 	{
-		String[] artistArray = artists.get(index);
-		
-		if(artistArray == null || artistArray.length == 0)
+		if(catalog != null)
 		{
-			artistArray = new String[1];
-			artistArray[0] = new String();
+			return catalog.getMediaName(index);
 			
 		}//IF
-
-		return artistArray;
+		
+		return mediaNames[index];
 		
 	}//METHOD
 	
 	/**
-	 * Gets the time from the DVK at a given index.
+	 * Returns the secondary media file name at a given index, relative to the directory of the DVK File if possible.
 	 * 
-	 * @param index Index
-	 * @return Time
+	 * @param index Given Index
+	 * @return Secondary Media File Name
 	 */
-	public long getTime(final int index)
+	String getSecondaryName(final int index)
 	{
-		Long time = times.get(index);
-		
-		if(time != null)
+		if(catalog != null)
 		{
-			return time.longValue();
+			return catalog.getSecondaryName(index);
 			
 		}//IF
 		
-		return 0L;
+		return secondaryNames[index];
 		
 	}//METHOD
 	
 	/**
-	 * Gets the web tags from the DVK at a given index.
+	 * Returns the artists at a given index as dictionary IDs. The returned array should not be modified.
 	 * 
-	 * @param index Index
-	 * @return Web Tags
+	 * @param index Given Index
+	 * @return Artist Dictionary IDs
 	 */
-	public String[] getWebTags(final int index)
+	public int[] getArtistIDs(final int index)
 	{
-		String[] webTagArray = webTags.get(index);
-		
-		if(webTagArray != null)
+		checkIndex(index);
+		if(catalog != null)
 		{
-			return webTagArray;
+			return catalog.getArtists(index);
 			
 		}//IF
 		
-		return new String[0];
+		return artists[index];
 		
 	}//METHOD
 	
 	/**
-	 * Gets the description from the DVK at a given index.
+	 * Returns the web tags at a given index as dictionary IDs. The returned array should not be modified.
 	 * 
-	 * @param index Index
-	 * @return Description
+	 * @param index Given Index
+	 * @return Web Tag Dictionary IDs
 	 */
-	public String getDescription(final int index)
+	public int[] getWebTagIDs(final int index)
 	{
-		String description = descriptions.get(index);
-		
-		if(description != null)
+		checkIndex(index);
+		if(catalog != null)
 		{
-			return description;
+			return catalog.getWebTags(index);
 			
 		}//IF
 		
-		return new String();
+		return webTags[index];
 		
 	}//METHOD
 	
 	/**
-	 * Gets the page URL from the DVK at a given index.
+	 * Returns the artist or web tag String with a given dictionary ID.
 	 * 
-	 * @param index Index
-	 * @return Page URL
+	 * @param id Dictionary ID
+	 * @return Artist or Web Tag
 	 */
-	public String getPageURL(final int index)
+	public String getDictionaryString(final int id)
 	{
-		String pageURL = pageURLs.get(index);
+		return dictionary.get(id);
 		
-		if(pageURL != null)
+	}//METHOD
+	
+	/**
+	 * Returns the rows of the DVKs with any of the artists with given dictionary IDs.
+	 * 
+	 * @param dictionaryIDs Artist Dictionary IDs
+	 * @return Bitmap of matching rows
+	 */
+	public RowBitmap getArtistRows(final int[] dictionaryIDs)
+	{
+		return getRows(getArtistPostings(), dictionaryIDs);
+		
+	}//METHOD
+	
+	/**
+	 * Returns the rows of the DVKs without any artists. getArtists reads these as having a single empty artist, so they match an empty artist search term.
+	 * 
+	 * @return Bitmap of rows without artists
+	 */
+	public RowBitmap getRowsWithoutArtists()
+	{
+		RowBitmap rows = new RowBitmap(size);
+		for(int row = 0; row < size; row++)
 		{
-			return pageURL;
+			if(getArtistIDs(row).length == 0)
+			{
+				rows.set(row);
+				
+			}//IF
 			
-		}//IF
+		}//FOR
 		
-		return new String();
+		return rows;
 		
 	}//METHOD
 	
 	/**
-	 * Gets the direct URL from the DVK at a given index.
+	 * Returns the rows of the DVKs with any of the web tags with given dictionary IDs.
 	 * 
-	 * @param index Index
-	 * @return Media URL
+	 * @param dictionaryIDs Web Tag Dictionary IDs
+	 * @return Bitmap of matching rows
 	 */
-	public String getDirectURL(final int index)
+	public RowBitmap getWebTagRows(final int[] dictionaryIDs)
 	{
-		String directURL = directURLs.get(index);
+		return getRows(getWebTagPostings(), dictionaryIDs);
 		
-		if(directURL != null)
+	}//METHOD
+	
+	/**
+	 * Returns the trigram index of titles and descriptions, building it if necessary.<br/>
+	 * Descriptions are only indexed if they are held in memory or mapped from the catalog.
+	 * 
+	 * @return Trigram Index, null if the trigram index is not used
+	 */
+	public synchronized TrigramIndex getTrigramIndex()
+	{
+		if(!useTrigramIndex)
 		{
-			return directURL;
+			return null;
 			
 		}//IF
 		
-		return new String();
+		if(trigramIndex == null)
+		{
+			trigramIndex = TrigramIndex.build(this, catalog != null || !lazyFields);
+			
+		}//IF
+		
+		return trigramIndex;
 		
 	}//METHOD
-
+	
 	/**
-	 * Gets the secondary media URL from the DVK at a given index.
+	 * Returns the rows listed in the posting lists of given dictionary IDs.
 	 * 
-	 * @param index Index
-	 * @return Secondary URL
+	 * @param postings Posting Lists
+	 * @param dictionaryIDs Dictionary IDs
+	 * @return Bitmap of listed rows
 	 */
-	public String getSecondaryURL(final int index)
+	private RowBitmap getRows(final int[][] postings, final int[] dictionaryIDs)
 	{
-		String secondaryURL = secondaryURLs.get(index);
-		
-		if(secondaryURL != null)
+		RowBitmap rows = new RowBitmap(size);
+		for(int id: dictionaryIDs)
 		{
-			return secondaryURL;
+			if(id < postings.length)
+			{
+				rows.set(postings[id]);
+				
+			}//IF
 			
-		}//IF
+		}//FOR
 		
-		return new String();
+		return rows;
 		
 	}//METHOD
 	
 	/**
-	 * Gets the media file from the DVK at a given index.
+	 * Returns the artist posting lists, building them from the artist column if necessary.
 	 * 
-	 * @param index Index
-	 * @return Media File
+	 * @return Artist Posting Lists
 	 */
-	public File getMediaFile(final int index)
+	private synchronized int[][] getArtistPostings()
 	{
-		return mediaFiles.get(index);
+		if(artistPostings == null)
+		{
+			artistPostings = buildPostings(true);
+			
+		}//IF
+		
+		return artistPostings;
 		
 	}//METHOD
 	
 	/**
-	 * Returns whether the list of media files contains a given file.
+	 * Returns the web tag posting lists, building them from the web tag column if necessary.
 	 * 
-	 * @param file Given File
-	 * @return Whether file is contained in media file list
+	 * @return Web Tag Posting Lists
 	 */
-	public boolean containsMediaFile(final File file)
+	private synchronized int[][] getWebTagPostings()
 	{
-		return mediaFiles.contains(file);
+		if(webTagPostings == null)
+		{
+			webTagPostings = buildPostings(false);
+			
+		}//IF
+		
+		return webTagPostings;
 		
 	}//METHOD
 	
 	/**
-	 * Returns the secondary media file from the DVK at a given index.
+	 * Builds posting lists from the artist or web tag column in two passes, counting the rows of each dictionary ID before filling the lists in row order.
 	 * 
-	 * @param index Index
-	 * @return Secondary File
+	 * @param artistColumn Whether to build from the artist column rather than the web tag column
+	 * @return Posting Lists, with dictionary IDs as indexes
 	 */
-	public File getSecondaryFile(final int index)
+	private int[][] buildPostings(final boolean artistColumn)
 	{
-		return secondaryFiles.get(index);
+		int[] counts = new int[dictionary.size()];
+		for(int row = 0; row < size; row++)
+		{
+			for(int id: artistColumn ? getArtistIDs(row) : getWebTagIDs(row))
+			{
+				counts[id]++;
+				
+			}//FOR
+			
+		}//FOR
+		
+		int[][] postings = new int[counts.length][];
+		for(int id = 0; id < counts.length; id++)
+		{
+			postings[id] = (counts[id] == 0) ? EMPTY_INDEXES : new int[counts[id]];
+			counts[id] = 0;
+			
+		}//FOR
+		
+		for(int row = 0; row < size; row++)
+		{
+			for(int id: artistColumn ? getArtistIDs(row) : getWebTagIDs(row))
+			{
+				postings[id][counts[id]] = row;
+				counts[id]++;
+				
+			}//FOR
+			
+		}//FOR
+		
+		return postings;
 		
 	}//METHOD
 	
 	/**
-	 * Returns whether the list of secondary files contains a given file.
+	 * Returns the dictionary IDs of every artist or web tag matching each of a list of search terms.
 	 * 
-	 * @param file Given File
-	 * @return Whether file is contained in secondary file list
+	 * @param terms Search Terms
+	 * @param caseSensitive Whether terms should be matched case sensitively
+	 * @return Map of each search term to the sorted dictionary IDs that match it
 	 */
-	public boolean containsSecondaryFile(final File file)
+	public HashMap<String, int[]> getDictionaryIDs(final ArrayList<String> terms, final boolean caseSensitive)
 	{
-		return secondaryFiles.contains(file);
+		HashMap<String, ArrayList<Integer>> matches = new HashMap<>();
+		for(String term: terms)
+		{
+			String key = term;
+			if(!caseSensitive)
+			{
+				key = term.toLowerCase();
+				
+			}//IF
+			
+			matches.put(key, new ArrayList<Integer>());
+			
+		}//FOR
+		
+		int dictionarySize = dictionary.size();
+		for(int id = 0; id < dictionarySize; id++)
+		{
+			String value = dictionary.get(id);
+			if(!caseSensitive)
+			{
+				value = value.toLowerCase();
+				
+			}//IF
+			
+			ArrayList<Integer> ids = matches.get(value);
+			if(ids != null)
+			{
+				ids.add(Integer.valueOf(id));
+				
+			}//IF
+			
+		}//FOR
+		
+		HashMap<String, int[]> termIDs = new HashMap<>();
+		for(String term: terms)
+		{
+			String key = term;
+			if(!caseSensitive)
+			{
+				key = term.toLowerCase();
+				
+			}//IF
+			
+			ArrayList<Integer> ids = matches.get(key);
+			int[] idArray = new int[ids.size()];
+			for(int i = 0; i < idArray.length; i++)
+			{
+				idArray[i] = ids.get(i).intValue();
+				
+			}//FOR
+			
+			termIDs.put(term, idArray);
+			
+		}//FOR
+		
+		return termIDs;
 		
 	}//METHOD
 	
@@ -1,13 +1,23 @@
 package drakovek.hoarder.file.dvk;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.Serializable;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
-
-import drakovek.hoarder.file.ExtensionFilter;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 
 /**
- * Contains all DVK information for a single directory (no sub-directories)
+ * Contains all DVK information for a single directory (no sub-directories)<br/>
+ * Remains Serializable so index files from older versions can still be read and migrated by DvkIndexFile.<br/>
+ * Keeps a manifest of the name, size and modification time of every DVK file in the directory, so changes can be found by comparing a single directory listing against the manifest.
  * 
  * @author Drakovek
  * @version 2.0
@@ -18,6 +28,16 @@ public class DvkDirectory implements Serializable
 	 * SerialVersionUID
 	 */
 	private static final long serialVersionUID = -3315692522529459025L;
+	
+	/**
+	 * Number of DVK files a directory must contain before its DVKs are read in parallel, when loaded from within a fork-join pool
+	 */
+	private static final int PARALLEL_THRESHOLD = 256;
+	
+	/**
+	 * Number of DVK files read by a single task when reading DVKs in parallel
+	 */
+	private static final int PARALLEL_CHUNK_SIZE = 64;
 
 	/**
 	 * Directory from which DVK info for the object is loaded
@@ -84,6 +104,21 @@ public class DvkDirectory implements Serializable
 	 */
 	private ArrayList<File> secondaryFiles;
 	
+	/**
+	 * Sorted names of all the DVK files in the directory when the DVKs were last loaded or updated, null if unknown
+	 */
+	private String[] manifestNames;
+	
+	/**
+	 * Sizes of the DVK files in the manifest
+	 */
+	private long[] manifestSizes;
+	
+	/**
+	 * Modification times of the DVK files in the manifest
+	 */
+	private long[] manifestModified;
+	
 	/**
 	 * Initializes the DvkDirectory class to start with no DVK information.
 	 */
@@ -130,11 +165,17 @@ public class DvkDirectory implements Serializable
 		//FILE
 		mediaFiles = new ArrayList<>();
 		secondaryFiles = new ArrayList<>();
+		
+		//MANIFEST
+		manifestNames = null;
+		manifestSizes = null;
+		manifestModified = null;
 
 	}//METHOD
 	
 	/**
-	 * Loads the information from all the DVKs in a given directory.
+	 * Loads the information from all the DVKs in a given directory.<br/>
+	 * If called from within a fork-join pool, large directories have their DVK files read in parallel. DVKs are always added in the order of the directory listing.
 	 * 
 	 * @param dvkFolder Directory from which to search for DVKs
 	 */
@@ -145,19 +186,201 @@ public class DvkDirectory implements Serializable
 		if(dvkFolder != null && dvkFolder.isDirectory())
 		{
 			directory = dvkFolder;
-			String[] extension = {DVK.DVK_EXTENSION};
-			File[] dvks = dvkFolder.listFiles(new ExtensionFilter(extension, false));
+			Listing listing = new Listing(dvkFolder);
+			setManifest(listing.dvkNames, listing.dvkSizes, listing.dvkModified);
 			
+			File[] dvks = new File[manifestNames.length];
 			for(int i = 0; i < dvks.length; i++)
 			{
-				addDVK(dvks[i]);
+				dvks[i] = new File(dvkFolder, manifestNames[i]);
 				
 			}//FOR
 			
+			if(dvks.length > PARALLEL_THRESHOLD && ForkJoinTask.inForkJoinPool())
+			{
+				DVK[] loaded = new DVK[dvks.length];
+				(new ReadTask(dvks, loaded, 0, dvks.length)).invoke();
+				for(int i = 0; i < loaded.length; i++)
+				{
+					addDVK(loaded[i]);
+					
+				}//FOR
+				
+			}//IF
+			else
+			{
+				for(int i = 0; i < dvks.length; i++)
+				{
+					addDVK(dvks[i]);
+					
+				}//FOR
+				
+			}//ELSE
+			
 		}//IF
 		
 	}//METHOD
 	
+	/**
+	 * Single sorted listing of a directory, holding the names of all its files and the attributes of its DVK files.
+	 * 
+	 * @author Drakovek
+	 * @version 2.0
+	 */
+	private static class Listing
+	{
+		/**
+		 * Names of all the files in the directory
+		 */
+		private HashSet<String> names;
+		
+		/**
+		 * Sorted names of the DVK files in the directory
+		 */
+		private String[] dvkNames;
+		
+		/**
+		 * Sizes of the DVK files, with indexes matching dvkNames
+		 */
+		private long[] dvkSizes;
+		
+		/**
+		 * Modification times of the DVK files, with indexes matching dvkNames
+		 */
+		private long[] dvkModified;
+		
+		/**
+		 * Initializes the Listing class by listing a given directory.
+		 * 
+		 * @param directory Given Directory
+		 */
+		public Listing(final File directory)
+		{
+			names = new HashSet<>();
+			ArrayList<String> dvkList = new ArrayList<>();
+			HashMap<String, BasicFileAttributes> attributes = new HashMap<>();
+			
+			try(DirectoryStream<Path> stream = Files.newDirectoryStream(directory.toPath()))
+			{
+				for(Path path: stream)
+				{
+					String name = path.getFileName().toString();
+					names.add(name);
+					if(name.endsWith(DVK.DVK_EXTENSION) && !Files.isHidden(path))
+					{
+						try
+						{
+							BasicFileAttributes attribute = Files.readAttributes(path, BasicFileAttributes.class);
+							if(attribute.isRegularFile())
+							{
+								dvkList.add(name);
+								attributes.put(name, attribute);
+								
+							}//IF
+							
+						}//TRY
+						catch(IOException e){}
+						
+					}//IF
+					
+				}//FOR
+				
+			}//TRY
+			catch(IOException e)
+			{
+				System.out.println("Failed listing " + directory.getAbsolutePath() + " - DvkDirectory.Listing"); //$NON-NLS-1$ //$NON-NLS-2$
+				
+			}//CATCH
+			
+			dvkNames = dvkList.toArray(new String[dvkList.size()]);
+			Arrays.sort(dvkNames);
+			dvkSizes = new long[dvkNames.length];
+			dvkModified = new long[dvkNames.length];
+			for(int i = 0; i < dvkNames.length; i++)
+			{
+				BasicFileAttributes attribute = attributes.get(dvkNames[i]);
+				dvkSizes[i] = attribute.size();
+				dvkModified[i] = attribute.lastModifiedTime().toMillis();
+				
+			}//FOR
+			
+		}//CONSTRUCTOR
+		
+	}//CLASS
+	
+	/**
+	 * Fork-join task for reading a range of DVK files in parallel.
+	 * 
+	 * @author Drakovek
+	 * @version 2.0
+	 */
+	private static class ReadTask extends RecursiveAction
+	{
+		/**
+		 * SerialVersionUID
+		 */
+		private static final long serialVersionUID = 6384022851447317510L;
+
+		/**
+		 * DVK files to read
+		 */
+		private File[] dvkFiles;
+		
+		/**
+		 * Array in which to store the read DVKs, with indexes matching dvkFiles
+		 */
+		private DVK[] loaded;
+		
+		/**
+		 * First index of the range to read
+		 */
+		private int start;
+		
+		/**
+		 * Index after the last index of the range to read
+		 */
+		private int end;
+		
+		/**
+		 * Initializes the ReadTask class.
+		 * 
+		 * @param dvkFiles DVK files to read
+		 * @param loaded Array in which to store the read DVKs
+		 * @param start First index of the range to read
+		 * @param end Index after the last index of the range to read
+		 */
+		public ReadTask(final File[] dvkFiles, DVK[] loaded, final int start, final int end)
+		{
+			this.dvkFiles = dvkFiles;
+			this.loaded = loaded;
+			this.start = start;
+			this.end = end;
+			
+		}//CONSTRUCTOR
+		
+		@Override
+		protected void compute()
+		{
+			if(end - start > PARALLEL_CHUNK_SIZE)
+			{
+				int middle = (start + end) >>> 1;
+				invokeAll(new ReadTask(dvkFiles, loaded, start, middle), new ReadTask(dvkFiles, loaded, middle, end));
+				
+			}//IF
+			else
+			{
+				for(int i = start; i < end; i++)
+				{
+					loaded[i] = new DVK(dvkFiles[i]);
+					
+				}//FOR
+				
+			}//ELSE
+			
+		}//METHOD
+		
+	}//CLASS
+	
 	/**
 	 * Adds the information from a single DVK to the object's list of DVK information
 	 * 
@@ -212,6 +435,157 @@ public class DvkDirectory implements Serializable
 		
 	}//METHOD
 	
+	/**
+	 * Adds DVK information read from an index file to the object's list of DVK information.
+	 * 
+	 * @param dvkFile DVK File
+	 * @param id DVK ID
+	 * @param title DVK Title
+	 * @param artistArray DVK Artists
+	 * @param time DVK Time, null if unknown
+	 * @param webTagArray DVK Web Tags
+	 * @param description DVK Description
+	 * @param pageURL DVK Page URL
+	 * @param directURL DVK Direct URL
+	 * @param secondaryURL DVK Secondary URL
+	 * @param mediaFile DVK Media File
+	 * @param secondaryFile DVK Secondary File
+	 */
+	void addDVK(final File dvkFile, final String id, final String title, final String[] artistArray, final Long time, final String[] webTagArray, final String description, final String pageURL, final String directURL, final String secondaryURL, final File mediaFile, final File secondaryFile)
+	{
+		//DVK
+		dvkFiles.add(dvkFile);
+		ids.add(id);
+		
+		//INFO
+		titles.add(title);
+		artists.add(artistArray);
+		times.add(time);
+		webTags.add(webTagArray);
+		descriptions.add(description);
+		
+		//WEB
+		pageURLs.add(pageURL);
+		directURLs.add(directURL);
+		secondaryURLs.add(secondaryURL);
+		
+		//FILE
+		mediaFiles.add(mediaFile);
+		secondaryFiles.add(secondaryFile);
+		
+	}//METHOD
+	
+	/**
+	 * Sets the DVK file manifest, used when reading an index file.
+	 * 
+	 * @param names Sorted names of the DVK files, null if unknown
+	 * @param sizes Sizes of the DVK files
+	 * @param modified Modification times of the DVK files
+	 */
+	void setManifest(final String[] names, final long[] sizes, final long[] modified)
+	{
+		manifestNames = names;
+		manifestSizes = sizes;
+		manifestModified = modified;
+		
+	}//METHOD
+	
+	/**
+	 * Updates the attributes of individual DVK files in the manifest, used when replaying a journal. Does nothing if there is no manifest.
+	 * 
+	 * @param changes Map of DVK file names to their new size and modification time, with a null value for DVK files that were removed
+	 */
+	void updateManifest(final HashMap<String, long[]> changes)
+	{
+		if(manifestNames == null || changes.size() == 0)
+		{
+			return;
+			
+		}//IF
+		
+		HashMap<String, long[]> entries = new HashMap<>();
+		for(int i = 0; i < manifestNames.length; i++)
+		{
+			entries.put(manifestNames[i], new long[]{manifestSizes[i], manifestModified[i]});
+			
+		}//FOR
+		
+		for(String name: changes.keySet())
+		{
+			long[] entry = changes.get(name);
+			if(entry == null)
+			{
+				entries.remove(name);
+				
+			}//IF
+			else
+			{
+				entries.put(name, entry);
+				
+			}//ELSE
+			
+		}//FOR
+		
+		String[] names = entries.keySet().toArray(new String[entries.size()]);
+		Arrays.sort(names);
+		long[] sizes = new long[names.length];
+		long[] modified = new long[names.length];
+		for(int i = 0; i < names.length; i++)
+		{
+			long[] entry = entries.get(names[i]);
+			sizes[i] = entry[0];
+			modified[i] = entry[1];
+			
+		}//FOR
+		
+		setManifest(names, sizes, modified);
+		
+	}//METHOD
+	
+	/**
+	 * Returns the sorted names of the DVK files in the manifest.
+	 * 
+	 * @return Manifest Names, null if unknown
+	 */
+	String[] getManifestNames()
+	{
+		return manifestNames;
+		
+	}//METHOD
+	
+	/**
+	 * Returns the sizes of the DVK files in the manifest.
+	 * 
+	 * @return Manifest Sizes
+	 */
+	long[] getManifestSizes()
+	{
+		return manifestSizes;
+		
+	}//METHOD
+	
+	/**
+	 * Returns the modification times of the DVK files in the manifest.
+	 * 
+	 * @return Manifest Modification Times
+	 */
+	long[] getManifestModified()
+	{
+		return manifestModified;
+		
+	}//METHOD
+	
+	/**
+	 * Sets the directory the object represents, used when reading an index file.
+	 * 
+	 * @param directory DVK Directory
+	 */
+	void setDirectory(final File directory)
+	{
+		this.directory = directory;
+		
+	}//METHOD
+	
 	/**
 	 * Checks whether the current DvkDirectory object is valid. Mainly to check if object has correctly been loaded from an index.
 	 * 
@@ -253,89 +627,303 @@ public class DvkDirectory implements Serializable
 	}//METHOD
 	
 	/**
-	 * Updates the current DVK info to reflect any changes in the DVKs of the loaded directory.
-	 * 
-	 * @param lastModified Time and date the index file for this directory was last modified
+	 * Updates the current DVK info to reflect any changes in the DVKs of the loaded directory.<br/>
+	 * Lists the directory once and compares it against the manifest, so only added or changed DVK files are read. If there is no manifest, all DVKs are reloaded.
 	 */
-	public void updateDirectory(final long lastModified)
+	public void updateDirectory()
 	{
-		for(int i = 0; i < dvkFiles.size(); i++)
+		if(manifestNames == null)
+		{
+			loadDVKs(getDirectory());
+			return;
+			
+		}//IF
+		
+		Listing listing = new Listing(getDirectory());
+		int size = dvkFiles.size();
+		boolean[] removed = new boolean[size];
+		HashMap<String, Integer> rows = new HashMap<>();
+		for(int i = 0; i < size; i++)
 		{
-			if(dvkFiles.get(i) == null || !dvkFiles.get(i).exists() || mediaFiles.get(i) == null || !mediaFiles.get(i).exists() || (secondaryFiles.get(i) != null && !secondaryFiles.get(i).exists()))
+			File dvkFile = dvkFiles.get(i);
+			if(dvkFile != null && getDirectory().equals(dvkFile.getParentFile()))
 			{
-				//REMOVE DVKS THAT NO LONGER EXIST
+				rows.put(dvkFile.getName(), Integer.valueOf(i));
 				
-				//DVK
-				dvkFiles.remove(i);
-				ids.remove(i);
-				
-				//INFO
-				titles.remove(i);
-				artists.remove(i);
-				times.remove(i);
-				webTags.remove(i);
-				descriptions.remove(i);
-
-				//WEB
-				pageURLs.remove(i);
-				directURLs.remove(i);
-				secondaryURLs.remove(i);
+			}//IF
+			else
+			{
+				removed[i] = dvkFile == null || !dvkFile.exists();
 				
-				//FILE
-				mediaFiles.remove(i);
-				secondaryFiles.remove(i);
-				i--;
+			}//ELSE
+			
+		}//FOR
+		
+		//COMPARE SORTED LISTING AGAINST MANIFEST
+		ArrayList<String> added = new ArrayList<>();
+		int m = 0;
+		int l = 0;
+		while(m < manifestNames.length || l < listing.dvkNames.length)
+		{
+			int comparison;
+			if(m == manifestNames.length)
+			{
+				comparison = 1;
 				
 			}//IF
-			else if(lastModified < dvkFiles.get(i).lastModified())
+			else if(l == listing.dvkNames.length)
 			{
-				//UPDATE DVKS THAT HAVE BEEN EDITED
+				comparison = -1;
 				
-				DVK dvk = new DVK(dvkFiles.get(i));
+			}//ELSE IF
+			else
+			{
+				comparison = manifestNames[m].compareTo(listing.dvkNames[l]);
 				
-				//DVK
-				dvkFiles.set(i, dvk.getDvkFile());
-				ids.set(i, dvk.getID());
+			}//ELSE
+			
+			if(comparison < 0)
+			{
+				//REMOVE DVKS THAT NO LONGER EXIST
+				Integer row = rows.get(manifestNames[m]);
+				if(row != null)
+				{
+					removed[row.intValue()] = true;
+					
+				}//IF
 				
-				//INFO
-				titles.set(i, dvk.getTitle());
-				artists.set(i, dvk.getArtists());
-				times.set(i, Long.valueOf(dvk.getTime()));
-				webTags.set(i, dvk.getWebTags());
-				descriptions.set(i, dvk.getDescription());
-
-				//WEB
-				pageURLs.set(i, dvk.getPageURL());
-				directURLs.set(i, dvk.getDirectURL());
-				secondaryURLs.set(i, dvk.getSecondaryURL());
+				m++;
 				
-				//FILE
-				mediaFiles.set(i, dvk.getMediaFile());
-				secondaryFiles.set(i, dvk.getSecondaryFile());
-				dvk = null;
+			}//IF
+			else if(comparison > 0)
+			{
+				added.add(listing.dvkNames[l]);
+				l++;
 				
 			}//ELSE IF
+			else
+			{
+				if(manifestSizes[m] != listing.dvkSizes[l] || manifestModified[m] != listing.dvkModified[l])
+				{
+					//UPDATE DVKS THAT HAVE BEEN EDITED
+					Integer row = rows.get(manifestNames[m]);
+					if(row == null)
+					{
+						added.add(listing.dvkNames[l]);
+						
+					}//IF
+					else
+					{
+						DVK dvk = new DVK(dvkFiles.get(row.intValue()));
+						if(dvk.isValidRead())
+						{
+							setDVK(row.intValue(), dvk);
+							
+						}//IF
+						else
+						{
+							removed[row.intValue()] = true;
+							
+						}//ELSE
+						
+					}//ELSE
+					
+				}//IF
+				
+				m++;
+				l++;
+				
+			}//ELSE
+			
+		}//WHILE
+		
+		//REMOVE DVKS WITH MISSING MEDIA
+		for(int i = 0; i < size; i++)
+		{
+			if(!removed[i] && (!fileExists(mediaFiles.get(i), listing) || (secondaryFiles.get(i) != null && !fileExists(secondaryFiles.get(i), listing))))
+			{
+				removed[i] = true;
+				
+			}//IF
 			
 		}//FOR
 		
-		//ADDS NEW DVKS
-		String[] extension = {DVK.DVK_EXTENSION};
-		File[] allDvkFiles = getDirectory().listFiles(new ExtensionFilter(extension, false));
-		for(int i = 0; i < allDvkFiles.length; i++)
+		removeRows(removed);
+		
+		//ADD NEW DVKS
+		HashSet<String> idSet = new HashSet<>(ids);
+		for(String name: added)
 		{
-			if(!dvkFiles.contains(allDvkFiles[i]))
+			DVK dvk = new DVK(new File(getDirectory(), name));
+			if(dvk.isValidRead() && !idSet.contains(dvk.getID()))
 			{
-				DVK dvk = new DVK(allDvkFiles[i]);
-				if(!ids.contains(dvk.getID()))
-				{
-					addDVK(dvk);
-					
-				}//IF
+				idSet.add(dvk.getID());
+				addDVK(dvk);
+				
+			}//IF
+			
+		}//FOR
+		
+		setManifest(listing.dvkNames, listing.dvkSizes, listing.dvkModified);
+		
+	}//METHOD
+	
+	/**
+	 * Returns whether a given file exists, using a directory listing for files within the loaded directory.
+	 * 
+	 * @param file Given File
+	 * @param listing Listing of the loaded directory
+	 * @return Whether the file exists
+	 */
+	private boolean fileExists(final File file, final Listing listing)
+	{
+		if(file == null)
+		{
+			return false;
+			
+		}//IF
+		
+		if(getDirectory().equals(file.getParentFile()))
+		{
+			return listing.names.contains(file.getName());
+			
+		}//IF
+		
+		return file.exists();
+		
+	}//METHOD
+	
+	/**
+	 * Replaces the DVK information at a given index with the information from a given DVK.
+	 * 
+	 * @param index Given Index
+	 * @param dvk Given DVK
+	 */
+	private void setDVK(final int index, DVK dvk)
+	{
+		//DVK
+		dvkFiles.set(index, dvk.getDvkFile());
+		ids.set(index, dvk.getID());
+		
+		//INFO
+		titles.set(index, dvk.getTitle());
+		artists.set(index, dvk.getArtists());
+		if(dvk.getTime() == 0L)
+		{
+			times.set(index, null);
+			
+		}//IF
+		else
+		{
+			times.set(index, Long.valueOf(dvk.getTime()));
+			
+		}//ELSE
+		webTags.set(index, dvk.getWebTags());
+		descriptions.set(index, dvk.getDescription());
+		
+		//WEB
+		pageURLs.set(index, dvk.getPageURL());
+		directURLs.set(index, dvk.getDirectURL());
+		secondaryURLs.set(index, dvk.getSecondaryURL());
+		
+		//FILE
+		mediaFiles.set(index, dvk.getMediaFile());
+		secondaryFiles.set(index, dvk.getSecondaryFile());
+		
+	}//METHOD
+	
+	/**
+	 * Replaces the DVK information at a given index with DVK information read from a journal.
+	 * 
+	 * @param index Given Index
+	 * @param dvkFile DVK File
+	 * @param id DVK ID
+	 * @param title DVK Title
+	 * @param artistArray DVK Artists
+	 * @param time DVK Time, null if unknown
+	 * @param webTagArray DVK Web Tags
+	 * @param description DVK Description
+	 * @param pageURL DVK Page URL
+	 * @param directURL DVK Direct URL
+	 * @param secondaryURL DVK Secondary URL
+	 * @param mediaFile DVK Media File
+	 * @param secondaryFile DVK Secondary File
+	 */
+	void setDVK(final int index, final File dvkFile, final String id, final String title, final String[] artistArray, final Long time, final String[] webTagArray, final String description, final String pageURL, final String directURL, final String secondaryURL, final File mediaFile, final File secondaryFile)
+	{
+		//DVK
+		dvkFiles.set(index, dvkFile);
+		ids.set(index, id);
+		
+		//INFO
+		titles.set(index, title);
+		artists.set(index, artistArray);
+		times.set(index, time);
+		webTags.set(index, webTagArray);
+		descriptions.set(index, description);
+		
+		//WEB
+		pageURLs.set(index, pageURL);
+		directURLs.set(index, directURL);
+		secondaryURLs.set(index, secondaryURL);
+		
+		//FILE
+		mediaFiles.set(index, mediaFile);
+		secondaryFiles.set(index, secondaryFile);
+		
+	}//METHOD
+	
+	/**
+	 * Removes the DVK information at all the flagged indexes in a single pass.
+	 * 
+	 * @param removed Flags for which indexes to remove
+	 */
+	void removeRows(final boolean[] removed)
+	{
+		//DVK
+		dvkFiles = removeRows(dvkFiles, removed);
+		ids = removeRows(ids, removed);
+		
+		//INFO
+		titles = removeRows(titles, removed);
+		artists = removeRows(artists, removed);
+		times = removeRows(times, removed);
+		webTags = removeRows(webTags, removed);
+		descriptions = removeRows(descriptions, removed);
+		
+		//WEB
+		pageURLs = removeRows(pageURLs, removed);
+		directURLs = removeRows(directURLs, removed);
+		secondaryURLs = removeRows(secondaryURLs, removed);
+		
+		//FILE
+		mediaFiles = removeRows(mediaFiles, removed);
+		secondaryFiles = removeRows(secondaryFiles, removed);
+		
+	}//METHOD
+	
+	/**
+	 * Returns a copy of a given list without the flagged indexes.
+	 * 
+	 * @param list Given List
+	 * @param removed Flags for which indexes to remove
+	 * @return List without the flagged indexes
+	 */
+	private static <T> ArrayList<T> removeRows(final ArrayList<T> list, final boolean[] removed)
+	{
+		ArrayList<T> kept = new ArrayList<>(list.size());
+		for(int i = 0; i < list.size(); i++)
+		{
+			if(!removed[i])
+			{
+				kept.add(list.get(i));
 				
 			}//IF
 			
 		}//FOR
 		
+		return kept;
+		
 	}//METHOD
 	
 	/**
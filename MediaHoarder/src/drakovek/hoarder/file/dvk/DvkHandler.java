@@ -2,11 +2,25 @@ package drakovek.hoarder.file.dvk;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import drakovek.hoarder.gui.swing.compound.DProgressDialog;
 import drakovek.hoarder.processing.BooleanSearch;
+import drakovek.hoarder.processing.RowBitmap;
 import drakovek.hoarder.processing.StringMethods;
 import drakovek.hoarder.processing.sort.AlphaNumSort;
+import drakovek.hoarder.processing.sort.IndexComparator;
+import drakovek.hoarder.processing.sort.IndexSort;
 
 /**
  * Class for other objects to access DVK information.
@@ -26,6 +40,21 @@ public class DvkHandler
 	 */
 	public static final int SORT_ALPHA = 1;
 	
+	/**
+	 * Number of database rows checked together as one chunk when filtering
+	 */
+	private static final int FILTER_CHUNK_SIZE = 16384;
+	
+	/**
+	 * Largest number of previous filters kept in the filter history
+	 */
+	private static final int FILTER_HISTORY_SIZE = 8;
+	
+	/**
+	 * Largest number of bytes the rows of cached filter results may take up
+	 */
+	private static final long FILTER_CACHE_BUDGET = 16L * 1024L * 1024L;
+	
 	/**
 	 * Whether to treat filter strings as case sensitive
 	 */
@@ -52,20 +81,80 @@ public class DvkHandler
 	private String artistFilter;
 	
 	/**
-	 * ArrayList full of indexes referencing DVKs loaded in DvkDatabase, sorted in a given order.
+	 * Indexes referencing DVKs loaded in DvkDatabase, sorted in a given order. Only the first sortedSize indexes are used, leaving room for added DVKs.
+	 */
+	private int[] sorted;
+	
+	/**
+	 * Number of indexes used in the sorted array
+	 */
+	private int sortedSize;
+	
+	/**
+	 * Indexes referencing DVKs loaded in DvkDatabase, in the same order as the sorted array, with certain indexes being omitted via a filter. Only the first filteredSize indexes are used.
+	 */
+	private int[] filtered;
+	
+	/**
+	 * Number of indexes used in the filtered array
+	 */
+	private int filteredSize;
+	
+	/**
+	 * Sort values of the last sort, used to insert added DVKs in sorted order. Null if DVKs are in default database order
+	 */
+	private SortKeys sortKeys;
+	
+	/**
+	 * Filter last applied to the filtered array, used to check added DVKs. Null if no filter is applied
+	 */
+	private DvkFilter activeFilter;
+	
+	/**
+	 * Previous filters along with their matching rows, each narrower than the one before, ending with the most recent filter
+	 */
+	private ArrayList<DvkFilter> filterHistory;
+	
+	/**
+	 * Recently used filters along with their matching rows, keyed by normalized filter
+	 */
+	private FilterCache filterCache;
+	
+	/**
+	 * Number of times filtering found its result in the filter cache
+	 */
+	private long filterCacheHits;
+	
+	/**
+	 * Number of times filtering didn't find its result in the filter cache
+	 */
+	private long filterCacheMisses;
+	
+	/**
+	 * Sort type last used to sort DVKs, -1 if DVKs are in default database order
+	 */
+	private int lastSortType;
+	
+	/**
+	 * Whether artists were grouped when DVKs were last sorted
 	 */
-	private ArrayList<Integer> sorted;
+	private boolean lastGroupArtists;
 	
 	/**
-	 * ArrayList full of indexes referencing DVKs loaded in DvkDatabase, with certain indexes being omitted via a filter.
+	 * Whether order was reversed when DVKs were last sorted
 	 */
-	private ArrayList<Integer> filtered;
+	private boolean lastReverseOrder;
 	
 	/**
 	 * DVK Database from which to load DVK info
 	 */
 	private DvkDatabase database;
 	
+	/**
+	 * Journal for recording DVK edits to the index files, null if index files aren't being saved
+	 */
+	private DvkJournal journal;
+	
 	/**
 	 * Boolean to show if DVKs were loaded properly
 	 */
@@ -87,9 +176,19 @@ public class DvkHandler
 	public void clearDVKs()
 	{
 		loaded = false;
+		lastSortType = -1;
 		database = new DvkDatabase();
-		sorted = new ArrayList<>();
-		filtered = new ArrayList<>();
+		journal = null;
+		sorted = new int[0];
+		sortedSize = 0;
+		filtered = new int[0];
+		filteredSize = 0;
+		sortKeys = null;
+		activeFilter = null;
+		filterHistory = new ArrayList<>();
+		filterCache = new FilterCache();
+		filterCacheHits = 0L;
+		filterCacheMisses = 0L;
 		
 	}//METHOD
 	
@@ -102,395 +201,2060 @@ public class DvkHandler
 	 * @param useIndexes Whether to use index files to load DvmDirectory object
 	 * @param saveIndexes Whether to save DvkDirectories as index files
 	 * @param updateIndexes Whether to update index files to reflect changes in DVKs
+	 * @param parallel Whether to load DVK folders in parallel
+	 * @param useCatalog Whether to load DVKs from a single catalog file when possible
+	 * @param lazyFields Whether to read descriptions and URLs from DVK files when requested rather than holding them in memory
+	 * @param trigramIndex Whether to keep a trigram index of titles and descriptions for substring filtering
+	 */
+	public void loadDVKs(final ArrayList<File> dvkDirectories, DProgressDialog progressDialog, final boolean useIndexes, final boolean saveIndexes, final boolean updateIndexes, final boolean parallel, final boolean useCatalog, final boolean lazyFields, final boolean trigramIndex)
+	{
+		loaded = database.loadDVKs(dvkDirectories, progressDialog, useIndexes, saveIndexes, updateIndexes, parallel, useCatalog, lazyFields, trigramIndex);
+		clearFilterResults();
+		journal = null;
+		if(saveIndexes)
+		{
+			journal = new DvkJournal();
+			
+		}//IF
+		
+		resetSorted();
+		resetFiltered();
+		
+	}//METHOD
+	
+	/**
+	 * Returns whether DVKs loaded properly.
+	 * 
+	 * @return Whether DVKs loaded properly
+	 */
+	public boolean isLoaded()
+	{
+		return loaded;
+		
+	}//METHOD
+	
+	/**
+	 * Resets the sorted list to match the default order of DvkDatabase
+	 */
+	private void resetSorted()
+	{
+		lastSortType = -1;
+		sortKeys = null;
+		int size = database.getSize();
+		sorted = new int[size];
+		sortedSize = size;
+		for(int i = 0; i < size; i++)
+		{
+			sorted[i] = i;
+			
+		}//FOR
+		
+	}//METHOD
+	
+	/**
+	 * Resets the filtered list to match with the sorted list
+	 */
+	private void resetFiltered()
+	{
+		activeFilter = null;
+		filtered = Arrays.copyOf(sorted, sorted.length);
+		filteredSize = sortedSize;
+		
+	}//METHOD
+	
+	/**
+	 * Sorts the currently loaded DVKs.
+	 * 
+	 * @param sortType Sort Type
+	 * @param groupArtists Whether to group artists
+	 * @param groupSequences Whether to group sequences
+	 * @param groupSections Whether to group sections
+	 * @param reverseOrder Whether to reverse the sorting order
+	 */
+	public void sort(final int sortType, final boolean groupArtists, final boolean reverseOrder)
+	{
+		lastSortType = sortType;
+		lastGroupArtists = groupArtists;
+		lastReverseOrder = reverseOrder;
+		
+		//POPULATE SORTED ARRAY
+		int size = database.getSize();
+		sorted = new int[size];
+		sortedSize = size;
+		for(int i = 0; i < size; i++)
+		{
+			sorted[i] = i;
+			
+		}//FOR
+		
+		//SORT ARRAY
+		sortKeys = new SortKeys(database, sortType != SORT_ALPHA, groupArtists);
+		IndexSort.sort(sorted, sortKeys);
+		
+		//REVERSE ORDER, IF NECESSARY
+		if(reverseOrder)
+		{
+			IndexSort.reverse(sorted);
+			
+		}//IF
+		
+		resetFiltered();
+		
+	}//METHOD
+	
+	/**
+	 * Key wrapping a set of artist dictionary IDs so it can be used in a HashMap.
+	 * 
+	 * @author Drakovek
+	 * @version 2.0
+	 */
+	private static class ArtistIDs
+	{
+		/**
+		 * Artist dictionary IDs
+		 */
+		private int[] ids;
+		
+		/**
+		 * Hash code of the IDs
+		 */
+		private int hash;
+		
+		/**
+		 * Initializes the ArtistIDs class.
+		 * 
+		 * @param ids Artist dictionary IDs
+		 */
+		public ArtistIDs(final int[] ids)
+		{
+			this.ids = ids;
+			hash = Arrays.hashCode(ids);
+			
+		}//CONSTRUCTOR
+		
+		@Override
+		public int hashCode()
+		{
+			return hash;
+			
+		}//METHOD
+		
+		@Override
+		public boolean equals(Object object)
+		{
+			return object instanceof ArtistIDs && Arrays.equals(ids, ((ArtistIDs)object).ids);
+			
+		}//METHOD
+		
+	}//CLASS
+	
+	/**
+	 * Values every DVK is sorted by, read from the database once per sort so they can be compared without further processing.<br/>
+	 * Values are kept after sorting so DVKs added later can be placed in sorted order by comparing against the DVKs already sorted.
+	 * 
+	 * @author Drakovek
+	 * @version 2.0
+	 */
+	private static class SortKeys implements IndexComparator
+	{
+		/**
+		 * DVK Database the sort values are read from
+		 */
+		private DvkDatabase database;
+		
+		/**
+		 * Number of DVKs with sort values
+		 */
+		private int size;
+		
+		/**
+		 * Time each DVK was published, null if DVKs aren't sorted by time
+		 */
+		private long[] times;
+		
+		/**
+		 * Collation key of each DVK's title
+		 */
+		private byte[][] titleKeys;
+		
+		/**
+		 * Artist group of each DVK, null if artists aren't grouped
+		 */
+		private int[] groups;
+		
+		/**
+		 * Map of each distinct set of artist dictionary IDs to its artist group
+		 */
+		private HashMap<ArtistIDs, Integer> groupIDs;
+		
+		/**
+		 * Collation key of the artists of each artist group
+		 */
+		private ArrayList<byte[]> artistKeys;
+		
+		/**
+		 * Rank of each artist group in alpha-numeric order. Groups created after sorting have no rank and are compared by their keys
+		 */
+		private int[] groupRanks;
+		
+		/**
+		 * Initializes the SortKeys class, reading the sort values of every DVK in the database.
+		 * 
+		 * @param database DVK Database to read from
+		 * @param useTimes Whether DVKs are sorted by time before title
+		 * @param groupArtists Whether DVKs are grouped by artist before anything else
+		 */
+		public SortKeys(final DvkDatabase database, final boolean useTimes, final boolean groupArtists)
+		{
+			this.database = database;
+			size = database.getSize();
+			titleKeys = new byte[size][];
+			times = null;
+			if(useTimes)
+			{
+				times = new long[size];
+				
+			}//IF
+			
+			groups = null;
+			groupIDs = new HashMap<>();
+			artistKeys = new ArrayList<>();
+			groupRanks = new int[0];
+			if(groupArtists)
+			{
+				groups = new int[size];
+				
+			}//IF
+			
+			for(int i = 0; i < size; i++)
+			{
+				readValues(i);
+				
+			}//FOR
+			
+			if(groupArtists)
+			{
+				rankGroups();
+				
+			}//IF
+			
+		}//CONSTRUCTOR
+		
+		/**
+		 * Reads the sort values of a DVK added to the database after sorting.
+		 * 
+		 * @param index Database index of the added DVK
+		 */
+		public void add(final int index)
+		{
+			if(index >= titleKeys.length)
+			{
+				int capacity = Math.max(index + 1, titleKeys.length + (titleKeys.length >> 1));
+				titleKeys = Arrays.copyOf(titleKeys, capacity);
+				if(times != null)
+				{
+					times = Arrays.copyOf(times, capacity);
+					
+				}//IF
+				
+				if(groups != null)
+				{
+					groups = Arrays.copyOf(groups, capacity);
+					
+				}//IF
+				
+			}//IF
+			
+			size = Math.max(size, index + 1);
+			readValues(index);
+			
+		}//METHOD
+		
+		/**
+		 * Moves the sort values of the DVKs left after DVKs were removed from the database to their new indexes.
+		 * 
+		 * @param newIndexes New index of every previous index, -1 for removed DVKs
+		 */
+		public void remove(final int[] newIndexes)
+		{
+			int kept = 0;
+			for(int i = 0; i < size && i < newIndexes.length; i++)
+			{
+				int newIndex = newIndexes[i];
+				if(newIndex != -1)
+				{
+					titleKeys[newIndex] = titleKeys[i];
+					if(times != null)
+					{
+						times[newIndex] = times[i];
+						
+					}//IF
+					
+					if(groups != null)
+					{
+						groups[newIndex] = groups[i];
+						
+					}//IF
+					
+					kept++;
+					
+				}//IF
+				
+			}//FOR
+			
+			for(int i = kept; i < size; i++)
+			{
+				titleKeys[i] = null;
+				
+			}//FOR
+			
+			size = kept;
+			
+		}//METHOD
+		
+		/**
+		 * Reads the sort values of a DVK from the database, replacing any values read previously.
+		 * 
+		 * @param index Database index of the DVK
+		 * @return Whether any of the DVK's sort values changed
+		 */
+		public boolean readValues(final int index)
+		{
+			if(index >= size)
+			{
+				return false;
+				
+			}//IF
+			
+			byte[] titleKey = AlphaNumSort.getKey(database.getTitle(index));
+			boolean changed = !Arrays.equals(titleKey, titleKeys[index]);
+			titleKeys[index] = titleKey;
+			if(times != null)
+			{
+				long time = database.getTime(index);
+				changed = changed || time != times[index];
+				times[index] = time;
+				
+			}//IF
+			
+			if(groups != null)
+			{
+				ArtistIDs key = new ArtistIDs(database.getArtistIDs(index));
+				Integer group = groupIDs.get(key);
+				if(group == null)
+				{
+					group = Integer.valueOf(artistKeys.size());
+					artistKeys.add(AlphaNumSort.getKey(StringMethods.arrayToString(database.getArtists(index))));
+					groupIDs.put(key, group);
+					
+				}//IF
+				
+				changed = changed || group.intValue() != groups[index];
+				groups[index] = group.intValue();
+				
+			}//IF
+			
+			return changed;
+			
+		}//METHOD
+		
+		/**
+		 * Ranks every artist group in alpha-numeric order of its artists. Groups whose artist keys are equal share the same rank.
+		 */
+		private void rankGroups()
+		{
+			int[] order = new int[artistKeys.size()];
+			for(int i = 0; i < order.length; i++)
+			{
+				order[i] = i;
+				
+			}//FOR
+			
+			IndexComparator comparator = new IndexComparator()
+			{
+				@Override
+				public int compare(final int groupA, final int groupB)
+				{
+					return AlphaNumSort.compareKeys(artistKeys.get(groupA), artistKeys.get(groupB));
+					
+				}//METHOD
+				
+			};
+			
+			IndexSort.sort(order, comparator);
+			groupRanks = new int[order.length];
+			int rank = 0;
+			for(int i = 0; i < order.length; i++)
+			{
+				if(i > 0 && comparator.compare(order[i - 1], order[i]) != 0)
+				{
+					rank++;
+					
+				}//IF
+				
+				groupRanks[order[i]] = rank;
+				
+			}//FOR
+			
+		}//METHOD
+		
+		@Override
+		public int compare(final int dvkA, final int dvkB)
+		{
+			if(groups != null && groups[dvkA] != groups[dvkB])
+			{
+				int groupA = groups[dvkA];
+				int groupB = groups[dvkB];
+				int result;
+				if(groupA < groupRanks.length && groupB < groupRanks.length)
+				{
+					result = Integer.compare(groupRanks[groupA], groupRanks[groupB]);
+					
+				}//IF
+				else
+				{
+					result = AlphaNumSort.compareKeys(artistKeys.get(groupA), artistKeys.get(groupB));
+					
+				}//ELSE
+				
+				if(result != 0)
+				{
+					return result;
+					
+				}//IF
+				
+			}//IF
+			
+			if(times != null && times[dvkA] != times[dvkB])
+			{
+				return Long.compare(times[dvkA], times[dvkB]);
+				
+			}//IF
+			
+			return AlphaNumSort.compareKeys(titleKeys[dvkA], titleKeys[dvkB]);
+			
+		}//METHOD
+		
+	}//CLASS
+	
+	/**
+	 * Filters the currently loaded DVKs based on the current filter strings.
+	 */
+	public void filterDVKs()
+	{
+		filterDVKs(null, false);
+		
+	}//METHOD
+	
+	/**
+	 * Filters the currently loaded DVKs based on the current filter strings while showing progress.<br/>
+	 * The database rows are split into chunks that are checked against the filter either one after another or in parallel on a fork-join pool.
+	 * Rows are checked in database order rather than sort order, so the columns searched are read in sequence. The matching rows are then placed in sort order.
+	 * Results of recently used filters are cached, so switching back to a cached filter only places its rows in the current sort order.
+	 * Otherwise, if the filter narrows down a filter in the filter history, only the rows matching that filter are checked, and if it is the same filter, its rows are used as they are.
+	 * If filtering is cancelled, the filtered list is left as it was.
+	 * 
+	 * @param progressDialog DProgressDialog to show progress of filtering, null to show none
+	 * @param parallel Whether to check chunks in parallel using multiple threads
 	 */
-	public void loadDVKs(final ArrayList<File> dvkDirectories, DProgressDialog progressDialog, final boolean useIndexes, final boolean saveIndexes, final boolean updateIndexes)
+	public void filterDVKs(DProgressDialog progressDialog, final boolean parallel)
 	{
-		loaded = database.loadDVKs(dvkDirectories, progressDialog, useIndexes, saveIndexes, updateIndexes);
+		DvkFilter filter = new DvkFilter();
+		if(filter.isEmpty())
+		{
+			resetFiltered();
+			return;
+			
+		}//IF
+		
+		DvkFilter cached = filterCache.get(filter.getKey());
+		if(cached != null)
+		{
+			filterCacheHits++;
+			addToHistory(cached);
+			setFiltered(cached);
+			return;
+			
+		}//IF
+		
+		filterCacheMisses++;
+		DvkFilter previous = getWiderFilter(filter);
+		if(previous != null && previous.isSameAs(filter))
+		{
+			filterCache.add(previous);
+			setFiltered(previous);
+			return;
+			
+		}//IF
+		
+		filter.loadRows();
+		RowBitmap candidates = filter.getCandidates();
+		if(previous != null && candidates == null)
+		{
+			candidates = previous.getMatchingRows().copy();
+			
+		}//IF
+		else if(previous != null)
+		{
+			candidates.and(previous.getMatchingRows());
+			
+		}//ELSE IF
+		
+		int size = sortedSize;
+		int chunks = (size + FILTER_CHUNK_SIZE - 1) / FILTER_CHUNK_SIZE;
+		int[][] matches = new int[chunks][];
+		FilterTask task = new FilterTask(size, filter, candidates, matches, 0, chunks, new AtomicInteger(0), progressDialog);
+		if(progressDialog != null)
+		{
+			progressDialog.setProgressBar(false, true, chunks, 0);
+			
+		}//IF
+		
+		if(parallel && chunks > 1 && ForkJoinPool.getCommonPoolParallelism() > 1)
+		{
+			ForkJoinPool.commonPool().invoke(task);
+			
+		}//IF
+		else
+		{
+			for(int i = 0; i < chunks; i++)
+			{
+				task.filterChunk(i);
+				
+			}//FOR
+			
+		}//ELSE
+		
+		if(progressDialog != null && progressDialog.isCancelled())
+		{
+			return;
+			
+		}//IF
+		
+		RowBitmap rows = new RowBitmap(size);
+		for(int i = 0; i < chunks; i++)
+		{
+			rows.set(matches[i]);
+			
+		}//FOR
+		
+		filter.setMatchingRows(rows);
+		filterHistory.add(filter);
+		if(filterHistory.size() > FILTER_HISTORY_SIZE)
+		{
+			filterHistory.remove(0);
+			
+		}//IF
+		
+		filterCache.add(filter);
+		setFiltered(filter);
+		
+	}//METHOD
+	
+	/**
+	 * Adds a filter with its matching rows to the filter history, after removing the filters in the history it doesn't narrow down.
+	 * 
+	 * @param filter Filter with its matching rows set
+	 */
+	private void addToHistory(final DvkFilter filter)
+	{
+		DvkFilter previous = getWiderFilter(filter);
+		if(previous == null || !previous.isSameAs(filter))
+		{
+			filterHistory.add(filter);
+			if(filterHistory.size() > FILTER_HISTORY_SIZE)
+			{
+				filterHistory.remove(0);
+				
+			}//IF
+			
+		}//IF
+		
+	}//METHOD
+	
+	/**
+	 * Sets the filtered list to the rows matching a given filter, placed in sort order.
+	 * 
+	 * @param filter Filter with its matching rows set
+	 */
+	private void setFiltered(final DvkFilter filter)
+	{
+		RowBitmap rows = filter.getMatchingRows();
+		int matchSize = rows.cardinality();
+		int[] matches = new int[matchSize];
+		int position = 0;
+		for(int i = 0; i < sortedSize && position < matchSize; i++)
+		{
+			if(rows.get(sorted[i]))
+			{
+				matches[position] = sorted[i];
+				position++;
+				
+			}//IF
+			
+		}//FOR
+		
+		filtered = matches;
+		filteredSize = position;
+		activeFilter = filter;
+		
+	}//METHOD
+	
+	/**
+	 * Returns the most recent filter in the filter history that a given filter narrows down, removing the more recent filters that it doesn't.<br/>
+	 * When a clause is removed from a filter, this steps back through the history to the filter from before the clause was added.
+	 * 
+	 * @param filter Given Filter
+	 * @return Previous filter at least as wide as the given filter, null if there is none
+	 */
+	private DvkFilter getWiderFilter(final DvkFilter filter)
+	{
+		for(int i = filterHistory.size() - 1; i >= 0; i--)
+		{
+			if(filter.isNarrowerThan(filterHistory.get(i)))
+			{
+				return filterHistory.get(i);
+				
+			}//IF
+			
+			filterHistory.remove(i);
+			
+		}//FOR
+		
+		return null;
+		
+	}//METHOD
+	
+	/**
+	 * Clears the filter history and filter cache, as the rows matching previous filters no longer reflect the DVKs in the database.
+	 */
+	private void clearFilterResults()
+	{
+		filterHistory.clear();
+		filterCache.clear();
+		
+	}//METHOD
+	
+	/**
+	 * Returns the number of times filtering found its result in the filter cache.
+	 * 
+	 * @return Filter Cache Hits
+	 */
+	public long getFilterCacheHits()
+	{
+		return filterCacheHits;
+		
+	}//METHOD
+	
+	/**
+	 * Returns the number of times filtering didn't find its result in the filter cache and had to filter DVKs.
+	 * 
+	 * @return Filter Cache Misses
+	 */
+	public long getFilterCacheMisses()
+	{
+		return filterCacheMisses;
+		
+	}//METHOD
+	
+	/**
+	 * Access-ordered map that holds the results of recently used filters, removing the least recently used filters once their rows take up more than FILTER_CACHE_BUDGET bytes.
+	 * 
+	 * @author Drakovek
+	 * @version 2.0
+	 */
+	private static class FilterCache extends LinkedHashMap<String, DvkFilter>
+	{
+		/**
+		 * SerialVersionUID
+		 */
+		private static final long serialVersionUID = -7263510948462275061L;
+		
+		/**
+		 * Number of bytes the rows of the cached filters take up
+		 */
+		private long bytes;
+		
+		/**
+		 * Initializes the FilterCache class.
+		 */
+		public FilterCache()
+		{
+			super(16, 0.75f, true);
+			bytes = 0L;
+			
+		}//CONSTRUCTOR
+		
+		/**
+		 * Adds a filter with its matching rows to the cache, then removes the least recently used filters until the cache is within its budget.
+		 * 
+		 * @param filter Filter with its matching rows set
+		 */
+		public void add(final DvkFilter filter)
+		{
+			DvkFilter replaced = put(filter.getKey(), filter);
+			if(replaced != null)
+			{
+				bytes -= replaced.getMatchingRows().getByteSize();
+				
+			}//IF
+			
+			bytes += filter.getMatchingRows().getByteSize();
+			Iterator<DvkFilter> iterator = values().iterator();
+			while(bytes > FILTER_CACHE_BUDGET && size() > 1)
+			{
+				bytes -= iterator.next().getMatchingRows().getByteSize();
+				iterator.remove();
+				
+			}//WHILE
+			
+		}//METHOD
+		
+		@Override
+		public void clear()
+		{
+			super.clear();
+			bytes = 0L;
+			
+		}//METHOD
+		
+	}//CLASS
+	
+	/**
+	 * Fork-join task for checking a range of chunks of database rows against a filter, checking both halves of the range in parallel.
+	 * 
+	 * @author Drakovek
+	 * @version 2.0
+	 */
+	private static class FilterTask extends RecursiveAction
+	{
+		/**
+		 * SerialVersionUID
+		 */
+		private static final long serialVersionUID = 5029817036185441394L;
+		
+		/**
+		 * Number of database rows to check
+		 */
+		private int size;
+		
+		/**
+		 * Filter to check DVKs against
+		 */
+		private DvkFilter filter;
+		
+		/**
+		 * Database rows that may match the filter, null if any row may match
+		 */
+		private RowBitmap candidates;
+		
+		/**
+		 * Array in which to store the matching database rows of each chunk
+		 */
+		private int[][] matches;
+		
+		/**
+		 * First chunk of the range to check
+		 */
+		private int start;
+		
+		/**
+		 * Chunk after the last chunk of the range to check
+		 */
+		private int end;
+		
+		/**
+		 * Number of chunks finished checking, shared among all tasks
+		 */
+		private AtomicInteger finished;
+		
+		/**
+		 * DProgressDialog to show progress of filtering, null to show none
+		 */
+		private DProgressDialog progressDialog;
+		
+		/**
+		 * Initializes the FilterTask class.
+		 * 
+		 * @param size Number of database rows to check
+		 * @param filter Filter to check DVKs against
+		 * @param candidates Database rows that may match the filter, null if any row may match
+		 * @param matches Array in which to store the matching database rows of each chunk
+		 * @param start First chunk of the range to check
+		 * @param end Chunk after the last chunk of the range to check
+		 * @param finished Number of chunks finished checking, shared among all tasks
+		 * @param progressDialog DProgressDialog to show progress of filtering, null to show none
+		 */
+		public FilterTask(final int size, final DvkFilter filter, final RowBitmap candidates, int[][] matches, final int start, final int end, AtomicInteger finished, DProgressDialog progressDialog)
+		{
+			this.size = size;
+			this.filter = filter;
+			this.candidates = candidates;
+			this.matches = matches;
+			this.start = start;
+			this.end = end;
+			this.finished = finished;
+			this.progressDialog = progressDialog;
+			
+		}//CONSTRUCTOR
+		
+		@Override
+		protected void compute()
+		{
+			if(end - start > 1)
+			{
+				int middle = (start + end) >>> 1;
+				invokeAll(new FilterTask(size, filter, candidates, matches, start, middle, finished, progressDialog),
+						  new FilterTask(size, filter, candidates, matches, middle, end, finished, progressDialog));
+						
+			}//IF
+			else if(end > start)
+			{
+				filterChunk(start);
+				
+			}//ELSE IF
+			
+		}//METHOD
+		
+		/**
+		 * Stores the database rows within a given chunk whose DVKs match the filter, in ascending order. Does nothing if filtering was cancelled.
+		 * 
+		 * @param chunk Chunk Number
+		 */
+		public void filterChunk(final int chunk)
+		{
+			if(progressDialog != null && progressDialog.isCancelled())
+			{
+				return;
+				
+			}//IF
+			
+			int first = chunk * FILTER_CHUNK_SIZE;
+			int last = Math.min(first + FILTER_CHUNK_SIZE, size);
+			int[] chunkMatches = new int[last - first];
+			int matchSize = 0;
+			int row = first;
+			if(candidates != null)
+			{
+				row = candidates.nextSetRow(first);
+				
+			}//IF
+			
+			while(row != -1 && row < last)
+			{
+				if(filter.matchesText(row))
+				{
+					chunkMatches[matchSize] = row;
+					matchSize++;
+					
+				}//IF
+				
+				row++;
+				if(candidates != null)
+				{
+					row = candidates.nextSetRow(row);
+					
+				}//IF
+				
+			}//WHILE
+			
+			matches[chunk] = Arrays.copyOf(chunkMatches, matchSize);
+			int count = finished.incrementAndGet();
+			if(progressDialog != null)
+			{
+				synchronized(progressDialog)
+				{
+					progressDialog.setProgressBar(false, true, matches.length, count);
+					
+				}//SYNCHRONIZED
+				
+			}//IF
+			
+		}//METHOD
+		
+	}//CLASS
+	
+	/**
+	 * Filter built from the filter strings at the time it was created, so it can be applied to DVKs added after filtering.
+	 * 
+	 * @author Drakovek
+	 * @version 2.0
+	 */
+	private class DvkFilter
+	{
+		/**
+		 * Whether the filter is case sensitive
+		 */
+		private boolean caseSensitive;
+		
+		/**
+		 * Normalized search logic of the filter, the same for filters built from equivalent filter strings
+		 */
+		private String key;
+		
+		/**
+		 * Database rows matching the filter, null if not yet filtered
+		 */
+		private RowBitmap matchingRows;
+		
+		/**
+		 * Search logic for titles, null if titles aren't filtered
+		 */
+		private BooleanSearch titleSearch;
+		
+		/**
+		 * Search logic for descriptions, null if descriptions aren't filtered
+		 */
+		private BooleanSearch descriptionSearch;
+		
+		/**
+		 * Search logic for web tags, null if web tags aren't filtered
+		 */
+		private BooleanSearch webTagSearch;
+		
+		/**
+		 * Search logic for artists, null if artists aren't filtered
+		 */
+		private BooleanSearch artistSearch;
+		
+		/**
+		 * Database rows matching the web tag search, null if not loaded
+		 */
+		private RowBitmap webTagRows;
+		
+		/**
+		 * Database rows matching the artist search, null if not loaded
+		 */
+		private RowBitmap artistRows;
+		
+		/**
+		 * Database rows whose titles may match the title search, null if not loaded or the trigram index isn't used
+		 */
+		private RowBitmap titleCandidates;
+		
+		/**
+		 * Database rows whose descriptions may match the description search, null if not loaded or the trigram index isn't used
+		 */
+		private RowBitmap descriptionCandidates;
+		
+		/**
+		 * Initializes the DvkFilter class with the current filter strings.
+		 */
+		public DvkFilter()
+		{
+			caseSensitive = getFilterCaseSensitive();
+			titleSearch = getSearch(getTitleFilter());
+			descriptionSearch = getSearch(getDescriptionFilter());
+			webTagSearch = getSearch(getWebTagFilter());
+			artistSearch = getSearch(getArtistFilter());
+			StringBuilder builder = new StringBuilder();
+			builder.append(caseSensitive);
+			BooleanSearch[] searches = {titleSearch, descriptionSearch, webTagSearch, artistSearch};
+			for(BooleanSearch search: searches)
+			{
+				builder.append('\n');
+				if(search != null)
+				{
+					builder.append(search.getNormalizedLogic(!caseSensitive));
+					
+				}//IF
+				
+			}//FOR
+			
+			key = builder.toString();
+			matchingRows = null;
+			webTagRows = null;
+			artistRows = null;
+			titleCandidates = null;
+			descriptionCandidates = null;
+			
+		}//CONSTRUCTOR
+		
+		/**
+		 * Returns search logic for a given filter string.
+		 * 
+		 * @param filter Filter String
+		 * @return Search logic, null if the filter string is empty
+		 */
+		private BooleanSearch getSearch(final String filter)
+		{
+			if(filter.length() == 0)
+			{
+				return null;
+				
+			}//IF
+			
+			BooleanSearch booleanSearch = new BooleanSearch();
+			booleanSearch.createSearchLogic(filter);
+			return booleanSearch;
+			
+		}//METHOD
+		
+		/**
+		 * Returns whether the filter has no search logic, letting every DVK through.
+		 * 
+		 * @return Whether the filter is empty
+		 */
+		public boolean isEmpty()
+		{
+			return titleSearch == null && descriptionSearch == null && webTagSearch == null && artistSearch == null;
+			
+		}//METHOD
+		
+		/**
+		 * Returns the normalized search logic of the filter, used to find the filter's results in the filter cache.
+		 * 
+		 * @return Filter Key
+		 */
+		public String getKey()
+		{
+			return key;
+			
+		}//METHOD
+		
+		/**
+		 * Returns whether another filter has the same normalized search logic.
+		 * 
+		 * @param filter Other Filter
+		 * @return Whether the filters are the same
+		 */
+		public boolean isSameAs(final DvkFilter filter)
+		{
+			return key.equals(filter.key);
+			
+		}//METHOD
+		
+		/**
+		 * Returns whether the filter only lets through DVKs that another filter also lets through, such as when a clause is added to one of the other filter's searches.
+		 * 
+		 * @param filter Other Filter
+		 * @return Whether the filter is at least as narrow as the other filter
+		 */
+		public boolean isNarrowerThan(final DvkFilter filter)
+		{
+			return caseSensitive == filter.caseSensitive && isNarrower(titleSearch, filter.titleSearch, false) && isNarrower(descriptionSearch, filter.descriptionSearch, false) && isNarrower(webTagSearch, filter.webTagSearch, true) && isNarrower(artistSearch, filter.artistSearch, true);
+			
+		}//METHOD
+		
+		/**
+		 * Returns whether one search of the filter is at least as narrow as the same search of another filter.
+		 * 
+		 * @param search Search of this filter, null if the field isn't filtered
+		 * @param other Search of the other filter, null if the field isn't filtered
+		 * @param exactMatch Whether the field is matched exactly rather than by substring
+		 * @return Whether the search is at least as narrow
+		 */
+		private boolean isNarrower(final BooleanSearch search, final BooleanSearch other, final boolean exactMatch)
+		{
+			if(other == null)
+			{
+				return true;
+				
+			}//IF
+			
+			return search != null && search.isNarrowerThan(other, !caseSensitive, exactMatch);
+			
+		}//METHOD
+		
+		/**
+		 * Sets the database rows matching the filter.
+		 * 
+		 * @param matchingRows Matching Rows
+		 */
+		public void setMatchingRows(final RowBitmap matchingRows)
+		{
+			this.matchingRows = matchingRows;
+			
+		}//METHOD
+		
+		/**
+		 * Returns the database rows matching the filter.
+		 * 
+		 * @return Matching Rows, null if not yet filtered
+		 */
+		public RowBitmap getMatchingRows()
+		{
+			return matchingRows;
+			
+		}//METHOD
+		
+		/**
+		 * Loads the rows matching the web tag and artist searches for DVKs currently in the database.<br/>
+		 * Each search term is looked up in the database's posting lists, then the search logic is evaluated as bitmap operations over all rows at once.
+		 * An empty artist term also matches DVKs without artists, as getArtists returns a single empty artist for them. DVKs without web tags have no web tags to match.
+		 * If the database keeps a trigram index, the rows whose titles and descriptions may match are narrowed down the same way.
+		 */
+		public void loadRows()
+		{
+			if(webTagSearch != null)
+			{
+				HashMap<String, RowBitmap> termRows = new HashMap<>();
+				for(Map.Entry<String, int[]> entry: database.getDictionaryIDs(webTagSearch.getSearchTerms(), caseSensitive).entrySet())
+				{
+					termRows.put(entry.getKey(), database.getWebTagRows(entry.getValue()));
+					
+				}//FOR
+				
+				webTagRows = webTagSearch.searchRows(termRows, database.getSize());
+				
+			}//IF
+			
+			if(artistSearch != null)
+			{
+				HashMap<String, RowBitmap> termRows = new HashMap<>();
+				for(Map.Entry<String, int[]> entry: database.getDictionaryIDs(artistSearch.getSearchTerms(), caseSensitive).entrySet())
+				{
+					RowBitmap rows = database.getArtistRows(entry.getValue());
+					if(entry.getKey().length() == 0)
+					{
+						//DVKS WITHOUT ARTISTS ARE SEARCHED AS HAVING ONE EMPTY ARTIST, SO THE EMPTY TERM MATCHES THEM AS IT DOES IN matches
+						rows.or(database.getRowsWithoutArtists());
+						
+					}//IF
+					
+					termRows.put(entry.getKey(), rows);
+					
+				}//FOR
+				
+				artistRows = artistSearch.searchRows(termRows, database.getSize());
+				
+			}//IF
+			
+			TrigramIndex trigramIndex = database.getTrigramIndex();
+			if(trigramIndex != null)
+			{
+				if(titleSearch != null)
+				{
+					HashMap<String, RowBitmap> termCandidates = new HashMap<>();
+					for(String term: titleSearch.getSearchTerms())
+					{
+						RowBitmap candidates = trigramIndex.getTitleCandidates(term, database.getSize());
+						if(candidates != null)
+						{
+							termCandidates.put(term, candidates);
+							
+						}//IF
+						
+					}//FOR
+					
+					titleCandidates = titleSearch.searchCandidates(termCandidates, database.getSize());
+					
+				}//IF
+				
+				if(descriptionSearch != null && trigramIndex.hasDescriptions())
+				{
+					HashMap<String, RowBitmap> termCandidates = new HashMap<>();
+					for(String term: descriptionSearch.getSearchTerms())
+					{
+						RowBitmap candidates = trigramIndex.getDescriptionCandidates(term, database.getSize());
+						if(candidates != null)
+						{
+							termCandidates.put(term, candidates);
+							
+						}//IF
+						
+					}//FOR
+					
+					descriptionCandidates = descriptionSearch.searchCandidates(termCandidates, database.getSize());
+					
+				}//IF
+				
+			}//IF
+			
+		}//METHOD
+		
+		/**
+		 * Returns the database rows that may match the filter, after loading the rows of each field with loadRows.<br/>
+		 * The bitmaps of each field are intersected, leaving only the titles and descriptions of the remaining rows to be searched as text with matchesText.
+		 * The bitmaps of each field are released afterwards, so filters kept in the filter history and filter cache only hold their matching rows.
+		 * 
+		 * @return Bitmap of candidate rows, null if no field was loaded as a bitmap
+		 */
+		public RowBitmap getCandidates()
+		{
+			RowBitmap rows = null;
+			RowBitmap[] fieldRows = {webTagRows, artistRows, titleCandidates, descriptionCandidates};
+			for(RowBitmap field: fieldRows)
+			{
+				if(field != null && rows == null)
+				{
+					rows = field;
+					
+				}//IF
+				else if(field != null)
+				{
+					rows.and(field);
+					
+				}//ELSE IF
+				
+			}//FOR
+			
+			webTagRows = null;
+			artistRows = null;
+			titleCandidates = null;
+			descriptionCandidates = null;
+			return rows;
+			
+		}//METHOD
+		
+		/**
+		 * Returns whether the title and description of the DVK at a given database index match the filter.
+		 * 
+		 * @param index Database Index
+		 * @return Whether the title and description match
+		 */
+		public boolean matchesText(final int index)
+		{
+			return matchesTitle(index) && matchesDescription(index);
+			
+		}//METHOD
+		
+		/**
+		 * Returns whether the DVK at a given database index matches the filter, searching each field as text. Used for DVKs added after the rows were loaded.
+		 * 
+		 * @param index Database Index
+		 * @return Whether the DVK matches the filter
+		 */
+		public boolean matches(final int index)
+		{
+			if(!matchesTitle(index))
+			{
+				return false;
+				
+			}//IF
+			
+			if(webTagSearch != null && !webTagSearch.searchText(database.getWebTags(index), caseSensitive, true))
+			{
+				return false;
+				
+			}//IF
+			
+			if(artistSearch != null && !artistSearch.searchText(database.getArtists(index), caseSensitive, true))
+			{
+				return false;
+				
+			}//IF
+			
+			return matchesDescription(index);
+			
+		}//METHOD
+		
+		/**
+		 * Returns whether the title of the DVK at a given database index matches the title search. Case insensitive searches use the database's lower case title column.
+		 * 
+		 * @param index Database Index
+		 * @return Whether the title matches
+		 */
+		private boolean matchesTitle(final int index)
+		{
+			if(titleSearch == null)
+			{
+				return true;
+				
+			}//IF
+			
+			if(caseSensitive)
+			{
+				return titleSearch.searchText(database.getTitle(index), true, false);
+				
+			}//IF
+			
+			return titleSearch.searchLowerText(database.getLowerTitle(index), false);
+			
+		}//METHOD
+		
+		/**
+		 * Returns whether the description of the DVK at a given database index matches the description search. Descriptions are checked last, as they may have to be read from disk.
+		 * 
+		 * @param index Database Index
+		 * @return Whether the description matches
+		 */
+		private boolean matchesDescription(final int index)
+		{
+			return descriptionSearch == null || descriptionSearch.searchText(database.getDescription(index), caseSensitive, false);
+			
+		}//METHOD
+		
+	}//CLASS
+	
+	/**
+	 * Returns the number of DVKs loaded in the filtered list.
+	 * 
+	 * @return Number of DVKs loaded in the filtered list.
+	 */
+	public int getFilteredSize()
+	{
+		return filteredSize;
+		
+	}//METHOD
+	
+	/**
+	 * Returns the total number of DVKs loaded
+	 * 
+	 * @return Number of DVKs loaded
+	 */
+	public int getDirectSize()
+	{
+		return sortedSize;
+		
+	}//METHOD
+	
+	/**
+	 * Returns the DVK Database this handler is reading from
+	 * 
+	 * @return DVK Database
+	 */
+	public DvkDatabase getDatabase()
+	{
+		return database;
+		
+	}//METHOD
+	
+	/**
+	 * Returns the direct index from a given filtered index value.
+	 * 
+	 * @param filteredIndex Filtered list index value
+	 * @return Direct index value
+	 */
+	public int getDirectIndex(final int filteredIndex)
+	{
+		return getPositionOf(filtered[filteredIndex]);
+		
+	}//METHOD
+	
+	/**
+	 * Sets the DVK at a given index in the filtered list.
+	 * 
+	 * @param dvk DVK with which to replace listed DVK
+	 * @param index Filtered list index value
+	 */
+	public void setDvkFiltered(DVK dvk, final int index)
+	{
+		setDvk(dvk, getPositionOf(filtered[index]));
+		
+	}//METHOD
+	
+	/**
+	 * Sets the DVK at a given direct index.
+	 * 
+	 * @param dvk DVK with which to replace listed DVK
+	 * @param index Filtered list index value
+	 */
+	public void setDvkDirect(DVK dvk, final int index)
+	{
+		setDvk(dvk, index);
+		
+	}//METHOD
+	
+	/**
+	 * Sets the DVK at a given position in the sorted list, recording the change in the index journal.<br/>
+	 * If the DVK's sort values changed and it no longer sorts between its neighbors, it is taken out of the sorted and filtered lists and placed back at its new sorted position.
+	 * Otherwise it stays where it is, and is only added to or removed from the filtered list if it no longer matches the active filter as it did before.
+	 * 
+	 * @param dvk DVK with which to replace the DVK in the database
+	 * @param position Position of the DVK in the sorted list
+	 */
+	private void setDvk(DVK dvk, final int position)
+	{
+		//FIND THE DVK IN THE FILTERED LIST WHILE IT STILL HAS ITS OLD SORT VALUES
+		int databaseIndex = sorted[position];
+		int filteredIndex = getFilteredIndex(databaseIndex);
+		File previousFile = database.getDvkFile(databaseIndex);
+		database.setDVK(dvk, databaseIndex);
+		clearFilterResults();
+		if(sortKeys != null && sortKeys.readValues(databaseIndex) && !isInSortedPosition(position))
+		{
+			removeFromView(position, filteredIndex);
+			insertIntoView(databaseIndex);
+			
+		}//IF
+		else
+		{
+			updateFiltered(databaseIndex, filteredIndex);
+			
+		}//ELSE
+		
+		if(journal != null)
+		{
+			journal.upsertDVK(dvk, previousFile);
+			
+		}//IF
+		
+	}//METHOD
+	
+	/**
+	 * Sets the DVKs at many direct indexes at once, recording the changes in the index journal.<br/>
+	 * Every DVK is set in the database before any of them are moved, so the direct indexes stay valid for the whole batch and the filter results are only cleared once.
+	 * DVKs whose sort values or filter result changed are then placed back into the sorted and filtered lists together in one pass.
+	 * 
+	 * @param dvks DVKs with which to replace the listed DVKs, each at the direct index it replaces. Null entries leave the DVK at that index unchanged
+	 */
+	public void setDvksDirect(final DVK[] dvks)
+	{
+		clearFilterResults();
+		int size = database.getSize();
+		int length = Math.min(dvks.length, sortedSize);
+		
+		//FIND WHICH DVKS ARE FILTERED BEFORE ANY SORT VALUES CHANGE
+		boolean[] wasFiltered = null;
+		if(activeFilter != null)
+		{
+			wasFiltered = new boolean[length];
+			for(int position = 0; position < length; position++)
+			{
+				wasFiltered[position] = dvks[position] != null && getFilteredIndex(sorted[position]) >= 0;
+				
+			}//FOR
+			
+		}//IF
+		
+		boolean[] moved = null;
+		int[] placed = new int[0];
+		int placedSize = 0;
+		for(int position = 0; position < length; position++)
+		{
+			if(dvks[position] != null)
+			{
+				int databaseIndex = sorted[position];
+				File previousFile = database.getDvkFile(databaseIndex);
+				database.setDVK(dvks[position], databaseIndex);
+				boolean place = sortKeys != null && sortKeys.readValues(databaseIndex);
+				if(!place && activeFilter != null)
+				{
+					place = wasFiltered[position] != activeFilter.matches(databaseIndex);
+					
+				}//IF
+				
+				if(place)
+				{
+					if(moved == null)
+					{
+						moved = new boolean[size];
+						placed = new int[length - position];
+						
+					}//IF
+					
+					moved[databaseIndex] = true;
+					placed[placedSize] = databaseIndex;
+					placedSize++;
+					
+				}//IF
+				
+				if(journal != null)
+				{
+					journal.upsertDVK(dvks[position], previousFile);
+					
+				}//IF
+				
+			}//IF
+			
+		}//FOR
+		
+		if(moved != null)
+		{
+			mergeIntoView(null, new boolean[size], moved, Arrays.copyOf(placed, placedSize));
+			
+		}//IF
+		
+	}//METHOD
+	
+	/**
+	 * Returns whether the DVK at a given position in the sorted list still sorts after the DVK before it and before the DVK after it.
+	 * 
+	 * @param position Position in the sorted list
+	 * @return Whether the DVK is in sorted position
+	 */
+	private boolean isInSortedPosition(final int position)
+	{
+		int databaseIndex = sorted[position];
+		return (position == 0 || compareRows(sorted[position - 1], databaseIndex) < 0) && (position == sortedSize - 1 || compareRows(databaseIndex, sorted[position + 1]) < 0);
+		
+	}//METHOD
+	
+	/**
+	 * Adds or removes a DVK that kept its position in the sorted list to or from the filtered list, if whether it matches the active filter changed.
+	 * 
+	 * @param databaseIndex Database index of the DVK
+	 * @param filteredIndex Index of the DVK in the filtered list, as returned by getFilteredIndex before the DVK changed
+	 */
+	private void updateFiltered(final int databaseIndex, final int filteredIndex)
+	{
+		if(activeFilter == null)
+		{
+			return;
+			
+		}//IF
+		
+		boolean matches = activeFilter.matches(databaseIndex);
+		if(matches && filteredIndex < 0)
+		{
+			filtered = insertAt(filtered, filteredSize, -(filteredIndex + 1), databaseIndex);
+			filteredSize++;
+			
+		}//IF
+		else if(!matches && filteredIndex >= 0)
+		{
+			removeAt(filtered, filteredSize, filteredIndex);
+			filteredSize--;
+			
+		}//ELSE IF
+		
+	}//METHOD
+	
+	/**
+	 * Adds a given DVK to the database.<br/>
+	 * The current sort order and filter are kept: the DVK is placed in the sorted list by binary search against the last sort's values, and only the added DVK is checked against the active filter.
+	 * 
+	 * @param dvk Given DVK
+	 */
+	public void addDVK(DVK dvk)
+	{
+		int databaseIndex = database.getSize();
+		database.addDVK(dvk);
+		clearFilterResults();
+		if(journal != null)
+		{
+			journal.upsertDVK(dvk, null);
+			
+		}//IF
+		
+		if(sortKeys != null)
+		{
+			sortKeys.add(databaseIndex);
+			
+		}//IF
+		
+		insertIntoView(databaseIndex);
+		
+	}//METHOD
+	
+	/**
+	 * Inserts a DVK into the sorted list at the position that keeps the last sort order, adding it to the filtered list if it matches the active filter.<br/>
+	 * Both positions are found by binary search with compareRows. As the filtered list holds database indexes rather than positions in the sorted list, no other entries change.
+	 * Inserting still moves the entries after the DVK up by one with a single array copy in each list, which is O(n), but the lists only grow when they run out of room.
+	 * 
+	 * @param databaseIndex Database index of the DVK, which must not already be in the sorted list
+	 */
+	private void insertIntoView(final int databaseIndex)
+	{
+		sorted = insertAt(sorted, sortedSize, getSortedPosition(databaseIndex), databaseIndex);
+		sortedSize++;
+		if(activeFilter == null || activeFilter.matches(databaseIndex))
+		{
+			filtered = insertAt(filtered, filteredSize, getSortedPosition(filtered, 0, filteredSize, databaseIndex), databaseIndex);
+			filteredSize++;
+			
+		}//IF
+		
+	}//METHOD
+	
+	/**
+	 * Removes a DVK from the sorted list and the filtered list.
+	 * 
+	 * @param position Position of the DVK in the sorted list
+	 * @param filteredIndex Index of the DVK in the filtered list, negative if it isn't in the filtered list
+	 */
+	private void removeFromView(final int position, final int filteredIndex)
+	{
+		removeAt(sorted, sortedSize, position);
+		sortedSize--;
+		if(filteredIndex >= 0)
+		{
+			removeAt(filtered, filteredSize, filteredIndex);
+			filteredSize--;
+			
+		}//IF
+		
+	}//METHOD
+	
+	/**
+	 * Inserts a value into the used part of an array, moving the values after it up by one. The array is grown by half if it's full.
+	 * 
+	 * @param array Given Array
+	 * @param size Number of values used in the array
+	 * @param index Index at which to insert the value
+	 * @param value Value to insert
+	 * @return Array with the value inserted, which is a new array if the given array was full
+	 */
+	private static int[] insertAt(final int[] array, final int size, final int index, final int value)
+	{
+		int[] inserted = array;
+		if(size == inserted.length)
+		{
+			inserted = Arrays.copyOf(inserted, Math.max(16, size + (size >> 1)));
+			
+		}//IF
+		
+		System.arraycopy(inserted, index, inserted, index + 1, size - index);
+		inserted[index] = value;
+		return inserted;
+		
+	}//METHOD
+	
+	/**
+	 * Removes a value from the used part of an array, moving the values after it down by one.
+	 * 
+	 * @param array Given Array
+	 * @param size Number of values used in the array
+	 * @param index Index of the value to remove
+	 */
+	private static void removeAt(int[] array, final int size, final int index)
+	{
+		System.arraycopy(array, index + 1, array, index, size - index - 1);
+		
+	}//METHOD
+	
+	/**
+	 * Returns the position of a DVK in the sorted list, found by binary search with compareRows.
+	 * 
+	 * @param databaseIndex Database index of a DVK in the sorted list
+	 * @return Position in the sorted list
+	 */
+	private int getPositionOf(final int databaseIndex)
+	{
+		return getSortedPosition(databaseIndex) - 1;
+		
+	}//METHOD
+	
+	/**
+	 * Returns the index of a DVK in the filtered list, found by binary search with compareRows.
+	 * 
+	 * @param databaseIndex Database index of the DVK
+	 * @return Index in the filtered list, or (-(insertion point) - 1) if the DVK isn't in the filtered list
+	 */
+	private int getFilteredIndex(final int databaseIndex)
+	{
+		int index = getSortedPosition(filtered, 0, filteredSize, databaseIndex);
+		if(index > 0 && filtered[index - 1] == databaseIndex)
+		{
+			return index - 1;
+			
+		}//IF
+		
+		return -(index + 1);
+		
+	}//METHOD
+	
+	/**
+	 * Compares two DVKs in the order of the sorted list.<br/>
+	 * DVKs with equal sort values are ordered by database index, as they are by the stable sort, or in reverse if the order is reversed. DVKs in default database order are only ordered by database index.
+	 * 
+	 * @param databaseIndexA Database index of the first DVK
+	 * @param databaseIndexB Database index of the second DVK
+	 * @return Compare int (int < 0: first DVK comes first, int > 0: second DVK comes first)
+	 */
+	private int compareRows(final int databaseIndexA, final int databaseIndexB)
+	{
+		if(sortKeys == null)
+		{
+			return Integer.compare(databaseIndexA, databaseIndexB);
+			
+		}//IF
+		
+		int result = sortKeys.compare(databaseIndexA, databaseIndexB);
+		if(result == 0)
+		{
+			result = Integer.compare(databaseIndexA, databaseIndexB);
+			
+		}//IF
+		
+		if(lastReverseOrder)
+		{
+			result = -result;
+			
+		}//IF
 		
-		resetSorted();
-		resetFiltered();
+		return result;
 		
 	}//METHOD
 	
 	/**
-	 * Returns whether DVKs loaded properly.
+	 * Returns the position in the sorted list at which a DVK should be inserted to keep the last sort order, found by binary search with compareRows.<br/>
+	 * An added DVK has the largest database index, which puts it after DVKs with equal sort values, or before them if the order is reversed.
 	 * 
-	 * @return Whether DVKs loaded properly
+	 * @param databaseIndex Database index of the DVK to insert
+	 * @return Position in the sorted list
 	 */
-	public boolean isLoaded()
+	private int getSortedPosition(final int databaseIndex)
 	{
-		return loaded;
+		return getSortedPosition(sorted, 0, sortedSize, databaseIndex);
 		
 	}//METHOD
 	
 	/**
-	 * Resets the sorted list to match the default order of DvkDatabase
+	 * Returns the position in a range of a list in sort order at which a DVK should be inserted to keep the last sort order, found by binary search with compareRows.
+	 * 
+	 * @param rows Database indexes in the last sort order
+	 * @param start Start of the range to search, inclusive
+	 * @param end End of the range to search, exclusive
+	 * @param databaseIndex Database index of the DVK to insert
+	 * @return Position in the list
 	 */
-	private void resetSorted()
+	private int getSortedPosition(final int[] rows, final int start, final int end, final int databaseIndex)
 	{
-		sorted = new ArrayList<>();
-		int size = database.getSize();
-		for(int i = 0; i < size; i++)
+		int low = start;
+		int high = end;
+		while(low < high)
 		{
-			sorted.add(Integer.valueOf(i));
+			int middle = (low + high) >>> 1;
+			int result = compareRows(rows[middle], databaseIndex);
+			if(result > 0)
+			{
+				high = middle;
+				
+			}//IF
+			else
+			{
+				low = middle + 1;
+				
+			}//ELSE
 			
-		}//FOR
+		}//WHILE
 		
-	}//METHOD
-
-	/**
-	 * Resets the filtered list to match with the sorted list
-	 */
-	private void resetFiltered()
-	{
-		filtered = new ArrayList<>();
-		int size = sorted.size();
-		for(int i = 0; i < size; i++)
-		{
-			filtered.add(Integer.valueOf(i));
-			
-		}//FOR
+		return low;
 		
 	}//METHOD
 	
 	/**
-	 * Sorts the currently loaded DVKs.
+	 * Applies a batch of changes found on disk to the loaded DVKs, keeping the last sort order and the active filter.<br/>
+	 * Changed DVKs are found through the database's DVK file index. Removed and changed DVKs are taken out of the sorted and filtered lists, while the rest keep their order and filtering.
+	 * Changed and added DVKs are then sorted on their own, merged back into the sorted list, and checked against the active filter.
 	 * 
-	 * @param sortType Sort Type
-	 * @param groupArtists Whether to group artists
-	 * @param groupSequences Whether to group sequences
-	 * @param groupSections Whether to group sections
-	 * @param reverseOrder Whether to reverse the sorting order
+	 * @param dvks Map of changed DVK files to their new DVK contents, with a null value for DVK files that were removed or are no longer valid
+	 * @param deleted Files or directories that were deleted, used to remove DVKs that reference them
+	 * @param rescanned Directories whose DVK files were all listed in dvks, used to remove DVKs in those directories that are no longer listed
 	 */
-	public void sort(final int sortType, final boolean groupArtists, final boolean reverseOrder)
+	public void updateDVKs(final HashMap<File, DVK> dvks, final ArrayList<File> deleted, final ArrayList<File> rescanned)
 	{
-		//POPULATE SORTED ARRAYLIST
-		sorted = new ArrayList<>();
-		for(int i = 0; i < database.getSize(); i++)
+		//UPDATE EXISTING DVKS, REMEMBERING NEW ONES
+		int size = database.getSize();
+		boolean[] removed = new boolean[size];
+		boolean[] moved = new boolean[size];
+		boolean changed = false;
+		ArrayList<DVK> added = new ArrayList<>();
+		for(Map.Entry<File, DVK> entry: dvks.entrySet())
 		{
-			sorted.add(Integer.valueOf(i));
+			int index = database.getIndexOfDvkFile(entry.getKey());
+			DVK dvk = entry.getValue();
+			if(index == -1)
+			{
+				if(dvk != null)
+				{
+					added.add(dvk);
+					
+				}//IF
+				
+			}//IF
+			else if(dvk == null)
+			{
+				removed[index] = true;
+				changed = true;
+				
+			}//ELSE IF
+			else
+			{
+				database.setDVK(dvk, index);
+				moved[index] = true;
+				changed = true;
+				if(sortKeys != null)
+				{
+					sortKeys.readValues(index);
+					
+				}//IF
+				
+			}//ELSE
 			
 		}//FOR
 		
-		//SORT LIST
-		sorted = sortMerge(sorted, sortType, groupArtists);
-		
-		//REVERSE ORDER, IF NECESSARY
-		if(reverseOrder)
+		//REMOVE DVKS REFERENCING DELETED FILES
+		if(deleted != null && deleted.size() > 0)
 		{
-			ArrayList<Integer> reverseList = new ArrayList<>();
-			for(int i = sorted.size() - 1; i > -1; i--)
+			HashSet<String> deletedPaths = new HashSet<>();
+			for(File file: deleted)
 			{
-				reverseList.add(sorted.get(i));
+				deletedPaths.add(file.getAbsolutePath());
 				
 			}//FOR
 			
-			sorted = new ArrayList<>();
-			sorted.addAll(reverseList);
-			reverseList = null;
+			for(int i = 0; i < size; i++)
+			{
+				if(!removed[i] && (isDeleted(database.getDvkFile(i), deletedPaths) || isDeleted(database.getMediaFile(i), deletedPaths) || isDeleted(database.getSecondaryFile(i), deletedPaths)))
+				{
+					removed[i] = true;
+					changed = true;
+					
+				}//IF
+				
+			}//FOR
 			
 		}//IF
 		
-		resetFiltered();
-		
-	}//METHOD
-	
-	/**
-	 * Sorts a list of DVK indexes using merge sort.
-	 * 
-	 * @param startList Given list of DVK indexes to sort.
-	 * @param sortType Sort Type
-	 * @param groupArtists Whether to group artists together
-	 * @return Sorted list of DVK indexes
-	 */
-	private ArrayList<Integer> sortMerge(final ArrayList<Integer> startList, final int sortType, final boolean groupArtists)
-	{
-		if(startList.size() > 1)
+		//REMOVE DVKS MISSING FROM RESCANNED DIRECTORIES
+		if(rescanned != null && rescanned.size() > 0)
 		{
-			//SPLIT INITIAL ARRAYLIST
-			int half = startList.size() / 2;
-			ArrayList<Integer> aList = new ArrayList<>();
-			ArrayList<Integer> bList = new ArrayList<>();
-			
-			for(int i = 0; i < half; i++)
+			HashSet<String> rescannedPaths = new HashSet<>();
+			for(File directory: rescanned)
 			{
-				aList.add(startList.get(i));
+				rescannedPaths.add(directory.getAbsolutePath());
 				
 			}//FOR
 			
-			for(int i = half; i < startList.size(); i++)
+			ArrayList<File> directories = database.getDirectories();
+			boolean[] rescannedDirectories = new boolean[directories.size()];
+			for(int i = 0; i < rescannedDirectories.length; i++)
 			{
-				bList.add(startList.get(i));
+				rescannedDirectories[i] = directories.get(i) != null && rescannedPaths.contains(directories.get(i).getAbsolutePath());
 				
 			}//FOR
 			
-			//SORT SPLIT LISTS
-			aList = sortMerge(aList, sortType, groupArtists);
-			bList = sortMerge(bList, sortType, groupArtists);
-			
-			//MERGE LISTS
-			ArrayList<Integer> returnList = new ArrayList<>();
-			while(aList.size() > 0 && bList.size() > 0)
-			{
-				if(compareDVKs(aList.get(0).intValue(), bList.get(0).intValue(), sortType, groupArtists) < 0)
-                {
-                    returnList.add(aList.get(0));
-                    aList.remove(0);
-                    
-                }//IF
-                else
-                {
-                    returnList.add(bList.get(0));
-                    bList.remove(0);
-                    
-                }//ELSE
+			for(int i = 0; i < size; i++)
+			{
+				if(!removed[i] && rescannedDirectories[database.getDirectoryIndexOf(i)] && !dvks.containsKey(database.getDvkFile(i).getAbsoluteFile()))
+				{
+					removed[i] = true;
+					changed = true;
+					
+				}//IF
 				
-			}//WHILE
-			
-			returnList.addAll(aList);
-			returnList.addAll(bList);
-			
-			return returnList;
+			}//FOR
 			
 		}//IF
 		
-		return startList;
-		
-	}//METHOD
-	
-	/**
-	 * Compares two DVKs given their indexes.
-	 * 
-	 * @param dvkA Index of the first DVK
-	 * @param dvkB Index of the second DVK
-	 * @param sortType Sort Type, used to determine which criteria to compare DVKs by
-	 * @param groupArtists Whether to group artists together
-	 * @return int value showing how the DVKs compare
-	 */
-	private int compareDVKs(final int dvkA, final int dvkB, final int sortType, final boolean groupArtists)
-	{
-		int result = 0;
-		
-		if(groupArtists == true)
+		if(!changed && added.size() == 0)
 		{
-			result = AlphaNumSort.compareAlpha(StringMethods.arrayToString(database.getArtists(dvkA)).toLowerCase(), StringMethods.arrayToString(database.getArtists(dvkB)).toLowerCase());
-		
+			return;
+			
 		}//IF
 		
-		if(result == 0 && (sortType != SORT_ALPHA))
+		clearFilterResults();
+		int[] newIndexes = null;
+		int placedSize = added.size();
+		for(int i = 0; i < size; i++)
 		{
-			if(database.getTime(dvkA) > database.getTime(dvkB))
+			if(removed[i])
 			{
-				result = 1;
+				newIndexes = database.removeDVKs(removed);
+				if(sortKeys != null)
+				{
+					sortKeys.remove(newIndexes);
+					
+				}//IF
+				
+				break;
 				
 			}//IF
-			else if(database.getTime(dvkA) < database.getTime(dvkB))
-			{
-				result = -1;
 			
-			}//ELSE IF
+		}//FOR
 		
-		}//IF
+		//COLLECT CHANGED AND ADDED DVKS TO PLACE BACK INTO THE VIEW
+		for(int i = 0; i < size; i++)
+		{
+			if(moved[i] && !removed[i])
+			{
+				placedSize++;
+				
+			}//IF
+			
+		}//FOR
 		
-		if(result == 0)
+		int[] placed = new int[placedSize];
+		int placedCount = 0;
+		for(int i = 0; i < size; i++)
 		{
-			result = AlphaNumSort.compareAlpha(database.getTitle(dvkA), database.getTitle(dvkB));
+			if(moved[i] && !removed[i])
+			{
+				placed[placedCount] = (newIndexes == null) ? i : newIndexes[i];
+				placedCount++;
+				
+			}//IF
+			
+		}//FOR
 		
-		}//IF
+		for(DVK dvk: added)
+		{
+			int databaseIndex = database.getSize();
+			database.addDVK(dvk);
+			if(sortKeys != null)
+			{
+				sortKeys.add(databaseIndex);
+				
+			}//IF
+			
+			placed[placedCount] = databaseIndex;
+			placedCount++;
+			
+		}//FOR
 		
-		return result;
-	
-	}//METHOD
-	
-	/**
-	 * Filters the currently loaded DVKs based on the current filter strings.
-	 */
-	public void filterDVKs()
-	{
-		resetFiltered();
-		filterTitles();
-		filterDescriptions();
-		filterWebTags();
-		filterArtists();
+		mergeIntoView(newIndexes, removed, moved, placed);
 		
 	}//METHOD
 	
 	/**
-	 * Filters loaded DVKs based on title.
+	 * Updates the sorted and filtered lists after a batch of changes.<br/>
+	 * DVKs that weren't removed or moved keep their order and filtering, with their database indexes updated. The placed DVKs are sorted with compareRows, then merged in at positions found with getSortedPosition, being checked against the active filter as they are.
+	 * 
+	 * @param newIndexes New database index of every previous database index, as returned by DvkDatabase.removeDVKs. Null if no DVKs were removed
+	 * @param removed Flags for which previous database indexes were removed
+	 * @param moved Flags for which previous database indexes are placed back in the view
+	 * @param placed New database indexes of the DVKs to place in the view
 	 */
-	private void filterTitles()
+	private void mergeIntoView(final int[] newIndexes, final boolean[] removed, final boolean[] moved, int[] placed)
 	{
-		if(getTitleFilter().length() > 0)
+		//KEEP THE ORDER AND FILTERING OF UNCHANGED DVKS
+		int[] kept = new int[sortedSize];
+		boolean[] keptFiltered = new boolean[sortedSize];
+		int keptSize = 0;
+		int filteredIndex = 0;
+		for(int i = 0; i < sortedSize; i++)
 		{
-			BooleanSearch booleanSearch = new BooleanSearch();
-			booleanSearch.createSearchLogic(getTitleFilter());
-			for(int i = 0; i < getFilteredSize(); i++)
+			int row = sorted[i];
+			boolean isFiltered = filteredIndex < filteredSize && filtered[filteredIndex] == row;
+			if(isFiltered)
 			{
-				if(!booleanSearch.searchText(getTitleFiltered(i), getFilterCaseSensitive(), false))
-				{
-					filtered.remove(i);
-					i--;
+				filteredIndex++;
 				
-				}//IF
+			}//IF
 			
-			}//FOR
+			if(!removed[row] && !moved[row])
+			{
+				kept[keptSize] = (newIndexes == null) ? row : newIndexes[row];
+				keptFiltered[keptSize] = isFiltered;
+				keptSize++;
+				
+			}//IF
 			
-		}//IF
+		}//FOR
 		
-	}//IF
-	
-	/**
-	 * Filters loaded DVKs based on description.
-	 */
-	private void filterDescriptions()
-	{
-		if(getDescriptionFilter().length() > 0)
+		//SORT THE PLACED DVKS
+		IndexSort.sort(placed, new IndexComparator()
 		{
-			BooleanSearch booleanSearch = new BooleanSearch();
-			booleanSearch.createSearchLogic(getDescriptionFilter());
-			for(int i = 0; i < getFilteredSize(); i++)
+			@Override
+			public int compare(final int indexA, final int indexB)
 			{
-				if(!booleanSearch.searchText(getDescriptionFiltered(i), getFilterCaseSensitive(), false))
-				{
-					filtered.remove(i);
-					i--;
+				return compareRows(indexA, indexB);
 				
-				}//IF
-			
-			}//FOR
+			}//METHOD
 			
-		}//IF
-		
-	}//IF
-	
-	/**
-	 * Filters loaded DVKs based on web tags.
-	 */
-	private void filterWebTags()
-	{
-		if(getWebTagFilter().length() > 0)
+		});
+		
+		//MERGE, FINDING WHERE EACH PLACED DVK GOES AMONG THE KEPT DVKS BY BINARY SEARCH
+		int[] newSorted = new int[keptSize + placed.length];
+		int[] newFiltered = new int[newSorted.length];
+		int newFilteredSize = 0;
+		int keptIndex = 0;
+		int position = 0;
+		for(int i = 0; i <= placed.length; i++)
 		{
-			BooleanSearch booleanSearch = new BooleanSearch();
-			booleanSearch.createSearchLogic(getWebTagFilter());
-			for(int i = 0; i < getFilteredSize(); i++)
+			int end = keptSize;
+			if(i < placed.length)
 			{
-				if(!booleanSearch.searchText(getWebTagsFiltered(i), getFilterCaseSensitive(), true))
-				{
-					filtered.remove(i);
-					i--;
+				end = getSortedPosition(kept, keptIndex, keptSize, placed[i]);
 				
-				}//IF
+			}//IF
 			
+			for(; keptIndex < end; keptIndex++)
+			{
+				newSorted[position] = kept[keptIndex];
+				if(keptFiltered[keptIndex])
+				{
+					newFiltered[newFilteredSize] = kept[keptIndex];
+					newFilteredSize++;
+					
+				}//IF
+				
+				position++;
+				
 			}//FOR
 			
-		}//IF
-		
-	}//IF
-	
-	/**
-	 * Filters loaded DVKs based on artist(s).
-	 */
-	private void filterArtists()
-	{
-		if(getArtistFilter().length() > 0)
-		{
-			BooleanSearch booleanSearch = new BooleanSearch();
-			booleanSearch.createSearchLogic(getArtistFilter());
-			for(int i = 0; i < getFilteredSize(); i++)
+			if(i < placed.length)
 			{
-				if(!booleanSearch.searchText(getArtistsFiltered(i), getFilterCaseSensitive(), true))
+				newSorted[position] = placed[i];
+				if(activeFilter == null || activeFilter.matches(placed[i]))
 				{
-					filtered.remove(i);
-					i--;
-				
+					newFiltered[newFilteredSize] = placed[i];
+					newFilteredSize++;
+					
 				}//IF
+				
+				position++;
+				
+			}//IF
 			
-			}//FOR
-			
-		}//IF
+		}//FOR
 		
-	}//IF
-	
-	/**
-	 * Returns the number of DVKs loaded in the filtered list.
-	 * 
-	 * @return Number of DVKs loaded in the filtered list.
-	 */
-	public int getFilteredSize()
-	{
-		return filtered.size();
+		sorted = newSorted;
+		sortedSize = newSorted.length;
+		filtered = newFiltered;
+		filteredSize = newFilteredSize;
 		
 	}//METHOD
 	
 	/**
-	 * Returns the total number of DVKs loaded
+	 * Returns whether a given file or one of its parent directories is in a set of deleted paths.
 	 * 
-	 * @return Number of DVKs loaded
+	 * @param file Given File
+	 * @param deletedPaths Absolute paths of deleted files
+	 * @return Whether the file was deleted
 	 */
-	public int getDirectSize()
+	private static boolean isDeleted(final File file, final HashSet<String> deletedPaths)
 	{
-		return sorted.size();
+		File current = file;
+		while(current != null)
+		{
+			if(deletedPaths.contains(current.getAbsolutePath()))
+			{
+				return true;
+				
+			}//IF
+			
+			current = current.getParentFile();
+			
+		}//WHILE
 		
-	}//METHOD
-	
-	/**
-	 * Returns the DVK Database this handler is reading from
-	 * 
-	 * @return DVK Database
-	 */
-	public DvkDatabase getDatabase()
-	{
-		return database;
+		return false;
 		
 	}//METHOD
 	
 	/**
-	 * Returns the direct index from a given filtered index value.
+	 * Returns the direct indexes of DVKs that share their ID with at least one other DVK. Each group is in direct index order, and groups are ordered by their first direct index.
 	 * 
-	 * @param filteredIndex Filtered list index value
-	 * @return Direct index value
+	 * @return Groups of direct indexes with identical IDs
 	 */
-	public int getDirectIndex(final int filteredIndex)
+	public ArrayList<int[]> getIdenticalIDs()
 	{
-		return filtered.get(filteredIndex).intValue();
+		int size = sortedSize;
+		int[] directIndexes = new int[database.getSize()];
+		for(int i = 0; i < size; i++)
+		{
+			directIndexes[sorted[i]] = i;
+			
+		}//FOR
 		
-	}//METHOD
-	
-	/**
-	 * Sets the DVK at a given index in the filtered list.
-	 * 
-	 * @param dvk DVK with which to replace listed DVK
-	 * @param index Filtered list index value
-	 */
-	public void setDvkFiltered(DVK dvk, final int index)
-	{
-		database.setDVK(dvk, sorted.get(filtered.get(index).intValue()).intValue());
+		ArrayList<int[]> identical = database.getIdenticalIDs();
+		for(int[] group: identical)
+		{
+			for(int i = 0; i < group.length; i++)
+			{
+				group[i] = directIndexes[group[i]];
+				
+			}//FOR
+			
+			Arrays.sort(group);
+			
+		}//FOR
 		
-	}//METHOD
-	
-	/**
-	 * Sets the DVK at a given direct index.
-	 * 
-	 * @param dvk DVK with which to replace listed DVK
-	 * @param index Filtered list index value
-	 */
-	public void setDvkDirect(DVK dvk, final int index)
-	{
-		database.setDVK(dvk, sorted.get(index).intValue());
+		Collections.sort(identical, new Comparator<int[]>()
+		{
+			@Override
+			public int compare(int[] groupA, int[] groupB)
+			{
+				return Integer.compare(groupA[0], groupB[0]);
+				
+			}//METHOD
+			
+		});
 		
-	}//METHOD
-	
-	/**
-	 * Adds a given DVK to the database.
-	 * 
-	 * @param dvk Given DVK
-	 * @param index Given Index
-	 */
-	public void addDVK(DVK dvk)
-	{
-		database.addDVK(dvk);
-		resetSorted();
-		resetFiltered();
+		return identical;
 		
 	}//METHOD
 	
@@ -502,7 +2266,7 @@ public class DvkHandler
 	 */
 	public File getDvkFileFiltered(final int index)
 	{
-		return getDvkFileDirect(filtered.get(index).intValue());
+		return database.getDvkFile(filtered[index]);
 		
 	}//METHOD
 	
@@ -514,7 +2278,7 @@ public class DvkHandler
 	 */
 	public File getDvkFileDirect(final int index)
 	{
-		return database.getDvkFile(sorted.get(index).intValue());
+		return database.getDvkFile(sorted[index]);
 		
 	}//METHOD
 	
@@ -526,7 +2290,7 @@ public class DvkHandler
 	 */
 	public String getIdFiltered(final int index)
 	{
-		return getIdDirect(filtered.get(index).intValue());
+		return database.getID(filtered[index]);
 		
 	}//METHOD
 	
@@ -538,7 +2302,7 @@ public class DvkHandler
 	 */
 	public String getIdDirect(final int index)
 	{
-		return database.getID(sorted.get(index).intValue());
+		return database.getID(sorted[index]);
 		
 	}//METHOD
 	
@@ -550,7 +2314,7 @@ public class DvkHandler
 	 */
 	public String getTitleFiltered(final int index)
 	{
-		return getTitleDirect(filtered.get(index).intValue());
+		return database.getTitle(filtered[index]);
 		
 	}//METHOD
 	
@@ -562,7 +2326,7 @@ public class DvkHandler
 	 */
 	public String getTitleDirect(final int index)
 	{
-		return database.getTitle(sorted.get(index).intValue());
+		return database.getTitle(sorted[index]);
 		
 	}//METHOD
 	
@@ -574,7 +2338,7 @@ public class DvkHandler
 	 */
 	public String[] getArtistsFiltered(final int index)
 	{
-		return getArtistsDirect(filtered.get(index).intValue());
+		return database.getArtists(filtered[index]);
 		
 	}//METHOD
 	
@@ -586,7 +2350,7 @@ public class DvkHandler
 	 */
 	public String[] getArtistsDirect(final int index)
 	{
-		return database.getArtists(sorted.get(index).intValue());
+		return database.getArtists(sorted[index]);
 		
 	}//METHOD
 	
@@ -598,7 +2362,7 @@ public class DvkHandler
 	 */
 	public long getTimeFiltered(final int index)
 	{
-		return getTimeDirect(filtered.get(index).intValue());
+		return database.getTime(filtered[index]);
 		
 	}//METHOD
 	
@@ -610,7 +2374,7 @@ public class DvkHandler
 	 */
 	public long getTimeDirect(final int index)
 	{
-		return database.getTime(sorted.get(index).intValue());
+		return database.getTime(sorted[index]);
 		
 	}//METHOD
 	
@@ -622,7 +2386,7 @@ public class DvkHandler
 	 */
 	public String[] getWebTagsFiltered(final int index)
 	{
-		return getWebTagsDirect(filtered.get(index).intValue());
+		return database.getWebTags(filtered[index]);
 		
 	}//METHOD
 	
@@ -634,7 +2398,7 @@ public class DvkHandler
 	 */
 	public String[] getWebTagsDirect(final int index)
 	{
-		return database.getWebTags(sorted.get(index).intValue());
+		return database.getWebTags(sorted[index]);
 		
 	}//METHOD
 	
@@ -646,7 +2410,7 @@ public class DvkHandler
 	 */
 	public String getDescriptionFiltered(final int index)
 	{
-		return getDescriptionDirect(filtered.get(index).intValue());
+		return database.getDescription(filtered[index]);
 		
 	}//METHOD
 	
@@ -658,7 +2422,7 @@ public class DvkHandler
 	 */
 	public String getDescriptionDirect(final int index)
 	{
-		return database.getDescription(sorted.get(index).intValue());
+		return database.getDescription(sorted[index]);
 		
 	}//METHOD
 	
@@ -670,7 +2434,7 @@ public class DvkHandler
 	 */
 	public String getPageUrlFiltered(final int index)
 	{
-		return getPageUrlDirect(filtered.get(index).intValue());
+		return database.getPageURL(filtered[index]);
 		
 	}//METHOD
 	
@@ -682,7 +2446,7 @@ public class DvkHandler
 	 */
 	public String getPageUrlDirect(final int index)
 	{
-		return database.getPageURL(sorted.get(index).intValue());
+		return database.getPageURL(sorted[index]);
 		
 	}//METHOD
 	
@@ -694,7 +2458,7 @@ public class DvkHandler
 	 */
 	public String getDirectUrlFiltered(final int index)
 	{
-		return getDirectUrlDirect(filtered.get(index).intValue());
+		return database.getDirectURL(filtered[index]);
 		
 	}//METHOD
 	
@@ -706,7 +2470,7 @@ public class DvkHandler
 	 */
 	public String getDirectUrlDirect(final int index)
 	{
-		return database.getDirectURL(sorted.get(index).intValue());
+		return database.getDirectURL(sorted[index]);
 		
 	}//METHOD
 	
@@ -718,7 +2482,7 @@ public class DvkHandler
 	 */
 	public String getSecondaryUrlFiltered(final int index)
 	{
-		return getSecondaryUrlDirect(filtered.get(index).intValue());
+		return database.getSecondaryURL(filtered[index]);
 		
 	}//METHOD
 	
@@ -730,7 +2494,7 @@ public class DvkHandler
 	 */
 	public String getSecondaryUrlDirect(final int index)
 	{
-		return database.getSecondaryURL(sorted.get(index).intValue());
+		return database.getSecondaryURL(sorted[index]);
 		
 	}//METHOD
 	
@@ -742,7 +2506,7 @@ public class DvkHandler
 	 */
 	public File getMediaFileFiltered(final int index)
 	{
-		return getMediaFileDirect(filtered.get(index).intValue());
+		return database.getMediaFile(filtered[index]);
 		
 	}//METHOD
 	
@@ -754,7 +2518,7 @@ public class DvkHandler
 	 */
 	public File getMediaFileDirect(final int index)
 	{
-		return database.getMediaFile(sorted.get(index).intValue());
+		return database.getMediaFile(sorted[index]);
 		
 	}//METHOD
 	
@@ -766,7 +2530,7 @@ public class DvkHandler
 	 */
 	public File getSecondaryFileFiltered(final int index)
 	{
-		return getSecondaryFileDirect(filtered.get(index).intValue());
+		return database.getSecondaryFile(filtered[index]);
 		
 	}//METHOD
 	
@@ -778,10 +2542,10 @@ public class DvkHandler
 	 */
 	public File getSecondaryFileDirect(final int index)
 	{
-		return database.getSecondaryFile(sorted.get(index).intValue());
+		return database.getSecondaryFile(sorted[index]);
 		
 	}//METHOD
-
+	
 	/**
 	 * Resets all the filter strings.
 	 */
@@ -826,7 +2590,7 @@ public class DvkHandler
 	public String getTitleFilter()
 	{
 		return titleFilter;
-				
+		
 	}//METHOD
 	
 	/**
@@ -0,0 +1,763 @@
+package drakovek.hoarder.file.dvk;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Contains methods for reading and writing DvkDirectory index files in a compact, versioned binary format.<br/>
+ * An index file starts with a fixed header holding a magic number, the format version, the number of DVKs, the length and CRC32 of the body, and the CRC32 of the header itself.
+ * The body holds a table of length-prefixed UTF-8 strings followed by columns of string references and primitives, with the less frequently used columns last, and finally the directory's DVK file manifest.<br/>
+ * Index files written with Java serialization by older versions are still read, and are rewritten in the current format when found.
+ * 
+ * @author Drakovek
+ * @version 2.0
+ */
+public class DvkIndexFile
+{
+	/**
+	 * Magic number identifying a binary index file ("DVKI")
+	 */
+	private static final int MAGIC = 0x44564B49;
+	
+	/**
+	 * Current version of the index file format
+	 */
+	private static final int FORMAT_VERSION = 2;
+	
+	/**
+	 * Length of the index file header in bytes
+	 */
+	private static final int HEADER_LENGTH = 28;
+	
+	/**
+	 * Length of the header in bytes, not including the header checksum
+	 */
+	private static final int HEADER_CHECK_LENGTH = 24;
+	
+	/**
+	 * First two bytes of a file written with Java serialization
+	 */
+	private static final short SERIALIZATION_MAGIC = (short)0xACED;
+	
+	/**
+	 * String reference used to represent a null String
+	 */
+	private static final int NULL_REFERENCE = -1;
+	
+	/**
+	 * Array count used to represent a null array
+	 */
+	private static final int NULL_COUNT = -1;
+	
+	/**
+	 * Time value used to represent an unknown time
+	 */
+	private static final long NULL_TIME = 0L;
+	
+	/**
+	 * Reads a DvkDirectory from a given index file.<br/>
+	 * The whole file is read with a single channel read. Legacy index files are migrated to the current format. Migrated indexes have no manifest, so their directories are fully reloaded the first time they are updated.
+	 * 
+	 * @param indexFile Given Index File
+	 * @return DvkDirectory read from the index file, null if the file couldn't be read
+	 */
+	public static DvkDirectory readIndex(final File indexFile)
+	{
+		ByteBuffer buffer = readBuffer(indexFile);
+		if(buffer == null || buffer.remaining() < 2)
+		{
+			return null;
+			
+		}//IF
+		
+		if(buffer.getShort(0) == SERIALIZATION_MAGIC)
+		{
+			DvkDirectory dvkDirectory = readLegacyIndex(indexFile, buffer);
+			if(dvkDirectory != null)
+			{
+				writeIndex(indexFile, dvkDirectory);
+				
+			}//IF
+			
+			return dvkDirectory;
+			
+		}//IF
+		
+		try
+		{
+			return readBody(indexFile, buffer);
+			
+		}//TRY
+		catch(RuntimeException e)
+		{
+			System.out.println("Corrupt index file " + indexFile.getAbsolutePath() + " - DvkIndexFile.readIndex"); //$NON-NLS-1$ //$NON-NLS-2$
+			return null;
+			
+		}//CATCH
+		
+	}//METHOD
+	
+	/**
+	 * Reads the entire contents of a file into a ByteBuffer.
+	 * 
+	 * @param file Given File
+	 * @return ByteBuffer holding the file contents, null if the file couldn't be read
+	 */
+	private static ByteBuffer readBuffer(final File file)
+	{
+		FileInputStream inputStream = null;
+		
+		try
+		{
+			inputStream = new FileInputStream(file);
+			FileChannel channel = inputStream.getChannel();
+			long size = channel.size();
+			if(size > Integer.MAX_VALUE)
+			{
+				System.out.println("Index file too large " + file.getAbsolutePath() + " - DvkIndexFile.readBuffer"); //$NON-NLS-1$ //$NON-NLS-2$
+				return null;
+				
+			}//IF
+			
+			ByteBuffer buffer = ByteBuffer.allocate((int)size);
+			while(buffer.hasRemaining() && channel.read(buffer) != -1);
+			buffer.flip();
+			return buffer;
+			
+		}//TRY
+		catch(IOException e)
+		{
+			System.out.println("Failed reading index file " + file.getAbsolutePath() + " - DvkIndexFile.readBuffer"); //$NON-NLS-1$ //$NON-NLS-2$
+			return null;
+			
+		}//CATCH
+		finally
+		{
+			try
+			{
+				if(inputStream != null)
+				{
+					inputStream.close();
+					
+				}//IF
+				
+			}//TRY
+			catch(IOException e){}
+			
+		}//FINALLY
+		
+	}//METHOD
+	
+	/**
+	 * Reads a DvkDirectory from the contents of an index file written with Java serialization.
+	 * 
+	 * @param indexFile Index File
+	 * @param buffer Contents of the index file
+	 * @return DvkDirectory, null if the contents couldn't be read
+	 */
+	private static DvkDirectory readLegacyIndex(final File indexFile, final ByteBuffer buffer)
+	{
+		ObjectInputStream objectInputStream = null;
+		
+		try
+		{
+			objectInputStream = new ObjectInputStream(new ByteArrayInputStream(buffer.array(), buffer.arrayOffset(), buffer.remaining()));
+			return (DvkDirectory)objectInputStream.readObject();
+			
+		}//TRY
+		catch(IOException | ClassNotFoundException | ClassCastException e)
+		{
+			System.out.println("Failed reading legacy index file " + indexFile.getAbsolutePath() + " - DvkIndexFile.readLegacyIndex"); //$NON-NLS-1$ //$NON-NLS-2$
+			return null;
+			
+		}//CATCH
+		finally
+		{
+			try
+			{
+				if(objectInputStream != null)
+				{
+					objectInputStream.close();
+					
+				}//IF
+				
+			}//TRY
+			catch(IOException e){}
+			
+		}//FINALLY
+		
+	}//METHOD
+	
+	/**
+	 * Reads a DvkDirectory from the contents of a binary index file, checking the header and body checksums.
+	 * 
+	 * @param indexFile Index File
+	 * @param buffer Contents of the index file
+	 * @return DvkDirectory, null if the contents are invalid or from an unsupported format version
+	 */
+	private static DvkDirectory readBody(final File indexFile, final ByteBuffer buffer)
+	{
+		//HEADER
+		if(buffer.remaining() < HEADER_LENGTH || buffer.getInt(0) != MAGIC)
+		{
+			System.out.println("Unrecognized index file " + indexFile.getAbsolutePath() + " - DvkIndexFile.readBody"); //$NON-NLS-1$ //$NON-NLS-2$
+			return null;
+			
+		}//IF
+		
+		if(getChecksum(buffer.array(), buffer.arrayOffset(), HEADER_CHECK_LENGTH) != buffer.getInt(HEADER_CHECK_LENGTH))
+		{
+			System.out.println("Corrupt index header " + indexFile.getAbsolutePath() + " - DvkIndexFile.readBody"); //$NON-NLS-1$ //$NON-NLS-2$
+			return null;
+			
+		}//IF
+		
+		buffer.getInt();
+		int version = buffer.getInt();
+		int size = buffer.getInt();
+		int stringCount = buffer.getInt();
+		int bodyLength = buffer.getInt();
+		int bodyChecksum = buffer.getInt();
+		buffer.getInt();
+		if(version != FORMAT_VERSION)
+		{
+			return null;
+			
+		}//IF
+		
+		if(bodyLength != buffer.remaining() || getChecksum(buffer.array(), buffer.arrayOffset() + buffer.position(), bodyLength) != bodyChecksum)
+		{
+			System.out.println("Corrupt index body " + indexFile.getAbsolutePath() + " - DvkIndexFile.readBody"); //$NON-NLS-1$ //$NON-NLS-2$
+			return null;
+			
+		}//IF
+		
+		//STRING TABLE
+		String[] strings = new String[stringCount];
+		for(int i = 0; i < stringCount; i++)
+		{
+			int length = buffer.getInt();
+			strings[i] = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+			buffer.position(buffer.position() + length);
+			
+		}//FOR
+		
+		String directoryPath = getString(strings, buffer.getInt());
+		File directory = null;
+		if(directoryPath != null)
+		{
+			directory = new File(directoryPath);
+			
+		}//IF
+		
+		//COLUMNS
+		File[] dvkFiles = new File[size];
+		for(int i = 0; i < size; i++)
+		{
+			dvkFiles[i] = getFile(directory, getString(strings, buffer.getInt()));
+			
+		}//FOR
+		
+		String[] ids = readStringColumn(buffer, strings, size);
+		String[] titles = readStringColumn(buffer, strings, size);
+		String[][] artists = readArrayColumn(buffer, strings, size);
+		Long[] times = new Long[size];
+		for(int i = 0; i < size; i++)
+		{
+			long time = buffer.getLong();
+			if(time != NULL_TIME)
+			{
+				times[i] = Long.valueOf(time);
+				
+			}//IF
+			
+		}//FOR
+		
+		File[] mediaFiles = new File[size];
+		File[] secondaryFiles = new File[size];
+		for(int i = 0; i < size; i++)
+		{
+			mediaFiles[i] = getFile(directory, getString(strings, buffer.getInt()));
+			
+		}//FOR
+		
+		for(int i = 0; i < size; i++)
+		{
+			secondaryFiles[i] = getFile(directory, getString(strings, buffer.getInt()));
+			
+		}//FOR
+		
+		String[][] webTags = readArrayColumn(buffer, strings, size);
+		String[] descriptions = readStringColumn(buffer, strings, size);
+		String[] pageURLs = readStringColumn(buffer, strings, size);
+		String[] directURLs = readStringColumn(buffer, strings, size);
+		String[] secondaryURLs = readStringColumn(buffer, strings, size);
+		
+		//MANIFEST
+		int manifestSize = buffer.getInt();
+		String[] manifestNames = null;
+		long[] manifestSizes = null;
+		long[] manifestModified = null;
+		if(manifestSize != NULL_COUNT)
+		{
+			manifestNames = readStringColumn(buffer, strings, manifestSize);
+			manifestSizes = new long[manifestSize];
+			manifestModified = new long[manifestSize];
+			for(int i = 0; i < manifestSize; i++)
+			{
+				manifestSizes[i] = buffer.getLong();
+				
+			}//FOR
+			
+			for(int i = 0; i < manifestSize; i++)
+			{
+				manifestModified[i] = buffer.getLong();
+				
+			}//FOR
+			
+		}//IF
+		
+		DvkDirectory dvkDirectory = new DvkDirectory();
+		dvkDirectory.setDirectory(directory);
+		dvkDirectory.setManifest(manifestNames, manifestSizes, manifestModified);
+		for(int i = 0; i < size; i++)
+		{
+			dvkDirectory.addDVK(dvkFiles[i], ids[i], titles[i], artists[i], times[i], webTags[i], descriptions[i], pageURLs[i], directURLs[i], secondaryURLs[i], mediaFiles[i], secondaryFiles[i]);
+			
+		}//FOR
+		
+		return dvkDirectory;
+		
+	}//METHOD
+	
+	/**
+	 * Reads a column of String references from a buffer.
+	 * 
+	 * @param buffer Buffer to read from
+	 * @param strings String table
+	 * @param size Number of rows in the column
+	 * @return Column of Strings
+	 */
+	private static String[] readStringColumn(final ByteBuffer buffer, final String[] strings, final int size)
+	{
+		String[] column = new String[size];
+		for(int i = 0; i < size; i++)
+		{
+			column[i] = getString(strings, buffer.getInt());
+			
+		}//FOR
+		
+		return column;
+		
+	}//METHOD
+	
+	/**
+	 * Reads a column of String arrays from a buffer. The column holds the count for each row followed by the String references of all rows.
+	 * 
+	 * @param buffer Buffer to read from
+	 * @param strings String table
+	 * @param size Number of rows in the column
+	 * @return Column of String arrays
+	 */
+	private static String[][] readArrayColumn(final ByteBuffer buffer, final String[] strings, final int size)
+	{
+		int[] counts = new int[size];
+		for(int i = 0; i < size; i++)
+		{
+			counts[i] = buffer.getInt();
+			
+		}//FOR
+		
+		String[][] column = new String[size][];
+		for(int i = 0; i < size; i++)
+		{
+			if(counts[i] != NULL_COUNT)
+			{
+				column[i] = new String[counts[i]];
+				for(int k = 0; k < counts[i]; k++)
+				{
+					column[i][k] = getString(strings, buffer.getInt());
+					
+				}//FOR
+				
+			}//IF
+			
+		}//FOR
+		
+		return column;
+		
+	}//METHOD
+	
+	/**
+	 * Returns the String for a given String reference.
+	 * 
+	 * @param strings String table
+	 * @param reference String reference
+	 * @return String, null if the reference is the null reference
+	 */
+	private static String getString(final String[] strings, final int reference)
+	{
+		if(reference == NULL_REFERENCE)
+		{
+			return null;
+			
+		}//IF
+		
+		return strings[reference];
+		
+	}//METHOD
+	
+	/**
+	 * Returns the file represented by a name stored in an index file.
+	 * 
+	 * @param directory Directory of the index file
+	 * @param name Stored name, either a file name within the directory or a full path
+	 * @return File, null if the name is null
+	 */
+	static File getFile(final File directory, final String name)
+	{
+		if(name == null)
+		{
+			return null;
+			
+		}//IF
+		
+		if(directory == null || name.indexOf(File.separatorChar) != -1)
+		{
+			return new File(name);
+			
+		}//IF
+		
+		return new File(directory, name);
+		
+	}//METHOD
+	
+	/**
+	 * Writes a DvkDirectory to a given index file in the current binary format.
+	 * 
+	 * @param indexFile Given Index File
+	 * @param dvkDirectory DvkDirectory to write
+	 * @return Whether the index file was written successfully
+	 */
+	public static boolean writeIndex(final File indexFile, final DvkDirectory dvkDirectory)
+	{
+		int size = dvkDirectory.getDvkFiles().size();
+		File directory = dvkDirectory.getDirectory();
+		ArrayList<String> strings = new ArrayList<>();
+		HashMap<String, Integer> references = new HashMap<>();
+		ByteArrayOutputStream columnBytes = new ByteArrayOutputStream();
+		DataOutputStream columns = new DataOutputStream(columnBytes);
+		
+		try
+		{
+			String directoryPath = null;
+			if(directory != null)
+			{
+				directoryPath = directory.getPath();
+				
+			}//IF
+			
+			columns.writeInt(getReference(strings, references, directoryPath));
+			writeFileColumn(columns, strings, references, directory, dvkDirectory.getDvkFiles());
+			writeStringColumn(columns, strings, references, dvkDirectory.getIDs());
+			writeStringColumn(columns, strings, references, dvkDirectory.getTitles());
+			writeArrayColumn(columns, strings, references, dvkDirectory.getArtists());
+			for(int i = 0; i < size; i++)
+			{
+				Long time = dvkDirectory.getTimes().get(i);
+				if(time == null)
+				{
+					columns.writeLong(NULL_TIME);
+					
+				}//IF
+				else
+				{
+					columns.writeLong(time.longValue());
+					
+				}//ELSE
+				
+			}//FOR
+			
+			writeFileColumn(columns, strings, references, directory, dvkDirectory.getMediaFiles());
+			writeFileColumn(columns, strings, references, directory, dvkDirectory.getSecondaryFiles());
+			writeArrayColumn(columns, strings, references, dvkDirectory.getWebTags());
+			writeStringColumn(columns, strings, references, dvkDirectory.getDescriptions());
+			writeStringColumn(columns, strings, references, dvkDirectory.getPageURLs());
+			writeStringColumn(columns, strings, references, dvkDirectory.getDirectURLs());
+			writeStringColumn(columns, strings, references, dvkDirectory.getSecondaryURLs());
+			
+			//MANIFEST
+			String[] manifestNames = dvkDirectory.getManifestNames();
+			if(manifestNames == null)
+			{
+				columns.writeInt(NULL_COUNT);
+				
+			}//IF
+			else
+			{
+				columns.writeInt(manifestNames.length);
+				for(int i = 0; i < manifestNames.length; i++)
+				{
+					columns.writeInt(getReference(strings, references, manifestNames[i]));
+					
+				}//FOR
+				
+				for(int i = 0; i < manifestNames.length; i++)
+				{
+					columns.writeLong(dvkDirectory.getManifestSizes()[i]);
+					
+				}//FOR
+				
+				for(int i = 0; i < manifestNames.length; i++)
+				{
+					columns.writeLong(dvkDirectory.getManifestModified()[i]);
+					
+				}//FOR
+				
+			}//ELSE
+			
+			columns.flush();
+			
+			//BODY
+			ByteArrayOutputStream bodyBytes = new ByteArrayOutputStream(columnBytes.size() + (strings.size() * 16));
+			DataOutputStream body = new DataOutputStream(bodyBytes);
+			for(int i = 0; i < strings.size(); i++)
+			{
+				byte[] bytes = strings.get(i).getBytes(StandardCharsets.UTF_8);
+				body.writeInt(bytes.length);
+				body.write(bytes);
+				
+			}//FOR
+			
+			columnBytes.writeTo(body);
+			body.flush();
+			byte[] bodyArray = bodyBytes.toByteArray();
+			
+			//HEADER
+			ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+			header.putInt(MAGIC);
+			header.putInt(FORMAT_VERSION);
+			header.putInt(size);
+			header.putInt(strings.size());
+			header.putInt(bodyArray.length);
+			header.putInt(getChecksum(bodyArray, 0, bodyArray.length));
+			header.putInt(getChecksum(header.array(), 0, HEADER_CHECK_LENGTH));
+			header.flip();
+			
+			return writeBuffers(indexFile, header, ByteBuffer.wrap(bodyArray));
+			
+		}//TRY
+		catch(IOException e)
+		{
+			System.out.println("Failed writing index file " + indexFile.getAbsolutePath() + " - DvkIndexFile.writeIndex"); //$NON-NLS-1$ //$NON-NLS-2$
+			return false;
+			
+		}//CATCH
+		
+	}//METHOD
+	
+	/**
+	 * Writes the given buffers to a file, replacing any existing contents.
+	 * 
+	 * @param file File to write to
+	 * @param header Header Buffer
+	 * @param body Body Buffer
+	 * @return Whether the file was written successfully
+	 */
+	private static boolean writeBuffers(final File file, final ByteBuffer header, final ByteBuffer body)
+	{
+		FileOutputStream outputStream = null;
+		
+		try
+		{
+			outputStream = new FileOutputStream(file);
+			FileChannel channel = outputStream.getChannel();
+			ByteBuffer[] buffers = {header, body};
+			while(body.hasRemaining())
+			{
+				channel.write(buffers);
+				
+			}//WHILE
+			
+			return true;
+			
+		}//TRY
+		catch(IOException e)
+		{
+			System.out.println("Failed writing index file " + file.getAbsolutePath() + " - DvkIndexFile.writeBuffers"); //$NON-NLS-1$ //$NON-NLS-2$
+			return false;
+			
+		}//CATCH
+		finally
+		{
+			try
+			{
+				if(outputStream != null)
+				{
+					outputStream.close();
+					
+				}//IF
+				
+			}//TRY
+			catch(IOException e){}
+			
+		}//FINALLY
+		
+	}//METHOD
+	
+	/**
+	 * Writes a column of String references.
+	 * 
+	 * @param columns Stream to write to
+	 * @param strings String table
+	 * @param references Map of Strings to their references in the String table
+	 * @param values Values of the column
+	 * @throws IOException If writing fails
+	 */
+	private static void writeStringColumn(DataOutputStream columns, ArrayList<String> strings, HashMap<String, Integer> references, final ArrayList<String> values) throws IOException
+	{
+		for(int i = 0; i < values.size(); i++)
+		{
+			columns.writeInt(getReference(strings, references, values.get(i)));
+			
+		}//FOR
+		
+	}//METHOD
+	
+	/**
+	 * Writes a column of file names, stored relative to the directory where possible.
+	 * 
+	 * @param columns Stream to write to
+	 * @param strings String table
+	 * @param references Map of Strings to their references in the String table
+	 * @param directory Directory of the index file
+	 * @param values Values of the column
+	 * @throws IOException If writing fails
+	 */
+	private static void writeFileColumn(DataOutputStream columns, ArrayList<String> strings, HashMap<String, Integer> references, final File directory, final ArrayList<File> values) throws IOException
+	{
+		for(int i = 0; i < values.size(); i++)
+		{
+			File file = values.get(i);
+			String name = null;
+			if(file != null)
+			{
+				if(directory != null && directory.equals(file.getParentFile()))
+				{
+					name = file.getName();
+					
+				}//IF
+				else
+				{
+					name = file.getPath();
+					
+				}//ELSE
+				
+			}//IF
+			
+			columns.writeInt(getReference(strings, references, name));
+			
+		}//FOR
+		
+	}//METHOD
+	
+	/**
+	 * Writes a column of String arrays, as the count for each row followed by the String references of all rows.
+	 * 
+	 * @param columns Stream to write to
+	 * @param strings String table
+	 * @param references Map of Strings to their references in the String table
+	 * @param values Values of the column
+	 * @throws IOException If writing fails
+	 */
+	private static void writeArrayColumn(DataOutputStream columns, ArrayList<String> strings, HashMap<String, Integer> references, final ArrayList<String[]> values) throws IOException
+	{
+		for(int i = 0; i < values.size(); i++)
+		{
+			if(values.get(i) == null)
+			{
+				columns.writeInt(NULL_COUNT);
+				
+			}//IF
+			else
+			{
+				columns.writeInt(values.get(i).length);
+				
+			}//ELSE
+			
+		}//FOR
+		
+		for(int i = 0; i < values.size(); i++)
+		{
+			if(values.get(i) != null)
+			{
+				for(String value: values.get(i))
+				{
+					columns.writeInt(getReference(strings, references, value));
+					
+				}//FOR
+				
+			}//IF
+			
+		}//FOR
+		
+	}//METHOD
+	
+	/**
+	 * Returns the reference for a given String, adding it to the String table if necessary.
+	 * 
+	 * @param strings String table
+	 * @param references Map of Strings to their references in the String table
+	 * @param value Given String
+	 * @return String reference
+	 */
+	private static int getReference(ArrayList<String> strings, HashMap<String, Integer> references, final String value)
+	{
+		if(value == null)
+		{
+			return NULL_REFERENCE;
+			
+		}//IF
+		
+		Integer reference = references.get(value);
+		if(reference == null)
+		{
+			reference = Integer.valueOf(strings.size());
+			strings.add(value);
+			references.put(value, reference);
+			
+		}//IF
+		
+		return reference.intValue();
+		
+	}//METHOD
+	
+	/**
+	 * Returns the CRC32 checksum of a range of bytes.
+	 * 
+	 * @param bytes Given Bytes
+	 * @param offset Start of the range
+	 * @param length Length of the range
+	 * @return Checksum
+	 */
+	private static int getChecksum(final byte[] bytes, final int offset, final int length)
+	{
+		CRC32 crc = new CRC32();
+		crc.update(bytes, offset, length);
+		return (int)crc.getValue();
+		
+	}//METHOD
+	
+}//CLASS
@@ -1,11 +1,6 @@
 package drakovek.hoarder.file.dvk;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 
 import drakovek.hoarder.file.DReader;
@@ -16,7 +11,10 @@ import drakovek.hoarder.gui.swing.compound.DProgressDialog;
 import drakovek.hoarder.processing.ParseINI;
 
 /**
- * Contains methods for loading DvkDirectories from index files.
+ * Contains methods for loading DvkDirectories from index files, stored in the format defined by DvkIndexFile.<br/>
+ * Index files for different directories may be loaded and saved from multiple threads at once.
+ * Threads that load or save index files with separate DvkIndexing objects hold LOCK from creating the object until it is closed, so they never write the index list file or the DVK catalog at the same time.
+ * Edits journaled by DvkJournal since an index file was saved are replayed when the index file is loaded.
  * 
  * @author Drakovek
  * @version 2.0
@@ -38,6 +36,11 @@ public class DvkIndexing
 	 */
 	private static final String INDEX_HEADER = "[INDEX]"; //$NON-NLS-1$
 	
+	/**
+	 * Lock held while index files are loaded and saved with a DvkIndexing object until it is closed, along with any DVK catalog written or deleted to match
+	 */
+	static final Object LOCK = new Object();
+	
 	/**
 	 * Folder containing DVK Directory index files
 	 */
@@ -53,26 +56,6 @@ public class DvkIndexing
 	 */
 	private ArrayList<String> indexedDirectories;
 	
-	/**
-	 * FileOutputStream for saving index files
-	 */
-	private FileOutputStream fileOutputStream;
-	
-	/**
-	 * ObjectOutputStream for saving index files
-	 */
-	private ObjectOutputStream objectOutputStream;
-	
-	/**
-	 * FileInputStream for reading index files
-	 */
-	private FileInputStream fileInputStream;
-	
-	/**
-	 * ObjectInputStream for reading index files
-	 */
-	private ObjectInputStream objectInputStream;
-	
 	/**
 	 * Initializes the DvkIndexing class.
 	 * 
@@ -96,7 +79,7 @@ public class DvkIndexing
 	 * Loads DVKs from a directory, either directly or from an index file as specified.
 	 * 
 	 * @param directory Directory from which to load DVKs
-	 * @param progressDialog DProgress dialog to show progress of loading DVKs, used here to show when an index file is being loaded.
+	 * @param progressDialog DProgress dialog to show progress of loading DVKs, used here to show when an index file is being loaded. May be null when loading in the background.
 	 * @param useIndex Whether to use index files to load DV info rather than directly
 	 * @param updateIndex Whether to update index file to reflect changes in DVKs
 	 * @return DvkDirectory with DVKs loaded from given directory
@@ -108,43 +91,32 @@ public class DvkIndexing
 		File indexFile = null;
 		if(useIndex)
 		{
-			int index = indexedDirectories.indexOf(directory.getAbsolutePath());
-			indexFile = new File(indexFolder, Integer.toString(index));
+			indexFile = getIndexFile(directory);
 			
-			if(indexFile.exists())
+			if(indexFile != null && indexFile.exists())
 			{
-				progressDialog.setProcessLabel(DvkLanguageValues.LOADING_INDEX);
-				fileInputStream = null;
-				objectInputStream = null;
-				
-				try
+				if(progressDialog != null)
 				{
-					fileInputStream = new FileInputStream(indexFile);
-					objectInputStream = new ObjectInputStream(fileInputStream);
-					dvkDirectory = (DvkDirectory)objectInputStream.readObject();
-					
+					progressDialog.setProcessLabel(DvkLanguageValues.LOADING_INDEX);
 					
-				}//TRY
-				catch(Exception e){}
-				finally
+				}//IF
+				
+				DvkDirectory indexed = DvkIndexFile.readIndex(indexFile);
+				if(indexed != null)
 				{
-					try
-					{
-						objectInputStream.close();
-						fileInputStream.close();
-					
-					}//TRY
-					catch(IOException e){};
+					dvkDirectory = indexed;
 					
-				}//FINALLY
-			
+				}//IF
+				
 				directLoad = !dvkDirectory.isValid(directory);
+				if(!directLoad)
+				{
+					DvkJournal.replayJournal(indexFile, dvkDirectory);
+					
+				}//IF
 				
 			}//IF
 			
-			objectInputStream = null;
-			fileInputStream = null;
-			
 		}//IF
 		
 		if(directLoad)
@@ -154,7 +126,7 @@ public class DvkIndexing
 		}//IF
 		else if(updateIndex && indexFile != null)
 		{
-			dvkDirectory.updateDirectory(indexFile.lastModified());
+			dvkDirectory.updateDirectory();
 			
 		}//ELSE IF
 		
@@ -163,67 +135,105 @@ public class DvkIndexing
 	}//METHOD
 	
 	/**
-	 * Saves a DvkDirectory to an index file, either overwriting existing file or creating a new file.
+	 * Saves a DvkDirectory to an index file, either overwriting existing file or creating a new file. Any journal for the index file is deleted, as the saved index holds all its edits.
 	 * 
 	 * @param dvkDirectory DvkDirectory to save
 	 */
 	public void saveIndex(DvkDirectory dvkDirectory)
 	{
-		int index = indexedDirectories.indexOf(dvkDirectory.getDirectory().getAbsolutePath());
-		if(index == -1)
+		File indexFile = createIndexFile(dvkDirectory.getDirectory());
+		DvkJournal.writeIndex(indexFile, dvkDirectory);
+		
+	}//METHOD
+	
+	/**
+	 * Returns the journal file for the index file linked to a given directory.
+	 * 
+	 * @param directory Given Directory
+	 * @return Journal File, null if the directory has no index file
+	 */
+	public File getJournalFile(final File directory)
+	{
+		File indexFile = getIndexFile(directory);
+		if(indexFile == null || !indexFile.exists())
 		{
-			for(index = 0; index < indexedDirectories.size() && indexedDirectories.get(index) != null; index++);
-			if(index == indexedDirectories.size())
-			{
-				indexedDirectories.add(null);
-				
-			}//IF
+			return null;
 			
 		}//IF
 		
-		indexedDirectories.set(index, dvkDirectory.getDirectory().getAbsolutePath());
+		return DvkJournal.getJournalFile(indexFile);
 		
-		File indexFile = new File(indexFolder, Integer.toString(index));
-		if(indexFile.exists())
+	}//METHOD
+	
+	/**
+	 * Compacts the journal of the index file linked to a given directory into the index file.
+	 * 
+	 * @param directory Given Directory
+	 */
+	public void compactJournal(final File directory)
+	{
+		File indexFile = getIndexFile(directory);
+		if(indexFile != null && indexFile.exists())
 		{
-			indexFile.delete();
+			DvkJournal.compact(indexFile, directory);
 			
 		}//IF
 		
-		fileOutputStream = null;
-		objectOutputStream = null;
+	}//METHOD
+	
+	/**
+	 * Returns the index file linked to a given directory.
+	 * 
+	 * @param directory Given Directory
+	 * @return Index File, null if the directory has no index file
+	 */
+	private File getIndexFile(final File directory)
+	{
+		int index;
+		synchronized(indexedDirectories)
+		{
+			index = indexedDirectories.indexOf(directory.getAbsolutePath());
+			
+		}//SYNCHRONIZED
 		
-		try
+		if(index == -1)
 		{
-			fileOutputStream = new FileOutputStream(indexFile);
-			objectOutputStream = new ObjectOutputStream(fileOutputStream);
-			objectOutputStream.writeObject(dvkDirectory);
+			return null;
 			
-		}
-		catch(IOException e){}
-		finally
+		}//IF
+		
+		return new File(indexFolder, Integer.toString(index));
+		
+	}//METHOD
+	
+	/**
+	 * Returns the index file linked to a given directory, linking a new index file to the directory if necessary.
+	 * 
+	 * @param directory Given Directory
+	 * @return Index File
+	 */
+	private File createIndexFile(final File directory)
+	{
+		int index;
+		synchronized(indexedDirectories)
 		{
-			try
+			index = indexedDirectories.indexOf(directory.getAbsolutePath());
+			if(index == -1)
 			{
-				if(objectOutputStream != null)
+				for(index = 0; index < indexedDirectories.size() && indexedDirectories.get(index) != null; index++);
+				if(index == indexedDirectories.size())
 				{
-					objectOutputStream.close();
+					indexedDirectories.add(null);
 					
 				}//IF
 				
-				if(fileOutputStream != null)
-				{
-					fileOutputStream.close();
-					
-				}//IF
-				
-			}//try
-			catch (IOException e){}
+			}//IF
+			
+			indexedDirectories.set(index, directory.getAbsolutePath());
 			
-		}//FINALLY
+		}//SYNCHRONIZED
 		
-		fileOutputStream = null;
-		objectOutputStream = null;
+		return new File(indexFolder, Integer.toString(index));
 		
 	}//METHOD
 	
@@ -262,7 +272,7 @@ public class DvkIndexing
 	}//METHOD
 	
 	/**
-	 * Deletes index files that are not referenced in the index list file
+	 * Deletes index files and journal files that are not referenced in the index list file
 	 */
 	public void deleteFiles()
 	{
@@ -271,8 +281,15 @@ public class DvkIndexing
 		{
 			try
 			{
-				int index = Integer.parseInt(file.getName());
-				if(index > indexedDirectories.size() || indexedDirectories.get(index) == null)
+				String name = file.getName();
+				if(name.endsWith(DvkJournal.JOURNAL_EXTENSION))
+				{
+					name = name.substring(0, name.length() - DvkJournal.JOURNAL_EXTENSION.length());
+					
+				}//IF
+				
+				int index = Integer.parseInt(name);
+				if(index >= indexedDirectories.size() || indexedDirectories.get(index) == null)
 				{
 					file.delete();
 					
@@ -303,7 +320,7 @@ public class DvkIndexing
 			}//IF
 			
 		}//FOR
-
+		
 		DWriter.writeToFile(indexListFile, dirList);
 		
 	}//METHOD
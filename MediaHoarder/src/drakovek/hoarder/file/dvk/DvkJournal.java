@@ -0,0 +1,816 @@
+package drakovek.hoarder.file.dvk;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.BufferUnderflowException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of DVK edits, kept next to the index file of each directory so edits don't require rewriting the whole index.<br/>
+ * A journal starts with a header holding a magic number, the format version and the path of the directory it belongs to, followed by records.
+ * Each record holds its length and CRC32 followed by the record type, the DVK file name and, for upserts, the DVK information and the attributes of the DVK file.<br/>
+ * Journals are replayed on top of their index when it is loaded, and compacted into the index in the background once they grow large. Records cut short by an interrupted write are ignored.
+ * 
+ * @author Drakovek
+ * @version 2.0
+ */
+public class DvkJournal
+{
+	/**
+	 * Extension added to the name of an index file to get the name of its journal file
+	 */
+	public static final String JOURNAL_EXTENSION = ".dvkj"; //$NON-NLS-1$
+	
+	/**
+	 * Magic number identifying a journal file ("DVKJ")
+	 */
+	private static final int MAGIC = 0x44564B4A;
+	
+	/**
+	 * Current version of the journal file format
+	 */
+	private static final int FORMAT_VERSION = 1;
+	
+	/**
+	 * Length of a record header in bytes, holding the record length and checksum
+	 */
+	private static final int RECORD_HEADER_LENGTH = 8;
+	
+	/**
+	 * Record type for a DVK that was added or changed
+	 */
+	private static final byte UPSERT = 1;
+	
+	/**
+	 * Record type for a DVK that was removed
+	 */
+	private static final byte DELETE = 2;
+	
+	/**
+	 * String length used to represent a null String
+	 */
+	private static final int NULL_LENGTH = -1;
+	
+	/**
+	 * Array count used to represent a null array
+	 */
+	private static final int NULL_COUNT = -1;
+	
+	/**
+	 * Size in bytes a journal must reach before it is compacted into its index file
+	 */
+	private static final long COMPACT_SIZE = 1048576L;
+	
+	/**
+	 * Lock held while reading or writing journal files, or writing the index files they belong to
+	 */
+	private static final Object LOCK = new Object();
+	
+	/**
+	 * DvkIndexing object used to find the index files of DVK directories
+	 */
+	private DvkIndexing indexing;
+	
+	/**
+	 * Directories whose journals are waiting to be compacted
+	 */
+	private HashSet<File> compacting;
+	
+	/**
+	 * Whether the DVK catalog has already been deleted to reflect journaled edits
+	 */
+	private boolean catalogDeleted;
+	
+	/**
+	 * Initializes the DvkJournal class to journal edits to DVKs in directories with existing index files.
+	 */
+	public DvkJournal()
+	{
+		indexing = new DvkIndexing();
+		compacting = new HashSet<>();
+		catalogDeleted = false;
+		
+	}//CONSTRUCTOR
+	
+	/**
+	 * Returns the journal file belonging to a given index file.
+	 * 
+	 * @param indexFile Given Index File
+	 * @return Journal File
+	 */
+	public static File getJournalFile(final File indexFile)
+	{
+		return new File(indexFile.getParentFile(), indexFile.getName() + JOURNAL_EXTENSION);
+		
+	}//METHOD
+	
+	/**
+	 * Records that a DVK was added or changed.
+	 * 
+	 * @param dvk DVK as written to disk
+	 * @param previousFile DVK file the DVK was previously saved to, recorded as removed if the DVK file has changed. May be null for new DVKs.
+	 */
+	public void upsertDVK(final DVK dvk, final File previousFile)
+	{
+		File dvkFile = dvk.getDvkFile();
+		if(dvkFile == null || !dvkFile.isFile())
+		{
+			return;
+			
+		}//IF
+		
+		if(previousFile != null && !previousFile.getAbsoluteFile().equals(dvkFile.getAbsoluteFile()))
+		{
+			deleteDVK(previousFile);
+			
+		}//IF
+		
+		File directory = dvkFile.getAbsoluteFile().getParentFile();
+		ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+		DataOutputStream record = new DataOutputStream(recordBytes);
+		
+		try
+		{
+			record.writeByte(UPSERT);
+			writeString(record, dvkFile.getName());
+			record.writeLong(dvkFile.length());
+			record.writeLong(dvkFile.lastModified());
+			
+			//DVK
+			writeString(record, dvk.getID());
+			
+			//INFO
+			writeString(record, dvk.getTitle());
+			writeArray(record, dvk.getArtists());
+			record.writeLong(dvk.getTime());
+			writeArray(record, dvk.getWebTags());
+			writeString(record, dvk.getDescription());
+			
+			//WEB
+			writeString(record, dvk.getPageURL());
+			writeString(record, dvk.getDirectURL());
+			writeString(record, dvk.getSecondaryURL());
+			
+			//FILE
+			writeString(record, getName(directory, dvk.getMediaFile()));
+			writeString(record, getName(directory, dvk.getSecondaryFile()));
+			
+		}//TRY
+		catch(IOException e)
+		{
+			return;
+			
+		}//CATCH
+		
+		append(directory, recordBytes.toByteArray());
+		
+	}//METHOD
+	
+	/**
+	 * Records that a DVK was removed.
+	 * 
+	 * @param dvkFile DVK File of the removed DVK
+	 */
+	public void deleteDVK(final File dvkFile)
+	{
+		ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+		DataOutputStream record = new DataOutputStream(recordBytes);
+		
+		try
+		{
+			record.writeByte(DELETE);
+			writeString(record, dvkFile.getName());
+			
+		}//TRY
+		catch(IOException e)
+		{
+			return;
+			
+		}//CATCH
+		
+		append(dvkFile.getAbsoluteFile().getParentFile(), recordBytes.toByteArray());
+		
+	}//METHOD
+	
+	/**
+	 * Appends a record to the journal of a given directory, if the directory has an index file.<br/>
+	 * Queues the journal to be compacted if it has grown large.
+	 * 
+	 * @param directory Directory the record belongs to
+	 * @param record Contents of the record
+	 */
+	private void append(final File directory, final byte[] record)
+	{
+		if(directory == null)
+		{
+			return;
+			
+		}//IF
+		
+		File journalFile = indexing.getJournalFile(directory);
+		if(journalFile == null)
+		{
+			return;
+			
+		}//IF
+		
+		ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_LENGTH + record.length);
+		buffer.putInt(record.length);
+		buffer.putInt(getChecksum(record, 0, record.length));
+		buffer.put(record);
+		buffer.flip();
+		
+		long size;
+		synchronized(LOCK)
+		{
+			FileOutputStream outputStream = null;
+			try
+			{
+				boolean exists = journalFile.exists() && journalFile.length() > 0L;
+				outputStream = new FileOutputStream(journalFile, true);
+				FileChannel channel = outputStream.getChannel();
+				if(!exists)
+				{
+					ByteBuffer header = getHeader(directory);
+					while(header.hasRemaining())
+					{
+						channel.write(header);
+						
+					}//WHILE
+					
+				}//IF
+				
+				while(buffer.hasRemaining())
+				{
+					channel.write(buffer);
+					
+				}//WHILE
+				
+				size = channel.size();
+				
+			}//TRY
+			catch(IOException e)
+			{
+				System.out.println("Failed writing journal file " + journalFile.getAbsolutePath() + " - DvkJournal.append"); //$NON-NLS-1$ //$NON-NLS-2$
+				return;
+				
+			}//CATCH
+			finally
+			{
+				try
+				{
+					if(outputStream != null)
+					{
+						outputStream.close();
+						
+					}//IF
+					
+				}//TRY
+				catch(IOException e){}
+				
+			}//FINALLY
+			
+		}//SYNCHRONIZED
+		
+		if(!catalogDeleted)
+		{
+			catalogDeleted = true;
+			DvkCatalog.deleteCatalog();
+			
+		}//IF
+		
+		if(size > COMPACT_SIZE)
+		{
+			queueCompaction(directory);
+			
+		}//IF
+		
+	}//METHOD
+	
+	/**
+	 * Returns the header of a new journal file for a given directory.
+	 * 
+	 * @param directory Given Directory
+	 * @return Header Buffer
+	 * @throws IOException If writing the header fails
+	 */
+	private static ByteBuffer getHeader(final File directory) throws IOException
+	{
+		ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+		DataOutputStream header = new DataOutputStream(headerBytes);
+		header.writeInt(MAGIC);
+		header.writeInt(FORMAT_VERSION);
+		writeString(header, directory.getAbsolutePath());
+		return ByteBuffer.wrap(headerBytes.toByteArray());
+		
+	}//METHOD
+	
+	/**
+	 * Queues the journal of a given directory to be compacted into its index file on a background thread.
+	 * 
+	 * @param directory Given Directory
+	 */
+	private void queueCompaction(final File directory)
+	{
+		synchronized(compacting)
+		{
+			if(!compacting.add(directory))
+			{
+				return;
+				
+			}//IF
+			
+		}//SYNCHRONIZED
+		
+		Thread thread = new Thread(new CompactTask(directory), "DvkJournal"); //$NON-NLS-1$
+		thread.setDaemon(true);
+		thread.start();
+		
+	}//METHOD
+	
+	/**
+	 * Task for compacting the journal of a single directory into its index file.
+	 * 
+	 * @author Drakovek
+	 * @version 2.0
+	 */
+	private class CompactTask implements Runnable
+	{
+		/**
+		 * Directory whose journal to compact
+		 */
+		private File directory;
+		
+		/**
+		 * Initializes the CompactTask class.
+		 * 
+		 * @param directory Directory whose journal to compact
+		 */
+		public CompactTask(final File directory)
+		{
+			this.directory = directory;
+			
+		}//CONSTRUCTOR
+		
+		@Override
+		public void run()
+		{
+			synchronized(compacting)
+			{
+				compacting.remove(directory);
+				
+			}//SYNCHRONIZED
+			
+			indexing.compactJournal(directory);
+			
+		}//METHOD
+		
+	}//CLASS
+	
+	/**
+	 * Compacts the journal of an index file into the index file itself, then deletes the journal.
+	 * 
+	 * @param indexFile Given Index File
+	 * @param directory Directory the index file represents
+	 */
+	public static void compact(final File indexFile, final File directory)
+	{
+		synchronized(LOCK)
+		{
+			File journalFile = getJournalFile(indexFile);
+			if(!journalFile.exists())
+			{
+				return;
+				
+			}//IF
+			
+			DvkDirectory dvkDirectory = DvkIndexFile.readIndex(indexFile);
+			if(dvkDirectory != null && dvkDirectory.isValid(directory) && replayJournal(indexFile, dvkDirectory) > 0)
+			{
+				writeIndex(indexFile, dvkDirectory);
+				
+			}//IF
+			else
+			{
+				journalFile.delete();
+				
+			}//ELSE
+			
+		}//SYNCHRONIZED
+		
+	}//METHOD
+	
+	/**
+	 * Writes a DvkDirectory to a given index file, then deletes the index file's journal, as the index now holds all of its edits.
+	 * 
+	 * @param indexFile Given Index File
+	 * @param dvkDirectory DvkDirectory to write
+	 * @return Whether the index file was written successfully
+	 */
+	public static boolean writeIndex(final File indexFile, final DvkDirectory dvkDirectory)
+	{
+		synchronized(LOCK)
+		{
+			if(indexFile.exists())
+			{
+				indexFile.delete();
+				
+			}//IF
+			
+			boolean written = DvkIndexFile.writeIndex(indexFile, dvkDirectory);
+			File journalFile = getJournalFile(indexFile);
+			if(journalFile.exists())
+			{
+				journalFile.delete();
+				
+			}//IF
+			
+			return written;
+			
+		}//SYNCHRONIZED
+		
+	}//METHOD
+	
+	/**
+	 * Applies the records in the journal of a given index file to a DvkDirectory read from that index file.<br/>
+	 * Records are applied in order, stopping at the first record that is incomplete or fails its checksum.
+	 * 
+	 * @param indexFile Index File the DvkDirectory was read from
+	 * @param dvkDirectory DvkDirectory to update
+	 * @return Number of records applied
+	 */
+	public static int replayJournal(final File indexFile, DvkDirectory dvkDirectory)
+	{
+		ByteBuffer buffer;
+		synchronized(LOCK)
+		{
+			File journalFile = getJournalFile(indexFile);
+			if(!journalFile.exists())
+			{
+				return 0;
+				
+			}//IF
+			
+			buffer = readBuffer(journalFile);
+			
+		}//SYNCHRONIZED
+		
+		if(buffer == null || dvkDirectory.getDirectory() == null)
+		{
+			return 0;
+			
+		}//IF
+		
+		File directory = dvkDirectory.getDirectory();
+		
+		try
+		{
+			if(buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION || !directory.getAbsolutePath().equals(readString(buffer)))
+			{
+				return 0;
+				
+			}//IF
+			
+		}//TRY
+		catch(RuntimeException e)
+		{
+			return 0;
+			
+		}//CATCH
+		
+		//MAP DVK FILE NAMES TO ROWS
+		HashMap<String, Integer> rows = new HashMap<>();
+		int size = dvkDirectory.getDvkFiles().size();
+		for(int i = 0; i < size; i++)
+		{
+			File dvkFile = dvkDirectory.getDvkFiles().get(i);
+			if(dvkFile != null && directory.equals(dvkFile.getParentFile()))
+			{
+				rows.put(dvkFile.getName(), Integer.valueOf(i));
+				
+			}//IF
+			
+		}//FOR
+		
+		//APPLY RECORDS
+		HashSet<Integer> removed = new HashSet<>();
+		HashMap<String, long[]> manifest = new HashMap<>();
+		int applied = 0;
+		while(buffer.remaining() >= RECORD_HEADER_LENGTH)
+		{
+			int length = buffer.getInt();
+			int checksum = buffer.getInt();
+			if(length < 0 || length > buffer.remaining() || checksum != getChecksum(buffer.array(), buffer.position(), length))
+			{
+				break;
+				
+			}//IF
+			
+			ByteBuffer record = ByteBuffer.wrap(buffer.array(), buffer.position(), length);
+			buffer.position(buffer.position() + length);
+			
+			try
+			{
+				byte type = record.get();
+				String name = readString(record);
+				Integer row = rows.get(name);
+				if(type == DELETE)
+				{
+					if(row != null)
+					{
+						removed.add(row);
+						
+					}//IF
+					
+					manifest.put(name, null);
+					
+				}//IF
+				else if(type == UPSERT)
+				{
+					long fileSize = record.getLong();
+					long fileModified = record.getLong();
+					
+					//DVK
+					File dvkFile = new File(directory, name);
+					String id = readString(record);
+					
+					//INFO
+					String title = readString(record);
+					String[] artists = readArray(record);
+					long time = record.getLong();
+					String[] webTags = readArray(record);
+					String description = readString(record);
+					
+					//WEB
+					String pageURL = readString(record);
+					String directURL = readString(record);
+					String secondaryURL = readString(record);
+					
+					//FILE
+					File mediaFile = DvkIndexFile.getFile(directory, readString(record));
+					File secondaryFile = DvkIndexFile.getFile(directory, readString(record));
+					
+					Long timeValue = null;
+					if(time != 0L)
+					{
+						timeValue = Long.valueOf(time);
+						
+					}//IF
+					
+					if(row == null)
+					{
+						rows.put(name, Integer.valueOf(dvkDirectory.getDvkFiles().size()));
+						dvkDirectory.addDVK(dvkFile, id, title, artists, timeValue, webTags, description, pageURL, directURL, secondaryURL, mediaFile, secondaryFile);
+						
+					}//IF
+					else
+					{
+						removed.remove(row);
+						dvkDirectory.setDVK(row.intValue(), dvkFile, id, title, artists, timeValue, webTags, description, pageURL, directURL, secondaryURL, mediaFile, secondaryFile);
+						
+					}//ELSE
+					
+					manifest.put(name, new long[]{fileSize, fileModified});
+					
+				}//ELSE IF
+				
+				applied++;
+				
+			}//TRY
+			catch(BufferUnderflowException e)
+			{
+				break;
+				
+			}//CATCH
+			
+		}//WHILE
+		
+		if(removed.size() > 0)
+		{
+			boolean[] removedRows = new boolean[dvkDirectory.getDvkFiles().size()];
+			for(Integer row: removed)
+			{
+				removedRows[row.intValue()] = true;
+				
+			}//FOR
+			
+			dvkDirectory.removeRows(removedRows);
+			
+		}//IF
+		
+		dvkDirectory.updateManifest(manifest);
+		return applied;
+		
+	}//METHOD
+	
+	/**
+	 * Reads the entire contents of a journal file into a ByteBuffer.
+	 * 
+	 * @param file Given File
+	 * @return ByteBuffer holding the file contents, null if the file couldn't be read
+	 */
+	private static ByteBuffer readBuffer(final File file)
+	{
+		FileInputStream inputStream = null;
+		
+		try
+		{
+			inputStream = new FileInputStream(file);
+			FileChannel channel = inputStream.getChannel();
+			long size = channel.size();
+			if(size > Integer.MAX_VALUE)
+			{
+				return null;
+				
+			}//IF
+			
+			ByteBuffer buffer = ByteBuffer.allocate((int)size);
+			while(buffer.hasRemaining() && channel.read(buffer) != -1);
+			buffer.flip();
+			return buffer;
+			
+		}//TRY
+		catch(IOException e)
+		{
+			System.out.println("Failed reading journal file " + file.getAbsolutePath() + " - DvkJournal.readBuffer"); //$NON-NLS-1$ //$NON-NLS-2$
+			return null;
+			
+		}//CATCH
+		finally
+		{
+			try
+			{
+				if(inputStream != null)
+				{
+					inputStream.close();
+					
+				}//IF
+				
+			}//TRY
+			catch(IOException e){}
+			
+		}//FINALLY
+		
+	}//METHOD
+	
+	/**
+	 * Returns the name to store for a given file, relative to the directory where possible.
+	 * 
+	 * @param directory Directory of the journal
+	 * @param file Given File
+	 * @return Stored name, null if the file is null
+	 */
+	private static String getName(final File directory, final File file)
+	{
+		if(file == null)
+		{
+			return null;
+			
+		}//IF
+		
+		if(directory != null && directory.equals(file.getAbsoluteFile().getParentFile()))
+		{
+			return file.getName();
+			
+		}//IF
+		
+		return file.getAbsolutePath();
+		
+	}//METHOD
+	
+	/**
+	 * Writes a length-prefixed UTF-8 String.
+	 * 
+	 * @param record Stream to write to
+	 * @param value String to write
+	 * @throws IOException If writing fails
+	 */
+	private static void writeString(DataOutputStream record, final String value) throws IOException
+	{
+		if(value == null)
+		{
+			record.writeInt(NULL_LENGTH);
+			
+		}//IF
+		else
+		{
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			record.writeInt(bytes.length);
+			record.write(bytes);
+			
+		}//ELSE
+		
+	}//METHOD
+	
+	/**
+	 * Writes a String array as its count followed by its Strings.
+	 * 
+	 * @param record Stream to write to
+	 * @param values Array to write
+	 * @throws IOException If writing fails
+	 */
+	private static void writeArray(DataOutputStream record, final String[] values) throws IOException
+	{
+		if(values == null)
+		{
+			record.writeInt(NULL_COUNT);
+			
+		}//IF
+		else
+		{
+			record.writeInt(values.length);
+			for(String value: values)
+			{
+				writeString(record, value);
+				
+			}//FOR
+			
+		}//ELSE
+		
+	}//METHOD
+	
+	/**
+	 * Reads a length-prefixed UTF-8 String.
+	 * 
+	 * @param buffer Buffer to read from
+	 * @return String, null if a null String was stored
+	 */
+	private static String readString(ByteBuffer buffer)
+	{
+		int length = buffer.getInt();
+		if(length == NULL_LENGTH)
+		{
+			return null;
+			
+		}//IF
+		
+		if(length < 0 || length > buffer.remaining())
+		{
+			throw new BufferUnderflowException();
+			
+		}//IF
+		
+		String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+		buffer.position(buffer.position() + length);
+		return value;
+		
+	}//METHOD
+	
+	/**
+	 * Reads a String array stored as its count followed by its Strings.
+	 * 
+	 * @param buffer Buffer to read from
+	 * @return String array, null if a null array was stored
+	 */
+	private static String[] readArray(ByteBuffer buffer)
+	{
+		int count = buffer.getInt();
+		if(count == NULL_COUNT)
+		{
+			return null;
+			
+		}//IF
+		
+		if(count < 0 || count > buffer.remaining())
+		{
+			throw new BufferUnderflowException();
+			
+		}//IF
+		
+		String[] values = new String[count];
+		for(int i = 0; i < count; i++)
+		{
+			values[i] = readString(buffer);
+			
+		}//FOR
+		
+		return values;
+		
+	}//METHOD
+	
+	/**
+	 * Returns the CRC32 checksum of a range of bytes.
+	 * 
+	 * @param bytes Given Bytes
+	 * @param offset Start of the range
+	 * @param length Length of the range
+	 * @return Checksum
+	 */
+	private static int getChecksum(final byte[] bytes, final int offset, final int length)
+	{
+		CRC32 crc = new CRC32();
+		crc.update(bytes, offset, length);
+		return (int)crc.getValue();
+		
+	}//METHOD
+	
+}//CLASS
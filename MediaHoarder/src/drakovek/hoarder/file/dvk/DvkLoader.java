@@ -155,7 +155,7 @@ public class DvkLoader implements DWorker
 	 */
 	private void loadDVKsWork()
 	{
-		parentGUI.getDvkHandler().loadDVKs(parentGUI.getSettings().getDvkDirectories(), progressDialog, useIndexesCV, saveIndexesCV, updateIndexesCV);
+		parentGUI.getDvkHandler().loadDVKs(parentGUI.getSettings().getDvkDirectories(), progressDialog, useIndexesCV, saveIndexesCV, updateIndexesCV, parentGUI.getSettings().getParallelLoading(), parentGUI.getSettings().getUseCatalog(), parentGUI.getSettings().getLazyFields(), parentGUI.getSettings().getTrigramIndex());
 	
 	}//METHOD
 	
@@ -173,7 +173,7 @@ public class DvkLoader implements DWorker
 	 */
 	private void filterDVKsWork()
 	{
-		parentGUI.getDvkHandler().filterDVKs();
+		parentGUI.getDvkHandler().filterDVKs(progressDialog, parentGUI.getSettings().getParallelFiltering());
 		
 	}//METHOD
 
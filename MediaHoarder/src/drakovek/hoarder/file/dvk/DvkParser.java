@@ -0,0 +1,1398 @@
+package drakovek.hoarder.file.dvk;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Single-pass streaming reader for the DVK file format.<br/>
+ * Reads a DVK file into a pooled byte buffer and extracts only the values used by the DVK class, skipping anything else. Each thread reuses its own parser, so no line lists, JSON trees or exceptions are created while reading.
+ * 
+ * @author Drakovek
+ * @version 2.0
+ */
+public class DvkParser
+{
+	/**
+	 * Initial size of the pooled byte buffer
+	 */
+	private static final int INITIAL_BUFFER_SIZE = 8192;
+	
+	/**
+	 * Largest buffer size kept between reads. Larger buffers are released after reading.
+	 */
+	private static final int MAX_POOLED_BUFFER_SIZE = 1048576;
+	
+	/**
+	 * Character used in place of malformed UTF-8 sequences
+	 */
+	private static final char REPLACEMENT_CHARACTER = '\uFFFD';
+	
+	/**
+	 * Key code for keys not used by the DVK class
+	 */
+	private static final int KEY_UNKNOWN = 0;
+	
+	/**
+	 * Key code for "file_type"
+	 */
+	private static final int KEY_FILE_TYPE = 1;
+	
+	/**
+	 * Key code for "id"
+	 */
+	private static final int KEY_ID = 2;
+	
+	/**
+	 * Key code for "info"
+	 */
+	private static final int KEY_INFO = 3;
+	
+	/**
+	 * Key code for "web"
+	 */
+	private static final int KEY_WEB = 4;
+	
+	/**
+	 * Key code for "file"
+	 */
+	private static final int KEY_FILE = 5;
+	
+	/**
+	 * Key code for "title"
+	 */
+	private static final int KEY_TITLE = 6;
+	
+	/**
+	 * Key code for "artists"
+	 */
+	private static final int KEY_ARTISTS = 7;
+	
+	/**
+	 * Key code for "time"
+	 */
+	private static final int KEY_TIME = 8;
+	
+	/**
+	 * Key code for "web_tags"
+	 */
+	private static final int KEY_WEB_TAGS = 9;
+	
+	/**
+	 * Key code for "description"
+	 */
+	private static final int KEY_DESCRIPTION = 10;
+	
+	/**
+	 * Key code for "page_url"
+	 */
+	private static final int KEY_PAGE_URL = 11;
+	
+	/**
+	 * Key code for "direct_url"
+	 */
+	private static final int KEY_DIRECT_URL = 12;
+	
+	/**
+	 * Key code for "secondary_url"
+	 */
+	private static final int KEY_SECONDARY_URL = 13;
+	
+	/**
+	 * Key code for "media_file"
+	 */
+	private static final int KEY_MEDIA_FILE = 14;
+	
+	/**
+	 * Key code for "secondary_file"
+	 */
+	private static final int KEY_SECONDARY_FILE = 15;
+	
+	/**
+	 * Keys used by the DVK class as ASCII bytes, with indexes matching their key codes
+	 */
+	private static final byte[][] KEYS = {new byte[0],
+										  getBytes("file_type"), //$NON-NLS-1$
+										  getBytes("id"), //$NON-NLS-1$
+										  getBytes("info"), //$NON-NLS-1$
+										  getBytes("web"), //$NON-NLS-1$
+										  getBytes("file"), //$NON-NLS-1$
+										  getBytes("title"), //$NON-NLS-1$
+										  getBytes("artists"), //$NON-NLS-1$
+										  getBytes("time"), //$NON-NLS-1$
+										  getBytes("web_tags"), //$NON-NLS-1$
+										  getBytes("description"), //$NON-NLS-1$
+										  getBytes("page_url"), //$NON-NLS-1$
+										  getBytes("direct_url"), //$NON-NLS-1$
+										  getBytes("secondary_url"), //$NON-NLS-1$
+										  getBytes("media_file"), //$NON-NLS-1$
+										  getBytes("secondary_file")}; //$NON-NLS-1$
+										
+	/**
+	 * Parser reused by each thread
+	 */
+	private static final ThreadLocal<DvkParser> PARSERS = new ThreadLocal<DvkParser>()
+	{
+		@Override
+		protected DvkParser initialValue()
+		{
+			return new DvkParser();
+			
+		}//METHOD
+		
+	};
+	
+	/**
+	 * Pooled buffer holding the bytes of the file currently being read
+	 */
+	private byte[] buffer;
+	
+	/**
+	 * Number of valid bytes in the buffer
+	 */
+	private int length;
+	
+	/**
+	 * Current read position in the buffer
+	 */
+	private int position;
+	
+	/**
+	 * Pooled buffer for decoding Strings
+	 */
+	private char[] chars;
+	
+	/**
+	 * Value of "file_type", null if missing or not a String
+	 */
+	private String fileType;
+	
+	/**
+	 * Value of "id", null if missing or not a String
+	 */
+	private String id;
+	
+	/**
+	 * Whether "info" was read as an object
+	 */
+	private boolean hasInfo;
+	
+	/**
+	 * Value of "title", null if missing or not a String
+	 */
+	private String title;
+	
+	/**
+	 * Values of "artists"
+	 */
+	private ArrayList<String> artists;
+	
+	/**
+	 * Whether "artists" was read as an array containing only Strings
+	 */
+	private boolean hasArtists;
+	
+	/**
+	 * Value of "time", null if missing or not a String
+	 */
+	private String time;
+	
+	/**
+	 * Values of "web_tags"
+	 */
+	private ArrayList<String> webTags;
+	
+	/**
+	 * Whether "web_tags" was read as an array containing only Strings
+	 */
+	private boolean hasWebTags;
+	
+	/**
+	 * Value of "description", null if missing or not a String
+	 */
+	private String description;
+	
+	/**
+	 * Whether "web" was read as an object
+	 */
+	private boolean hasWeb;
+	
+	/**
+	 * Value of "page_url", null if missing or not a String
+	 */
+	private String pageURL;
+	
+	/**
+	 * Value of "direct_url", null if missing or not a String
+	 */
+	private String directURL;
+	
+	/**
+	 * Value of "secondary_url", null if missing or not a String
+	 */
+	private String secondaryURL;
+	
+	/**
+	 * Whether "file" was read as an object
+	 */
+	private boolean hasFile;
+	
+	/**
+	 * Value of "media_file", null if missing or not a String
+	 */
+	private String mediaFile;
+	
+	/**
+	 * Value of "secondary_file", null if missing or not a String
+	 */
+	private String secondaryFile;
+	
+	/**
+	 * Initializes the DvkParser class.
+	 */
+	private DvkParser()
+	{
+		buffer = new byte[INITIAL_BUFFER_SIZE];
+		chars = new char[INITIAL_BUFFER_SIZE];
+		artists = new ArrayList<>();
+		webTags = new ArrayList<>();
+		clearValues();
+		
+	}//CONSTRUCTOR
+	
+	/**
+	 * Returns the DvkParser for the current thread.
+	 * 
+	 * @return DvkParser
+	 */
+	public static DvkParser getParser()
+	{
+		return PARSERS.get();
+		
+	}//METHOD
+	
+	/**
+	 * Returns the ASCII bytes of a given String.
+	 * 
+	 * @param text Given String
+	 * @return ASCII bytes
+	 */
+	private static byte[] getBytes(final String text)
+	{
+		byte[] bytes = new byte[text.length()];
+		for(int i = 0; i < bytes.length; i++)
+		{
+			bytes[i] = (byte)text.charAt(i);
+			
+		}//FOR
+		
+		return bytes;
+		
+	}//METHOD
+	
+	/**
+	 * Clears all the values read from the last DVK file.
+	 */
+	private void clearValues()
+	{
+		fileType = null;
+		id = null;
+		hasInfo = false;
+		title = null;
+		artists.clear();
+		hasArtists = false;
+		time = null;
+		webTags.clear();
+		hasWebTags = false;
+		description = null;
+		hasWeb = false;
+		pageURL = null;
+		directURL = null;
+		secondaryURL = null;
+		hasFile = false;
+		mediaFile = null;
+		secondaryFile = null;
+		
+	}//METHOD
+	
+	/**
+	 * Reads a given DVK file.
+	 * 
+	 * @param dvkFile Given DVK File
+	 * @return Whether the file could be read and is valid JSON
+	 */
+	public boolean parse(final File dvkFile)
+	{
+		clearValues();
+		boolean parsed = readFile(dvkFile) && parseDVK();
+		if(!parsed)
+		{
+			clearValues();
+			
+		}//IF
+		
+		if(buffer.length > MAX_POOLED_BUFFER_SIZE)
+		{
+			buffer = new byte[INITIAL_BUFFER_SIZE];
+			
+		}//IF
+		
+		if(chars.length > MAX_POOLED_BUFFER_SIZE)
+		{
+			chars = new char[INITIAL_BUFFER_SIZE];
+			
+		}//IF
+		
+		return parsed;
+		
+	}//METHOD
+	
+	/**
+	 * Reads the contents of a given file into the pooled buffer.
+	 * 
+	 * @param file Given File
+	 * @return Whether the file was read successfully
+	 */
+	private boolean readFile(final File file)
+	{
+		length = 0;
+		position = 0;
+		FileInputStream inputStream = null;
+		
+		try
+		{
+			inputStream = new FileInputStream(file);
+			int read;
+			while((read = inputStream.read(buffer, length, buffer.length - length)) != -1)
+			{
+				length += read;
+				if(length == buffer.length)
+				{
+					buffer = Arrays.copyOf(buffer, buffer.length * 2);
+					
+				}//IF
+				
+			}//WHILE
+			
+		}//TRY
+		catch(IOException e)
+		{
+			System.out.println("Failed Reading " + file.getAbsolutePath() + " - DvkParser.readFile"); //$NON-NLS-1$ //$NON-NLS-2$
+			return false;
+			
+		}//CATCH
+		finally
+		{
+			try
+			{
+				if(inputStream != null)
+				{
+					inputStream.close();
+					
+				}//IF
+				
+			}//TRY
+			catch(IOException f){}
+			
+		}//FINALLY
+		
+		//SKIP UTF-8 BYTE ORDER MARK
+		if(length > 2 && buffer[0] == (byte)0xEF && buffer[1] == (byte)0xBB && buffer[2] == (byte)0xBF)
+		{
+			position = 3;
+			
+		}//IF
+		
+		return true;
+		
+	}//METHOD
+	
+	/**
+	 * Parses the main DVK object from the buffer.
+	 * 
+	 * @return Whether the buffer contained a valid JSON object
+	 */
+	private boolean parseDVK()
+	{
+		if(!startObject())
+		{
+			return false;
+			
+		}//IF
+		
+		if(endObject())
+		{
+			return true;
+			
+		}//IF
+		
+		do
+		{
+			int key = readKey();
+			if(key == -1)
+			{
+				return false;
+				
+			}//IF
+			
+			boolean valid;
+			switch(key)
+			{
+				case KEY_FILE_TYPE:
+					fileType = readStringValue();
+					valid = fileType != null || skipValue();
+					break;
+				case KEY_ID:
+					id = readStringValue();
+					valid = id != null || skipValue();
+					break;
+				case KEY_INFO:
+					valid = parseSection(KEY_INFO);
+					break;
+				case KEY_WEB:
+					valid = parseSection(KEY_WEB);
+					break;
+				case KEY_FILE:
+					valid = parseSection(KEY_FILE);
+					break;
+				default:
+					valid = skipValue();
+					break;
+					
+			}//SWITCH
+			
+			if(!valid)
+			{
+				return false;
+				
+			}//IF
+			
+		}//DO
+		while(nextMember());
+		
+		return endObject();
+		
+	}//METHOD
+	
+	/**
+	 * Parses one of the info, web, or file sections of a DVK. Values that are not objects are skipped.
+	 * 
+	 * @param section Key code of the section
+	 * @return Whether the section was valid JSON
+	 */
+	private boolean parseSection(final int section)
+	{
+		if(!startObject())
+		{
+			return skipValue();
+			
+		}//IF
+		
+		switch(section)
+		{
+			case KEY_INFO:
+				hasInfo = true;
+				break;
+			case KEY_WEB:
+				hasWeb = true;
+				break;
+			default:
+				hasFile = true;
+				break;
+				
+		}//SWITCH
+		
+		if(endObject())
+		{
+			return true;
+			
+		}//IF
+		
+		do
+		{
+			int key = readKey();
+			if(key == -1)
+			{
+				return false;
+				
+			}//IF
+			
+			boolean valid = true;
+			String value = null;
+			if(section == KEY_INFO && key == KEY_ARTISTS)
+			{
+				hasArtists = startArray();
+				valid = hasArtists ? parseStringArray(artists) : skipValue();
+				hasArtists = hasArtists && valid && !containsNull(artists);
+				
+			}//IF
+			else if(section == KEY_INFO && key == KEY_WEB_TAGS)
+			{
+				hasWebTags = startArray();
+				valid = hasWebTags ? parseStringArray(webTags) : skipValue();
+				hasWebTags = hasWebTags && valid && !containsNull(webTags);
+				
+			}//ELSE IF
+			else if(isSectionKey(section, key))
+			{
+				value = readStringValue();
+				if(value == null)
+				{
+					valid = skipValue();
+					
+				}//IF
+				
+				setSectionValue(key, value);
+				
+			}//ELSE IF
+			else
+			{
+				valid = skipValue();
+				
+			}//ELSE
+			
+			if(!valid)
+			{
+				return false;
+				
+			}//IF
+			
+		}//DO
+		while(nextMember());
+		
+		return endObject();
+		
+	}//METHOD
+	
+	/**
+	 * Returns whether a given key holds a String value used by the DVK class within a given section.
+	 * 
+	 * @param section Key code of the section
+	 * @param key Key code
+	 * @return Whether the key is used within the section
+	 */
+	private static boolean isSectionKey(final int section, final int key)
+	{
+		switch(section)
+		{
+			case KEY_INFO:
+				return key == KEY_TITLE || key == KEY_TIME || key == KEY_DESCRIPTION;
+			case KEY_WEB:
+				return key == KEY_PAGE_URL || key == KEY_DIRECT_URL || key == KEY_SECONDARY_URL;
+			default:
+				return key == KEY_MEDIA_FILE || key == KEY_SECONDARY_FILE;
+				
+		}//SWITCH
+		
+	}//METHOD
+	
+	/**
+	 * Sets the value for a given String key.
+	 * 
+	 * @param key Key code
+	 * @param value Value, null if the value was not a String
+	 */
+	private void setSectionValue(final int key, final String value)
+	{
+		switch(key)
+		{
+			case KEY_TITLE:
+				title = value;
+				break;
+			case KEY_TIME:
+				time = value;
+				break;
+			case KEY_DESCRIPTION:
+				description = value;
+				break;
+			case KEY_PAGE_URL:
+				pageURL = value;
+				break;
+			case KEY_DIRECT_URL:
+				directURL = value;
+				break;
+			case KEY_SECONDARY_URL:
+				secondaryURL = value;
+				break;
+			case KEY_MEDIA_FILE:
+				mediaFile = value;
+				break;
+			case KEY_SECONDARY_FILE:
+				secondaryFile = value;
+				break;
+				
+		}//SWITCH
+		
+	}//METHOD
+	
+	/**
+	 * Returns whether a list contains a null entry.
+	 * 
+	 * @param list Given List
+	 * @return Whether the list contains null
+	 */
+	private static boolean containsNull(final ArrayList<String> list)
+	{
+		for(int i = 0; i < list.size(); i++)
+		{
+			if(list.get(i) == null)
+			{
+				return true;
+				
+			}//IF
+			
+		}//FOR
+		
+		return false;
+		
+	}//METHOD
+	
+	/**
+	 * Parses the contents of an array after the opening bracket, adding String values to a given list. Values that are not Strings are added as null.
+	 * 
+	 * @param list List to add values to
+	 * @return Whether the array was valid JSON
+	 */
+	private boolean parseStringArray(ArrayList<String> list)
+	{
+		list.clear();
+		if(endArray())
+		{
+			return true;
+			
+		}//IF
+		
+		do
+		{
+			String value = readStringValue();
+			if(value == null && !skipValue())
+			{
+				return false;
+				
+			}//IF
+			
+			list.add(value);
+			
+		}//DO
+		while(nextMember());
+		
+		return endArray();
+		
+	}//METHOD
+	
+	/**
+	 * Skips whitespace in the buffer.
+	 */
+	private void skipWhitespace()
+	{
+		while(position < length && (buffer[position] & 0xFF) <= ' ')
+		{
+			position++;
+			
+		}//WHILE
+		
+	}//METHOD
+	
+	/**
+	 * Consumes a given character if it is the next non-whitespace character in the buffer.
+	 * 
+	 * @param character Given Character
+	 * @return Whether the character was consumed
+	 */
+	private boolean consume(final char character)
+	{
+		skipWhitespace();
+		if(position < length && buffer[position] == character)
+		{
+			position++;
+			return true;
+			
+		}//IF
+		
+		return false;
+		
+	}//METHOD
+	
+	/**
+	 * Consumes the opening brace of an object, if present.
+	 * 
+	 * @return Whether an object was started
+	 */
+	private boolean startObject()
+	{
+		return consume('{');
+		
+	}//METHOD
+	
+	/**
+	 * Consumes the closing brace of an object, if present.
+	 * 
+	 * @return Whether an object was ended
+	 */
+	private boolean endObject()
+	{
+		return consume('}');
+		
+	}//METHOD
+	
+	/**
+	 * Consumes the opening bracket of an array, if present.
+	 * 
+	 * @return Whether an array was started
+	 */
+	private boolean startArray()
+	{
+		return consume('[');
+		
+	}//METHOD
+	
+	/**
+	 * Consumes the closing bracket of an array, if present.
+	 * 
+	 * @return Whether an array was ended
+	 */
+	private boolean endArray()
+	{
+		return consume(']');
+		
+	}//METHOD
+	
+	/**
+	 * Consumes the comma separating members of an object or array, if present.
+	 * 
+	 * @return Whether another member follows
+	 */
+	private boolean nextMember()
+	{
+		return consume(',');
+		
+	}//METHOD
+	
+	/**
+	 * Reads an object key and the following colon, matching the key against the keys used by the DVK class.
+	 * 
+	 * @return Key code, KEY_UNKNOWN if the key isn't used, or -1 if the key isn't valid JSON
+	 */
+	private int readKey()
+	{
+		skipWhitespace();
+		if(position >= length || buffer[position] != '"')
+		{
+			return -1;
+			
+		}//IF
+		
+		//MATCH KEYS WITHOUT ESCAPES DIRECTLY AGAINST THE BUFFER
+		int start = position + 1;
+		int end = start;
+		while(end < length && buffer[end] != '"' && buffer[end] != '\\')
+		{
+			end++;
+			
+		}//WHILE
+		
+		int key = KEY_UNKNOWN;
+		if(end < length && buffer[end] == '"')
+		{
+			for(int i = 1; i < KEYS.length; i++)
+			{
+				if(matches(start, end, KEYS[i]))
+				{
+					key = i;
+					break;
+					
+				}//IF
+				
+			}//FOR
+			
+			position = end + 1;
+			
+		}//IF
+		else
+		{
+			String keyString = readString();
+			if(keyString == null)
+			{
+				return -1;
+				
+			}//IF
+			
+			for(int i = 1; i < KEYS.length; i++)
+			{
+				if(matches(keyString, KEYS[i]))
+				{
+					key = i;
+					break;
+					
+				}//IF
+				
+			}//FOR
+			
+		}//ELSE
+		
+		if(!consume(':'))
+		{
+			return -1;
+			
+		}//IF
+		
+		return key;
+		
+	}//METHOD
+	
+	/**
+	 * Returns whether a range of the buffer matches the given bytes.
+	 * 
+	 * @param start Start of the range
+	 * @param end End of the range
+	 * @param bytes Bytes to match
+	 * @return Whether the range matches
+	 */
+	private boolean matches(final int start, final int end, final byte[] bytes)
+	{
+		if(end - start != bytes.length)
+		{
+			return false;
+			
+		}//IF
+		
+		for(int i = 0; i < bytes.length; i++)
+		{
+			if(buffer[start + i] != bytes[i])
+			{
+				return false;
+				
+			}//IF
+			
+		}//FOR
+		
+		return true;
+		
+	}//METHOD
+	
+	/**
+	 * Returns whether a String matches the given ASCII bytes.
+	 * 
+	 * @param text Given String
+	 * @param bytes Bytes to match
+	 * @return Whether the String matches
+	 */
+	private static boolean matches(final String text, final byte[] bytes)
+	{
+		if(text.length() != bytes.length)
+		{
+			return false;
+			
+		}//IF
+		
+		for(int i = 0; i < bytes.length; i++)
+		{
+			if(text.charAt(i) != bytes[i])
+			{
+				return false;
+				
+			}//IF
+			
+		}//FOR
+		
+		return true;
+		
+	}//METHOD
+	
+	/**
+	 * Reads a String value if the next value in the buffer is a String.
+	 * 
+	 * @return String value, null if the next value isn't a String
+	 */
+	private String readStringValue()
+	{
+		skipWhitespace();
+		if(position < length && buffer[position] == '"')
+		{
+			return readString();
+			
+		}//IF
+		
+		return null;
+		
+	}//METHOD
+	
+	/**
+	 * Reads a quoted String from the buffer, decoding UTF-8 and JSON escapes. Raw line breaks are dropped, matching the line-based reading of older versions.
+	 * 
+	 * @return Decoded String, null if the String isn't terminated
+	 */
+	private String readString()
+	{
+		position++;
+		int count = 0;
+		
+		while(position < length)
+		{
+			if(count + 2 > chars.length)
+			{
+				chars = Arrays.copyOf(chars, chars.length * 2);
+				
+			}//IF
+			
+			int current = buffer[position++] & 0xFF;
+			if(current == '"')
+			{
+				return new String(chars, 0, count);
+				
+			}//IF
+			else if(current == '\\')
+			{
+				if(position >= length)
+				{
+					return null;
+					
+				}//IF
+				
+				char escaped = (char)buffer[position++];
+				switch(escaped)
+				{
+					case 'b':
+						chars[count++] = '\b';
+						break;
+					case 't':
+						chars[count++] = '\t';
+						break;
+					case 'n':
+						chars[count++] = '\n';
+						break;
+					case 'f':
+						chars[count++] = '\f';
+						break;
+					case 'r':
+						chars[count++] = '\r';
+						break;
+					case 'u':
+						int value = readHex();
+						if(value == -1)
+						{
+							return null;
+							
+						}//IF
+						chars[count++] = (char)value;
+						break;
+					default:
+						chars[count++] = escaped;
+						break;
+						
+				}//SWITCH
+				
+			}//ELSE IF
+			else if(current == '\n' || current == '\r')
+			{
+				continue;
+				
+			}//ELSE IF
+			else if(current < 0x80)
+			{
+				chars[count++] = (char)current;
+				
+			}//ELSE IF
+			else
+			{
+				count = decodeMultiByte(current, count);
+				
+			}//ELSE
+			
+		}//WHILE
+		
+		return null;
+		
+	}//METHOD
+	
+	/**
+	 * Reads four hexadecimal digits from the buffer.
+	 * 
+	 * @return Value of the digits, -1 if the digits are invalid
+	 */
+	private int readHex()
+	{
+		if(position + 4 > length)
+		{
+			return -1;
+			
+		}//IF
+		
+		int value = 0;
+		for(int i = 0; i < 4; i++)
+		{
+			int digit = Character.digit(buffer[position++], 16);
+			if(digit == -1)
+			{
+				return -1;
+				
+			}//IF
+			
+			value = (value << 4) | digit;
+			
+		}//FOR
+		
+		return value;
+		
+	}//METHOD
+	
+	/**
+	 * Decodes a multi-byte UTF-8 sequence into the char buffer. Malformed sequences are replaced with the replacement character.
+	 * 
+	 * @param first First byte of the sequence
+	 * @param count Number of chars currently in the char buffer
+	 * @return Number of chars in the char buffer after decoding
+	 */
+	private int decodeMultiByte(final int first, final int count)
+	{
+		int extra;
+		int codePoint;
+		if((first & 0xE0) == 0xC0)
+		{
+			extra = 1;
+			codePoint = first & 0x1F;
+			
+		}//IF
+		else if((first & 0xF0) == 0xE0)
+		{
+			extra = 2;
+			codePoint = first & 0x0F;
+			
+		}//ELSE IF
+		else if((first & 0xF8) == 0xF0)
+		{
+			extra = 3;
+			codePoint = first & 0x07;
+			
+		}//ELSE IF
+		else
+		{
+			chars[count] = REPLACEMENT_CHARACTER;
+			return count + 1;
+			
+		}//ELSE
+		
+		for(int i = 0; i < extra; i++)
+		{
+			if(position >= length || (buffer[position] & 0xC0) != 0x80)
+			{
+				chars[count] = REPLACEMENT_CHARACTER;
+				return count + 1;
+				
+			}//IF
+			
+			codePoint = (codePoint << 6) | (buffer[position++] & 0x3F);
+			
+		}//FOR
+		
+		if(Character.isBmpCodePoint(codePoint))
+		{
+			chars[count] = (char)codePoint;
+			return count + 1;
+			
+		}//IF
+		
+		if(Character.isValidCodePoint(codePoint))
+		{
+			chars[count] = Character.highSurrogate(codePoint);
+			chars[count + 1] = Character.lowSurrogate(codePoint);
+			return count + 2;
+			
+		}//IF
+		
+		chars[count] = REPLACEMENT_CHARACTER;
+		return count + 1;
+		
+	}//METHOD
+	
+	/**
+	 * Skips the next JSON value in the buffer, including nested objects and arrays.
+	 * 
+	 * @return Whether the value was valid JSON
+	 */
+	private boolean skipValue()
+	{
+		skipWhitespace();
+		if(position >= length)
+		{
+			return false;
+			
+		}//IF
+		
+		byte current = buffer[position];
+		if(current == '"')
+		{
+			position++;
+			while(position < length && buffer[position] != '"')
+			{
+				if(buffer[position] == '\\')
+				{
+					position++;
+					
+				}//IF
+				
+				position++;
+				
+			}//WHILE
+			
+			if(position >= length)
+			{
+				return false;
+				
+			}//IF
+			
+			position++;
+			return true;
+			
+		}//IF
+		
+		if(current == '{')
+		{
+			position++;
+			if(endObject())
+			{
+				return true;
+				
+			}//IF
+			
+			do
+			{
+				if(readKey() == -1 || !skipValue())
+				{
+					return false;
+					
+				}//IF
+				
+			}//DO
+			while(nextMember());
+			
+			return endObject();
+			
+		}//IF
+		
+		if(current == '[')
+		{
+			position++;
+			if(endArray())
+			{
+				return true;
+				
+			}//IF
+			
+			do
+			{
+				if(!skipValue())
+				{
+					return false;
+					
+				}//IF
+				
+			}//DO
+			while(nextMember());
+			
+			return endArray();
+			
+		}//IF
+		
+		//NUMBERS AND LITERALS
+		int start = position;
+		while(position < length && buffer[position] != ',' && buffer[position] != '}' && buffer[position] != ']' && (buffer[position] & 0xFF) > ' ')
+		{
+			position++;
+			
+		}//WHILE
+		
+		return position > start;
+		
+	}//METHOD
+	
+	/**
+	 * Returns the value of "file_type".
+	 * 
+	 * @return File Type, null if missing
+	 */
+	public String getFileType()
+	{
+		return fileType;
+		
+	}//METHOD
+	
+	/**
+	 * Returns the value of "id".
+	 * 
+	 * @return ID, null if missing
+	 */
+	public String getID()
+	{
+		return id;
+		
+	}//METHOD
+	
+	/**
+	 * Returns whether the DVK contains an "info" section.
+	 * 
+	 * @return Whether the info section exists
+	 */
+	public boolean hasInfo()
+	{
+		return hasInfo;
+		
+	}//METHOD
+	
+	/**
+	 * Returns the value of "title".
+	 * 
+	 * @return Title, null if missing
+	 */
+	public String getTitle()
+	{
+		return title;
+		
+	}//METHOD
+	
+	/**
+	 * Returns whether the DVK contains a valid list of artists.
+	 * 
+	 * @return Whether the artists exist
+	 */
+	public boolean hasArtists()
+	{
+		return hasArtists;
+		
+	}//METHOD
+	
+	/**
+	 * Returns the values of "artists". The list is reused by the parser.
+	 * 
+	 * @return Artists
+	 */
+	public ArrayList<String> getArtists()
+	{
+		return artists;
+		
+	}//METHOD
+	
+	/**
+	 * Returns the value of "time".
+	 * 
+	 * @return Time String, null if missing
+	 */
+	public String getTime()
+	{
+		return time;
+		
+	}//METHOD
+	
+	/**
+	 * Returns whether the DVK contains a valid list of web tags.
+	 * 
+	 * @return Whether the web tags exist
+	 */
+	public boolean hasWebTags()
+	{
+		return hasWebTags;
+		
+	}//METHOD
+	
+	/**
+	 * Returns the values of "web_tags". The list is reused by the parser.
+	 * 
+	 * @return Web Tags
+	 */
+	public ArrayList<String> getWebTags()
+	{
+		return webTags;
+		
+	}//METHOD
+	
+	/**
+	 * Returns the value of "description".
+	 * 
+	 * @return Description, null if missing
+	 */
+	public String getDescription()
+	{
+		return description;
+		
+	}//METHOD
+	
+	/**
+	 * Returns whether the DVK contains a "web" section.
+	 * 
+	 * @return Whether the web section exists
+	 */
+	public boolean hasWeb()
+	{
+		return hasWeb;
+		
+	}//METHOD
+	
+	/**
+	 * Returns the value of "page_url".
+	 * 
+	 * @return Page URL, null if missing
+	 */
+	public String getPageURL()
+	{
+		return pageURL;
+		
+	}//METHOD
+	
+	/**
+	 * Returns the value of "direct_url".
+	 * 
+	 * @return Direct URL, null if missing
+	 */
+	public String getDirectURL()
+	{
+		return directURL;
+		
+	}//METHOD
+	
+	/**
+	 * Returns the value of "secondary_url".
+	 * 
+	 * @return Secondary URL, null if missing
+	 */
+	public String getSecondaryURL()
+	{
+		return secondaryURL;
+		
+	}//METHOD
+	
+	/**
+	 * Returns whether the DVK contains a "file" section.
+	 * 
+	 * @return Whether the file section exists
+	 */
+	public boolean hasFile()
+	{
+		return hasFile;
+		
+	}//METHOD
+	
+	/**
+	 * Returns the value of "media_file".
+	 * 
+	 * @return Media File Name, null if missing
+	 */
+	public String getMediaFile()
+	{
+		return mediaFile;
+		
+	}//METHOD
+	
+	/**
+	 * Returns the value of "secondary_file".
+	 * 
+	 * @return Secondary File Name, null if missing
+	 */
+	public String getSecondaryFile()
+	{
+		return secondaryFile;
+		
+	}//METHOD
+	
+}//CLASS
@@ -0,0 +1,23 @@
+package drakovek.hoarder.file.dvk;
+
+/**
+ * Methods to invoke when watching DVK directories for changes
+ * 
+ * @author Drakovek
+ * @version 2.0
+ */
+public interface DvkWatchMethods
+{
+	/**
+	 * Returns whether loaded DVKs can currently be updated, false if another process is using them.
+	 * 
+	 * @return Whether DVKs can be updated
+	 */
+	public boolean canUpdateDVKs();
+	
+	/**
+	 * Called after loaded DVKs were updated to reflect changes in the DVK directories.
+	 */
+	public void dvksUpdated();
+	
+}//CLASS
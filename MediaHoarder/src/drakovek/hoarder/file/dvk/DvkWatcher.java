@@ -0,0 +1,737 @@
+package drakovek.hoarder.file.dvk;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileStore;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.SwingUtilities;
+
+import drakovek.hoarder.work.DRunnable;
+import drakovek.hoarder.work.DWorker;
+
+/**
+ * Watches DVK directories for changes on a background thread, updating the loaded DVKs without reloading them all.
+ * 
+ * @author Drakovek
+ * @version 2.0
+ */
+public class DvkWatcher implements Runnable, DWorker
+{
+	/**
+	 * ID for applying a batch of changes to the loaded DVKs on the event dispatch thread
+	 */
+	private static final String APPLY_CHANGES = "apply_changes"; //$NON-NLS-1$
+	
+	/**
+	 * Milliseconds without new events to wait before processing a batch of changes
+	 */
+	private static final long DEBOUNCE_DELAY = 750L;
+	
+	/**
+	 * Milliseconds to wait for new events on each pass of the watching loop
+	 */
+	private static final long WAIT_INTERVAL = 250L;
+	
+	/**
+	 * Milliseconds between scans of directories that can't be watched directly
+	 */
+	private static final long POLL_INTERVAL = 30000L;
+	
+	/**
+	 * File store types for network drives, which are polled since they don't reliably report changes
+	 */
+	private static final String[] NETWORK_STORES = {"nfs", "cifs", "smb", "afp", "webdav", "davfs", "sshfs"}; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$
+	
+	/**
+	 * Methods to call when loaded DVKs are updated
+	 */
+	private DvkWatchMethods watchMethods;
+	
+	/**
+	 * DvkHandler with the loaded DVKs to update
+	 */
+	private DvkHandler dvkHandler;
+	
+	/**
+	 * Directories to watch for changes, including all their sub-directories
+	 */
+	private ArrayList<File> dvkDirectories;
+	
+	/**
+	 * Whether to update index files to reflect changes
+	 */
+	private boolean saveIndexes;
+	
+	/**
+	 * Whether the watcher is still running
+	 */
+	private volatile boolean watching;
+	
+	/**
+	 * Thread running the watching loop
+	 */
+	private Thread thread;
+	
+	/**
+	 * WatchService for directories that can be watched directly
+	 */
+	private WatchService watchService;
+	
+	/**
+	 * Map of registered watch keys to the directories they watch
+	 */
+	private HashMap<WatchKey, Path> watchKeys;
+	
+	/**
+	 * Root directories that are polled rather than watched directly
+	 */
+	private ArrayList<Path> pollRoots;
+	
+	/**
+	 * Size and modified time of every DVK file in the polled directories as of the last scan
+	 */
+	private HashMap<Path, long[]> pollSnapshot;
+	
+	/**
+	 * DVK files changed since the last batch was processed
+	 */
+	private HashSet<Path> pendingFiles;
+	
+	/**
+	 * Directories that lost events and need to be rescanned
+	 */
+	private HashSet<Path> pendingDirectories;
+	
+	/**
+	 * Files and directories deleted since the last batch was processed
+	 */
+	private ArrayList<File> pendingDeleted;
+	
+	/**
+	 * Time of the last event received, in milliseconds
+	 */
+	private long lastEvent;
+	
+	/**
+	 * Processed DVKs waiting to be applied to the loaded DVKs, null values for removed DVKs
+	 */
+	private HashMap<File, DVK> readyDVKs;
+	
+	/**
+	 * Processed deleted files waiting to be applied to the loaded DVKs
+	 */
+	private ArrayList<File> readyDeleted;
+	
+	/**
+	 * Processed rescanned directories waiting to be applied to the loaded DVKs
+	 */
+	private ArrayList<File> readyRescanned;
+	
+	/**
+	 * Whether applying the ready changes is already queued on the event dispatch thread
+	 */
+	private boolean applyQueued;
+	
+	/**
+	 * Initializes the DvkWatcher class.
+	 * 
+	 * @param watchMethods Methods to call when loaded DVKs are updated
+	 * @param dvkHandler DvkHandler with the loaded DVKs to update
+	 * @param dvkDirectories Directories to watch for changes
+	 * @param saveIndexes Whether to update index files to reflect changes
+	 */
+	public DvkWatcher(DvkWatchMethods watchMethods, DvkHandler dvkHandler, final ArrayList<File> dvkDirectories, final boolean saveIndexes)
+	{
+		this.watchMethods = watchMethods;
+		this.dvkHandler = dvkHandler;
+		this.dvkDirectories = new ArrayList<>(dvkDirectories);
+		this.saveIndexes = saveIndexes;
+		
+		watching = false;
+		thread = null;
+		watchService = null;
+		watchKeys = new HashMap<>();
+		pollRoots = new ArrayList<>();
+		pollSnapshot = new HashMap<>();
+		pendingFiles = new HashSet<>();
+		pendingDirectories = new HashSet<>();
+		pendingDeleted = new ArrayList<>();
+		lastEvent = 0L;
+		readyDVKs = new HashMap<>();
+		readyDeleted = new ArrayList<>();
+		readyRescanned = new ArrayList<>();
+		applyQueued = false;
+		
+	}//CONSTRUCTOR
+	
+	/**
+	 * Starts watching the DVK directories on a background thread.
+	 */
+	public void startWatching()
+	{
+		if(thread != null)
+		{
+			return;
+			
+		}//IF
+		
+		try
+		{
+			watchService = FileSystems.getDefault().newWatchService();
+			
+		}//TRY
+		catch(IOException e)
+		{
+			watchService = null;
+			
+		}//CATCH
+		
+		watching = true;
+		thread = new Thread(this, "DvkWatcher"); //$NON-NLS-1$
+		thread.setDaemon(true);
+		thread.start();
+		
+	}//METHOD
+	
+	/**
+	 * Stops watching the DVK directories, discarding any changes not yet applied.
+	 */
+	public void stopWatching()
+	{
+		watching = false;
+		if(watchService != null)
+		{
+			try
+			{
+				watchService.close();
+				
+			}//TRY
+			catch(IOException e){}
+			
+		}//IF
+		
+		if(thread != null)
+		{
+			thread.interrupt();
+			
+		}//IF
+		
+	}//METHOD
+	
+	@Override
+	public void run()
+	{
+		//REGISTER DIRECTORIES, FALLING BACK TO POLLING WHERE WATCHING ISN'T POSSIBLE
+		for(File directory: dvkDirectories)
+		{
+			Path root = directory.getAbsoluteFile().toPath();
+			if(watching && Files.isDirectory(root))
+			{
+				if(watchService == null || isNetworkStore(root) || !registerAll(root))
+				{
+					pollRoots.add(root);
+					scanDVKs(root, pollSnapshot);
+					
+				}//IF
+				
+			}//IF
+			
+		}//FOR
+		
+		long lastPoll = System.currentTimeMillis();
+		try
+		{
+			while(watching)
+			{
+				//RECEIVE EVENTS
+				if(watchService != null && watchKeys.size() > 0)
+				{
+					WatchKey key = watchService.poll(WAIT_INTERVAL, TimeUnit.MILLISECONDS);
+					while(key != null)
+					{
+						processEvents(key);
+						key = watchService.poll();
+						
+					}//WHILE
+					
+				}//IF
+				else
+				{
+					Thread.sleep(WAIT_INTERVAL);
+					
+				}//ELSE
+				
+				//POLL DIRECTORIES
+				long time = System.currentTimeMillis();
+				if(pollRoots.size() > 0 && time - lastPoll >= POLL_INTERVAL)
+				{
+					pollDirectories();
+					lastPoll = time;
+					
+				}//IF
+				
+				//PROCESS BATCH ONCE EVENTS SETTLE
+				if((pendingFiles.size() > 0 || pendingDirectories.size() > 0 || pendingDeleted.size() > 0) && time - lastEvent >= DEBOUNCE_DELAY)
+				{
+					processPending();
+					
+				}//IF
+				
+				queueApply();
+				
+			}//WHILE
+			
+		}//TRY
+		catch(InterruptedException e){}
+		catch(ClosedWatchServiceException e){}
+		
+	}//METHOD
+	
+	/**
+	 * Returns whether a given directory is on a network drive.
+	 * 
+	 * @param directory Given Directory
+	 * @return Whether the directory is on a network drive
+	 */
+	private static boolean isNetworkStore(final Path directory)
+	{
+		try
+		{
+			FileStore store = Files.getFileStore(directory);
+			String type = store.type().toLowerCase(Locale.ENGLISH);
+			for(String network: NETWORK_STORES)
+			{
+				if(type.contains(network))
+				{
+					return true;
+					
+				}//IF
+				
+			}//FOR
+			
+		}//TRY
+		catch(IOException e){}
+		
+		return false;
+		
+	}//METHOD
+	
+	/**
+	 * Registers a directory and all its sub-directories with the WatchService.
+	 * 
+	 * @param directory Given Directory
+	 * @return Whether all directories were registered successfully
+	 */
+	private boolean registerAll(final Path directory)
+	{
+		final boolean[] success = {true};
+		try
+		{
+			Files.walkFileTree(directory, new SimpleFileVisitor<Path>()
+			{
+				@Override
+				public FileVisitResult preVisitDirectory(Path path, BasicFileAttributes attributes)
+				{
+					try
+					{
+						WatchKey key = path.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+						watchKeys.put(key, path);
+						
+					}//TRY
+					catch(IOException | UnsupportedOperationException | ClosedWatchServiceException e)
+					{
+						success[0] = false;
+						return FileVisitResult.TERMINATE;
+						
+					}//CATCH
+					
+					return FileVisitResult.CONTINUE;
+					
+				}//METHOD
+				
+				@Override
+				public FileVisitResult visitFileFailed(Path path, IOException e)
+				{
+					return FileVisitResult.CONTINUE;
+					
+				}//METHOD
+				
+			});
+			
+		}//TRY
+		catch(IOException e)
+		{
+			return false;
+			
+		}//CATCH
+		
+		return success[0];
+		
+	}//METHOD
+	
+	/**
+	 * Records the size and modified time of every DVK file in a directory and its sub-directories.
+	 * 
+	 * @param directory Given Directory
+	 * @param snapshot Map to add the DVK file information to
+	 */
+	private static void scanDVKs(final Path directory, final HashMap<Path, long[]> snapshot)
+	{
+		try
+		{
+			Files.walkFileTree(directory, new SimpleFileVisitor<Path>()
+			{
+				@Override
+				public FileVisitResult visitFile(Path path, BasicFileAttributes attributes)
+				{
+					if(attributes.isRegularFile() && isDvk(path))
+					{
+						snapshot.put(path, new long[]{attributes.size(), attributes.lastModifiedTime().toMillis()});
+						
+					}//IF
+					
+					return FileVisitResult.CONTINUE;
+					
+				}//METHOD
+				
+				@Override
+				public FileVisitResult visitFileFailed(Path path, IOException e)
+				{
+					return FileVisitResult.CONTINUE;
+					
+				}//METHOD
+				
+			});
+			
+		}//TRY
+		catch(IOException e){}
+		
+	}//METHOD
+	
+	/**
+	 * Returns whether a given path has the DVK extension.
+	 * 
+	 * @param path Given Path
+	 * @return Whether the path is a DVK file
+	 */
+	private static boolean isDvk(final Path path)
+	{
+		Path name = path.getFileName();
+		return name != null && name.toString().endsWith(DVK.DVK_EXTENSION);
+		
+	}//METHOD
+	
+	/**
+	 * Adds the events from a signaled WatchKey to the pending changes.
+	 * 
+	 * @param key Signaled WatchKey
+	 */
+	private void processEvents(WatchKey key)
+	{
+		Path directory = watchKeys.get(key);
+		if(directory == null)
+		{
+			key.cancel();
+			return;
+			
+		}//IF
+		
+		for(WatchEvent<?> event: key.pollEvents())
+		{
+			if(event.kind() == StandardWatchEventKinds.OVERFLOW)
+			{
+				pendingDirectories.add(directory);
+				continue;
+				
+			}//IF
+			
+			Path path = directory.resolve((Path)event.context());
+			if(event.kind() == StandardWatchEventKinds.ENTRY_DELETE)
+			{
+				pendingDeleted.add(path.toFile());
+				if(isDvk(path))
+				{
+					pendingFiles.add(path);
+					
+				}//IF
+				
+			}//IF
+			else if(event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS))
+			{
+				//REGISTER NEW DIRECTORY, THEN ADD ANY DVKS ALREADY WRITTEN TO IT
+				registerAll(path);
+				HashMap<Path, long[]> added = new HashMap<>();
+				scanDVKs(path, added);
+				pendingFiles.addAll(added.keySet());
+				
+			}//ELSE IF
+			else if(isDvk(path))
+			{
+				pendingFiles.add(path);
+				
+			}//ELSE IF
+			
+		}//FOR
+		
+		lastEvent = System.currentTimeMillis();
+		if(!key.reset())
+		{
+			watchKeys.remove(key);
+			
+		}//IF
+		
+	}//METHOD
+	
+	/**
+	 * Rescans polled directories, adding any DVK files that were added, changed, or removed to the pending changes.
+	 */
+	private void pollDirectories()
+	{
+		HashMap<Path, long[]> snapshot = new HashMap<>();
+		for(Path root: pollRoots)
+		{
+			scanDVKs(root, snapshot);
+			
+		}//FOR
+		
+		boolean changed = false;
+		for(Map.Entry<Path, long[]> entry: snapshot.entrySet())
+		{
+			long[] previous = pollSnapshot.get(entry.getKey());
+			if(previous == null || previous[0] != entry.getValue()[0] || previous[1] != entry.getValue()[1])
+			{
+				pendingFiles.add(entry.getKey());
+				changed = true;
+				
+			}//IF
+			
+		}//FOR
+		
+		for(Path path: pollSnapshot.keySet())
+		{
+			if(!snapshot.containsKey(path))
+			{
+				pendingFiles.add(path);
+				pendingDeleted.add(path.toFile());
+				changed = true;
+				
+			}//IF
+			
+		}//FOR
+		
+		pollSnapshot = snapshot;
+		if(changed)
+		{
+			lastEvent = 0L;
+			
+		}//IF
+		
+	}//METHOD
+	
+	/**
+	 * Loads the pending DVK files and updates index files, then moves the batch to the ready changes.
+	 */
+	private void processPending()
+	{
+		//LIST DVKS IN RESCANNED DIRECTORIES
+		ArrayList<File> rescanned = new ArrayList<>();
+		for(Path directory: pendingDirectories)
+		{
+			try(DirectoryStream<Path> stream = Files.newDirectoryStream(directory))
+			{
+				for(Path path: stream)
+				{
+					if(isDvk(path))
+					{
+						pendingFiles.add(path);
+						
+					}//IF
+					
+				}//FOR
+				
+				rescanned.add(directory.toFile());
+				
+			}//TRY
+			catch(IOException e){}
+			
+		}//FOR
+		
+		//LOAD CHANGED DVKS
+		HashMap<File, DVK> dvks = new HashMap<>();
+		for(Path path: pendingFiles)
+		{
+			File file = path.toFile();
+			DVK dvk = null;
+			if(Files.isRegularFile(path))
+			{
+				dvk = new DVK(file);
+				if(!dvk.isValidRead())
+				{
+					dvk = null;
+					
+				}//IF
+				
+			}//IF
+			
+			dvks.put(file, dvk);
+			
+		}//FOR
+		
+		if(saveIndexes)
+		{
+			updateIndexes(dvks.keySet(), rescanned);
+			
+		}//IF
+		
+		synchronized(this)
+		{
+			readyDVKs.putAll(dvks);
+			readyRescanned.addAll(rescanned);
+			readyDeleted.addAll(pendingDeleted);
+			
+			//FILES MAY HAVE BEEN RECREATED SINCE THEY WERE DELETED
+			ArrayList<File> deleted = new ArrayList<>();
+			for(File file: readyDeleted)
+			{
+				if(!file.exists())
+				{
+					deleted.add(file);
+					
+				}//IF
+				
+			}//FOR
+			
+			readyDeleted = deleted;
+			
+		}//SYNCHRONIZED
+		
+		pendingFiles.clear();
+		pendingDirectories.clear();
+		pendingDeleted.clear();
+		
+	}//METHOD
+	
+	/**
+	 * Updates the index files of every DVK folder with changes, using the manifest in each index to only reload changed DVKs.<br/>
+	 * Holds the indexing lock while updating, so index files are never written while DVKs are being loaded and index files saved on another thread.
+	 * 
+	 * @param dvkFiles DVK files that changed
+	 * @param rescanned Directories that were rescanned
+	 */
+	private void updateIndexes(final Iterable<File> dvkFiles, final ArrayList<File> rescanned)
+	{
+		HashSet<File> folders = new HashSet<>(rescanned);
+		for(File dvkFile: dvkFiles)
+		{
+			if(dvkFile.getParentFile() != null)
+			{
+				folders.add(dvkFile.getParentFile());
+				
+			}//IF
+			
+		}//FOR
+		
+		synchronized(DvkIndexing.LOCK)
+		{
+			DvkIndexing indexing = new DvkIndexing();
+			for(File folder: folders)
+			{
+				if(folder.isDirectory())
+				{
+					DvkDirectory dvkDirectory = indexing.loadDVKs(folder, null, true, true);
+					indexing.saveIndex(dvkDirectory);
+					
+				}//IF
+				
+			}//FOR
+			
+			indexing.close();
+			DvkCatalog.deleteCatalog();
+			
+		}//SYNCHRONIZED
+		
+	}//METHOD
+	
+	/**
+	 * Queues the ready changes to be applied on the event dispatch thread, if there are any.
+	 */
+	private synchronized void queueApply()
+	{
+		if(!applyQueued && (readyDVKs.size() > 0 || readyDeleted.size() > 0 || readyRescanned.size() > 0))
+		{
+			applyQueued = true;
+			SwingUtilities.invokeLater(new DRunnable(this, APPLY_CHANGES));
+			
+		}//IF
+		
+	}//METHOD
+	
+	/**
+	 * Applies the ready changes to the loaded DVKs, leaving them queued if the DVKs are currently in use.
+	 */
+	private void applyChanges()
+	{
+		HashMap<File, DVK> dvks;
+		ArrayList<File> deleted;
+		ArrayList<File> rescanned;
+		synchronized(this)
+		{
+			applyQueued = false;
+			if(!watching || !watchMethods.canUpdateDVKs())
+			{
+				return;
+				
+			}//IF
+			
+			dvks = readyDVKs;
+			deleted = readyDeleted;
+			rescanned = readyRescanned;
+			readyDVKs = new HashMap<>();
+			readyDeleted = new ArrayList<>();
+			readyRescanned = new ArrayList<>();
+			
+		}//SYNCHRONIZED
+		
+		if(dvks.size() > 0 || deleted.size() > 0 || rescanned.size() > 0)
+		{
+			dvkHandler.updateDVKs(dvks, deleted, rescanned);
+			watchMethods.dvksUpdated();
+			
+		}//IF
+		
+	}//METHOD
+	
+	@Override
+	public void run(String id)
+	{
+		if(id.equals(APPLY_CHANGES))
+		{
+			applyChanges();
+			
+		}//IF
+		
+	}//METHOD
+	
+	@Override
+	public void done(String id){}
+	
+}//CLASS
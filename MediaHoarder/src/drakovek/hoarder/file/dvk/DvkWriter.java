@@ -0,0 +1,423 @@
+package drakovek.hoarder.file.dvk;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Contains methods for writing DVK files safely.<br/>
+ * DVKs are serialized straight to JSON bytes, written to a temporary file in the same directory, then moved over the DVK file in a single atomic move, so an interrupted write never leaves a partial DVK file.<br/>
+ * A DvkWriter object represents a batch of writes, where each directory written to is only synced once when the batch is finished. Batches may be shared between threads.
+ * 
+ * @author Drakovek
+ * @version 2.0
+ */
+public class DvkWriter
+{
+	/**
+	 * Extension added to the name of a DVK file to get the name of its temporary file
+	 */
+	private static final String TEMP_EXTENSION = ".tmp"; //$NON-NLS-1$
+	
+	/**
+	 * Characters used when writing hexadecimal escape sequences
+	 */
+	private static final char[] HEX_DIGITS = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'};
+	
+	/**
+	 * Directories written to in the current batch that have not yet been synced
+	 */
+	private Set<File> directories;
+	
+	/**
+	 * Initializes the DvkWriter class to start a new batch of writes.
+	 */
+	public DvkWriter()
+	{
+		directories = Collections.newSetFromMap(new ConcurrentHashMap<File, Boolean>());
+		
+	}//CONSTRUCTOR
+	
+	/**
+	 * Writes a DVK as part of the current batch. The DVK file's directory is synced when the batch is finished.
+	 * 
+	 * @param dvk DVK to write
+	 * @return Whether the DVK file was successfully written
+	 */
+	public boolean write(final DVK dvk)
+	{
+		if(writeFile(dvk.getDvkFile(), serialize(dvk)))
+		{
+			directories.add(dvk.getDvkFile().getAbsoluteFile().getParentFile());
+			return true;
+			
+		}//IF
+		
+		return false;
+		
+	}//METHOD
+	
+	/**
+	 * Finishes the current batch, syncing every directory written to since the batch started or was last finished.
+	 */
+	public void finish()
+	{
+		ArrayList<File> synced = new ArrayList<>(directories);
+		directories.removeAll(synced);
+		for(File directory: synced)
+		{
+			syncDirectory(directory);
+			
+		}//FOR
+		
+	}//METHOD
+	
+	/**
+	 * Writes a single DVK on its own, syncing the DVK file's directory immediately.
+	 * 
+	 * @param dvk DVK to write
+	 * @return Whether the DVK file was successfully written
+	 */
+	public static boolean writeDVK(final DVK dvk)
+	{
+		if(writeFile(dvk.getDvkFile(), serialize(dvk)))
+		{
+			syncDirectory(dvk.getDvkFile().getAbsoluteFile().getParentFile());
+			return true;
+			
+		}//IF
+		
+		return false;
+		
+	}//METHOD
+	
+	/**
+	 * Serializes a DVK to the bytes of a DVK file.
+	 * 
+	 * @param dvk DVK to serialize
+	 * @return UTF-8 encoded DVK file contents
+	 */
+	public static byte[] serialize(final DVK dvk)
+	{
+		StringBuilder builder = new StringBuilder(512);
+		builder.append('{');
+		appendName(builder, "file_type"); //$NON-NLS-1$
+		appendString(builder, "dvk"); //$NON-NLS-1$
+		builder.append(',');
+		appendName(builder, "id"); //$NON-NLS-1$
+		appendString(builder, dvk.getID());
+		
+		//INFO
+		builder.append(',');
+		appendName(builder, "info"); //$NON-NLS-1$
+		builder.append('{');
+		appendName(builder, "title"); //$NON-NLS-1$
+		if(dvk.getTitle() != null)
+		{
+			appendString(builder, dvk.getTitle());
+			
+		}//IF
+		else
+		{
+			appendString(builder, new String());
+			
+		}//ELSE
+		
+		if(dvk.getArtists() != null && dvk.getArtists().length > 0)
+		{
+			builder.append(',');
+			appendName(builder, "artists"); //$NON-NLS-1$
+			appendArray(builder, dvk.getArtists());
+			
+		}//IF
+		
+		if(dvk.getTime() != 0L)
+		{
+			builder.append(',');
+			appendName(builder, "time"); //$NON-NLS-1$
+			appendString(builder, dvk.getTimeString());
+			
+		}//IF
+		
+		if(dvk.getWebTags() != null && dvk.getWebTags().length > 0)
+		{
+			builder.append(',');
+			appendName(builder, "web_tags"); //$NON-NLS-1$
+			appendArray(builder, dvk.getWebTags());
+			
+		}//IF
+		
+		appendField(builder, "description", dvk.getDescription()); //$NON-NLS-1$
+		builder.append('}');
+		
+		//WEB
+		builder.append(',');
+		appendName(builder, "web"); //$NON-NLS-1$
+		builder.append('{');
+		int start = builder.length();
+		appendField(builder, "page_url", dvk.getPageURL()); //$NON-NLS-1$
+		appendField(builder, "direct_url", dvk.getDirectURL()); //$NON-NLS-1$
+		appendField(builder, "secondary_url", dvk.getSecondaryURL()); //$NON-NLS-1$
+		if(builder.length() > start)
+		{
+			builder.deleteCharAt(start);
+			
+		}//IF
+		
+		builder.append('}');
+		
+		//FILE
+		builder.append(',');
+		appendName(builder, "file"); //$NON-NLS-1$
+		builder.append('{');
+		appendName(builder, "media_file"); //$NON-NLS-1$
+		appendString(builder, dvk.getMediaFile().getName());
+		if(dvk.getSecondaryFile() != null)
+		{
+			builder.append(',');
+			appendName(builder, "secondary_file"); //$NON-NLS-1$
+			appendString(builder, dvk.getSecondaryFile().getName());
+			
+		}//IF
+		
+		builder.append('}');
+		builder.append('}');
+		return builder.toString().getBytes(StandardCharsets.UTF_8);
+		
+	}//METHOD
+	
+	/**
+	 * Appends a comma followed by a String field, if the value is not empty.
+	 * 
+	 * @param builder StringBuilder to append to
+	 * @param name Field Name
+	 * @param value Field Value
+	 */
+	private static void appendField(StringBuilder builder, final String name, final String value)
+	{
+		if(value != null && value.length() > 0)
+		{
+			builder.append(',');
+			appendName(builder, name);
+			appendString(builder, value);
+			
+		}//IF
+		
+	}//METHOD
+	
+	/**
+	 * Appends a field name followed by a colon.
+	 * 
+	 * @param builder StringBuilder to append to
+	 * @param name Field Name
+	 */
+	private static void appendName(StringBuilder builder, final String name)
+	{
+		appendString(builder, name);
+		builder.append(':');
+		
+	}//METHOD
+	
+	/**
+	 * Appends a JSON array of Strings.
+	 * 
+	 * @param builder StringBuilder to append to
+	 * @param values Array Values
+	 */
+	private static void appendArray(StringBuilder builder, final String[] values)
+	{
+		builder.append('[');
+		for(int i = 0; i < values.length; i++)
+		{
+			if(i > 0)
+			{
+				builder.append(',');
+				
+			}//IF
+			
+			appendString(builder, values[i]);
+			
+		}//FOR
+		
+		builder.append(']');
+		
+	}//METHOD
+	
+	/**
+	 * Appends a quoted JSON String, escaping characters the same way as org.json.
+	 * 
+	 * @param builder StringBuilder to append to
+	 * @param value String to append, written as null if null
+	 */
+	private static void appendString(StringBuilder builder, final String value)
+	{
+		if(value == null)
+		{
+			builder.append("null"); //$NON-NLS-1$
+			return;
+			
+		}//IF
+		
+		builder.append('"');
+		char previous = 0;
+		for(int i = 0; i < value.length(); i++)
+		{
+			char current = value.charAt(i);
+			switch(current)
+			{
+				case '\\':
+				case '"':
+					builder.append('\\');
+					builder.append(current);
+					break;
+				case '/':
+					if(previous == '<')
+					{
+						builder.append('\\');
+						
+					}//IF
+					
+					builder.append(current);
+					break;
+				case '\b':
+					builder.append("\\b"); //$NON-NLS-1$
+					break;
+				case '\t':
+					builder.append("\\t"); //$NON-NLS-1$
+					break;
+				case '\n':
+					builder.append("\\n"); //$NON-NLS-1$
+					break;
+				case '\f':
+					builder.append("\\f"); //$NON-NLS-1$
+					break;
+				case '\r':
+					builder.append("\\r"); //$NON-NLS-1$
+					break;
+				default:
+					if(current < ' ' || (current >= '\u0080' && current < '\u00a0') || (current >= '\u2000' && current < '\u2100'))
+					{
+						builder.append("\\u"); //$NON-NLS-1$
+						builder.append(HEX_DIGITS[(current >> 12) & 0xF]);
+						builder.append(HEX_DIGITS[(current >> 8) & 0xF]);
+						builder.append(HEX_DIGITS[(current >> 4) & 0xF]);
+						builder.append(HEX_DIGITS[current & 0xF]);
+						
+					}//IF
+					else
+					{
+						builder.append(current);
+						
+					}//ELSE
+					
+					break;
+					
+			}//SWITCH
+			
+			previous = current;
+			
+		}//FOR
+		
+		builder.append('"');
+		
+	}//METHOD
+	
+	/**
+	 * Writes bytes to a temporary file, forces them to disk, then atomically moves the temporary file over the given file.
+	 * 
+	 * @param file File to write
+	 * @param contents Bytes to write
+	 * @return Whether the file was successfully written
+	 */
+	private static boolean writeFile(final File file, final byte[] contents)
+	{
+		File tempFile = new File(file.getAbsoluteFile().getParentFile(), file.getName() + TEMP_EXTENSION);
+		FileOutputStream outputStream = null;
+		
+		try
+		{
+			outputStream = new FileOutputStream(tempFile);
+			FileChannel channel = outputStream.getChannel();
+			ByteBuffer buffer = ByteBuffer.wrap(contents);
+			while(buffer.hasRemaining())
+			{
+				channel.write(buffer);
+				
+			}//WHILE
+			
+			channel.force(false);
+			outputStream.close();
+			outputStream = null;
+			
+			try
+			{
+				Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+				
+			}//TRY
+			catch(AtomicMoveNotSupportedException e)
+			{
+				Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+				
+			}//CATCH
+			
+			return true;
+			
+		}//TRY
+		catch(IOException e)
+		{
+			System.out.println("Failed to write " + file.getAbsolutePath() + " - DvkWriter.writeFile"); //$NON-NLS-1$ //$NON-NLS-2$
+			tempFile.delete();
+			return false;
+			
+		}//CATCH
+		finally
+		{
+			try
+			{
+				if(outputStream != null)
+				{
+					outputStream.close();
+					
+				}//IF
+				
+			}//TRY
+			catch(IOException e){}
+			
+		}//FINALLY
+		
+	}//METHOD
+	
+	/**
+	 * Syncs a directory to disk so moves into it are durable. Does nothing on platforms where directories can't be opened.
+	 * 
+	 * @param directory Directory to sync
+	 */
+	private static void syncDirectory(final File directory)
+	{
+		if(directory == null)
+		{
+			return;
+			
+		}//IF
+		
+		try(FileChannel channel = FileChannel.open(directory.toPath(), StandardOpenOption.READ))
+		{
+			channel.force(true);
+			
+		}//TRY
+		catch(IOException e){}
+		
+	}//METHOD
+	
+}//CLASS
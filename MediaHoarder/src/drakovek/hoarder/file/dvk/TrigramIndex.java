@@ -0,0 +1,638 @@
+package drakovek.hoarder.file.dvk;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import drakovek.hoarder.processing.RowBitmap;
+
+/**
+ * Trigram index of DVK titles and descriptions, used to find the rows that may contain a substring without searching every row.<br/>
+ * Every three character sequence of a text is hashed to a bucket after each character is lower cased, and each bucket holds the ascending rows containing any of its sequences, delta encoded as variable length integers.
+ * Rows found for a substring are only candidates, which must still be checked against the text itself, as sequences share buckets and the index doesn't record where in a text each sequence appears.<br/>
+ * The index may be saved next to the DVK catalog, as the catalog is the only index with rows matching the database. A saved index is only used with the catalog file it was saved with.
+ * 
+ * @author Drakovek
+ * @version 2.0
+ */
+public class TrigramIndex
+{
+	/**
+	 * Name of the trigram index file, kept in the same folder as the catalog file
+	 */
+	private static final String INDEX_FILE = "catalog.dvkt"; //$NON-NLS-1$
+	
+	/**
+	 * Identifying number written at the start of the index file
+	 */
+	private static final int MAGIC = 0x44564B54;
+	
+	/**
+	 * Version of the index file format
+	 */
+	private static final int FORMAT_VERSION = 1;
+	
+	/**
+	 * Number of bits in a bucket number
+	 */
+	private static final int BUCKET_BITS = 20;
+	
+	/**
+	 * Number of buckets trigrams are hashed to
+	 */
+	private static final int BUCKET_COUNT = 1 << BUCKET_BITS;
+	
+	/**
+	 * Number of rows covered by the index. Rows added to the database after the index was built are always candidates
+	 */
+	private int size;
+	
+	/**
+	 * Start of each bucket's rows in the title postings, with an extra value for the end of the last bucket
+	 */
+	private int[] titleOffsets;
+	
+	/**
+	 * Delta encoded rows of every title bucket
+	 */
+	private byte[] titlePostings;
+	
+	/**
+	 * Start of each bucket's rows in the description postings, null if descriptions aren't indexed
+	 */
+	private int[] descriptionOffsets;
+	
+	/**
+	 * Delta encoded rows of every description bucket, null if descriptions aren't indexed
+	 */
+	private byte[] descriptionPostings;
+	
+	/**
+	 * Initializes the TrigramIndex class.
+	 * 
+	 * @param size Number of rows covered by the index
+	 * @param titleOffsets Start of each bucket's rows in the title postings
+	 * @param titlePostings Delta encoded rows of every title bucket
+	 * @param descriptionOffsets Start of each bucket's rows in the description postings, null if descriptions aren't indexed
+	 * @param descriptionPostings Delta encoded rows of every description bucket, null if descriptions aren't indexed
+	 */
+	private TrigramIndex(final int size, final int[] titleOffsets, final byte[] titlePostings, final int[] descriptionOffsets, final byte[] descriptionPostings)
+	{
+		this.size = size;
+		this.titleOffsets = titleOffsets;
+		this.titlePostings = titlePostings;
+		this.descriptionOffsets = descriptionOffsets;
+		this.descriptionPostings = descriptionPostings;
+		
+	}//CONSTRUCTOR
+	
+	/**
+	 * Builds a trigram index of the DVKs in a given database.
+	 * 
+	 * @param database DvkDatabase to index
+	 * @param indexDescriptions Whether to index descriptions as well as titles. Should be false if descriptions would have to be read from DVK files
+	 * @return TrigramIndex, null if the index would be too large to hold
+	 */
+	public static TrigramIndex build(final DvkDatabase database, final boolean indexDescriptions)
+	{
+		int size = database.getSize();
+		int[] titleOffsets = new int[BUCKET_COUNT + 1];
+		byte[] titlePostings = buildPostings(database, false, titleOffsets);
+		if(titlePostings == null)
+		{
+			return null;
+			
+		}//IF
+		
+		int[] descriptionOffsets = null;
+		byte[] descriptionPostings = null;
+		if(indexDescriptions)
+		{
+			descriptionOffsets = new int[BUCKET_COUNT + 1];
+			descriptionPostings = buildPostings(database, true, descriptionOffsets);
+			if(descriptionPostings == null)
+			{
+				descriptionOffsets = null;
+				
+			}//IF
+			
+		}//IF
+		
+		return new TrigramIndex(size, titleOffsets, titlePostings, descriptionOffsets, descriptionPostings);
+		
+	}//METHOD
+	
+	/**
+	 * Builds the postings of the title or description column in two passes: the first finds the encoded length of each bucket, the second writes the rows.
+	 * 
+	 * @param database DvkDatabase to index
+	 * @param descriptions Whether to index descriptions rather than titles
+	 * @param offsets Array to fill with the start of each bucket's rows
+	 * @return Delta encoded rows of every bucket, null if they would be too large to hold
+	 */
+	private static byte[] buildPostings(final DvkDatabase database, final boolean descriptions, int[] offsets)
+	{
+		int size = database.getSize();
+		int[] lastRows = new int[BUCKET_COUNT];
+		Arrays.fill(lastRows, -1);
+		
+		//FIND LENGTH OF EACH BUCKET
+		long[] lengths = new long[BUCKET_COUNT];
+		for(int row = 0; row < size; row++)
+		{
+			String text = getText(database, row, descriptions);
+			for(int i = 0; i + 2 < text.length(); i++)
+			{
+				int bucket = getBucket(text.charAt(i), text.charAt(i + 1), text.charAt(i + 2));
+				if(lastRows[bucket] != row)
+				{
+					lengths[bucket] += getEncodedLength(row - lastRows[bucket]);
+					lastRows[bucket] = row;
+					
+				}//IF
+				
+			}//FOR
+			
+		}//FOR
+		
+		long total = 0L;
+		for(int bucket = 0; bucket < BUCKET_COUNT; bucket++)
+		{
+			offsets[bucket] = (int)total;
+			total += lengths[bucket];
+			if(total > Integer.MAX_VALUE - 8)
+			{
+				return null;
+				
+			}//IF
+			
+		}//FOR
+		
+		offsets[BUCKET_COUNT] = (int)total;
+		
+		//WRITE ROWS
+		byte[] postings = new byte[(int)total];
+		int[] positions = Arrays.copyOf(offsets, BUCKET_COUNT);
+		Arrays.fill(lastRows, -1);
+		for(int row = 0; row < size; row++)
+		{
+			String text = getText(database, row, descriptions);
+			for(int i = 0; i + 2 < text.length(); i++)
+			{
+				int bucket = getBucket(text.charAt(i), text.charAt(i + 1), text.charAt(i + 2));
+				if(lastRows[bucket] != row)
+				{
+					positions[bucket] = encode(postings, positions[bucket], row - lastRows[bucket]);
+					lastRows[bucket] = row;
+					
+				}//IF
+				
+			}//FOR
+			
+		}//FOR
+		
+		return postings;
+		
+	}//METHOD
+	
+	/**
+	 * Returns the title or description of a row in the database.
+	 * 
+	 * @param database DvkDatabase
+	 * @param row Row
+	 * @param description Whether to return the description rather than the title
+	 * @return Text, empty if none
+	 */
+	private static String getText(final DvkDatabase database, final int row, final boolean description)
+	{
+		String text;
+		if(description)
+		{
+			text = database.getDescription(row);
+			
+		}//IF
+		else
+		{
+			text = database.getTitle(row);
+			
+		}//ELSE
+		
+		if(text == null)
+		{
+			return new String();
+			
+		}//IF
+		
+		return text;
+		
+	}//METHOD
+	
+	/**
+	 * Returns the bucket of a trigram, lower casing each character so case sensitive and insensitive searches can share the index.
+	 * 
+	 * @param first First Character
+	 * @param second Second Character
+	 * @param third Third Character
+	 * @return Bucket Number
+	 */
+	private static int getBucket(final char first, final char second, final char third)
+	{
+		int hash = (Character.toLowerCase(first) << 16) ^ (Character.toLowerCase(second) << 8) ^ Character.toLowerCase(third);
+		return (hash * 0x9E3779B1) >>> (32 - BUCKET_BITS);
+		
+	}//METHOD
+	
+	/**
+	 * Returns the number of bytes a value takes as a variable length integer.
+	 * 
+	 * @param value Positive Value
+	 * @return Encoded Length
+	 */
+	private static int getEncodedLength(final int value)
+	{
+		int length = 1;
+		int remaining = value >>> 7;
+		while(remaining != 0)
+		{
+			length++;
+			remaining >>>= 7;
+			
+		}//WHILE
+		
+		return length;
+		
+	}//METHOD
+	
+	/**
+	 * Writes a value as a variable length integer, seven bits per byte with the high bit set on every byte but the last.
+	 * 
+	 * @param bytes Array to write to
+	 * @param position Position to write at
+	 * @param value Positive Value
+	 * @return Position after the written value
+	 */
+	private static int encode(byte[] bytes, final int position, final int value)
+	{
+		int current = position;
+		int remaining = value;
+		while((remaining & ~0x7F) != 0)
+		{
+			bytes[current] = (byte)((remaining & 0x7F) | 0x80);
+			current++;
+			remaining >>>= 7;
+			
+		}//WHILE
+		
+		bytes[current] = (byte)remaining;
+		return current + 1;
+		
+	}//METHOD
+	
+	/**
+	 * Returns the number of rows covered by the index.
+	 * 
+	 * @return Number of rows
+	 */
+	public int getSize()
+	{
+		return size;
+		
+	}//METHOD
+	
+	/**
+	 * Returns whether descriptions are indexed.
+	 * 
+	 * @return Whether descriptions are indexed
+	 */
+	public boolean hasDescriptions()
+	{
+		return descriptionOffsets != null;
+		
+	}//METHOD
+	
+	/**
+	 * Returns the rows whose titles may contain a given substring.
+	 * 
+	 * @param term Substring
+	 * @param databaseSize Number of rows currently in the database
+	 * @return Candidate Rows, null if the index can't narrow down the rows for the substring
+	 */
+	public RowBitmap getTitleCandidates(final String term, final int databaseSize)
+	{
+		return getCandidates(titleOffsets, titlePostings, term, databaseSize);
+		
+	}//METHOD
+	
+	/**
+	 * Returns the rows whose descriptions may contain a given substring.
+	 * 
+	 * @param term Substring
+	 * @param databaseSize Number of rows currently in the database
+	 * @return Candidate Rows, null if the index can't narrow down the rows for the substring
+	 */
+	public RowBitmap getDescriptionCandidates(final String term, final int databaseSize)
+	{
+		if(descriptionOffsets == null)
+		{
+			return null;
+			
+		}//IF
+		
+		return getCandidates(descriptionOffsets, descriptionPostings, term, databaseSize);
+		
+	}//METHOD
+	
+	/**
+	 * Returns the rows that contain every trigram of a given substring.<br/>
+	 * Substrings shorter than three characters have no trigrams, and substrings with characters outside ASCII are left unindexed, as lower casing a whole String may not match lower casing each of its characters.
+	 * 
+	 * @param offsets Start of each bucket's rows
+	 * @param postings Delta encoded rows of every bucket
+	 * @param term Substring
+	 * @param databaseSize Number of rows currently in the database
+	 * @return Candidate Rows, null if the index can't narrow down the rows for the substring
+	 */
+	private RowBitmap getCandidates(final int[] offsets, final byte[] postings, final String term, final int databaseSize)
+	{
+		if(term == null || term.length() < 3)
+		{
+			return null;
+			
+		}//IF
+		
+		for(int i = 0; i < term.length(); i++)
+		{
+			if(term.charAt(i) > 127)
+			{
+				return null;
+				
+			}//IF
+			
+		}//FOR
+		
+		int[] buckets = new int[term.length() - 2];
+		for(int i = 0; i < buckets.length; i++)
+		{
+			buckets[i] = getBucket(term.charAt(i), term.charAt(i + 1), term.charAt(i + 2));
+			
+		}//FOR
+		
+		//START WITH THE SMALLEST BUCKET
+		Arrays.sort(buckets);
+		int smallest = 0;
+		for(int i = 1; i < buckets.length; i++)
+		{
+			if(offsets[buckets[i] + 1] - offsets[buckets[i]] < offsets[buckets[smallest] + 1] - offsets[buckets[smallest]])
+			{
+				smallest = i;
+				
+			}//IF
+			
+		}//FOR
+		
+		RowBitmap candidates = decode(offsets, postings, buckets[smallest], databaseSize);
+		for(int i = 0; i < buckets.length; i++)
+		{
+			if(i != smallest && (i == 0 || buckets[i] != buckets[i - 1]))
+			{
+				candidates.and(decode(offsets, postings, buckets[i], databaseSize));
+				
+			}//IF
+			
+		}//FOR
+		
+		//ROWS ADDED AFTER THE INDEX WAS BUILT
+		for(int row = size; row < databaseSize; row++)
+		{
+			candidates.set(row);
+			
+		}//FOR
+		
+		return candidates;
+		
+	}//METHOD
+	
+	/**
+	 * Decodes the rows of a bucket.
+	 * 
+	 * @param offsets Start of each bucket's rows
+	 * @param postings Delta encoded rows of every bucket
+	 * @param bucket Bucket Number
+	 * @param databaseSize Number of rows currently in the database
+	 * @return Rows of the bucket
+	 */
+	private RowBitmap decode(final int[] offsets, final byte[] postings, final int bucket, final int databaseSize)
+	{
+		RowBitmap rows = new RowBitmap(Math.max(size, databaseSize));
+		int row = -1;
+		int position = offsets[bucket];
+		int end = offsets[bucket + 1];
+		while(position < end)
+		{
+			int delta = 0;
+			int shift = 0;
+			while((postings[position] & 0x80) != 0)
+			{
+				delta |= (postings[position] & 0x7F) << shift;
+				shift += 7;
+				position++;
+				
+			}//WHILE
+			
+			delta |= postings[position] << shift;
+			position++;
+			row += delta;
+			rows.set(row);
+			
+		}//WHILE
+		
+		return rows;
+		
+	}//METHOD
+	
+	/**
+	 * Returns the trigram index file, in the same folder as the catalog file.
+	 * 
+	 * @return Trigram Index File, null if there is no catalog folder
+	 */
+	private static File getIndexFile()
+	{
+		File catalogFile = DvkCatalog.getCatalogFile();
+		if(catalogFile == null)
+		{
+			return null;
+			
+		}//IF
+		
+		return new File(catalogFile.getParentFile(), INDEX_FILE);
+		
+	}//METHOD
+	
+	/**
+	 * Deletes the trigram index file.
+	 */
+	public static void deleteIndex()
+	{
+		File indexFile = getIndexFile();
+		if(indexFile != null && indexFile.exists())
+		{
+			indexFile.delete();
+			
+		}//IF
+		
+	}//METHOD
+	
+	/**
+	 * Writes the index to the trigram index file, recording the size and modification time of the current catalog file so the index is only read with that catalog.
+	 * 
+	 * @return Whether the index was written successfully
+	 */
+	public boolean write()
+	{
+		File catalogFile = DvkCatalog.getCatalogFile();
+		File indexFile = getIndexFile();
+		if(catalogFile == null || !catalogFile.isFile() || indexFile == null)
+		{
+			return false;
+			
+		}//IF
+		
+		File tempFile = new File(indexFile.getParentFile(), INDEX_FILE + ".tmp"); //$NON-NLS-1$
+		try(DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile))))
+		{
+			outputStream.writeInt(MAGIC);
+			outputStream.writeInt(FORMAT_VERSION);
+			outputStream.writeLong(catalogFile.length());
+			outputStream.writeLong(catalogFile.lastModified());
+			outputStream.writeInt(size);
+			outputStream.writeBoolean(hasDescriptions());
+			writePostings(outputStream, titleOffsets, titlePostings);
+			if(hasDescriptions())
+			{
+				writePostings(outputStream, descriptionOffsets, descriptionPostings);
+				
+			}//IF
+			
+		}//TRY
+		catch(IOException e)
+		{
+			System.out.println("Failed to write trigram index - TrigramIndex.write"); //$NON-NLS-1$
+			tempFile.delete();
+			return false;
+			
+		}//CATCH
+		
+		indexFile.delete();
+		return tempFile.renameTo(indexFile);
+		
+	}//METHOD
+	
+	/**
+	 * Writes bucket offsets and postings to a stream.
+	 * 
+	 * @param outputStream Stream to write to
+	 * @param offsets Start of each bucket's rows
+	 * @param postings Delta encoded rows of every bucket
+	 * @throws IOException Thrown if writing fails
+	 */
+	private static void writePostings(DataOutputStream outputStream, final int[] offsets, final byte[] postings) throws IOException
+	{
+		for(int i = 0; i < offsets.length; i++)
+		{
+			outputStream.writeInt(offsets[i]);
+			
+		}//FOR
+		
+		outputStream.write(postings);
+		
+	}//METHOD
+	
+	/**
+	 * Reads the trigram index file, if it was written for the current catalog file.
+	 * 
+	 * @param databaseSize Number of rows loaded from the catalog
+	 * @return TrigramIndex, null if there is no valid index for the catalog
+	 */
+	public static TrigramIndex read(final int databaseSize)
+	{
+		File catalogFile = DvkCatalog.getCatalogFile();
+		File indexFile = getIndexFile();
+		if(catalogFile == null || !catalogFile.isFile() || indexFile == null || !indexFile.isFile())
+		{
+			return null;
+			
+		}//IF
+		
+		try(DataInputStream inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile))))
+		{
+			if(inputStream.readInt() != MAGIC || inputStream.readInt() != FORMAT_VERSION || inputStream.readLong() != catalogFile.length() || inputStream.readLong() != catalogFile.lastModified())
+			{
+				return null;
+				
+			}//IF
+			
+			int size = inputStream.readInt();
+			if(size != databaseSize)
+			{
+				return null;
+				
+			}//IF
+			
+			boolean descriptions = inputStream.readBoolean();
+			int[] titleOffsets = new int[BUCKET_COUNT + 1];
+			byte[] titlePostings = readPostings(inputStream, titleOffsets);
+			int[] descriptionOffsets = null;
+			byte[] descriptionPostings = null;
+			if(descriptions)
+			{
+				descriptionOffsets = new int[BUCKET_COUNT + 1];
+				descriptionPostings = readPostings(inputStream, descriptionOffsets);
+				
+			}//IF
+			
+			return new TrigramIndex(size, titleOffsets, titlePostings, descriptionOffsets, descriptionPostings);
+			
+		}//TRY
+		catch(IOException | RuntimeException e)
+		{
+			System.out.println("Invalid trigram index - TrigramIndex.read"); //$NON-NLS-1$
+			return null;
+			
+		}//CATCH
+		
+	}//METHOD
+	
+	/**
+	 * Reads bucket offsets and postings from a stream.
+	 * 
+	 * @param inputStream Stream to read from
+	 * @param offsets Array to fill with the start of each bucket's rows
+	 * @return Delta encoded rows of every bucket
+	 * @throws IOException Thrown if reading fails or the offsets are invalid
+	 */
+	private static byte[] readPostings(DataInputStream inputStream, int[] offsets) throws IOException
+	{
+		for(int i = 0; i < offsets.length; i++)
+		{
+			offsets[i] = inputStream.readInt();
+			if(offsets[i] < 0 || (i > 0 && offsets[i] < offsets[i - 1]))
+			{
+				throw new IOException();
+				
+			}//IF
+			
+		}//FOR
+		
+		byte[] postings = new byte[offsets[offsets.length - 1]];
+		inputStream.readFully(postings);
+		return postings;
+		
+	}//METHOD
+	
+}//CLASS
@@ -3,6 +3,7 @@ package drakovek.hoarder.gui.artist;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 
 import org.json.JSONObject;
@@ -35,9 +36,9 @@ import drakovek.hoarder.web.Downloader;
 public class DeviantArtGUI extends ArtistHostingGUI
 {
 	/**
-	 * ArrayList of modified DeviantArt IDs to check if media has already been downloaded
+	 * Set of DeviantArt IDs without the ID prefix to check if media has already been downloaded
 	 */
-	private ArrayList<String> idStrings;
+	private HashSet<String> idStrings;
 	
 	/**
 	 * Prefix for a DVK ID that indicates that the DVK is sourced from FurAffinity.net
@@ -68,7 +69,7 @@ public class DeviantArtGUI extends ArtistHostingGUI
 	public DeviantArtGUI(DSettings settings, DvkHandler dvkHandler)
 	{
 		super(settings, dvkHandler, new LoginGUI(settings, ArtistValues.DEVIANTART_LOGIN, false), ModeValues.DEVIANTART_MODE, ArtistValues.CHOOSE_DEVIANTART_FOLDER);
-		idStrings = new ArrayList<>();
+		idStrings = new HashSet<>();
 		getDownloader().setTimeout(1000);
 		
 	}//CONSTRUCTOR
@@ -395,19 +396,7 @@ public class DeviantArtGUI extends ArtistHostingGUI
 	@Override
 	protected void getIdStrings()
 	{
-		idStrings = new ArrayList<>();
-		int size = getDvkHandler().getDirectSize();
-		int prefixLength = ID_PREFIX.length();
-		for(int i = 0; i < size; i ++)
-		{
-			String id = getDvkHandler().getIdDirect(i);
-			if(id.length() > prefixLength && id.toUpperCase().startsWith(ID_PREFIX))
-			{
-				idStrings.add(id.substring(prefixLength));
-				
-			}//IF
-			
-		}//FOR
+		idStrings = getDvkHandler().getDatabase().getIDsWithPrefix(ID_PREFIX, false);
 		
 	}//METHOD
 
@@ -3,6 +3,7 @@ package drakovek.hoarder.gui.artist;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 
 import com.gargoylesoftware.htmlunit.NicelyResynchronizingAjaxController;
@@ -52,9 +53,9 @@ public class FurAffinityGUI extends ArtistHostingGUI
 	private static final String ID_PREFIX = "FAF"; //$NON-NLS-1$
 	
 	/**
-	 * ArrayList of modified Fur Affinity IDs to check if media has already been downloaded
+	 * Set of Fur Affinity IDs without the ID prefix to check if media has already been downloaded
 	 */
-	private ArrayList<String> idStrings;
+	private HashSet<String> idStrings;
 	
 	/**
 	 * Initializes FurAffinityGUI class.
@@ -65,7 +66,7 @@ public class FurAffinityGUI extends ArtistHostingGUI
 	public FurAffinityGUI(DSettings settings, DvkHandler dvkHandler)
 	{
 		super(settings, dvkHandler, new LoginGUI(settings, ArtistValues.FUR_AFFINITY_LOGIN, true), ModeValues.FUR_AFFINITY_MODE, ArtistValues.CHOOSE_FUR_AFFINITY_FOLDER);
-		idStrings = new ArrayList<>();
+		idStrings = new HashSet<>();
 		
 	}//CONSTRUCTOR
 
@@ -762,19 +763,7 @@ public class FurAffinityGUI extends ArtistHostingGUI
 	@Override
 	protected void getIdStrings()
 	{
-		idStrings = new ArrayList<>();
-		int size = getDvkHandler().getDirectSize();
-		int prefixLength = ID_PREFIX.length();
-		for(int i = 0; i < size; i ++)
-		{
-			String id = getDvkHandler().getIdDirect(i);
-			if(id.length() > prefixLength && id.toUpperCase().startsWith(ID_PREFIX))
-			{
-				idStrings.add(id.substring(prefixLength));
-				
-			}//IF
-			
-		}//FOR
+		idStrings = getDvkHandler().getDatabase().getIDsWithPrefix(ID_PREFIX, false);
 		
 	}//METHOD
 
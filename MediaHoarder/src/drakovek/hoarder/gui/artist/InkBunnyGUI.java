@@ -3,6 +3,7 @@ package drakovek.hoarder.gui.artist;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 
 import com.gargoylesoftware.htmlunit.NicelyResynchronizingAjaxController;
@@ -52,9 +53,9 @@ public class InkBunnyGUI extends ArtistHostingGUI
 	private static final String JOURNAL_URL = "/j/"; //$NON-NLS-1$
 	
 	/**
-	 * ArrayList of modified Inkbunny IDs to check if media has already been downloaded
+	 * Set of modified Inkbunny IDs to check if media has already been downloaded
 	 */
-	private ArrayList<String> idStrings;
+	private HashSet<String> idStrings;
 	
 	/**
 	 * Initializes InkBunnyGUI class.
@@ -65,7 +66,7 @@ public class InkBunnyGUI extends ArtistHostingGUI
 	public InkBunnyGUI(DSettings settings, DvkHandler dvkHandler)
 	{
 		super(settings, dvkHandler, new LoginGUI(settings, ArtistValues.INKBUNNY_LOGIN, false), ModeValues.INKBUNNY_MODE, ArtistValues.CHOOSE_INKBUNNY_FOLDER);
-		idStrings = new ArrayList<>();
+		idStrings = new HashSet<>();
 		getDownloader().setTimeout(1000);
 		
 	}//CONSTRUCTOR
@@ -121,15 +122,11 @@ public class InkBunnyGUI extends ArtistHostingGUI
 	@Override
 	protected void getIdStrings()
 	{
-		idStrings = new ArrayList<>();
-		int size = getDvkHandler().getDirectSize();
-		int prefixLength = ID_PREFIX.length();
-		for(int i = 0; i < size; i ++)
+		idStrings = new HashSet<>();
+		for(String id: getDvkHandler().getDatabase().getIDsWithPrefix(ID_PREFIX, true))
 		{
-			String id = getDvkHandler().getIdDirect(i);
-			if(id.length() > prefixLength && id.startsWith(ID_PREFIX))
+			if(id.length() > 0)
 			{
-				id = id.substring(prefixLength);
 				if(id.contains(Character.toString('-')) && !id.endsWith(JOURNAL_SUFFIX))
 				{
 					idStrings.add(id.substring(0, id.lastIndexOf('-')));
@@ -1,7 +1,12 @@
 package drakovek.hoarder.gui.modes;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashSet;
 
 import drakovek.hoarder.file.ExclusionFilter;
 import drakovek.hoarder.file.dvk.DVK;
@@ -139,16 +144,31 @@ public class ErrorFindingModeGUI extends ModeBaseGUI implements DWorker, DvkLoad
 		{
 			progressInfoDialog.setDetailLabel(dvkFolders.get(i).getName(), false);
 			progressInfoDialog.setProgressBar(false, true, dvkFolders.size(), i);
-			File[] files = dvkFolders.get(i).listFiles(filter);
-			for(int k = 0; k < files.length; k++)
+			HashSet<String> linked = getParentGUI().getDvkHandler().getDatabase().getLinkedFileNames(dvkFolders.get(i));
+			try(DirectoryStream<Path> stream = Files.newDirectoryStream(dvkFolders.get(i).toPath()))
 			{
-				if(!getParentGUI().getDvkHandler().getDatabase().containsMediaFile(files[k]) && !getParentGUI().getDvkHandler().getDatabase().containsSecondaryFile(files[k]))
+				for(Path path: stream)
 				{
-					progressInfoDialog.appendLog(files[k].getAbsolutePath(), false);
+					String name = path.getFileName().toString();
+					if(!linked.contains(name) && !name.toLowerCase().endsWith(DVK.DVK_EXTENSION))
+					{
+						File file = path.toFile();
+						if(filter.accept(file))
+						{
+							progressInfoDialog.appendLog(file.getAbsolutePath(), false);
+							
+						}//IF
+						
+					}//IF
 					
-				}//IF
+				}//FOR
+				
+			}//TRY
+			catch(IOException e)
+			{
+				System.out.println("Failed listing " + dvkFolders.get(i).getAbsolutePath() + " - ErrorFindingModeGUI.findUnlinkedFiles"); //$NON-NLS-1$ //$NON-NLS-2$
 				
-			}//FOR
+			}//CATCH
 			
 		}//FOR
 		
@@ -164,8 +184,10 @@ public class ErrorFindingModeGUI extends ModeBaseGUI implements DWorker, DvkLoad
 		progressInfoDialog.setProgressBar(false, true, size, 0);
 		progressInfoDialog.appendLog('[' + getSettings().getLanguageText(mode).toUpperCase() + ']', false);
 		String artist = new String();
-		ArrayList<Integer> identical = new ArrayList<>();
 		
+		//GROUPS ARE SORTED BY THEIR FIRST DIRECT INDEX, SO THEY ARE LOGGED IN ORDER AS THE DVKS ARE WALKED
+		ArrayList<int[]> identical = getParentGUI().getDvkHandler().getIdenticalIDs();
+		int groupIndex = 0;
 		for(int i = 0; !progressInfoDialog.isCancelled() && i < size; i++)
 		{
 			String artistCheck = getParentGUI().getDvkHandler().getArtistsDirect(i)[0];
@@ -177,23 +199,17 @@ public class ErrorFindingModeGUI extends ModeBaseGUI implements DWorker, DvkLoad
 				
 			}//IF
 			
-			String id = getParentGUI().getDvkHandler().getIdDirect(i);
-			boolean hasID = false;
-			for(int k = i + 1; k < size; k++)
+			if(groupIndex < identical.size() && identical.get(groupIndex)[0] == i)
 			{
-				if(!identical.contains(Integer.valueOf(k)) && getParentGUI().getDvkHandler().getIdDirect(k).equals(id))
+				int[] group = identical.get(groupIndex);
+				groupIndex++;
+				progressInfoDialog.appendLog(null, false);
+				progressInfoDialog.appendLog(getParentGUI().getDvkHandler().getDvkFileDirect(group[0]).getAbsolutePath(), false);
+				for(int k = 1; k < group.length; k++)
 				{
-					identical.add(Integer.valueOf(k));
-					if(!hasID)
-					{
-						progressInfoDialog.appendLog(null, false);
-						progressInfoDialog.appendLog(getParentGUI().getDvkHandler().getDvkFileDirect(i).getAbsolutePath(), false);
-					
-					}//IF
-					progressInfoDialog.appendLog(Character.toString('\t') + getParentGUI().getDvkHandler().getDvkFileDirect(k).getAbsolutePath(), false);
-					hasID = true;
+					progressInfoDialog.appendLog(Character.toString('\t') + getParentGUI().getDvkHandler().getDvkFileDirect(group[k]).getAbsolutePath(), false);
 					
-				}//IF
+				}//FOR
 				
 			}//IF
 			
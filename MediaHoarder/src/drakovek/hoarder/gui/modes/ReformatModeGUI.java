@@ -9,6 +9,7 @@ import drakovek.hoarder.file.dvk.DVK;
 import drakovek.hoarder.file.dvk.DvkHandler;
 import drakovek.hoarder.file.dvk.DvkLoader;
 import drakovek.hoarder.file.dvk.DvkLoadingMethods;
+import drakovek.hoarder.file.dvk.DvkWriter;
 import drakovek.hoarder.file.language.ArtistValues;
 import drakovek.hoarder.file.language.CommonValues;
 import drakovek.hoarder.file.language.ManagingValues;
@@ -125,6 +126,8 @@ public class ReformatModeGUI extends ModeBaseGUI implements DWorker, DvkLoadingM
 		progressInfoDialog.setProgressBar(false, true, size, 0);
 		progressInfoDialog.appendLog('[' + getSettings().getLanguageText(mode).toUpperCase() + ']', false);
 		String artist = new String();
+		DvkWriter writer = new DvkWriter();
+		DVK[] dvks = new DVK[size];
 		
 		for(int i = 0; !progressInfoDialog.isCancelled() && i < size; i++)
 		{
@@ -138,12 +141,14 @@ public class ReformatModeGUI extends ModeBaseGUI implements DWorker, DvkLoadingM
 				
 			}//IF
 			
-			DVK dvk = new DVK(getParentGUI().getDvkHandler().getDvkFileDirect(i));
-			dvk.writeDVK();
-			getParentGUI().getDvkHandler().setDvkDirect(dvk, i);
+			dvks[i] = new DVK(getParentGUI().getDvkHandler().getDvkFileDirect(i));
+			dvks[i].writeDVK(true, writer);
 			
 		}//FOR
 		
+		writer.finish();
+		getParentGUI().getDvkHandler().setDvksDirect(dvks);
+		
 	}//METHOD
 	
 	/**
@@ -156,6 +161,7 @@ public class ReformatModeGUI extends ModeBaseGUI implements DWorker, DvkLoadingM
 		progressInfoDialog.setProgressBar(false, true, size, 0);
 		progressInfoDialog.appendLog('[' + getSettings().getLanguageText(mode).toUpperCase() + ']', false);
 		String artist = new String();
+		DvkWriter writer = new DvkWriter();
 		
 		for(int i = 0; !progressInfoDialog.isCancelled() && i < size; i++)
 		{
@@ -184,10 +190,12 @@ public class ReformatModeGUI extends ModeBaseGUI implements DWorker, DvkLoadingM
 				
 			}//IF
 			DVK dvk = new DVK(getParentGUI().getDvkHandler().getDvkFileDirect(i));
-			dvk.writeDVK();
+			dvk.writeDVK(true, writer);
 			
 		}//FOR
 		
+		writer.finish();
+		
 	}//METHOD
 	
 	/**
@@ -200,6 +208,7 @@ public class ReformatModeGUI extends ModeBaseGUI implements DWorker, DvkLoadingM
 		progressInfoDialog.setProgressBar(false, true, size, 0);
 		progressInfoDialog.appendLog('[' + getSettings().getLanguageText(mode).toUpperCase() + ']', false);
 		String artist = new String();
+		DvkWriter writer = new DvkWriter();
 		
 		for(int i = 0; !progressInfoDialog.isCancelled() && i < size; i++)
 		{
@@ -214,10 +223,12 @@ public class ReformatModeGUI extends ModeBaseGUI implements DWorker, DvkLoadingM
 			}//IF
 			
 			DVK dvk = new DVK(getParentGUI().getDvkHandler().getDvkFileDirect(i));
-			dvk.writeDVK();
+			dvk.writeDVK(true, writer);
 			
 		}//FOR
 		
+		writer.finish();
+		
 	}//METHOD
 	
 	/**
@@ -230,6 +241,8 @@ public class ReformatModeGUI extends ModeBaseGUI implements DWorker, DvkLoadingM
 		progressInfoDialog.setProgressBar(false, true, size, 0);
 		progressInfoDialog.appendLog('[' + getSettings().getLanguageText(mode).toUpperCase() + ']', false);
 		String artist = new String();
+		DvkWriter writer = new DvkWriter();
+		DVK[] dvks = new DVK[size];
 		
 		for(int i = 0; !progressInfoDialog.isCancelled() && i < size; i++)
 		{
@@ -243,12 +256,14 @@ public class ReformatModeGUI extends ModeBaseGUI implements DWorker, DvkLoadingM
 				
 			}//IF
 			
-			DVK dvk = new DVK(getParentGUI().getDvkHandler().getDvkFileDirect(i));
-			dvk.rename(dvk.getDefaultFileName(), null, null);
-			getParentGUI().getDvkHandler().setDvkDirect(dvk, i);
+			dvks[i] = new DVK(getParentGUI().getDvkHandler().getDvkFileDirect(i));
+			dvks[i].rename(dvks[i].getDefaultFileName(), null, null, writer);
 			
 		}//FOR
 		
+		writer.finish();
+		getParentGUI().getDvkHandler().setDvksDirect(dvks);
+		
 	}//METHOD
 	
 	/**
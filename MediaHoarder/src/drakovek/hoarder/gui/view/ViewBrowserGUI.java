@@ -19,6 +19,8 @@ import drakovek.hoarder.file.Start;
 import drakovek.hoarder.file.dvk.DvkHandler;
 import drakovek.hoarder.file.dvk.DvkLoader;
 import drakovek.hoarder.file.dvk.DvkLoadingMethods;
+import drakovek.hoarder.file.dvk.DvkWatchMethods;
+import drakovek.hoarder.file.dvk.DvkWatcher;
 import drakovek.hoarder.file.language.CommonValues;
 import drakovek.hoarder.file.language.DvkLanguageValues;
 import drakovek.hoarder.file.language.ViewerValues;
@@ -46,7 +48,7 @@ import drakovek.hoarder.work.DWorker;
  * @author Drakovek
  * @version 2.0
  */
-public class ViewBrowserGUI extends FrameGUI implements DWorker, DvkLoadingMethods
+public class ViewBrowserGUI extends FrameGUI implements DWorker, DvkLoadingMethods, DvkWatchMethods
 {
 	/**
 	 * Action for when pageText event occurs.
@@ -58,6 +60,11 @@ public class ViewBrowserGUI extends FrameGUI implements DWorker, DvkLoadingMetho
 	 */
 	private DvkLoader loader;
 	
+	/**
+	 * Watcher for updating loaded DVKs when DVK directories change, null if not watching
+	 */
+	private DvkWatcher watcher;
+	
 	/**
 	 * Main settings bar for the class.
 	 */
@@ -168,6 +175,7 @@ public class ViewBrowserGUI extends FrameGUI implements DWorker, DvkLoadingMetho
 	{
 		super(settings, dvkHandler, ViewerValues.VIEWER_TITLE);
 		loader = new DvkLoader(this, this);
+		watcher = null;
 		filterGUI = new FilterGUI(this, loader);
 		progressDialog = new DProgressDialog(settings);
 		previewWidth = 0;
@@ -665,6 +673,7 @@ public class ViewBrowserGUI extends FrameGUI implements DWorker, DvkLoadingMetho
 	@Override
 	public void dispose()
 	{
+		stopWatcher();
 		filterGUI.dispose();
 		getFrame().dispose();
 		
@@ -853,9 +862,31 @@ public class ViewBrowserGUI extends FrameGUI implements DWorker, DvkLoadingMetho
 	public void loadingDVKsDone()
 	{
 		settingsBar.setLabelLoaded(getDvkHandler().isLoaded());
+		stopWatcher();
+		if(getSettings().getWatchDirectories() && getDvkHandler().isLoaded())
+		{
+			watcher = new DvkWatcher(this, getDvkHandler(), getSettings().getDvkDirectories(), getSettings().getUseIndexes());
+			watcher.startWatching();
+			
+		}//IF
+		
 		loader.sortDVKsDefault();
 		
 	}//METHOD
+	
+	/**
+	 * Stops watching DVK directories for changes, if currently watching.
+	 */
+	private void stopWatcher()
+	{
+		if(watcher != null)
+		{
+			watcher.stopWatching();
+			watcher = null;
+			
+		}//IF
+		
+	}//METHOD
 
 	@Override
 	public void sortingDVKsDone()
@@ -873,4 +904,25 @@ public class ViewBrowserGUI extends FrameGUI implements DWorker, DvkLoadingMetho
 		
 	}//METHOD
 	
+	@Override
+	public boolean canUpdateDVKs()
+	{
+		return !getFrame().isProcessRunning();
+		
+	}//METHOD
+
+	@Override
+	public void dvksUpdated()
+	{
+		if(offset >= getDvkHandler().getFilteredSize())
+		{
+			offset = 0;
+			
+		}//IF
+		
+		resetValues();
+		launchPreviewUpdate();
+		
+	}//METHOD
+	
 }//CLASS
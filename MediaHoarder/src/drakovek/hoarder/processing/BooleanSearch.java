@@ -1,6 +1,7 @@
 package drakovek.hoarder.processing;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 
 /**
  * Contains methods for conducting boolean searches on Strings.
@@ -76,17 +77,9 @@ public class BooleanSearch
 	private static final char[] RIGHT_BINDING_CHARS = {RIGHT_BINDER, ']'};
 	
 	/**
-	 * Object array for storing boolean search logic information for a search
-	 * 
-	 * [0] - boolean		- Arg1 Nested?
-	 * [1] - boolean		- Arg1 Inverted?
-	 * [2] - String/Object	- Arg1
-	 * [3] - boolean		- Arg2 Nested?
-	 * [4] - boolean		- Arg2 Inverted?
-	 * [5] - String/Object	- Arg2
-	 * [6] - Character		- Operator (NULL, &, |)
+	 * Compiled predicate tree of the current search logic
 	 */
-	private Object[] searchLogic;
+	private SearchNode searchTree;
 	
 	/**
 	 * Initializes BooleanSearch by creating a default logic array
@@ -98,25 +91,19 @@ public class BooleanSearch
 	}//CONSTRUCTOR
 	
 	/**
-	 * Resets the current search logic to be empty.
+	 * Resets the current search logic to be empty, matching everything.
 	 * 
 	 * @since 2.0
 	 */
 	public void resetSearchLogic()
 	{
-		searchLogic = new Object[7];
-		searchLogic[0] = Boolean.valueOf(false);
-		searchLogic[1] = Boolean.valueOf(false);
-		searchLogic[2] = null;
-		searchLogic[3] = Boolean.valueOf(false);
-		searchLogic[4] = Boolean.valueOf(false);
-		searchLogic[5] = null;
-		searchLogic[6] = null;
+		searchTree = new TermNode(null);
 		
 	}//METHOD
 	
 	/**
-	 * Sets the current search logic based off a given user argument.
+	 * Sets the current search logic based off a given user argument.<br/>
+	 * The argument is parsed into a logic array, then compiled into an immutable predicate tree with each search term lower cased once for case insensitive searches.
 	 * 
 	 * @param userArgument Given User Argument
 	 */
@@ -124,9 +111,78 @@ public class BooleanSearch
 	{
 		if(userArgument != null)
 		{
-			searchLogic = getSearchLogic(separateToChunks(convertToParsable(userArgument)));
+			searchTree = compile(getSearchLogic(separateToChunks(convertToParsable(userArgument))));
+			
+		}//IF
+		
+	}//METHOD
+	
+	/**
+	 * Compiles a logic array into a predicate tree.
+	 * 
+	 * Logic array format:
+	 * [0] - boolean		- Arg1 Nested?
+	 * [1] - boolean		- Arg1 Inverted?
+	 * [2] - String/Object	- Arg1
+	 * [3] - boolean		- Arg2 Nested?
+	 * [4] - boolean		- Arg2 Inverted?
+	 * [5] - String/Object	- Arg2
+	 * [6] - Character		- Operator (NULL, &, |)
+	 * 
+	 * @param logic Logic Array
+	 * @return Root of the predicate tree
+	 */
+	private static SearchNode compile(final Object[] logic)
+	{
+		SearchNode arg1 = compileArgument(logic, 0);
+		if(logic[6] != null)
+		{
+			if(((Character)logic[6]).charValue() == AND)
+			{
+				return new AndNode(arg1, compileArgument(logic, 3));
+				
+			}//IF
+			
+			if(((Character)logic[6]).charValue() == OR)
+			{
+				return new OrNode(arg1, compileArgument(logic, 3));
+				
+			}//IF
+			
+		}//IF
+		
+		return arg1;
+		
+	}//METHOD
+	
+	/**
+	 * Compiles one argument of a logic array into a predicate tree node.
+	 * 
+	 * @param logic Logic Array
+	 * @param start Index of the argument's nested flag in the logic array
+	 * @return Predicate tree node
+	 */
+	private static SearchNode compileArgument(final Object[] logic, final int start)
+	{
+		SearchNode node;
+		if(((Boolean)logic[start]).booleanValue())
+		{
+			node = compile((Object[])logic[start + 2]);
 			
 		}//IF
+		else
+		{
+			node = new TermNode((String)logic[start + 2]);
+			
+		}//ELSE
+		
+		if(((Boolean)logic[start + 1]).booleanValue())
+		{
+			return new NotNode(node);
+			
+		}//IF
+		
+		return node;
 		
 	}//METHOD
 	
@@ -140,8 +196,13 @@ public class BooleanSearch
 	 */
 	public boolean searchText(final String text, final boolean caseSensitive, final boolean exactMatch)
 	{
-		String[] textArray = {text};
-		return searchText(textArray, caseSensitive, exactMatch);
+		if(caseSensitive)
+		{
+			return searchTree.matchesText(text, false, exactMatch);
+			
+		}//IF
+		
+		return searchTree.matchesText(text.toLowerCase(), true, exactMatch);
 		
 	}//METHOD
 	
@@ -157,8 +218,8 @@ public class BooleanSearch
 	{
 		if(caseSensitive)
 		{
-			return searchText(searchLogic, text, caseSensitive, exactMatch);
-		
+			return searchTree.matchesText(text, false, exactMatch);
+			
 		}//IF
 		
 		String[] lowerText = new String[text.length];
@@ -168,133 +229,669 @@ public class BooleanSearch
 			
 		}//FOR
 		
-		return searchText(searchLogic, lowerText, caseSensitive, exactMatch);
+		return searchTree.matchesText(lowerText, true, exactMatch);
+		
+	}//METHOD
 	
+	/**
+	 * Conducts a case insensitive boolean search on text that is already lower case, without allocating any objects.
+	 * 
+	 * @param lowerText Lower case text to search
+	 * @param exactMatch Whether the text should be an exact match with search logic strings (If false, text only has to contain search strings)
+	 * @return Whether the given text matches the search logic
+	 */
+	public boolean searchLowerText(final String lowerText, final boolean exactMatch)
+	{
+		return searchTree.matchesText(lowerText, true, exactMatch);
+		
 	}//METHOD
 	
 	/**
-	 * Conducts a boolean search on given text with given search logic.
+	 * Conducts a case insensitive boolean search on text that is already lower case, without allocating any objects.
 	 * 
-	 * @param text Text to search
-	 * @param logic Given Search Logic
-	 * @param caseSensitive Whether the search should be case sensitive
+	 * @param lowerText Lower case text to search
 	 * @param exactMatch Whether the text should be an exact match with search logic strings (If false, text only has to contain search strings)
 	 * @return Whether the given text matches the search logic
 	 */
-	private boolean searchText(final Object[] logic, final String[] text, final boolean caseSensitive, final boolean exactMatch)
+	public boolean searchLowerText(final String[] lowerText, final boolean exactMatch)
+	{
+		return searchTree.matchesText(lowerText, true, exactMatch);
+		
+	}//METHOD
+	
+	/**
+	 * Returns all the search strings used in the current search logic.
+	 * 
+	 * @return Search Strings
+	 */
+	public ArrayList<String> getSearchTerms()
+	{
+		ArrayList<String> terms = new ArrayList<>();
+		searchTree.addSearchTerms(terms);
+		return terms;
+		
+	}//METHOD
+	
+	/**
+	 * Evaluates the current search logic over whole sets of rows at once, combining the rows matching each search term with bitmap AND, OR and NOT operations.
+	 * 
+	 * @param termRows Map of each search string to the rows that match it. Search strings not in the map match no rows
+	 * @param size Number of rows searched
+	 * @return Bitmap of rows matching the search logic
+	 */
+	public RowBitmap searchRows(final HashMap<String, RowBitmap> termRows, final int size)
+	{
+		return searchTree.matchesRows(termRows, size);
+		
+	}//METHOD
+	
+	/**
+	 * Returns the rows that may match the current search logic, given rows that may contain each search term.<br/>
+	 * Every row that matches is included, but rows that don't match may be included as well, so each candidate still has to be checked.
+	 * 
+	 * @param termCandidates Map of each search string to the rows that may contain it. Search strings not in the map may be contained in any row
+	 * @param size Number of rows searched
+	 * @return Bitmap of candidate rows
+	 */
+	public RowBitmap searchCandidates(final HashMap<String, RowBitmap> termCandidates, final int size)
+	{
+		return searchTree.candidateRows(termCandidates, size);
+		
+	}//METHOD
+	
+	/**
+	 * Returns the current search logic written in a single normalized form, so search strings differing only in spacing, brackets or which operator characters are used give the same String.
+	 * 
+	 * @param lowerCase Whether to write the lower case search terms, for case insensitive searches
+	 * @return Normalized Search Logic
+	 */
+	public String getNormalizedLogic(final boolean lowerCase)
+	{
+		StringBuilder builder = new StringBuilder();
+		searchTree.appendLogic(builder, lowerCase);
+		return builder.toString();
+		
+	}//METHOD
+	
+	/**
+	 * Returns whether the current search logic only matches text that other search logic also matches, such as when it adds an AND term to the other search logic or searches for a longer substring.<br/>
+	 * The check only compares the structure of both predicate trees, so it may return false for search logic that is narrower in ways that aren't recognized.
+	 * 
+	 * @param search Other search logic
+	 * @param lowerCase Whether text is compared against the lower case search terms
+	 * @param exactMatch Whether text should be an exact match with search terms (If false, text only has to contain search terms)
+	 * @return Whether the current search logic is at least as narrow as the other search logic
+	 */
+	public boolean isNarrowerThan(final BooleanSearch search, final boolean lowerCase, final boolean exactMatch)
 	{
-		boolean arg1;
-		boolean arg2;
+		return isNarrower(searchTree, search.searchTree, lowerCase, exactMatch);
 		
-		//GET ARGUMENT VALUES
-		if(((Boolean)logic[0]).booleanValue())
+	}//METHOD
+	
+	/**
+	 * Returns whether one predicate tree node only matches text that another node also matches.
+	 * 
+	 * @param node Node to check
+	 * @param other Node to check against
+	 * @param lowerCase Whether text is compared against the lower case search terms
+	 * @param exactMatch Whether text should be an exact match with search terms (If false, text only has to contain search terms)
+	 * @return Whether the node is at least as narrow as the other node
+	 */
+	private static boolean isNarrower(final SearchNode node, final SearchNode other, final boolean lowerCase, final boolean exactMatch)
+	{
+		if(other instanceof TermNode && ((TermNode)other).term == null)
 		{
-			arg1 = searchText((Object[])logic[2], text, caseSensitive, exactMatch);
+			return true;
 			
 		}//IF
-		else
-		{
-			arg1 = checkTextIncluded(text, (String)logic[2], caseSensitive, exactMatch);
-		
-		}//ELSE
 		
-		if(((Boolean)logic[3]).booleanValue())
+		//BOTH SIDES OF AN AND ON THE RIGHT OR AN OR ON THE LEFT MUST HOLD
+		if(other instanceof AndNode)
 		{
-			arg2 = searchText((Object[])logic[5], text, caseSensitive, exactMatch);
+			AndNode and = (AndNode)other;
+			return isNarrower(node, and.first, lowerCase, exactMatch) && isNarrower(node, and.second, lowerCase, exactMatch);
 			
 		}//IF
-		else
+		
+		if(node instanceof OrNode)
 		{
-			arg2 = checkTextIncluded(text, (String)logic[5], caseSensitive, exactMatch);
+			OrNode or = (OrNode)node;
+			return isNarrower(or.first, other, lowerCase, exactMatch) && isNarrower(or.second, other, lowerCase, exactMatch);
+			
+		}//IF
 		
-		}//ELSE
+		//EITHER SIDE OF AN AND ON THE LEFT OR AN OR ON THE RIGHT IS ENOUGH
+		if(node instanceof AndNode)
+		{
+			AndNode and = (AndNode)node;
+			if(isNarrower(and.first, other, lowerCase, exactMatch) || isNarrower(and.second, other, lowerCase, exactMatch))
+			{
+				return true;
+				
+			}//IF
+			
+		}//IF
 		
-		//INVERT IF NECESSARY
-		if(((Boolean)logic[1]).booleanValue())
+		if(other instanceof OrNode)
 		{
-			arg1 = !arg1;
+			OrNode or = (OrNode)other;
+			return isNarrower(node, or.first, lowerCase, exactMatch) || isNarrower(node, or.second, lowerCase, exactMatch);
 			
 		}//IF
 		
-		if(((Boolean)logic[4]).booleanValue())
+		if(node instanceof NotNode && other instanceof NotNode)
 		{
-			arg2 = !arg2;
+			return isNarrower(((NotNode)other).node, ((NotNode)node).node, lowerCase, exactMatch);
 			
 		}//IF
 		
-		//RETURN ARGUMENT EVALUATION
-		if(logic[6] != null)
+		if(node instanceof TermNode && other instanceof TermNode)
 		{
-			if(((Character)logic[6]).equals(Character.valueOf(AND)))
+			TermNode term = (TermNode)node;
+			TermNode otherTerm = (TermNode)other;
+			if(term.term == null)
 			{
-				return arg1 && arg2;
+				return false;
 				
 			}//IF
 			
-			if(((Character)logic[6]).equals(Character.valueOf(OR)))
+			String searchTerm = term.term;
+			String otherSearchTerm = otherTerm.term;
+			if(lowerCase)
 			{
-				return arg1 || arg2;
+				searchTerm = term.lowerTerm;
+				otherSearchTerm = otherTerm.lowerTerm;
 				
 			}//IF
 			
+			if(exactMatch)
+			{
+				return searchTerm.equals(otherSearchTerm);
+				
+			}//IF
+			
+			//TEXT CONTAINING A LONGER TERM ALSO CONTAINS THE SHORTER TERM
+			return searchTerm.contains(otherSearchTerm);
+			
 		}//IF
 		
-		return arg1;
+		return false;
 		
 	}//METHOD
 	
 	/**
-	 * Checks if given search text is equal to or within a given main text.
+	 * Node of a compiled predicate tree. Nodes are immutable, so a tree may be evaluated by multiple threads at once.
+	 * 
+	 * @author Drakovek
+	 * @version 2.0
+	 */
+	private static abstract class SearchNode
+	{
+		/**
+		 * Returns whether given text matches the predicate.
+		 * 
+		 * @param text Text to search, lower case if lowerCase is true
+		 * @param lowerCase Whether to compare against the lower case search terms
+		 * @param exactMatch Whether the text should be an exact match with search terms (If false, text only has to contain search terms)
+		 * @return Whether the text matches
+		 */
+		public abstract boolean matchesText(final String text, final boolean lowerCase, final boolean exactMatch);
+		
+		/**
+		 * Returns whether any of given texts matches each term of the predicate.
+		 * 
+		 * @param text Texts to search, lower case if lowerCase is true
+		 * @param lowerCase Whether to compare against the lower case search terms
+		 * @param exactMatch Whether the text should be an exact match with search terms (If false, text only has to contain search terms)
+		 * @return Whether the texts match
+		 */
+		public abstract boolean matchesText(final String[] text, final boolean lowerCase, final boolean exactMatch);
+		
+		/**
+		 * Returns the rows matching the predicate.
+		 * 
+		 * @param termRows Map of each search string to the rows that match it
+		 * @param size Number of rows searched
+		 * @return Bitmap of matching rows, owned by the caller
+		 */
+		public abstract RowBitmap matchesRows(final HashMap<String, RowBitmap> termRows, final int size);
+		
+		/**
+		 * Returns the rows that may match the predicate.
+		 * 
+		 * @param termCandidates Map of each search string to the rows that may contain it
+		 * @param size Number of rows searched
+		 * @return Bitmap of candidate rows, owned by the caller
+		 */
+		public abstract RowBitmap candidateRows(final HashMap<String, RowBitmap> termCandidates, final int size);
+		
+		/**
+		 * Adds all the search strings used in the predicate to a list, skipping those already listed.
+		 * 
+		 * @param terms List to add search strings to
+		 */
+		public abstract void addSearchTerms(ArrayList<String> terms);
+		
+		/**
+		 * Appends the predicate to a String in normalized form.
+		 * 
+		 * @param builder StringBuilder to append to
+		 * @param lowerCase Whether to append the lower case search terms
+		 */
+		public abstract void appendLogic(StringBuilder builder, final boolean lowerCase);
+		
+	}//CLASS
+	
+	/**
+	 * Predicate tree node for a single search term. A null term matches everything.
 	 * 
-	 * @param mainTextArray Main text to search within
-	 * @param searchText Text to search for
-	 * @param caseSensitive Whether search should be case sensitive
-	 * @param exactMatch Whether the search text should be an exact match with main text (If false, main text only has to contain search string)
-	 * @return Whether the search text is included in the main text
+	 * @author Drakovek
+	 * @version 2.0
 	 */
-	private static boolean checkTextIncluded(final String[] mainTextArray, final String searchText, final boolean caseSensitive, final boolean exactMatch)
-	{	
-		if(searchText == null)
+	private static class TermNode extends SearchNode
+	{
+		/**
+		 * Search term, null to match everything
+		 */
+		private final String term;
+		
+		/**
+		 * Lower case search term
+		 */
+		private final String lowerTerm;
+		
+		/**
+		 * Initializes the TermNode class.
+		 * 
+		 * @param term Search term, null to match everything
+		 */
+		public TermNode(final String term)
 		{
-			return true;
+			this.term = term;
+			if(term == null)
+			{
+				lowerTerm = null;
+				
+			}//IF
+			else
+			{
+				lowerTerm = term.toLowerCase();
+				
+			}//ELSE
 			
-		}//IF
+		}//CONSTRUCTOR
 		
-		String thisSearchText;
-		if(caseSensitive)
+		@Override
+		public boolean matchesText(final String text, final boolean lowerCase, final boolean exactMatch)
 		{
-			thisSearchText = searchText;
+			if(term == null)
+			{
+				return true;
+				
+			}//IF
 			
-		}//ELSE
-		else
-		{
-			thisSearchText = searchText.toLowerCase();
+			String searchTerm = term;
+			if(lowerCase)
+			{
+				searchTerm = lowerTerm;
+				
+			}//IF
 			
-		}//ELSE
+			if(exactMatch)
+			{
+				return text.equals(searchTerm);
+				
+			}//IF
+			
+			return text.contains(searchTerm);
+			
+		}//METHOD
 		
-		for(int i = 0; i < mainTextArray.length; i++)
+		@Override
+		public boolean matchesText(final String[] text, final boolean lowerCase, final boolean exactMatch)
 		{
-			if(exactMatch )
+			if(term == null)
+			{
+				return true;
+				
+			}//IF
+			
+			for(int i = 0; i < text.length; i++)
 			{
-				if(mainTextArray[i].equals(thisSearchText))
+				if(matchesText(text[i], lowerCase, exactMatch))
 				{
 					return true;
 					
 				}//IF
 				
+			}//FOR
+			
+			return false;
+			
+		}//METHOD
+		
+		@Override
+		public RowBitmap matchesRows(final HashMap<String, RowBitmap> termRows, final int size)
+		{
+			if(term == null)
+			{
+				RowBitmap rows = new RowBitmap(size);
+				rows.setAll();
+				return rows;
+				
 			}//IF
-			else if(mainTextArray[i].contains(thisSearchText))
+			
+			RowBitmap rows = termRows.get(term);
+			if(rows == null)
 			{
-				return true;
+				return new RowBitmap(size);
 				
 			}//IF
 			
+			return rows.copy();
 			
-		}//FOR
+		}//METHOD
 		
-		return false;
+		@Override
+		public RowBitmap candidateRows(final HashMap<String, RowBitmap> termCandidates, final int size)
+		{
+			RowBitmap rows = null;
+			if(term != null)
+			{
+				rows = termCandidates.get(term);
+				
+			}//IF
+			
+			if(rows == null)
+			{
+				rows = new RowBitmap(size);
+				rows.setAll();
+				return rows;
+				
+			}//IF
+			
+			return rows.copy();
+			
+		}//METHOD
+		
+		@Override
+		public void addSearchTerms(ArrayList<String> terms)
+		{
+			if(term != null && !terms.contains(term))
+			{
+				terms.add(term);
+				
+			}//IF
+			
+		}//METHOD
+		
+		@Override
+		public void appendLogic(StringBuilder builder, final boolean lowerCase)
+		{
+			if(term == null)
+			{
+				builder.append('*');
+				return;
+				
+			}//IF
+			
+			//PREFIX THE LENGTH SO TERMS CONTAINING OPERATORS CAN'T BE MISTAKEN FOR LOGIC
+			String searchTerm = term;
+			if(lowerCase)
+			{
+				searchTerm = lowerTerm;
+				
+			}//IF
+			
+			builder.append(searchTerm.length());
+			builder.append(QUOTE);
+			builder.append(searchTerm);
+			
+		}//METHOD
+		
+	}//CLASS
+	
+	/**
+	 * Predicate tree node inverting another node.
+	 * 
+	 * @author Drakovek
+	 * @version 2.0
+	 */
+	private static class NotNode extends SearchNode
+	{
+		/**
+		 * Node to invert
+		 */
+		private final SearchNode node;
+		
+		/**
+		 * Initializes the NotNode class.
+		 * 
+		 * @param node Node to invert
+		 */
+		public NotNode(final SearchNode node)
+		{
+			this.node = node;
+			
+		}//CONSTRUCTOR
+		
+		@Override
+		public boolean matchesText(final String text, final boolean lowerCase, final boolean exactMatch)
+		{
+			return !node.matchesText(text, lowerCase, exactMatch);
+			
+		}//METHOD
+		
+		@Override
+		public boolean matchesText(final String[] text, final boolean lowerCase, final boolean exactMatch)
+		{
+			return !node.matchesText(text, lowerCase, exactMatch);
+			
+		}//METHOD
+		
+		@Override
+		public RowBitmap matchesRows(final HashMap<String, RowBitmap> termRows, final int size)
+		{
+			RowBitmap rows = node.matchesRows(termRows, size);
+			rows.not();
+			return rows;
+			
+		}//METHOD
+		
+		@Override
+		public RowBitmap candidateRows(final HashMap<String, RowBitmap> termCandidates, final int size)
+		{
+			//ROWS THAT MAY CONTAIN A TERM MAY ALSO NOT CONTAIN IT
+			RowBitmap rows = new RowBitmap(size);
+			rows.setAll();
+			return rows;
+			
+		}//METHOD
+		
+		@Override
+		public void addSearchTerms(ArrayList<String> terms)
+		{
+			node.addSearchTerms(terms);
+			
+		}//METHOD
+		
+		@Override
+		public void appendLogic(StringBuilder builder, final boolean lowerCase)
+		{
+			builder.append(NOT);
+			node.appendLogic(builder, lowerCase);
+			
+		}//METHOD
+		
+	}//CLASS
+	
+	/**
+	 * Predicate tree node matching when both of its nodes match.
+	 * 
+	 * @author Drakovek
+	 * @version 2.0
+	 */
+	private static class AndNode extends SearchNode
+	{
+		/**
+		 * First node
+		 */
+		private final SearchNode first;
+		
+		/**
+		 * Second node, only evaluated if the first node matches
+		 */
+		private final SearchNode second;
+		
+		/**
+		 * Initializes the AndNode class.
+		 * 
+		 * @param first First node
+		 * @param second Second node
+		 */
+		public AndNode(final SearchNode first, final SearchNode second)
+		{
+			this.first = first;
+			this.second = second;
+			
+		}//CONSTRUCTOR
+		
+		@Override
+		public boolean matchesText(final String text, final boolean lowerCase, final boolean exactMatch)
+		{
+			return first.matchesText(text, lowerCase, exactMatch) && second.matchesText(text, lowerCase, exactMatch);
+			
+		}//METHOD
+		
+		@Override
+		public boolean matchesText(final String[] text, final boolean lowerCase, final boolean exactMatch)
+		{
+			return first.matchesText(text, lowerCase, exactMatch) && second.matchesText(text, lowerCase, exactMatch);
+			
+		}//METHOD
+		
+		@Override
+		public RowBitmap matchesRows(final HashMap<String, RowBitmap> termRows, final int size)
+		{
+			RowBitmap rows = first.matchesRows(termRows, size);
+			rows.and(second.matchesRows(termRows, size));
+			return rows;
+			
+		}//METHOD
+		
+		@Override
+		public RowBitmap candidateRows(final HashMap<String, RowBitmap> termCandidates, final int size)
+		{
+			RowBitmap rows = first.candidateRows(termCandidates, size);
+			rows.and(second.candidateRows(termCandidates, size));
+			return rows;
+			
+		}//METHOD
+		
+		@Override
+		public void addSearchTerms(ArrayList<String> terms)
+		{
+			first.addSearchTerms(terms);
+			second.addSearchTerms(terms);
+			
+		}//METHOD
+		
+		@Override
+		public void appendLogic(StringBuilder builder, final boolean lowerCase)
+		{
+			builder.append(LEFT_BINDER);
+			first.appendLogic(builder, lowerCase);
+			builder.append(AND);
+			second.appendLogic(builder, lowerCase);
+			builder.append(RIGHT_BINDER);
+			
+		}//METHOD
+		
+	}//CLASS
+	
+	/**
+	 * Predicate tree node matching when either of its nodes match.
+	 * 
+	 * @author Drakovek
+	 * @version 2.0
+	 */
+	private static class OrNode extends SearchNode
+	{
+		/**
+		 * First node
+		 */
+		private final SearchNode first;
+		
+		/**
+		 * Second node, only evaluated if the first node doesn't match
+		 */
+		private final SearchNode second;
+		
+		/**
+		 * Initializes the OrNode class.
+		 * 
+		 * @param first First node
+		 * @param second Second node
+		 */
+		public OrNode(final SearchNode first, final SearchNode second)
+		{
+			this.first = first;
+			this.second = second;
+			
+		}//CONSTRUCTOR
+		
+		@Override
+		public boolean matchesText(final String text, final boolean lowerCase, final boolean exactMatch)
+		{
+			return first.matchesText(text, lowerCase, exactMatch) || second.matchesText(text, lowerCase, exactMatch);
+			
+		}//METHOD
+		
+		@Override
+		public boolean matchesText(final String[] text, final boolean lowerCase, final boolean exactMatch)
+		{
+			return first.matchesText(text, lowerCase, exactMatch) || second.matchesText(text, lowerCase, exactMatch);
+			
+		}//METHOD
+		
+		@Override
+		public RowBitmap matchesRows(final HashMap<String, RowBitmap> termRows, final int size)
+		{
+			RowBitmap rows = first.matchesRows(termRows, size);
+			rows.or(second.matchesRows(termRows, size));
+			return rows;
+			
+		}//METHOD
 		
-	}//IF
+		@Override
+		public RowBitmap candidateRows(final HashMap<String, RowBitmap> termCandidates, final int size)
+		{
+			RowBitmap rows = first.candidateRows(termCandidates, size);
+			rows.or(second.candidateRows(termCandidates, size));
+			return rows;
+			
+		}//METHOD
+		
+		@Override
+		public void addSearchTerms(ArrayList<String> terms)
+		{
+			first.addSearchTerms(terms);
+			second.addSearchTerms(terms);
+			
+		}//METHOD
+		
+		@Override
+		public void appendLogic(StringBuilder builder, final boolean lowerCase)
+		{
+			builder.append(LEFT_BINDER);
+			first.appendLogic(builder, lowerCase);
+			builder.append(OR);
+			second.appendLogic(builder, lowerCase);
+			builder.append(RIGHT_BINDER);
+			
+		}//METHOD
+		
+	}//CLASS
 	
 	/**
 	 * Returns an Object array of search logic from a separated argument String.
@@ -458,7 +1055,7 @@ public class BooleanSearch
 	
 	/**
 	 * Separates an argument string into chunks of search strings and operators, then returns them as an ArrayList<String> 
-	 *
+	 * 
 	 * @param argument Given argument strings
 	 * @return ArrayList<String> of string and operator chunks
 	 */
@@ -680,7 +1277,7 @@ public class BooleanSearch
 			if((chunks.get(i).charAt(0) == LEFT_BINDER && (chunks.get(i - 1).charAt(0) == RIGHT_BINDER || chunks.get(i - 1).charAt(0) == QUOTE)) ||
 			   (chunks.get(i).charAt(0) == QUOTE && (chunks.get(i - 1).charAt(0) == RIGHT_BINDER || chunks.get(i - 1).charAt(0) == QUOTE)) ||
 			   (chunks.get(i).charAt(0) == NOT && chunks.get(i - 1).charAt(0) != AND && chunks.get(i - 1).charAt(0) != OR))
-					
+			
 			{
 				chunks.add(i, Character.toString(AND));
 				
@@ -0,0 +1,892 @@
+package drakovek.hoarder.processing;
+
+import java.util.Arrays;
+
+/**
+ * Set of row indexes from 0 up to a fixed size, compressed in chunks of 65536 rows.<br/>
+ * Each chunk with few rows set is stored as a sorted array of the lower 16 bits of its rows, while each chunk with many rows set is stored as one bit per row, so both sparse and dense sets stay small.
+ * Used to combine the rows matching different search terms with AND, OR and NOT a chunk at a time rather than a row at a time.
+ * 
+ * @author Drakovek
+ * @version 2.0
+ */
+public class RowBitmap
+{
+	/**
+	 * Number of bits of a row giving its position within a chunk
+	 */
+	private static final int CHUNK_BITS = 16;
+	
+	/**
+	 * Number of rows in a chunk
+	 */
+	private static final int CHUNK_ROWS = 1 << CHUNK_BITS;
+	
+	/**
+	 * Number of longs in a chunk stored as bits
+	 */
+	private static final int CHUNK_WORDS = CHUNK_ROWS >>> 6;
+	
+	/**
+	 * Largest number of rows a chunk stored as an array may hold. Past this, bits take less memory than the array
+	 */
+	private static final int ARRAY_LIMIT = CHUNK_WORDS * 4;
+	
+	/**
+	 * Number of rows the bitmap covers
+	 */
+	private int size;
+	
+	/**
+	 * Sorted lower 16 bits of the rows of each chunk stored as an array, null for other chunks
+	 */
+	private char[][] arrays;
+	
+	/**
+	 * Bits of each chunk stored as bits, null for other chunks
+	 */
+	private long[][] bitmaps;
+	
+	/**
+	 * Number of rows set in each chunk. Chunks with no rows set have no array or bits
+	 */
+	private int[] counts;
+	
+	/**
+	 * Initializes the RowBitmap class with no rows set.
+	 * 
+	 * @param size Number of rows the bitmap covers
+	 */
+	public RowBitmap(final int size)
+	{
+		this.size = size;
+		int chunks = (size + CHUNK_ROWS - 1) >>> CHUNK_BITS;
+		arrays = new char[chunks][];
+		bitmaps = new long[chunks][];
+		counts = new int[chunks];
+		
+	}//CONSTRUCTOR
+	
+	/**
+	 * Initializes the RowBitmap class with the rows from a list set.
+	 * 
+	 * @param size Number of rows the bitmap covers
+	 * @param rows Rows to set, quickest to add in ascending order
+	 */
+	public RowBitmap(final int size, final int[] rows)
+	{
+		this(size);
+		set(rows);
+		
+	}//CONSTRUCTOR
+	
+	/**
+	 * Returns a copy of the bitmap.
+	 * 
+	 * @return Copy of the bitmap
+	 */
+	public RowBitmap copy()
+	{
+		RowBitmap copy = new RowBitmap(size);
+		for(int chunk = 0; chunk < counts.length; chunk++)
+		{
+			if(arrays[chunk] != null)
+			{
+				copy.arrays[chunk] = Arrays.copyOf(arrays[chunk], counts[chunk]);
+				
+			}//IF
+			else if(bitmaps[chunk] != null)
+			{
+				copy.bitmaps[chunk] = bitmaps[chunk].clone();
+				
+			}//ELSE IF
+			
+		}//FOR
+		
+		copy.counts = counts.clone();
+		return copy;
+		
+	}//METHOD
+	
+	/**
+	 * Returns the number of rows the bitmap covers.
+	 * 
+	 * @return Number of rows
+	 */
+	public int getSize()
+	{
+		return size;
+		
+	}//METHOD
+	
+	/**
+	 * Returns roughly how many bytes of memory the chunks of the bitmap take up.
+	 * 
+	 * @return Size in bytes
+	 */
+	public long getByteSize()
+	{
+		long bytes = counts.length * 16L;
+		for(int chunk = 0; chunk < counts.length; chunk++)
+		{
+			if(arrays[chunk] != null)
+			{
+				bytes += arrays[chunk].length * 2L;
+				
+			}//IF
+			else if(bitmaps[chunk] != null)
+			{
+				bytes += CHUNK_WORDS * 8L;
+				
+			}//ELSE IF
+			
+		}//FOR
+		
+		return bytes;
+		
+	}//METHOD
+	
+	/**
+	 * Sets a given row.
+	 * 
+	 * @param row Given Row
+	 */
+	public void set(final int row)
+	{
+		int chunk = row >>> CHUNK_BITS;
+		if(bitmaps[chunk] != null)
+		{
+			long bit = 1L << row;
+			int word = (row >>> 6) & (CHUNK_WORDS - 1);
+			if((bitmaps[chunk][word] & bit) == 0L)
+			{
+				bitmaps[chunk][word] |= bit;
+				counts[chunk]++;
+				
+			}//IF
+			
+			return;
+			
+		}//IF
+		
+		char low = (char)row;
+		int count = counts[chunk];
+		char[] array = arrays[chunk];
+		if(array == null)
+		{
+			array = new char[4];
+			arrays[chunk] = array;
+			
+		}//IF
+		
+		//ROWS ARE USUALLY SET IN ASCENDING ORDER, SO CHECK THE END FIRST
+		int position;
+		if(count == 0 || array[count - 1] < low)
+		{
+			position = count;
+			
+		}//IF
+		else
+		{
+			position = Arrays.binarySearch(array, 0, count, low);
+			if(position >= 0)
+			{
+				return;
+				
+			}//IF
+			
+			position = -(position + 1);
+			
+		}//ELSE
+		
+		if(count == ARRAY_LIMIT)
+		{
+			long[] words = getWords(array, count);
+			words[(row >>> 6) & (CHUNK_WORDS - 1)] |= 1L << row;
+			arrays[chunk] = null;
+			bitmaps[chunk] = words;
+			counts[chunk]++;
+			return;
+			
+		}//IF
+		
+		if(count == array.length)
+		{
+			array = Arrays.copyOf(array, Math.min(count * 2, ARRAY_LIMIT));
+			arrays[chunk] = array;
+			
+		}//IF
+		
+		System.arraycopy(array, position, array, position + 1, count - position);
+		array[position] = low;
+		counts[chunk]++;
+		
+	}//METHOD
+	
+	/**
+	 * Sets all the given rows.
+	 * 
+	 * @param rows Given Rows, quickest to add in ascending order
+	 */
+	public void set(final int[] rows)
+	{
+		for(int i = 0; i < rows.length; i++)
+		{
+			set(rows[i]);
+			
+		}//FOR
+		
+	}//METHOD
+	
+	/**
+	 * Sets every row the bitmap covers.
+	 */
+	public void setAll()
+	{
+		for(int chunk = 0; chunk < counts.length; chunk++)
+		{
+			setWords(chunk, getFullWords(chunk));
+			
+		}//FOR
+		
+	}//METHOD
+	
+	/**
+	 * Returns whether a given row is set.
+	 * 
+	 * @param row Given Row
+	 * @return Whether the row is set
+	 */
+	public boolean get(final int row)
+	{
+		int chunk = row >>> CHUNK_BITS;
+		if(bitmaps[chunk] != null)
+		{
+			return (bitmaps[chunk][(row >>> 6) & (CHUNK_WORDS - 1)] & (1L << row)) != 0L;
+			
+		}//IF
+		
+		return arrays[chunk] != null && Arrays.binarySearch(arrays[chunk], 0, counts[chunk], (char)row) >= 0;
+		
+	}//METHOD
+	
+	/**
+	 * Keeps only the rows also set in another bitmap.
+	 * 
+	 * @param bitmap Other Bitmap
+	 */
+	public void and(final RowBitmap bitmap)
+	{
+		for(int chunk = 0; chunk < counts.length; chunk++)
+		{
+			if(counts[chunk] == 0)
+			{
+				continue;
+				
+			}//IF
+			
+			if(chunk >= bitmap.counts.length || bitmap.counts[chunk] == 0)
+			{
+				clearChunk(chunk);
+				
+			}//IF
+			else if(arrays[chunk] != null)
+			{
+				//KEEP ARRAY ROWS SET IN THE OTHER CHUNK
+				char[] array = arrays[chunk];
+				int count = 0;
+				for(int i = 0; i < counts[chunk]; i++)
+				{
+					if(bitmap.contains(chunk, array[i]))
+					{
+						array[count] = array[i];
+						count++;
+						
+					}//IF
+					
+				}//FOR
+				
+				setArray(chunk, array, count);
+				
+			}//ELSE IF
+			else if(bitmap.arrays[chunk] != null)
+			{
+				//KEEP OTHER ARRAY ROWS SET IN THIS CHUNK
+				char[] otherArray = bitmap.arrays[chunk];
+				char[] array = new char[bitmap.counts[chunk]];
+				int count = 0;
+				for(int i = 0; i < array.length; i++)
+				{
+					if(contains(chunk, otherArray[i]))
+					{
+						array[count] = otherArray[i];
+						count++;
+						
+					}//IF
+					
+				}//FOR
+				
+				bitmaps[chunk] = null;
+				setArray(chunk, array, count);
+				
+			}//ELSE IF
+			else
+			{
+				long[] words = bitmaps[chunk];
+				long[] otherWords = bitmap.bitmaps[chunk];
+				for(int i = 0; i < CHUNK_WORDS; i++)
+				{
+					words[i] &= otherWords[i];
+					
+				}//FOR
+				
+				setWords(chunk, words);
+				
+			}//ELSE
+			
+		}//FOR
+		
+	}//METHOD
+	
+	/**
+	 * Adds the rows set in another bitmap.
+	 * 
+	 * @param bitmap Other Bitmap
+	 */
+	public void or(final RowBitmap bitmap)
+	{
+		int chunks = Math.min(counts.length, bitmap.counts.length);
+		for(int chunk = 0; chunk < chunks; chunk++)
+		{
+			if(bitmap.counts[chunk] == 0)
+			{
+				continue;
+				
+			}//IF
+			
+			if(counts[chunk] == 0)
+			{
+				//COPY THE OTHER CHUNK
+				if(bitmap.arrays[chunk] != null)
+				{
+					arrays[chunk] = Arrays.copyOf(bitmap.arrays[chunk], bitmap.counts[chunk]);
+					
+				}//IF
+				else
+				{
+					bitmaps[chunk] = bitmap.bitmaps[chunk].clone();
+					
+				}//ELSE
+				
+				counts[chunk] = bitmap.counts[chunk];
+				
+			}//IF
+			else if(arrays[chunk] != null && bitmap.arrays[chunk] != null)
+			{
+				orArrays(chunk, bitmap.arrays[chunk], bitmap.counts[chunk]);
+				
+			}//ELSE IF
+			else
+			{
+				long[] words = getChunkWords(chunk);
+				bitmap.orInto(chunk, words);
+				setWords(chunk, words);
+				
+			}//ELSE
+			
+		}//FOR
+		
+		if(bitmap.size > size)
+		{
+			clearTail();
+			
+		}//IF
+		
+	}//METHOD
+	
+	/**
+	 * Removes the rows set in another bitmap.
+	 * 
+	 * @param bitmap Other Bitmap
+	 */
+	public void andNot(final RowBitmap bitmap)
+	{
+		int chunks = Math.min(counts.length, bitmap.counts.length);
+		for(int chunk = 0; chunk < chunks; chunk++)
+		{
+			if(counts[chunk] == 0 || bitmap.counts[chunk] == 0)
+			{
+				continue;
+				
+			}//IF
+			
+			if(arrays[chunk] != null)
+			{
+				//KEEP ARRAY ROWS NOT SET IN THE OTHER CHUNK
+				char[] array = arrays[chunk];
+				int count = 0;
+				for(int i = 0; i < counts[chunk]; i++)
+				{
+					if(!bitmap.contains(chunk, array[i]))
+					{
+						array[count] = array[i];
+						count++;
+						
+					}//IF
+					
+				}//FOR
+				
+				setArray(chunk, array, count);
+				
+			}//IF
+			else
+			{
+				long[] words = bitmaps[chunk];
+				long[] otherWords = bitmap.getChunkWords(chunk);
+				for(int i = 0; i < CHUNK_WORDS; i++)
+				{
+					words[i] &= ~otherWords[i];
+					
+				}//FOR
+				
+				setWords(chunk, words);
+				
+			}//ELSE
+			
+		}//FOR
+		
+	}//METHOD
+	
+	/**
+	 * Inverts every row the bitmap covers.
+	 */
+	public void not()
+	{
+		for(int chunk = 0; chunk < counts.length; chunk++)
+		{
+			long[] words = getFullWords(chunk);
+			if(bitmaps[chunk] != null)
+			{
+				long[] oldWords = bitmaps[chunk];
+				for(int i = 0; i < CHUNK_WORDS; i++)
+				{
+					words[i] &= ~oldWords[i];
+					
+				}//FOR
+				
+			}//IF
+			else if(arrays[chunk] != null)
+			{
+				char[] array = arrays[chunk];
+				for(int i = 0; i < counts[chunk]; i++)
+				{
+					words[array[i] >>> 6] &= ~(1L << array[i]);
+					
+				}//FOR
+				
+			}//ELSE IF
+			
+			setWords(chunk, words);
+			
+		}//FOR
+		
+	}//METHOD
+	
+	/**
+	 * Returns the number of rows set.
+	 * 
+	 * @return Number of rows set
+	 */
+	public int cardinality()
+	{
+		int count = 0;
+		for(int chunk = 0; chunk < counts.length; chunk++)
+		{
+			count += counts[chunk];
+			
+		}//FOR
+		
+		return count;
+		
+	}//METHOD
+	
+	/**
+	 * Returns the first row set at or after a given row.
+	 * 
+	 * @param row Row to start from
+	 * @return First set row, -1 if there are none
+	 */
+	public int nextSetRow(final int row)
+	{
+		if(row >= size)
+		{
+			return -1;
+			
+		}//IF
+		
+		int low = row & (CHUNK_ROWS - 1);
+		for(int chunk = row >>> CHUNK_BITS; chunk < counts.length; chunk++)
+		{
+			int start = chunk << CHUNK_BITS;
+			if(arrays[chunk] != null)
+			{
+				int position = Arrays.binarySearch(arrays[chunk], 0, counts[chunk], (char)low);
+				if(position < 0)
+				{
+					position = -(position + 1);
+					
+				}//IF
+				
+				if(position < counts[chunk])
+				{
+					return start + arrays[chunk][position];
+					
+				}//IF
+				
+			}//IF
+			else if(bitmaps[chunk] != null)
+			{
+				long[] words = bitmaps[chunk];
+				int index = low >>> 6;
+				long word = words[index] & (-1L << low);
+				while(word == 0L && index < CHUNK_WORDS - 1)
+				{
+					index++;
+					word = words[index];
+					
+				}//WHILE
+				
+				if(word != 0L)
+				{
+					return start + (index << 6) + Long.numberOfTrailingZeros(word);
+					
+				}//IF
+				
+			}//ELSE IF
+			
+			low = 0;
+			
+		}//FOR
+		
+		return -1;
+		
+	}//METHOD
+	
+	/**
+	 * Returns every row set, in ascending order.
+	 * 
+	 * @return Set Rows
+	 */
+	public int[] toArray()
+	{
+		int[] rows = new int[cardinality()];
+		int position = 0;
+		for(int chunk = 0; chunk < counts.length; chunk++)
+		{
+			int start = chunk << CHUNK_BITS;
+			if(arrays[chunk] != null)
+			{
+				char[] array = arrays[chunk];
+				for(int i = 0; i < counts[chunk]; i++)
+				{
+					rows[position] = start + array[i];
+					position++;
+					
+				}//FOR
+				
+			}//IF
+			else if(bitmaps[chunk] != null)
+			{
+				long[] words = bitmaps[chunk];
+				for(int i = 0; i < CHUNK_WORDS; i++)
+				{
+					long word = words[i];
+					while(word != 0L)
+					{
+						rows[position] = start + (i << 6) + Long.numberOfTrailingZeros(word);
+						position++;
+						word &= word - 1L;
+						
+					}//WHILE
+					
+				}//FOR
+				
+			}//ELSE IF
+			
+		}//FOR
+		
+		return rows;
+		
+	}//METHOD
+	
+	/**
+	 * Returns whether a row is set in a given chunk.
+	 * 
+	 * @param chunk Chunk Number
+	 * @param low Lower 16 bits of the row
+	 * @return Whether the row is set
+	 */
+	private boolean contains(final int chunk, final char low)
+	{
+		if(bitmaps[chunk] != null)
+		{
+			return (bitmaps[chunk][low >>> 6] & (1L << low)) != 0L;
+			
+		}//IF
+		
+		return arrays[chunk] != null && Arrays.binarySearch(arrays[chunk], 0, counts[chunk], low) >= 0;
+		
+	}//METHOD
+	
+	/**
+	 * Adds the rows of a given chunk to bits of the same chunk.
+	 * 
+	 * @param chunk Chunk Number
+	 * @param words Bits to add rows to
+	 */
+	private void orInto(final int chunk, long[] words)
+	{
+		if(bitmaps[chunk] != null)
+		{
+			long[] chunkWords = bitmaps[chunk];
+			for(int i = 0; i < CHUNK_WORDS; i++)
+			{
+				words[i] |= chunkWords[i];
+				
+			}//FOR
+			
+		}//IF
+		else if(arrays[chunk] != null)
+		{
+			char[] array = arrays[chunk];
+			for(int i = 0; i < counts[chunk]; i++)
+			{
+				words[array[i] >>> 6] |= 1L << array[i];
+				
+			}//FOR
+			
+		}//ELSE IF
+		
+	}//METHOD
+	
+	/**
+	 * Merges a sorted array of rows into a given chunk stored as an array.
+	 * 
+	 * @param chunk Chunk Number
+	 * @param otherArray Sorted lower 16 bits of the rows to add
+	 * @param otherCount Number of rows to add
+	 */
+	private void orArrays(final int chunk, final char[] otherArray, final int otherCount)
+	{
+		char[] array = arrays[chunk];
+		int count = counts[chunk];
+		char[] merged = new char[count + otherCount];
+		int mergedCount = 0;
+		int a = 0;
+		int b = 0;
+		while(a < count || b < otherCount)
+		{
+			if(b == otherCount || (a < count && array[a] < otherArray[b]))
+			{
+				merged[mergedCount] = array[a];
+				a++;
+				
+			}//IF
+			else
+			{
+				if(a < count && array[a] == otherArray[b])
+				{
+					a++;
+					
+				}//IF
+				
+				merged[mergedCount] = otherArray[b];
+				b++;
+				
+			}//ELSE
+			
+			mergedCount++;
+			
+		}//WHILE
+		
+		if(mergedCount > ARRAY_LIMIT)
+		{
+			arrays[chunk] = null;
+			bitmaps[chunk] = getWords(merged, mergedCount);
+			counts[chunk] = mergedCount;
+			
+		}//IF
+		else
+		{
+			setArray(chunk, merged, mergedCount);
+			
+		}//ELSE
+		
+	}//METHOD
+	
+	/**
+	 * Returns the rows of a given chunk as bits, which may be the chunk's own bits.
+	 * 
+	 * @param chunk Chunk Number
+	 * @return Bits of the chunk
+	 */
+	private long[] getChunkWords(final int chunk)
+	{
+		if(bitmaps[chunk] != null)
+		{
+			return bitmaps[chunk];
+			
+		}//IF
+		
+		long[] words = new long[CHUNK_WORDS];
+		orInto(chunk, words);
+		return words;
+		
+	}//METHOD
+	
+	/**
+	 * Returns bits with every row of a given chunk the bitmap covers set.
+	 * 
+	 * @param chunk Chunk Number
+	 * @return Bits of the full chunk
+	 */
+	private long[] getFullWords(final int chunk)
+	{
+		long[] words = new long[CHUNK_WORDS];
+		int rows = Math.min(CHUNK_ROWS, size - (chunk << CHUNK_BITS));
+		Arrays.fill(words, 0, rows >>> 6, -1L);
+		if((rows & 63) != 0)
+		{
+			words[rows >>> 6] = (1L << rows) - 1L;
+			
+		}//IF
+		
+		return words;
+		
+	}//METHOD
+	
+	/**
+	 * Returns the bits of a sorted array of rows.
+	 * 
+	 * @param array Sorted lower 16 bits of rows
+	 * @param count Number of rows
+	 * @return Bits of the rows
+	 */
+	private static long[] getWords(final char[] array, final int count)
+	{
+		long[] words = new long[CHUNK_WORDS];
+		for(int i = 0; i < count; i++)
+		{
+			words[array[i] >>> 6] |= 1L << array[i];
+			
+		}//FOR
+		
+		return words;
+		
+	}//METHOD
+	
+	/**
+	 * Stores given bits as a chunk, converting them to an array if few enough rows are set.
+	 * 
+	 * @param chunk Chunk Number
+	 * @param words Bits of the chunk
+	 */
+	private void setWords(final int chunk, final long[] words)
+	{
+		int count = 0;
+		for(int i = 0; i < CHUNK_WORDS; i++)
+		{
+			count += Long.bitCount(words[i]);
+			
+		}//FOR
+		
+		if(count > ARRAY_LIMIT)
+		{
+			arrays[chunk] = null;
+			bitmaps[chunk] = words;
+			counts[chunk] = count;
+			return;
+			
+		}//IF
+		
+		char[] array = new char[count];
+		int position = 0;
+		for(int i = 0; i < CHUNK_WORDS; i++)
+		{
+			long word = words[i];
+			while(word != 0L)
+			{
+				array[position] = (char)((i << 6) + Long.numberOfTrailingZeros(word));
+				position++;
+				word &= word - 1L;
+				
+			}//WHILE
+			
+		}//FOR
+		
+		bitmaps[chunk] = null;
+		setArray(chunk, array, count);
+		
+	}//METHOD
+	
+	/**
+	 * Stores a sorted array of rows as a chunk.
+	 * 
+	 * @param chunk Chunk Number
+	 * @param array Sorted lower 16 bits of the rows of the chunk
+	 * @param count Number of rows, no more than ARRAY_LIMIT
+	 */
+	private void setArray(final int chunk, final char[] array, final int count)
+	{
+		if(count == 0)
+		{
+			clearChunk(chunk);
+			
+		}//IF
+		else
+		{
+			arrays[chunk] = array;
+			counts[chunk] = count;
+			
+		}//ELSE
+		
+	}//METHOD
+	
+	/**
+	 * Clears every row of a given chunk.
+	 * 
+	 * @param chunk Chunk Number
+	 */
+	private void clearChunk(final int chunk)
+	{
+		arrays[chunk] = null;
+		bitmaps[chunk] = null;
+		counts[chunk] = 0;
+		
+	}//METHOD
+	
+	/**
+	 * Clears the rows of the last chunk past the size of the bitmap.
+	 */
+	private void clearTail()
+	{
+		int chunk = counts.length - 1;
+		if(chunk < 0 || counts[chunk] == 0)
+		{
+			return;
+			
+		}//IF
+		
+		long[] words = getFullWords(chunk);
+		long[] chunkWords = getChunkWords(chunk);
+		for(int i = 0; i < CHUNK_WORDS; i++)
+		{
+			words[i] &= chunkWords[i];
+			
+		}//FOR
+		
+		setWords(chunk, words);
+		
+	}//METHOD
+	
+}//CLASS
@@ -1,15 +1,39 @@
 package drakovek.hoarder.processing.sort;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
- * Contains methods relating to alpha-numeric sorting.
+ * Contains methods relating to alpha-numeric sorting.<br/>
+ * Strings are compared using collation keys, built in a single pass over a String so they can be compared byte by byte without any further processing.
+ * A key is a sequence of two-byte units: each character is stored lower case, while each run of digits is stored as a marker in the position of the character '0', the length of its integer part without leading zeros, its integer digits, and if present a fraction marker followed by its fraction digits without trailing zeros.
+ * Numbers therefore compare by value, and a number with a fraction compares after the same whole number followed by anything else.
  * 
  * @author Drakovek
  * @version 2.0
  */
 public class AlphaNumSort
 {
+	/**
+	 * Offset added to characters so the values below them are free for markers
+	 */
+	private static final int CHARACTER_OFFSET = 2;
+	
+	/**
+	 * Largest unit value a character may be stored as, keeping the largest value free for the fraction marker
+	 */
+	private static final int MAX_CHARACTER = 0xFFFE;
+	
+	/**
+	 * Unit marking the start of a run of digits, in the position the character '0' would be stored at
+	 */
+	private static final int NUMBER_MARKER = '0' + CHARACTER_OFFSET;
+	
+	/**
+	 * Unit marking the start of the fraction digits of a number
+	 */
+	private static final int FRACTION_MARKER = 0xFFFF;
+	
 	/**
 	 * Sorts a given ArrayList<String> alpha-numerically.
 	 * 
@@ -24,206 +48,191 @@ public class AlphaNumSort
 			
 		}//IF
 		
-		//split initialArrayList
-		int half = inputList.size() / 2;
-		ArrayList<String> aList = new ArrayList<>();
-		ArrayList<String> bList = new ArrayList<>();
+		int size = inputList.size();
+		final byte[][] keys = new byte[size][];
+		int[] order = new int[size];
+		for(int i = 0; i < size; i++)
+		{
+			keys[i] = getKey(inputList.get(i));
+			order[i] = i;
+			
+		}//FOR
 		
-		for(int i = 0; i < half; i++)
+		IndexSort.sort(order, new IndexComparator()
 		{
-			aList.add(inputList.get(i));
+			@Override
+			public int compare(final int indexA, final int indexB)
+			{
+				return compareKeys(keys[indexA], keys[indexB]);
+				
+			}//METHOD
+			
+		});
 		
+		ArrayList<String> finalArrayList = new ArrayList<>(size);
+		for(int i = 0; i < size; i++)
+		{
+			finalArrayList.add(inputList.get(order[i]));
+			
 		}//FOR
 		
-		for(int i = half; i < inputList.size(); i++)
-		{
-			bList.add(inputList.get(i));
+		return finalArrayList;
+		
+	}//METHOD
+	
+	/**
+	 * Compares two Strings alpha-numerically. When comparing many Strings, the Strings' collation keys should be built once and compared with compareKeys instead.
+	 * 
+	 * @param aString First String
+	 * @param bString Second String
+	 * @return Compare int (int < 0: aString is first, int > 0 bString is first)
+	 */
+	public static int compareAlpha(final String aString, final String bString)
+	{
+		return compareKeys(getKey(aString), getKey(bString));
 		
+	}//METHOD
+	
+	/**
+	 * Compares two collation keys byte by byte.
+	 * 
+	 * @param aKey First Key
+	 * @param bKey Second Key
+	 * @return Compare int (int < 0: aKey is first, int > 0 bKey is first)
+	 */
+	public static int compareKeys(final byte[] aKey, final byte[] bKey)
+	{
+		int length = Math.min(aKey.length, bKey.length);
+		for(int i = 0; i < length; i++)
+		{
+			if(aKey[i] != bKey[i])
+			{
+				return (aKey[i] & 0xFF) - (bKey[i] & 0xFF);
+				
+			}//IF
+			
 		}//FOR
 		
-		//Sort split ArrayLists
-		aList = sort(aList);
-		bList = sort(bList);
+		return aKey.length - bKey.length;
 		
-		//Merge split ArrayLists
-		ArrayList<String> finalArrayList = new ArrayList<>();
+	}//METHOD
+	
+	/**
+	 * Returns the collation key of a given String.
+	 * 
+	 * @param inputString Given String, treated as empty if null
+	 * @return Collation Key
+	 */
+	public static byte[] getKey(final String inputString)
+	{
+		if(inputString == null || inputString.length() == 0)
+		{
+			return new byte[0];
+			
+		}//IF
 		
-		while(aList.size() > 0 && bList.size() > 0)
+		//EACH CHARACTER TAKES AT MOST THREE UNITS, WHEN IT IS A SINGLE DIGIT NUMBER
+		int length = inputString.length();
+		byte[] key = new byte[length * 6];
+		int position = 0;
+		int charNum = 0;
+		while(charNum < length)
 		{
-			if(compareAlpha(aList.get(0), bList.get(0)) < 0)
+			char inputChar = inputString.charAt(charNum);
+			if(!isNumber(inputChar))
 			{
-				finalArrayList.add(aList.get(0));
-				aList.remove(0);
+				position = putUnit(key, position, Math.min(Character.toLowerCase(inputChar) + CHARACTER_OFFSET, MAX_CHARACTER));
+				charNum++;
+				continue;
 				
 			}//IF
-			else
+			
+			//FIND INTEGER DIGITS, SKIPPING LEADING ZEROS
+			int start = charNum;
+			while(charNum < length && isNumber(inputString.charAt(charNum)))
 			{
-				finalArrayList.add(bList.get(0));
-				bList.remove(0);
+				charNum++;
+				
+			}//WHILE
 			
-			}//ELSE
+			int end = charNum;
+			while(start < end && inputString.charAt(start) == '0')
+			{
+				start++;
+				
+			}//WHILE
+			
+			position = putUnit(key, position, NUMBER_MARKER);
+			position = putUnit(key, position, end - start);
+			for(int i = start; i < end; i++)
+			{
+				position = putUnit(key, position, inputString.charAt(i));
+				
+			}//FOR
+			
+			//FIND FRACTION DIGITS, SKIPPING TRAILING ZEROS
+			if(charNum < length - 1 && inputString.charAt(charNum) == '.' && isNumber(inputString.charAt(charNum + 1)))
+			{
+				start = charNum + 1;
+				charNum = start;
+				while(charNum < length && isNumber(inputString.charAt(charNum)))
+				{
+					charNum++;
+					
+				}//WHILE
+				
+				end = charNum;
+				while(end > start && inputString.charAt(end - 1) == '0')
+				{
+					end--;
+					
+				}//WHILE
+				
+				if(end > start)
+				{
+					position = putUnit(key, position, FRACTION_MARKER);
+					for(int i = start; i < end; i++)
+					{
+						position = putUnit(key, position, inputString.charAt(i));
+						
+					}//FOR
+					
+				}//IF
+				
+			}//IF
 			
 		}//WHILE
 		
-		finalArrayList.addAll(aList);
-		finalArrayList.addAll(bList);
+		return Arrays.copyOf(key, position);
 		
-		return finalArrayList;
+	}//METHOD
+	
+	/**
+	 * Stores a two-byte unit in a collation key.
+	 * 
+	 * @param key Collation Key
+	 * @param position Position at which to store the unit
+	 * @param unit Unit to store
+	 * @return Position after the stored unit
+	 */
+	private static int putUnit(byte[] key, final int position, final int unit)
+	{
+		key[position] = (byte)(unit >> 8);
+		key[position + 1] = (byte)unit;
+		return position + 2;
 		
 	}//METHOD
 	
 	/**
-	 * Compares two Strings alpha-numerically.
-	 *  
-	 * @param aString First String
-	 * @param bString Second String
-	 * @return Compare int (int < 0: aString is first, int > 0 bString is first)
+	 * Determines if a given character is a number (0 - 9)
+	 * 
+	 * @param inputChar Input char
+	 * @return true if input char is a number, false if not
 	 */
-    public static int compareAlpha(final String aString, final String bString)
-    {
-        int aLength = aString.length();
-        int bLength = bString.length();
-        int aNum = 0;
-        int bNum = 0;
-        int compareValue = 0;
-        String sectionA;
-        String sectionB;
-
-        while(compareValue == 0 && aNum < aLength && bNum < bLength)
-        {
-            sectionA = getSection(aString, aNum).toLowerCase();
-            aNum = aNum + sectionA.length();
-            sectionB = getSection(bString, bNum).toLowerCase();
-            bNum = bNum + sectionB.length();
-
-            if(isNumber(sectionA) && isNumber(sectionB))
-            {
-            	double aValue = Double.parseDouble(sectionA);
-                double bValue = Double.parseDouble(sectionB);
-            	
-                if(aValue > bValue)
-                {
-                    compareValue = 1;
-
-                }//IF
-                else if(aValue < bValue)
-                {
-                    compareValue = -1;
-
-                }//ELSE IF
-
-            }//IF
-            else
-            {
-                compareValue = sectionA.compareTo(sectionB);
-                
-            }//ELSE
-
-        }//WHILE
-
-        if(compareValue == 0)
-        {
-            if(aLength > bLength)
-            {
-                compareValue = 1;
-
-            }//IF
-            else if(bLength > aLength)
-            {
-                compareValue = -1;
-
-            }//ELSE
-
-        }//IF
-
-        return compareValue;
-        
-    }//METHOD
-    
-    /**
-     * Returns a section containing either only characters or only a number value.
-     * 
-     * @param inputString Input String
-     * @param firstCharPos Position of the first character of the section
-     * @return Section containing either only characters or only a number value
-     */
-    private static String getSection(final String inputString, final int firstCharPos)
-    {
-    	int stringLength = inputString.length();
-    	
-    	if(firstCharPos < stringLength)
-    	{
-    		String outputString = new String();
-    		boolean isNumber = isNumber(inputString.charAt(firstCharPos));
-    		
-    		for(int charNum = firstCharPos; charNum < stringLength; charNum++)
-    		{
-    			if(isNumber)
-    			{
-    				if( (isNumber(inputString.charAt(charNum))) || (charNum < stringLength - 1 && inputString.charAt(charNum) == '.' && isNumber(inputString.charAt(charNum + 1))) )
-    				{
-    					outputString = outputString + inputString.charAt(charNum);
-    					
-    				}//IF
-    				else
-    				{
-    					break;
-    					
-    				}//ELSE
-    				
-    			}//IF
-    			else
-    			{
-    				if(isNumber(inputString.charAt(charNum)))
-    				{
-    					break;
-    					
-    				}//IF
-    				
-    				outputString = outputString + inputString.charAt(charNum);
-    				
-    			}//ELSE
-    			
-    		}//FOR
-    		
-    		return outputString;
-    		
-    	}//IF
-    	
-    	return new String();
-    	
-    }//METHOD
-    
-    /**
-     * Determines if a given character is a number (0 - 9)
-     * 
-     * @param inputChar Input char
-     * @return true if input char is a number, false if not
-     */
-    private static boolean isNumber(final char inputChar)
-    {
-    	return (inputChar > 47 && inputChar < 58);
-    	
-    }//METHOD
-    
-    /**
-     * Determines if a given string is valid as a double value.
-     * 
-     * @param inputString Given String
-     * @return Whether String is a number
-     */
-    private static boolean isNumber(final String inputString)
-    {
-    	try
-    	{
-    		Double.parseDouble(inputString);
-    		return true;
-    		
-    	}//TRY
-    	catch(Exception e){}
-    	
-    	return false;
-    	
-    }//METHOD
-    
+	private static boolean isNumber(final char inputChar)
+	{
+		return (inputChar > 47 && inputChar < 58);
+		
+	}//METHOD
+	
 }//CLASS
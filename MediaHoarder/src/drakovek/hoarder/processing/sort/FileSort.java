@@ -53,7 +53,8 @@ public class FileSort
 	}//METHOD
    	
 	/**
-	 * Sorts an ArrayList<File> alpha-numerically based on filenames.
+	 * Sorts an ArrayList<File> alpha-numerically based on filenames, with directories first.<br/>
+	 * Whether each file is a directory and the collation key of its name are found once before sorting.
 	 * 
 	 * @param inputList Starting ArrayList<File>
 	 * @return Sorted ArrayList<File>
@@ -66,83 +67,51 @@ public class FileSort
 			
 		}//IF
 		
-		//split initialArrayList
-		int half = inputList.size() / 2;
-		ArrayList<File> aList = new ArrayList<>();
-		ArrayList<File> bList = new ArrayList<>();
-		
-		for(int i = 0; i < half; i++)
+		int size = inputList.size();
+		final boolean[] directories = new boolean[size];
+		final byte[][] keys = new byte[size][];
+		int[] order = new int[size];
+		for(int i = 0; i < size; i++)
 		{
-			aList.add(inputList.get(i));
-		
+			directories[i] = inputList.get(i).isDirectory();
+			keys[i] = AlphaNumSort.getKey(inputList.get(i).getName());
+			order[i] = i;
+			
 		}//FOR
 		
-		for(int i = half; i < inputList.size(); i++)
+		IndexSort.sort(order, new IndexComparator()
 		{
-			bList.add(inputList.get(i));
-		
-		}//FOR
-		
-		//Sort split ArrayLists
-		aList = sortFiles(aList);
-		bList = sortFiles(bList);
-		
-		//Merge split ArrayLists
-		ArrayList<File> finalArrayList = new ArrayList<>();
+			@Override
+			public int compare(final int indexA, final int indexB)
+			{
+				if(directories[indexA] != directories[indexB])
+				{
+					if(directories[indexA])
+					{
+						return -1;
+						
+					}//IF
+					
+					return 1;
+					
+				}//IF
+				
+				return AlphaNumSort.compareKeys(keys[indexA], keys[indexB]);
+				
+			}//METHOD
+			
+		});
 		
-		while(aList.size() > 0 && bList.size() > 0)
+		ArrayList<File> finalArrayList = new ArrayList<>(size);
+		for(int i = 0; i < size; i++)
 		{
-			if(compareFiles(aList.get(0), bList.get(0)) < 0)
-            {
-                finalArrayList.add(aList.get(0));
-                aList.remove(0);
-            }//IF
-            else
-            {
-                finalArrayList.add(bList.get(0));
-                bList.remove(0);
-            }//ELSE
+			finalArrayList.add(inputList.get(order[i]));
 			
-		}//WHILE
-		
-		finalArrayList.addAll(aList);
-		finalArrayList.addAll(bList);
+		}//FOR
 		
 		return finalArrayList;
 		
 	}//METHOD
    	
-   	/**
-   	 * Compares two files.
-   	 * 
-   	 * @param aFile 1st file
-   	 * @param bFile 2nd file
-   	 * @return return int
-   	 */
-   	private static int compareFiles(File aFile, File bFile)
-   	{
-   		int result = 0;
-   		
-   		if(aFile.isDirectory() && !bFile.isDirectory())
-   		{
-   			result = -1;
-   			
-   		}//IF
-   		else if(bFile.isDirectory() && !aFile.isDirectory())
-   		{
-   			result = 1;
-   			
-   		}//ELSE IF
-   		
-   		if(result == 0)
-   		{
-   			result = AlphaNumSort.compareAlpha(aFile.getName(), bFile.getName());
-   			
-   		}//IF
-   		
-   		return result;
-   		
-   	}//METHOD
-   	
 }//CLASS
 
@@ -0,0 +1,20 @@
+package drakovek.hoarder.processing.sort;
+
+/**
+ * Comparison of two items identified by their int indexes, used by IndexSort.
+ * 
+ * @author Drakovek
+ * @version 2.0
+ */
+public interface IndexComparator
+{
+	/**
+	 * Compares the items at two given indexes. Must be safe to call from multiple threads at once.
+	 * 
+	 * @param indexA Index of the first item
+	 * @param indexB Index of the second item
+	 * @return Compare int (int < 0: indexA is first, int > 0 indexB is first)
+	 */
+	public int compare(final int indexA, final int indexB);
+	
+}//CLASS
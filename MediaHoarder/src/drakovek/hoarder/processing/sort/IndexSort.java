@@ -0,0 +1,239 @@
+package drakovek.hoarder.processing.sort;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Contains methods for sorting int arrays of indexes with an IndexComparator.<br/>
+ * Uses a stable merge sort that alternates between the array and a single buffer rather than copying at every level. Large arrays are sorted with their halves sorted in parallel, in the same way as Arrays.parallelSort.
+ * 
+ * @author Drakovek
+ * @version 2.0
+ */
+public class IndexSort
+{
+	/**
+	 * Number of indexes a range must hold before its halves are sorted in parallel
+	 */
+	private static final int PARALLEL_THRESHOLD = 8192;
+	
+	/**
+	 * Number of indexes below which a range is sorted with an insertion sort
+	 */
+	private static final int INSERTION_THRESHOLD = 16;
+	
+	/**
+	 * Sorts an array of indexes in place.
+	 * 
+	 * @param indexes Indexes to sort
+	 * @param comparator Comparator used to compare the items the indexes represent
+	 */
+	public static void sort(int[] indexes, final IndexComparator comparator)
+	{
+		if(indexes.length < 2)
+		{
+			return;
+			
+		}//IF
+		
+		int[] buffer = indexes.clone();
+		if(indexes.length > PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1)
+		{
+			ForkJoinPool.commonPool().invoke(new SortTask(buffer, indexes, 0, indexes.length, comparator));
+			
+		}//IF
+		else
+		{
+			mergeSort(buffer, indexes, 0, indexes.length, comparator);
+			
+		}//ELSE
+		
+	}//METHOD
+	
+	/**
+	 * Reverses an array of indexes in place.
+	 * 
+	 * @param indexes Indexes to reverse
+	 */
+	public static void reverse(int[] indexes)
+	{
+		for(int i = 0, k = indexes.length - 1; i < k; i++, k--)
+		{
+			int index = indexes[i];
+			indexes[i] = indexes[k];
+			indexes[k] = index;
+			
+		}//FOR
+		
+	}//METHOD
+	
+	/**
+	 * Sorts a range of indexes into the destination array. Both arrays must hold the same indexes within the range.
+	 * 
+	 * @param source Array used as scratch space
+	 * @param destination Array to hold the sorted range
+	 * @param start First index of the range
+	 * @param end Index after the last index of the range
+	 * @param comparator Comparator used to compare the items the indexes represent
+	 */
+	private static void mergeSort(int[] source, int[] destination, final int start, final int end, final IndexComparator comparator)
+	{
+		if(end - start < INSERTION_THRESHOLD)
+		{
+			insertionSort(destination, start, end, comparator);
+			return;
+			
+		}//IF
+		
+		int middle = (start + end) >>> 1;
+		mergeSort(destination, source, start, middle, comparator);
+		mergeSort(destination, source, middle, end, comparator);
+		merge(source, destination, start, middle, end, comparator);
+		
+	}//METHOD
+	
+	/**
+	 * Sorts a small range of indexes in place with an insertion sort.
+	 * 
+	 * @param indexes Indexes to sort
+	 * @param start First index of the range
+	 * @param end Index after the last index of the range
+	 * @param comparator Comparator used to compare the items the indexes represent
+	 */
+	private static void insertionSort(int[] indexes, final int start, final int end, final IndexComparator comparator)
+	{
+		for(int i = start + 1; i < end; i++)
+		{
+			int index = indexes[i];
+			int k = i - 1;
+			while(k >= start && comparator.compare(indexes[k], index) > 0)
+			{
+				indexes[k + 1] = indexes[k];
+				k--;
+				
+			}//WHILE
+			
+			indexes[k + 1] = index;
+			
+		}//FOR
+		
+	}//METHOD
+	
+	/**
+	 * Merges two sorted adjacent ranges of the source array into the destination array. Indexes from the first range come first when items are equal.
+	 * 
+	 * @param source Array holding the sorted ranges
+	 * @param destination Array to hold the merged range
+	 * @param start First index of the first range
+	 * @param middle First index of the second range
+	 * @param end Index after the last index of the second range
+	 * @param comparator Comparator used to compare the items the indexes represent
+	 */
+	private static void merge(final int[] source, int[] destination, final int start, final int middle, final int end, final IndexComparator comparator)
+	{
+		//RANGES ALREADY IN ORDER
+		if(comparator.compare(source[middle - 1], source[middle]) <= 0)
+		{
+			System.arraycopy(source, start, destination, start, end - start);
+			return;
+			
+		}//IF
+		
+		int a = start;
+		int b = middle;
+		for(int i = start; i < end; i++)
+		{
+			if(b >= end || (a < middle && comparator.compare(source[a], source[b]) <= 0))
+			{
+				destination[i] = source[a++];
+				
+			}//IF
+			else
+			{
+				destination[i] = source[b++];
+				
+			}//ELSE
+			
+		}//FOR
+		
+	}//METHOD
+	
+	/**
+	 * Fork-join task for sorting a range of indexes, sorting both halves in parallel if the range is large enough.
+	 * 
+	 * @author Drakovek
+	 * @version 2.0
+	 */
+	private static class SortTask extends RecursiveAction
+	{
+		/**
+		 * SerialVersionUID
+		 */
+		private static final long serialVersionUID = -2095746385162513027L;
+		
+		/**
+		 * Array used as scratch space
+		 */
+		private int[] source;
+		
+		/**
+		 * Array to hold the sorted range
+		 */
+		private int[] destination;
+		
+		/**
+		 * First index of the range
+		 */
+		private int start;
+		
+		/**
+		 * Index after the last index of the range
+		 */
+		private int end;
+		
+		/**
+		 * Comparator used to compare the items the indexes represent
+		 */
+		private IndexComparator comparator;
+		
+		/**
+		 * Initializes the SortTask class.
+		 * 
+		 * @param source Array used as scratch space
+		 * @param destination Array to hold the sorted range
+		 * @param start First index of the range
+		 * @param end Index after the last index of the range
+		 * @param comparator Comparator used to compare the items the indexes represent
+		 */
+		public SortTask(int[] source, int[] destination, final int start, final int end, final IndexComparator comparator)
+		{
+			this.source = source;
+			this.destination = destination;
+			this.start = start;
+			this.end = end;
+			this.comparator = comparator;
+			
+		}//CONSTRUCTOR
+		
+		@Override
+		protected void compute()
+		{
+			if(end - start <= PARALLEL_THRESHOLD)
+			{
+				mergeSort(source, destination, start, end, comparator);
+				
+			}//IF
+			else
+			{
+				int middle = (start + end) >>> 1;
+				invokeAll(new SortTask(destination, source, start, middle, comparator),
+						  new SortTask(destination, source, middle, end, comparator));
+				merge(source, destination, start, middle, end, comparator);
+				
+			}//ELSE
+			
+		}//METHOD
+		
+	}//CLASS
+	
+}//CLASS